@@ -0,0 +1,95 @@
+package nars.bench;
+
+import java.util.concurrent.TimeUnit;
+import nars.entity.BudgetValue;
+import nars.entity.Item;
+import nars.storage.Bag;
+import nars.storage.BagType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Bag.putIn and Bag.takeNext on a full bag, the way concepts and links are cycled
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BagBench {
+
+    static class Key extends Item.StringKeyItem {
+        final String key;
+
+        Key(final int i, final float priority) {
+            super(new BudgetValue(priority, priority, priority));
+            this.key = "k" + i;
+        }
+
+        @Override
+        public CharSequence name() {
+            return key;
+        }
+    }
+
+    @Param({"Level", "ConcurrentLevel"})
+    public BagType type;
+
+    @Param({"100", "1000", "10000"})
+    public int capacity;
+
+    @Param({"100"})
+    public int levels;
+
+    Bag<Key,CharSequence> bag;
+    Key[] items;
+    int next;
+
+    @Setup
+    public void setup() {
+        bag = type.newBag(levels, capacity);
+        items = new Key[capacity * 2];
+        for (int i = 0; i < items.length; i++) {
+            items[i] = new Key(i, ((i * 7919) % 1000) / 1000.0f);
+        }
+        for (int i = 0; i < capacity; i++) {
+            bag.putIn(items[i]);
+        }
+        next = capacity;
+    }
+
+    /** takes the next item and puts it back in */
+    @Benchmark
+    public Key takeNextPutIn() {
+        final Key k = bag.takeNext();
+        bag.putIn(k);
+        return k;
+    }
+
+    /** inserts an item, displacing one of the full bag */
+    @Benchmark
+    public void putIn(final Blackhole bh) {
+        bh.consume(bag.putIn(items[next]));
+        if (++next == items.length) {
+            next = 0;
+        }
+    }
+
+    /** takes an item out by key and puts it back in */
+    @Benchmark
+    public Key takeByKeyPutIn() {
+        final Key k = bag.take(items[next].key);
+        if (k != null) {
+            bag.putIn(k);
+        }
+        if (++next == items.length) {
+            next = 0;
+        }
+        return k;
+    }
+}
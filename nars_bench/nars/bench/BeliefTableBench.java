@@ -0,0 +1,115 @@
+package nars.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import nars.entity.BudgetValue;
+import nars.entity.Concept;
+import nars.entity.Sentence;
+import nars.entity.Task;
+import nars.inference.LocalRules;
+import nars.io.Narsese;
+import nars.main.NAR;
+import nars.storage.BeliefTable;
+import static nars.inference.BudgetFunctions.rankBelief;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Adding beliefs to a full table of a concept and selecting the best one for
+ * a question, with a BeliefTable and with the scans of an ArrayList the
+ * concepts used before
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class BeliefTableBench {
+
+    @Param({"28", "256"})
+    public int capacity;
+
+    NAR nar;
+    Task[] beliefs;
+    Task question;
+    Concept concept;
+    List<Task> list;
+    int next;
+
+    @Setup
+    public void setup() throws Exception {
+        nar = new NAR();
+        final Narsese narsese = new Narsese(nar);
+        final Random r = new Random(1);
+        beliefs = new Task[4096];
+        for (int i = 0; i < beliefs.length; i++) {
+            beliefs[i] = narsese.parseTask("<a --> b>. %" + r.nextInt(101) / 100f + ";" + (1 + r.nextInt(98)) / 100f + "%");
+        }
+        question = narsese.parseTask("<a --> b>?");
+        concept = new Concept(new BudgetValue(0.5f, 0.5f, 0.5f), question.getTerm(), nar.memory);
+        list = new ArrayList<>();
+        for (int i = 0; i < beliefs.length; i++) {
+            concept.beliefs.add(beliefs[i], capacity);
+            legacyAdd(beliefs[i], list, capacity);
+        }
+    }
+
+    static Task legacyAdd(final Task newTask, final List<Task> table, final int capacity) {
+        final Sentence newSentence = newTask.sentence;
+        final float rank1 = rankBelief(newSentence, false);
+        int i;
+        for (i = 0; i < table.size(); i++) {
+            final Sentence judgment2 = table.get(i).sentence;
+            if (rank1 >= rankBelief(judgment2, false)) {
+                if (newSentence.truth.equals(judgment2.truth) && newSentence.stamp.equals(judgment2.stamp, false, true, true)) {
+                    return null;
+                }
+                table.add(i, newTask);
+                break;
+            }
+        }
+        if (table.size() > capacity) {
+            return table.remove(table.size() - 1);
+        } else if (table.size() < capacity && i == table.size()) {
+            table.add(newTask);
+        }
+        return null;
+    }
+
+    @Benchmark
+    public Task add() {
+        final BeliefTable table = concept.beliefs;
+        return table.add(beliefs[next++ & (beliefs.length - 1)], capacity);
+    }
+
+    @Benchmark
+    public Task addArrayList() {
+        return legacyAdd(beliefs[next++ & (beliefs.length - 1)], list, capacity);
+    }
+
+    @Benchmark
+    public Task select() {
+        return concept.selectCandidate(question, concept.beliefs);
+    }
+
+    @Benchmark
+    public Task selectArrayList() {
+        float currentBest = 0;
+        Task candidate = null;
+        for (int i = 0; i < list.size(); i++) {
+            final Task t = list.get(i);
+            final float q = LocalRules.solutionQuality(true, question, t.sentence, nar.memory);
+            if (q > currentBest) {
+                currentBest = q;
+                candidate = t;
+            }
+        }
+        return candidate;
+    }
+}
@@ -0,0 +1,72 @@
+package nars.bench;
+
+import java.util.concurrent.TimeUnit;
+import nars.io.events.Events;
+import nars.main.NAR;
+import nars.storage.Memory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * The events a concept firing emits, for 1 task link and 10 term links, when
+ * nobody observes them: through the channels of memory and through memory by
+ * event class; and whole cycles of a reasoner nobody observes, idle and
+ * reasoning. Run with -prof gc to see the bytes allocated per operation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class EventBench {
+
+    Memory memory;
+    NAR idle, reasoning;
+    Object a = new Object(), b = new Object(), c = new Object();
+
+    @Setup
+    public void setup() {
+        memory = new NAR().memory;
+        idle = new NAR();
+        reasoning = new NAR();
+        reasoning.addInput("<a --> b>.");
+        reasoning.addInput("<b --> c>.");
+        reasoning.addInput("<c --> d>.");
+        reasoning.cycles(1000);
+    }
+
+    @Benchmark
+    public void channels() {
+        final Memory m = memory;
+        for (int i = 0; i < 10; i++) {
+            m.emit(m.termLinkSelect, a, b, c);
+            m.emit(m.beliefReason, a, b, c, Boolean.FALSE);
+            m.emit(m.taskDerive, a, Boolean.FALSE, Boolean.TRUE);
+        }
+        m.emit(m.conceptFire, a, b);
+    }
+
+    @Benchmark
+    public void classes() {
+        final Memory m = memory;
+        for (int i = 0; i < 10; i++) {
+            m.emit(Events.TermLinkSelect.class, a, b, c);
+            m.emit(Events.BeliefReason.class, a, b, c, Boolean.FALSE);
+            m.emit(Events.TaskDerive.class, a, Boolean.FALSE, Boolean.TRUE);
+        }
+        m.emit(Events.ConceptFire.class, a, b);
+    }
+
+    @Benchmark
+    public void idleCycle() {
+        idle.memory.cycle(idle);
+    }
+
+    @Benchmark
+    public void reasoningCycle() {
+        reasoning.memory.cycle(reasoning);
+    }
+}
@@ -0,0 +1,94 @@
+package nars.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import nars.control.DerivationContext;
+import nars.control.GeneralInferenceControl;
+import nars.entity.Concept;
+import nars.entity.TaskLink;
+import nars.entity.TermLink;
+import nars.main.NAR;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * RuleTables.reason (through GeneralInferenceControl.fireTermlink) applied to all
+ * task link / term link pairs of a small memory, without the selection and bag
+ * bookkeeping of a cycle
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InferenceBench {
+
+    static final String[] input = {
+        "<robin --> bird>.",
+        "<bird --> animal>.",
+        "<robin --> [flying]>.",
+        "<(&&,<$1 --> bird>,<$1 --> [flying]>) ==> <$1 --> animal>>.",
+        "<{tweety} --> bird>. :|:",
+        "<(*,{tweety},worm) --> eat>.",
+        "<robin <-> swallow>. %0.9;0.8%",
+        "<robin --> animal>?"
+    };
+
+    static final class Premise {
+        final Concept concept;
+        final TaskLink taskLink;
+        final TermLink termLink;
+
+        Premise(final Concept concept, final TaskLink taskLink, final TermLink termLink) {
+            this.concept = concept;
+            this.taskLink = taskLink;
+            this.termLink = termLink;
+        }
+    }
+
+    NAR nar;
+    final List<Premise> premises = new ArrayList<>();
+
+    @Setup
+    public void setup() {
+        nar = new NAR();
+        for (String s : input) {
+            nar.addInput(s);
+        }
+        nar.cycles(50);
+        for (Concept c : nar.memory.concepts) {
+            for (TaskLink t : c.taskLinks) {
+                if (t.type == TermLink.TRANSFORM) {
+                    continue;
+                }
+                for (TermLink b : c.termLinks) {
+                    premises.add(new Premise(c, t, b));
+                }
+            }
+        }
+        if (premises.isEmpty()) {
+            throw new RuntimeException("no premises to reason on");
+        }
+    }
+
+    /** one operation is reasoning on all premises */
+    @Benchmark
+    public int reason() {
+        int derived = 0;
+        for (final Premise p : premises) {
+            final DerivationContext nal = new DerivationContext(nar.memory);
+            nal.setCurrentConcept(p.concept);
+            nal.setCurrentTerm(p.concept.term);
+            nal.setCurrentTaskLink(p.taskLink);
+            nal.setCurrentTask(p.taskLink.getTarget());
+            GeneralInferenceControl.fireTermlink(p.termLink, nal);
+            derived += nar.memory.newTasks.size();
+            nar.memory.newTasks.clear();
+        }
+        return derived;
+    }
+}
@@ -0,0 +1,43 @@
+package nars.bench;
+
+import java.util.concurrent.TimeUnit;
+import nars.main.NAR;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * NAR.cycles(n) after loading a NAL example file.
+ * The ant "bench" target runs it over every file of nal/test by overriding the file parameter.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class NALBench {
+
+    @Param({"nal/test/nal1.0.nal", "nal/test/nal5.19.nal", "nal/test/nal6.0.nal", "nal/test/nal7.0.nal"})
+    public String file;
+
+    @Param({"1000"})
+    public int cycles;
+
+    NAR nar;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        nar = new NAR();
+        nar.addInputFile(file);
+    }
+
+    @Benchmark
+    public long run() {
+        nar.cycles(cycles);
+        return nar.time();
+    }
+}
@@ -0,0 +1,43 @@
+package nars.bench;
+
+import java.util.concurrent.TimeUnit;
+import nars.entity.Task;
+import nars.io.Narsese;
+import nars.main.NAR;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Narsese.parseTask on typical input lines
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class NarseseBench {
+
+    @Param({
+        "<bird --> animal>.",
+        "$0.80;0.50$ <(&&,<$1 --> bird>,<$1 --> [flying]>) ==> <$1 --> animal>>. %1.00;0.90%",
+        "<(&/,<{tom} --> [hungry]>,+5,(^pick,{SELF},fish)) =/> <{tom} --> [satisfied]>>! :|:",
+        "<(*,cat,{tom}) --> (/,likes,_,(&,fish,[fresh]))>?"
+    })
+    public String input;
+
+    Narsese narsese;
+
+    @Setup
+    public void setup() {
+        narsese = new Narsese(new NAR());
+    }
+
+    @Benchmark
+    public Task parseTask() throws Narsese.InvalidInputException {
+        return narsese.parseTask(input);
+    }
+}
@@ -0,0 +1,72 @@
+package nars.bench;
+
+import java.util.concurrent.TimeUnit;
+import nars.entity.Stamp;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Stamp.baseOverlap on evidential bases of different length, as arrays
+ * and as stamps with cached bloom signature and evidential set
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class StampBench {
+
+    @Param({"1", "8", "64", "512"})
+    public int baseLength;
+
+    long[] base, disjoint, overlapping;
+    Stamp baseStamp, disjointStamp, overlappingStamp;
+
+    @Setup
+    public void setup() {
+        base = new long[baseLength];
+        disjoint = new long[baseLength];
+        overlapping = new long[baseLength];
+        for (int i = 0; i < baseLength; i++) {
+            base[i] = 2 * i;
+            disjoint[i] = 2 * i + 1;
+            overlapping[i] = 2 * i + 1;
+        }
+        overlapping[baseLength - 1] = base[baseLength / 2];
+        baseStamp = stamp(base);
+        disjointStamp = stamp(disjoint);
+        overlappingStamp = stamp(overlapping);
+    }
+
+    static Stamp stamp(final long[] base) {
+        final Stamp s = new Stamp(0, null, base[0], 1);
+        s.setEvidentialBase(base);
+        return s;
+    }
+
+    /** no common evidence, the common case for premises that can be combined */
+    @Benchmark
+    public boolean disjoint() {
+        return Stamp.baseOverlap(base, disjoint);
+    }
+
+    /** one common evidence */
+    @Benchmark
+    public boolean overlapping() {
+        return Stamp.baseOverlap(base, overlapping);
+    }
+
+    @Benchmark
+    public boolean disjointStamps() {
+        return Stamp.baseOverlap(baseStamp, disjointStamp);
+    }
+
+    @Benchmark
+    public boolean overlappingStamps() {
+        return Stamp.baseOverlap(baseStamp, overlappingStamp);
+    }
+}
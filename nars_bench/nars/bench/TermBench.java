@@ -0,0 +1,95 @@
+package nars.bench;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import nars.io.Narsese;
+import nars.io.Symbols;
+import nars.language.CompoundTerm;
+import nars.language.Term;
+import nars.language.Variables;
+import nars.main.NAR;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Term construction, identity and unification: CompoundTerm.name(), hashCode(), equals()
+ * and unification through Variables
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TermBench {
+
+    @Param({
+        "<(&&,<$1 --> bird>,<$1 --> [flying]>) ==> <$1 --> animal>>|<(&&,<robin --> bird>,<robin --> [flying]>) ==> <robin --> animal>>",
+        "<(*,$1,#2) --> (/,likes,_,$3)>|<(*,cat,{tom}) --> (/,likes,_,(&,fish,[fresh]))>",
+        "<(&/,<$1 --> [hungry]>,+5,(^pick,{SELF},$2)) =/> <$1 --> [satisfied]>>|<(&/,<{tom} --> [hungry]>,+5,(^pick,{SELF},fish)) =/> <{tom} --> [satisfied]>>"
+    })
+    public String terms;
+
+    CompoundTerm variable, constant, copy;
+
+    @Setup
+    public void setup() throws Narsese.InvalidInputException {
+        final Narsese narsese = new Narsese(new NAR());
+        final String[] t = terms.split("\\|");
+        variable = (CompoundTerm) narsese.parseTerm(t[0]);
+        constant = (CompoundTerm) narsese.parseTerm(t[1]);
+        copy = (CompoundTerm) narsese.parseTerm(t[1]);
+    }
+
+    /** rebuilds the name of a compound term and of all its compound components */
+    @Benchmark
+    public CharSequence name() {
+        constant.invalidateName();
+        return constant.name();
+    }
+
+    /** hash of a term which was just changed, as when it is looked up in a bag */
+    @Benchmark
+    public int hashCodeFresh() {
+        constant.invalidateName();
+        return constant.hashCode();
+    }
+
+    /** equality of two instances of the same term */
+    @Benchmark
+    public boolean equalsCopy() {
+        return constant.equals(copy);
+    }
+
+    /** unifies the independent variables of a term with a constant term */
+    @Benchmark
+    public boolean findSubstitute() {
+        final Map<Term,Term>[] map = new Map[] { new HashMap<>(), new HashMap<>() };
+        return Variables.findSubstitute(Symbols.VAR_INDEPENDENT, variable, constant, map);
+    }
+
+    /** a failing unification, which is the common case during inference */
+    @Benchmark
+    public boolean findSubstituteMismatch() {
+        final Map<Term,Term>[] map = new Map[] { new HashMap<>(), new HashMap<>() };
+        return Variables.findSubstitute(Symbols.VAR_INDEPENDENT, variable, variable.term[0], map);
+    }
+
+    /** whether the terms unify, as the syllogistic rules ask */
+    @Benchmark
+    public boolean hasSubstitute() {
+        return Variables.hasSubstitute(Symbols.VAR_INDEPENDENT, variable, constant);
+    }
+
+    /** unifies and applies the substitutions to both terms, as the inference rules do */
+    @Benchmark
+    public Term[] unify() {
+        final Term[] u = new Term[] { variable, constant };
+        Variables.unify(Symbols.VAR_INDEPENDENT, u);
+        return u;
+    }
+}
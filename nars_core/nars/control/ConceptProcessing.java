@@ -1,7 +1,6 @@
 package nars.control;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
 import nars.main.Parameters;
 import nars.entity.*;
@@ -18,6 +17,7 @@ import nars.storage.LevelBag;
 import static nars.inference.LocalRules.revisible;
 import static nars.inference.LocalRules.revision;
 import static nars.inference.LocalRules.trySolution;
+import static nars.inference.LocalRules.trySolutions;
 import nars.operator.FunctionOperator;
 import nars.operator.Operator;
 import nars.operator.mental.Anticipate;
@@ -133,7 +133,7 @@ public class ConceptProcessing {
                 trySolution(judg, concept.desires.get(i), nal, true);
             }
 
-            concept.addToTable(task, false, concept.beliefs, Parameters.CONCEPT_BELIEFS_MAX, Events.ConceptBeliefAdd.class, Events.ConceptBeliefRemove.class);
+            concept.addToTable(task, concept.beliefs, nal.memory.param.conceptBeliefsMax.get(), Events.ConceptBeliefAdd.class, Events.ConceptBeliefRemove.class);
             
             //if taskLink predicts this concept then add to predictive
             Task target = task;
@@ -181,6 +181,7 @@ public class ConceptProcessing {
                                 }
                                 if(i_delete != -1) {
                                     pred_conc.executable_preconditions.remove(i_delete);
+                                    pred_conc.dirty = true;
                                 }
 
                                 Term[] prec = ((Conjunction) ((Implication) strongest_target.getTerm()).getSubject()).term;
@@ -191,7 +192,7 @@ public class ConceptProcessing {
                                 }
 
                                 //this way the strongest confident result of this content is put into table but the table ranked according to truth expectation
-                                pred_conc.addToTable(strongest_target, true, pred_conc.executable_preconditions, Parameters.CONCEPT_BELIEFS_MAX, Events.EnactableExplainationAdd.class, Events.EnactableExplainationRemove.class);
+                                pred_conc.addToTable(strongest_target, pred_conc.executable_preconditions, nal.memory.param.conceptBeliefsMax.get(), Events.EnactableExplainationAdd.class, Events.EnactableExplainationRemove.class);
                             }
                         }
                     }
@@ -292,27 +293,14 @@ public class ConceptProcessing {
 
                 questionFromGoal(task, nal);
 
-                concept.addToTable(task, false, concept.desires, Parameters.CONCEPT_GOALS_MAX, Events.ConceptGoalAdd.class, Events.ConceptGoalRemove.class);
+                concept.addToTable(task, concept.desires, nal.memory.param.conceptGoalsMax.get(), Events.ConceptGoalAdd.class, Events.ConceptGoalRemove.class);
 
                 InternalExperience.InternalExperienceFromTask(concept.memory,task,false);
 
                 if(projectedGoal.truth.getExpectation() > nal.memory.param.decisionThreshold.get() && nal.memory.time() >= concept.memory.decisionBlock) {
                     //see whether the goal evidence is fully included in the old goal, if yes don't execute
                     //as execution for this reason already happened (or did not since there was evidence against it)
-                    HashSet<Long> oldEvidence = new HashSet<Long>();
-                    boolean Subset=false;
-                    if(oldGoalT != null) {
-                        Subset = true;
-                        for(Long l: oldGoalT.sentence.stamp.evidentialBase) {
-                            oldEvidence.add(l);
-                        }
-                        for(Long l: task.sentence.stamp.evidentialBase) {
-                            if(!oldEvidence.contains(l)) {
-                                Subset = false;
-                                break;
-                            }
-                        }
-                    }
+                    boolean Subset = (oldGoalT != null) && task.sentence.stamp.evidenceIsSubsetOf(oldGoalT.sentence.stamp);
                     if(!Subset && !executeDecision(nal, task)) {
                         concept.memory.emit(Events.UnexecutableGoal.class, task, concept, nal);
                         return true; //it was made true by itself
@@ -404,6 +392,9 @@ public class ConceptProcessing {
         if (newAnswerT != null) {
             trySolution(newAnswerT.sentence, task, nal, true);
         }
+        else if(ques.isQuestion() && ques.term.hasVarQuery()) { //what question: beliefs of the other concepts
+            trySolutions(task, nal);
+        }
         else if(task.isInput() && !quesTask.getTerm().hasVarQuery() && quesTask.getBestSolution() != null) { // show previously found solution anyway in case of input
             concept.memory.emit(Events.Answer.class, quesTask, quesTask.getBestSolution());
         }
@@ -454,13 +445,13 @@ public class ConceptProcessing {
                     //and the truth of the hypothesis:
                     TruthValue Hyp = t.sentence.truth;
                     //overlap will almost never happen, but to make sure
-                    if(Stamp.baseOverlap(projectedGoal.stamp.evidentialBase, t.sentence.stamp.evidentialBase)) {
+                    if(Stamp.baseOverlap(projectedGoal.stamp, t.sentence.stamp)) {
                         continue; //base overlap
                     }
-                    if(Stamp.baseOverlap(bestsofar.sentence.stamp.evidentialBase, t.sentence.stamp.evidentialBase)) {
+                    if(Stamp.baseOverlap(bestsofar.sentence.stamp, t.sentence.stamp)) {
                         continue; //base overlap
                     }
-                    if(Stamp.baseOverlap(projectedGoal.stamp.evidentialBase, bestsofar.sentence.stamp.evidentialBase)) {
+                    if(Stamp.baseOverlap(projectedGoal.stamp, bestsofar.sentence.stamp)) {
                         continue; //base overlap
                     }
                     //and the truth of the precondition:
@@ -536,6 +527,7 @@ public class ConceptProcessing {
             if(c.negConfirmation == null || priority > c.negConfirmationPriority /*|| t.getPriority() > c.negConfirmation.getPriority() */) {
                 c.negConfirmation = t;
                 c.negConfirmationPriority = priority;
+                c.dirty = true;
                 c.negConfirm_abort_maxtime = maxtime;
                 c.negConfirm_abort_mintime = mintime;
                 
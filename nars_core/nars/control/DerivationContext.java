@@ -6,7 +6,6 @@ package nars.control;
 
 import java.util.ArrayList;
 import java.util.List;
-import nars.io.events.Events;
 import nars.storage.Memory;
 import nars.main.NAR;
 import nars.main.Parameters;
@@ -41,12 +40,28 @@ public class DerivationContext {
     protected TaskLink currentTaskLink;
     protected Sentence currentBelief;
     protected Stamp newStamp;
-    public StampBuilder newStampBuilder;
+    /** premises of the new stamp, which is only built if a rule asks for it */
+    protected Stamp newStampFirst, newStampSecond;
+    protected long newStampTime;
     
     public DerivationContext(Memory mem) {
         super();
         this.memory = mem;
     }
+
+    /** Clear the state of the last derivation, so that the context can be used for the next one */
+    public DerivationContext reset() {
+        evidentalOverlap = false;
+        currentTerm = null;
+        currentConcept = null;
+        currentTask = null;
+        currentBeliefLink = null;
+        currentTaskLink = null;
+        currentBelief = null;
+        newStamp = null;
+        newStampFirst = newStampSecond = null;
+        return this;
+    }
    
     public void emit(final Class c, final Object... o) {
         memory.emit(c, o);
@@ -92,17 +107,10 @@ public class DerivationContext {
         
         //its revision, of course its cyclic, apply evidental base policy
         if(!overlapAllowed) { //todo reconsider
-            final int stampLength = stamp.baseLength;
-            for (int i = 0; i < stampLength; i++) {
-                final long baseI = stamp.evidentialBase[i];
-                for (int j = 0; j < stampLength; j++) {
-                    //!single since the derivation shouldn't depend on whether there is a current belief or not!!
-                    if ((!single && this.evidentalOverlap) || ((i != j) && (baseI == stamp.evidentialBase[j]))) {
-                        memory.removeTask(task, "Overlapping Evidenctal Base");
-                        //"(i=" + i + ",j=" + j +')' /* + " in " + stamp.toString()*/
-                        return false;
-                    }
-                }
+            //!single since the derivation shouldn't depend on whether there is a current belief or not!!
+            if ((stamp.baseLength > 0) && ((!single && this.evidentalOverlap) || stamp.evidenceIsCyclic())) {
+                memory.removeTask(task, "Overlapping Evidenctal Base");
+                return false;
             }
         }
         
@@ -119,7 +127,7 @@ public class DerivationContext {
             task.getBudget().setDurability(task.getBudget().getDurability()*Parameters.DERIVATION_DURABILITY_LEAK);
             task.getBudget().setPriority(task.getBudget().getPriority()*Parameters.DERIVATION_PRIORITY_LEAK);
         }
-        memory.event.emit(Events.TaskDerive.class, task, revised, single);
+        memory.emit(memory.taskDerive, task, revised, single);
         //memory.logic.TASK_DERIVED.commit(task.budget.getPriority());
         
         if(addToMemory) {
@@ -348,10 +356,10 @@ public class DerivationContext {
      * @return the newStamp
      */
     public Stamp getTheNewStamp() {
-        if (newStamp == null) {
-            //if newStamp==null then newStampBuilder must be available. cache it's return value as newStamp
-            newStamp = newStampBuilder.build();
-            newStampBuilder = null;
+        if (newStamp == null && newStampFirst != null) {
+            //build the stamp of the premises given to setTheNewStamp(first, second, time) and keep it
+            newStamp = new Stamp(newStampFirst, newStampSecond, newStampTime);
+            newStampFirst = newStampSecond = null;
         }
         return newStamp;
     }
@@ -361,24 +369,16 @@ public class DerivationContext {
      */
     public Stamp setTheNewStamp(Stamp newStamp) {
         this.newStamp = newStamp;
-        this.newStampBuilder = null;
+        this.newStampFirst = this.newStampSecond = null;
         return newStamp;
     }
 
-    public interface StampBuilder {
-
-        Stamp build();
-    }
-
-    /** creates a lazy/deferred StampBuilder which only constructs the stamp if getTheNewStamp() is actually invoked */
+    /** remembers the premises of the new stamp, which is only constructed if getTheNewStamp() is actually invoked */
     public void setTheNewStamp(final Stamp first, final Stamp second, final long time) {
         newStamp = null;
-        newStampBuilder = new StampBuilder() {
-            @Override
-            public Stamp build() {
-                return new Stamp(first, second, time);
-            }
-        };
+        newStampFirst = first;
+        newStampSecond = second;
+        newStampTime = time;
     }
 
     /**
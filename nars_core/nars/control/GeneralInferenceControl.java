@@ -6,8 +6,8 @@ package nars.control;
 
 import nars.main.Parameters;
 import nars.entity.Concept;
-import nars.io.events.Events;
 import nars.entity.Task;
+import nars.entity.TaskLink;
 import nars.entity.TermLink;
 import nars.inference.BudgetFunctions;
 import nars.inference.RuleTables;
@@ -32,29 +32,46 @@ public class GeneralInferenceControl {
             return;
         }
         
-        DerivationContext cont = new DerivationContext(mem);
-        cont.setCurrentConcept(currentConcept);
-        fireConcept(cont, 1);
+        final DerivationContext cont = mem.acquireContext();
+        try {
+            cont.setCurrentConcept(currentConcept);
+            fireConcept(cont, 1);
+        } finally {
+            mem.releaseContext(cont);
+        }
     }
     
     public static void fireConcept(DerivationContext nal, int numTaskLinks) {     
+        nal.currentConcept.taskLinks.rebalance(Parameters.BAG_REBALANCE_BATCH);
+        nal.currentConcept.termLinks.rebalance(Parameters.BAG_REBALANCE_BATCH);
         for (int i = 0; i < numTaskLinks; i++) {
 
             if (nal.currentConcept.taskLinks.size() == 0) 
                 return;
 
-            nal.currentTaskLink = nal.currentConcept.taskLinks.takeNext();                    
-            if (nal.currentTaskLink == null)
+            final TaskLink taskLink = nal.currentConcept.taskLinks.takeNext();                    
+            if (taskLink == null)
                 return;
 
-            if (nal.currentTaskLink.budget.aboveThreshold()) {
-                fireTaskLink(nal, Parameters.TERMLINK_MAX_REASONED);                    
-            }
-
-            nal.currentConcept.taskLinks.putBack(nal.currentTaskLink, nal.memory.cycles(nal.memory.param.taskLinkForgetDurations), nal.memory);
+            processTaskLink(nal, taskLink);
+        }
+        returnConcept(nal);
+    }
+    
+    /** fires a task link taken out of the current concept, and puts it back */
+    static void processTaskLink(DerivationContext nal, TaskLink taskLink) {
+        nal.currentTaskLink = taskLink;
+        if (nal.currentTaskLink.budget.aboveThreshold()) {
+            fireTaskLink(nal, Parameters.TERMLINK_MAX_REASONED);                    
         }
+        nal.currentConcept.taskLinks.putBack(nal.currentTaskLink, nal.memory.cycles(nal.memory.param.taskLinkForgetDurations), nal.memory);
+    }
+    
+    /** puts the current concept back into the concept bag after it was fired */
+    static void returnConcept(DerivationContext nal) {
         float forgetCycles = nal.memory.cycles(nal.memory.param.conceptForgetDurations);
         nal.currentConcept.setQuality(BudgetFunctions.or(nal.currentConcept.getQuality(),nal.memory.emotion.happy()));
+        nal.currentConcept.dirty = true;
         nal.memory.concepts.putBack(nal.currentConcept, forgetCycles, nal.memory);
     }
     
@@ -71,7 +88,12 @@ public class GeneralInferenceControl {
             nal.setCurrentBelief(null);
             //TermLink tasklink_as_termlink = new TermLink(nal.currentTaskLink.getTerm(), TermLink.TRANSFORM, nal.getCurrentTaskLink().index);
             //if(nal.currentTaskLink.novel(tasklink_as_termlink, nal.memory.time(), true)) { //then record yourself, but also here novelty counts
-                RuleTables.transformTask(nal.currentTaskLink, nal); // to turn this into structural inference as below?
+                Profiler.enter(nal.memory, Profiler.TRANSFORM_TASK);
+                try {
+                    RuleTables.transformTask(nal.currentTaskLink, nal); // to turn this into structural inference as below?
+                } finally {
+                    Profiler.exit(nal.memory, Profiler.TRANSFORM_TASK);
+                }
             //}
             
         } else {            
@@ -86,20 +108,23 @@ public class GeneralInferenceControl {
             }
         }
                 
-        nal.memory.emit(Events.ConceptFire.class, nal);
+        nal.memory.emit(nal.memory.conceptFire, nal.currentConcept, nal.currentTaskLink);
         //memory.logic.TASKLINK_FIRE.commit(currentTaskLink.budget.getPriority());
     }
 
     public static boolean fireTermlink(final TermLink termLink, DerivationContext nal) {
         nal.setCurrentBeliefLink(termLink);
+        Profiler.enter(nal.memory, Profiler.REASON);
         try {
             RuleTables.reason(nal.currentTaskLink, termLink, nal);
         } catch(Exception ex) {
             if(Parameters.DEBUG) {
                 System.out.println("issue in inference");
             }
+        } finally {
+            Profiler.exit(nal.memory, Profiler.REASON);
         }
-        nal.memory.emit(Events.TermLinkSelect.class, termLink, nal.currentConcept, nal);
+        nal.memory.emit(nal.memory.termLinkSelect, termLink, nal.currentConcept, nal.currentTaskLink);
         //memory.logic.REASON.commit(termLink.getPriority());                    
         return true;
     }
@@ -0,0 +1,241 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.control;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import nars.entity.Concept;
+import nars.entity.Task;
+import nars.entity.TaskLink;
+import nars.language.CompoundTerm;
+import nars.language.Term;
+import nars.storage.Memory;
+
+/**
+ * Parallel concept firing: several concepts are taken from the concept bag per
+ * cycle and fired concurrently, each in its own DerivationContext.
+ * <p>
+ * Effects on shared memory state (new tasks, events, emotion) are not applied
+ * by the workers but queued per fired concept and replayed in selection order
+ * at the end of the cycle, and every fired concept gets its own random number
+ * generator seeded in selection order. The result of a cycle therefore only
+ * depends on the random seed and on the number of concepts fired per cycle,
+ * not on the number of threads or on their scheduling.
+ * <p>
+ * The selected concepts are put back into the concept bag before they are
+ * fired, so they stay visible to each other, and the bag is not modified while
+ * the workers run. Concepts whose selected task link targets a task (or task
+ * content) already claimed by an earlier concept of the same cycle are not fired
+ * concurrently, they are fired one after another once the concurrent ones are done.
+ * <p>
+ * Each memory has its own Workers, sized by its RuntimeParameters.threads, so
+ * reasoners in one JVM never share or stop each other's threads.
+ */
+public class ParallelInferenceControl {
+
+    /** state of a concept firing in progress */
+    static final class Firing implements Runnable {
+        final DerivationContext nal;
+        final TaskLink taskLink;
+        final Random random;
+        final List<Runnable> effects = new ArrayList<>();
+
+        Firing(final DerivationContext nal, final TaskLink taskLink, final long seed) {
+            this.nal = nal;
+            this.taskLink = taskLink;
+            this.random = new Random(seed);
+        }
+
+        @Override
+        public void run() {
+            current.set(this);
+            try {
+                GeneralInferenceControl.processTaskLink(nal, taskLink);
+            } finally {
+                current.remove();
+            }
+        }
+
+        /** applies the queued effects on the calling thread, in the order they were produced */
+        void replay() {
+            for (int i = 0; i < effects.size(); i++) {
+                effects.get(i).run();
+            }
+            effects.clear();
+        }
+    }
+
+    /**
+     * The threads firing the concepts of one memory, started by its first
+     * parallel cycle and replaced when the number of threads changes. Idle
+     * threads end after a while, so a memory which is dropped keeps none.
+     */
+    public static final class Workers {
+        private ExecutorService executor = null;
+        private int threads = 0;
+
+        synchronized ExecutorService get(final int threads) {
+            if (executor == null || this.threads != threads) {
+                if (executor != null) {
+                    executor.shutdown();
+                }
+                final ThreadPoolExecutor e = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS,
+                        new LinkedBlockingQueue<Runnable>(), new ThreadFactory() {
+                    int count = 0;
+                    @Override
+                    public Thread newThread(final Runnable r) {
+                        Thread t = new Thread(r, "Inference-" + (count++));
+                        t.setDaemon(true);
+                        return t;
+                    }
+                });
+                e.allowCoreThreadTimeOut(true);
+                executor = e;
+                this.threads = threads;
+            }
+            return executor;
+        }
+
+        /** Stop the threads after the firings they are running; a later parallel cycle starts new ones */
+        public synchronized void shutdown() {
+            if (executor != null) {
+                executor.shutdown();
+                executor = null;
+            }
+        }
+
+        /** whether threads were started and not shut down */
+        public synchronized boolean isStarted() {
+            return executor != null;
+        }
+    }
+
+    private static final ThreadLocal<Firing> current = new ThreadLocal<>();
+
+    /**
+     * Queue an effect on shared memory state if the calling thread is firing a
+     * concept concurrently with others
+     *
+     * @return false if the effect was not queued and has to be applied directly
+     */
+    public static boolean defer(final Runnable effect) {
+        final Firing f = current.get();
+        if (f == null) {
+            return false;
+        }
+        f.effects.add(effect);
+        return true;
+    }
+
+    /** the random number generator of the concept fired by the calling thread, or null if none */
+    public static Random random() {
+        final Firing f = current.get();
+        return f != null ? f.random : null;
+    }
+
+    /**
+     * Select up to n concepts and fire them concurrently
+     *
+     * @param mem The memory
+     * @param n The amount of concepts to fire in this cycle
+     * @param workers The threads of the memory
+     */
+    public static void selectConceptsForInference(final Memory mem, final int n, final Workers workers) {
+        final List<Firing> concurrent = new ArrayList<>(n);
+        final List<Firing> sequential = new ArrayList<>();
+        final IdentityHashMap<Task,Task> claimedTasks = new IdentityHashMap<>(n);
+        final List<Term> claimedTerms = new ArrayList<>(n);
+
+        for (int i = 0; i < n; i++) {
+            final Concept concept = mem.concepts.takeNext();
+            if (concept == null) {
+                break;
+            }
+            if (concept.taskLinks.size() == 0 || concept.termLinks.size() == 0) { //remove concepts without tasklinks or without termlinks
+                mem.concepts.take(concept.getTerm());
+                mem.conceptRemoved(concept);
+                continue;
+            }
+            final TaskLink taskLink = concept.taskLinks.takeNext();
+            if (taskLink == null) {
+                continue;
+            }
+
+            final DerivationContext nal = mem.acquireContext();
+            nal.setCurrentConcept(concept);
+            final Firing f = new Firing(nal, taskLink, mem.randomNumber.nextLong());
+
+            final Task task = taskLink.getTarget();
+            final Term content = CompoundTerm.replaceIntervals(task.getTerm());
+            if (claimedTasks.containsKey(task) || claimedTerms.contains(content)) {
+                sequential.add(f);
+            } else {
+                claimedTasks.put(task, task);
+                claimedTerms.add(content);
+                concurrent.add(f);
+            }
+        }
+
+        for (final Firing f : concurrent) {
+            GeneralInferenceControl.returnConcept(f.nal);
+        }
+        for (final Firing f : sequential) {
+            GeneralInferenceControl.returnConcept(f.nal);
+        }
+
+        final int threads = mem.param.threads.get();
+        if (concurrent.size() == 1 || threads <= 1) {
+            for (final Firing f : concurrent) {
+                f.run();
+            }
+        } else {
+            final ExecutorService exe = workers.get(threads);
+            final List<Future<?>> running = new ArrayList<>(concurrent.size());
+            for (final Firing f : concurrent) {
+                try {
+                    running.add(exe.submit(f));
+                } catch (RejectedExecutionException ex) {
+                    //the workers were shut down during the cycle, the results do not depend on the thread
+                    f.run();
+                }
+            }
+            for (final Future<?> r : running) {
+                try {
+                    r.get();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(ex);
+                } catch (ExecutionException ex) {
+                    throw new RuntimeException(ex.getCause());
+                }
+            }
+        }
+
+        //barrier: apply the effects of the concurrently fired concepts in selection order
+        for (final Firing f : concurrent) {
+            f.replay();
+        }
+        for (final Firing f : sequential) {
+            f.run();
+            f.replay();
+        }
+        for (final Firing f : concurrent) {
+            mem.releaseContext(f.nal);
+        }
+        for (final Firing f : sequential) {
+            mem.releaseContext(f.nal);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.control;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import nars.storage.Memory;
+
+/**
+ * Nanosecond timings and invocation counts of the phases of the cycles of a
+ * reasoner and of its inference rules, enabled by setting Memory.profiler.
+ * <p>
+ * A section is timed by Profiler.enter and Profiler.exit around it, which do
+ * nothing but read Memory.profiler while no profiler is set. Timings include
+ * the sections nested in them, like the rules applied in RuleTables.reason,
+ * and are recorded per thread, so that concepts fired in parallel do not
+ * contend, into a histogram of power of two buckets per section. A thread
+ * records without locking; the timings are read while they are recorded, so
+ * a read may miss the records in progress. The exit of
+ * a section is in the finally block of a try following its enter, so that an
+ * inference which throws leaves no section open.
+ */
+public class Profiler {
+
+    /** names of the sections, which are indexed by their id */
+    private static final List<String> names = new ArrayList<>();
+    /** number of sections registered */
+    private static volatile int sections = 0;
+
+    /** id of a section, registered on first use */
+    public static synchronized int section(final String name) {
+        final int i = names.indexOf(name);
+        if (i != -1) {
+            return i;
+        }
+        names.add(name);
+        sections = names.size();
+        return names.size() - 1;
+    }
+
+    public static synchronized String name(final int section) {
+        return names.get(section);
+    }
+
+    //phases of a cycle
+    public static final int CYCLE = section("cycle");
+    public static final int PARSE = section("parse");
+    public static final int NEW_TASKS = section("Memory.processNewTasks");
+    public static final int NOVEL_TASK = section("Memory.processNovelTask");
+    public static final int LOCAL_INFERENCE = section("Memory.localInference");
+    public static final int FIRE_CONCEPT = section("fireConcept");
+    public static final int REASON = section("RuleTables.reason");
+    public static final int TRANSFORM_TASK = section("RuleTables.transformTask");
+    public static final int EVENT_INFERENCE = section("TemporalInferenceControl.eventInference");
+    public static final int ANTICIPATE = section("Anticipate.anticipate");
+    public static final int UPDATE_ANTICIPATIONS = section("Anticipate.updateAnticipations");
+
+    //rules
+    public static final int MATCH = section("LocalRules.match");
+    public static final int MATCH_REVERSE = section("LocalRules.matchReverse");
+    public static final int MATCH_ASYM_SYM = section("LocalRules.matchAsymSym");
+    public static final int DED_EXE = section("SyllogisticRules.dedExe");
+    public static final int ABD_IND_COM = section("SyllogisticRules.abdIndCom");
+    public static final int ANALOGY = section("SyllogisticRules.analogy");
+    public static final int RESEMBLANCE = section("SyllogisticRules.resemblance");
+    public static final int DETACHMENT = section("SyllogisticRules.detachment");
+    public static final int CONDITIONAL_DED_IND = section("SyllogisticRules.conditionalDedInd");
+    public static final int CONDITIONAL_ANA = section("SyllogisticRules.conditionalAna");
+    public static final int CONDITIONAL_ABD = section("SyllogisticRules.conditionalAbd");
+    public static final int ELIMI_VAR_DEP = section("SyllogisticRules.elimiVarDep");
+    public static final int COMPOSE_COMPOUND = section("CompositionalRules.composeCompound");
+    public static final int DECOMPOSE_STATEMENT = section("CompositionalRules.decomposeStatement");
+    public static final int INTRO_VAR_OUTER = section("CompositionalRules.introVarOuter");
+    public static final int INTRO_VAR_INNER = section("CompositionalRules.introVarInner");
+    public static final int INTRO_VAR_SAME_SUBJECT_OR_PREDICATE = section("CompositionalRules.IntroVarSameSubjectOrPredicate");
+    public static final int ELIMINATE_VARIABLE_OF_CONDITION_ABDUCTIVE = section("CompositionalRules.eliminateVariableOfConditionAbductive");
+    public static final int STRUCTURAL_COMPOUND = section("StructuralRules.structuralCompound");
+    public static final int STRUCTURAL_COMPOSE1 = section("StructuralRules.structuralCompose1");
+    public static final int STRUCTURAL_COMPOSE2 = section("StructuralRules.structuralCompose2");
+    public static final int STRUCTURAL_DECOMPOSE1 = section("StructuralRules.structuralDecompose1");
+    public static final int STRUCTURAL_DECOMPOSE2 = section("StructuralRules.structuralDecompose2");
+    public static final int TRANSFORM_SET_RELATION = section("StructuralRules.transformSetRelation");
+    public static final int TRANSFORM_NEGATION = section("StructuralRules.transformNegation");
+    public static final int CONTRAPOSITION = section("StructuralRules.contraposition");
+    public static final int TRANSFORM_PRODUCT_IMAGE = section("StructuralRules.transformProductImage");
+    public static final int TEMPORAL_INDUCTION = section("TemporalRules.temporalInduction");
+
+    /** number of histogram buckets: bucket i counts the durations below 2^i ns and not below 2^(i-1) ns */
+    public static final int BUCKETS = 64;
+
+    /**
+     * timings of a number of sections, written by one thread and read by
+     * others; the histogram of a section is at section * BUCKETS
+     */
+    static final class Counters {
+        final int length;
+        final AtomicLongArray count, nanos, max, histogram;
+
+        Counters(final int length) {
+            this.length = length;
+            count = new AtomicLongArray(length);
+            nanos = new AtomicLongArray(length);
+            max = new AtomicLongArray(length);
+            histogram = new AtomicLongArray(length * BUCKETS);
+        }
+
+        /** a copy with room for more sections, by the writing thread */
+        Counters grow(final int length) {
+            final Counters c = new Counters(length);
+            for (int i = 0; i < this.length; i++) {
+                c.count.lazySet(i, count.get(i));
+                c.nanos.lazySet(i, nanos.get(i));
+                c.max.lazySet(i, max.get(i));
+            }
+            for (int i = 0; i < histogram.length(); i++) {
+                c.histogram.lazySet(i, histogram.get(i));
+            }
+            return c;
+        }
+    }
+
+    /** timings of the sections on one thread */
+    static final class Recorder {
+        final Thread thread;
+        /** replaced by the thread only, when it grows or is cleared */
+        volatile Counters counters = new Counters(sections);
+        /** the timings are to be forgotten by the thread when it records next */
+        volatile boolean cleared = false;
+
+        /** sections entered and not exited yet, and when they were entered */
+        int[] open = new int[16];
+        long[] started = new long[16];
+        int depth = 0;
+
+        Recorder(final Thread thread) {
+            this.thread = thread;
+        }
+
+        void enter(final int section) {
+            if (depth == open.length) {
+                open = Arrays.copyOf(open, depth * 2);
+                started = Arrays.copyOf(started, depth * 2);
+            }
+            open[depth] = section;
+            started[depth++] = System.nanoTime();
+        }
+
+        void exit(final int section) {
+            for (int i = depth - 1; i >= 0; i--) {
+                if (open[i] == section) { //sections above it were left without their exit
+                    depth = i;
+                    record(section, System.nanoTime() - started[i]);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * by the thread of the recorder only, which is the one writer of the
+         * counters, so that they are updated without locking
+         */
+        void record(final int section, final long ns) {
+            Counters c = counters;
+            if (cleared) {
+                counters = c = new Counters(Math.max(section + 1, sections));
+                cleared = false;
+            } else if (section >= c.length) {
+                counters = c = c.grow(Math.max(section + 1, sections));
+            }
+            c.count.lazySet(section, c.count.get(section) + 1);
+            c.nanos.lazySet(section, c.nanos.get(section) + ns);
+            if (ns > c.max.get(section)) {
+                c.max.lazySet(section, ns);
+            }
+            final int bucket = section * BUCKETS + BUCKETS - Long.numberOfLeadingZeros(Math.max(ns, 0));
+            c.histogram.lazySet(bucket, c.histogram.get(bucket) + 1);
+        }
+
+        void addTo(final int section, final Stats s) {
+            if (cleared) {
+                return;
+            }
+            final Counters c = counters;
+            if (section < c.length && c.count.get(section) > 0) {
+                s.count += c.count.get(section);
+                s.nanos += c.nanos.get(section);
+                s.max = Math.max(s.max, c.max.get(section));
+                for (int i = 0; i < BUCKETS; i++) {
+                    s.histogram[i] += c.histogram.get(section * BUCKETS + i);
+                }
+            }
+        }
+
+        void clear() {
+            cleared = true;
+        }
+    }
+
+    /** timings of a section, summed over the threads */
+    public static final class Stats {
+        public final String name;
+        public long count, nanos, max;
+        final long[] histogram = new long[BUCKETS];
+
+        Stats(final String name) {
+            this.name = name;
+        }
+
+        public double getMeanNanos() {
+            return count == 0 ? 0 : nanos / (double) count;
+        }
+
+        /** invocations of each bucket of durations, see BUCKETS */
+        public long[] getHistogram() {
+            return histogram.clone();
+        }
+
+        /**
+         * duration not exceeded by a fraction q of the invocations, rounded up
+         * to the power of two ending its bucket
+         */
+        public long getPercentileNanos(final double q) {
+            final long rank = (long) Math.ceil(q * count);
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += histogram[i];
+                if (seen >= rank && seen > 0) {
+                    return Math.min(1L << i, max);
+                }
+            }
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%-56s %10d %12.3f ms %10.0f ns %10d ns %10d ns %10d ns",
+                    name, count, nanos / 1e6, getMeanNanos(),
+                    getPercentileNanos(0.5), getPercentileNanos(0.99), max);
+        }
+    }
+
+    private final ThreadLocal<Recorder> local = new ThreadLocal<Recorder>() {
+        @Override
+        protected Recorder initialValue() {
+            final Recorder r = new Recorder(Thread.currentThread());
+            synchronized (recorders) {
+                recorders.add(r);
+            }
+            return r;
+        }
+    };
+    private final List<Recorder> recorders = new ArrayList<>();
+    /** recorder of the thread which used the profiler last, to skip the thread local lookup */
+    private volatile Recorder last = local.get();
+
+    private Recorder recorder() {
+        Recorder r = last;
+        if (r.thread != Thread.currentThread()) {
+            last = r = local.get();
+        }
+        return r;
+    }
+
+    /** Start timing a section, if the memory has a profiler */
+    public static void enter(final Memory m, final int section) {
+        final Profiler p = m.profiler;
+        if (p != null) {
+            p.recorder().enter(section);
+        }
+    }
+
+    /** Stop timing a section entered on the same thread */
+    public static void exit(final Memory m, final int section) {
+        final Profiler p = m.profiler;
+        if (p != null) {
+            p.recorder().exit(section);
+        }
+    }
+
+    /** timings of a section, or null if it was not recorded */
+    public Stats get(final String name) {
+        final int section;
+        synchronized (Profiler.class) {
+            section = names.indexOf(name);
+        }
+        if (section == -1) {
+            return null;
+        }
+        final Stats s = stats(section);
+        return s.count > 0 ? s : null;
+    }
+
+    private Stats stats(final int section) {
+        final Stats s = new Stats(name(section));
+        synchronized (recorders) {
+            for (final Recorder r : recorders) {
+                r.addTo(section, s);
+            }
+        }
+        return s;
+    }
+
+    /** timings of the sections which were recorded, by descending total time */
+    public List<Stats> getStats() {
+        final int n;
+        synchronized (Profiler.class) {
+            n = names.size();
+        }
+        final List<Stats> l = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            final Stats s = stats(i);
+            if (s.count > 0) {
+                l.add(s);
+            }
+        }
+        Collections.sort(l, new Comparator<Stats>() {
+            @Override
+            public int compare(final Stats a, final Stats b) {
+                return Long.compare(b.nanos, a.nanos);
+            }
+        });
+        return l;
+    }
+
+    /** Forget the timings recorded so far */
+    public void reset() {
+        synchronized (recorders) {
+            for (final Recorder r : recorders) {
+                r.clear();
+            }
+        }
+    }
+
+    /** the timings as a table */
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder(String.format("%-56s %10s %15s %13s %13s %13s %13s\n",
+                "section", "count", "total", "mean", "p50", "p99", "max"));
+        for (final Stats s : getStats()) {
+            sb.append(s).append('\n');
+        }
+        return sb.toString();
+    }
+}
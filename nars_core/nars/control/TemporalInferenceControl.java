@@ -18,7 +18,6 @@ import nars.inference.TemporalRules;
 import nars.io.Symbols;
 import nars.language.CompoundTerm;
 import nars.operator.Operation;
-import nars.storage.LevelBag;
 import nars.storage.Memory;
 import nars.io.events.Events;
 
@@ -51,7 +50,12 @@ public class TemporalInferenceControl {
         Sentence currentBelief = newEvent;
 
         //if(newEvent.getPriority()>Parameters.TEMPORAL_INDUCTION_MIN_PRIORITY)
-        return TemporalRules.temporalInduction(currentBelief, previousBelief, nal, SucceedingEventsInduction, addToMemory, allowSequence);
+        Profiler.enter(nal.memory, Profiler.TEMPORAL_INDUCTION);
+        try {
+            return TemporalRules.temporalInduction(currentBelief, previousBelief, nal, SucceedingEventsInduction, addToMemory, allowSequence);
+        } finally {
+            Profiler.exit(nal.memory, Profiler.TEMPORAL_INDUCTION);
+        }
     }
 
     public static boolean eventInference(final Task newEvent, DerivationContext nal) {
@@ -60,7 +64,7 @@ public class TemporalInferenceControl {
             return false;
        }
 
-        nal.emit(Events.InduceSucceedingEvent.class, newEvent, nal);
+        nal.memory.emit(Events.InduceSucceedingEvent.class, newEvent);
 
         if (!newEvent.sentence.isJudgment() || newEvent.sentence.isEternal() || !newEvent.isInput()) {
             return false;
@@ -76,8 +80,7 @@ public class TemporalInferenceControl {
             }
 
             if(already_attempted.contains(takeout) || 
-                    Stamp.baseOverlap(newEvent.sentence.stamp.evidentialBase,
-                            takeout.sentence.stamp.evidentialBase)) {
+                    Stamp.baseOverlap(newEvent.sentence.stamp, takeout.sentence.stamp)) {
                 nal.memory.seq_current.putBack(takeout, nal.memory.cycles(nal.memory.param.eventForgetDurations), nal.memory);
                 continue;
             }
@@ -110,8 +113,9 @@ public class TemporalInferenceControl {
                 already_attempted_ops.add(Toperation);
                 Concept opc = nal.memory.concept(Toperation.getTerm());
                 if(opc != null) {
+                    opc.dirty = true;
                     if(opc.seq_before == null) {
-                        opc.seq_before = new LevelBag<>(Parameters.SEQUENCE_BAG_LEVELS, Parameters.SEQUENCE_BAG_SIZE);
+                        opc.seq_before = nal.memory.bags.newSequenceBag();
                     }
                     for(int i = 0; i<Parameters.CONDITION_BAG_ATTEMPTS; i++) {
                         Task takeout = opc.seq_before.takeNext();
@@ -218,8 +222,9 @@ public class TemporalInferenceControl {
         mem.lastDecision = task;
         Concept c = (Concept) mem.concept(task.getTerm());
         if(c != null) {
+            c.dirty = true;
             if(c.seq_before == null) {
-                c.seq_before = new LevelBag<>(Parameters.SEQUENCE_BAG_LEVELS, Parameters.SEQUENCE_BAG_SIZE);
+                c.seq_before = mem.bags.newSequenceBag();
             }
             for(Task t : mem.seq_current) {
                 if(task.sentence.getOccurenceTime() > t.sentence.getOccurenceTime()) {
@@ -26,6 +26,7 @@ import static nars.main.Parameters.TRUTH_EPSILON;
 import nars.inference.BudgetFunctions;
 import nars.io.Symbols;
 import nars.io.Texts;
+import nars.storage.Forgetting;
 import static nars.inference.UtilityFunctions.and;
 import static nars.inference.UtilityFunctions.aveGeo;
 import static nars.inference.UtilityFunctions.or;
@@ -57,6 +58,9 @@ public class BudgetValue implements Cloneable, Serializable {
 
     /** time at which this budget was last forgotten, for calculating accurate memory decay rates */
     long lastForgetTime = -1;
+
+    /** decay of the priority with time when it is forgotten lazily, null if it is forgotten by its bag */
+    private Forgetting forgetting = null;
     
     
     public BudgetValue(final float p, final float d, final TruthValue qualityFromTruth) {
@@ -106,9 +110,41 @@ public class BudgetValue implements Cloneable, Serializable {
      * @return The current priority
      */
     public float getPriority() {
+        if (forgetting != null) {
+            decay();
+        }
         return priority;
     }
 
+    /** decays the priority until the current time */
+    private void decay() {
+        final long now = forgetting.time();
+        if (now != lastForgetTime) {
+            if (now > lastForgetTime) {
+                priority = BudgetFunctions.decay(priority, durability, quality, now - lastForgetTime,
+                        forgetting.cycles(), Parameters.FORGET_QUALITY_RELATIVE);
+            }
+            lastForgetTime = now;
+        }
+    }
+
+    /**
+     * Let the priority decay with time, evaluated when it is read, or stop it
+     * @param f The forgetting, or null
+     */
+    public void setForgetting(final Forgetting f) {
+        if (f == forgetting) {
+            return;
+        }
+        if (forgetting != null) {
+            decay();
+        }
+        forgetting = f;
+        if (f != null) {
+            lastForgetTime = f.time();
+        }
+    }
+
     /**
      * Change priority value
      * @param v The new priority
@@ -119,6 +155,9 @@ public class BudgetValue implements Cloneable, Serializable {
             //v=1.0f;
         }
         priority = v;
+        if (forgetting != null) {
+            lastForgetTime = forgetting.time();
+        }
     }
 
     /**
@@ -126,12 +165,12 @@ public class BudgetValue implements Cloneable, Serializable {
      * @param v The increasing percent
      */
     public void incPriority(final float v) {        
-        setPriority( (float) Math.min(1.0, or(priority, v)));
+        setPriority( (float) Math.min(1.0, or(getPriority(), v)));
     }
 
     /** AND's (multiplies) priority with another value */
     public void andPriority(final float v) {
-        setPriority( and(priority, v) );
+        setPriority( and(getPriority(), v) );
     }
 
     /**
@@ -139,7 +178,7 @@ public class BudgetValue implements Cloneable, Serializable {
      * @param v The decreasing percent
      */
     public void decPriority(final float v) {
-        setPriority( and(priority, v) );
+        setPriority( and(getPriority(), v) );
     }
 
     /**
@@ -239,7 +278,7 @@ public class BudgetValue implements Cloneable, Serializable {
      * @return The summary value
      */
     public float summary() {
-        return aveGeo(priority, durability, quality);
+        return aveGeo(getPriority(), durability, quality);
     }
 
     
@@ -274,7 +313,7 @@ public class BudgetValue implements Cloneable, Serializable {
      */
     @Override
     public String toString() {
-        return MARK + Texts.n4(priority) + SEPARATOR + Texts.n4(durability) + SEPARATOR + Texts.n4(quality) + MARK;
+        return MARK + Texts.n4(getPriority()) + SEPARATOR + Texts.n4(durability) + SEPARATOR + Texts.n4(quality) + MARK;
     }
 
     /**
@@ -284,7 +323,7 @@ public class BudgetValue implements Cloneable, Serializable {
     public String toStringExternal() {
         //return MARK + priority.toStringBrief() + SEPARATOR + durability.toStringBrief() + SEPARATOR + quality.toStringBrief() + MARK;
 
-        final CharSequence priorityString = Texts.n2(priority);
+        final CharSequence priorityString = Texts.n2(getPriority());
         final CharSequence durabilityString = Texts.n2(durability);
         final CharSequence qualityString = Texts.n2(quality);
         return new StringBuilder(1 + priorityString.length() + 1 + durabilityString.length() + 1 + qualityString.length() + 1)
@@ -26,11 +26,6 @@ import java.util.Collections;
 import java.util.List;
 
 import nars.control.ConceptProcessing;
-import nars.io.events.Events.BeliefSelect;
-import nars.io.events.Events.TaskLinkAdd;
-import nars.io.events.Events.TaskLinkRemove;
-import nars.io.events.Events.TermLinkAdd;
-import nars.io.events.Events.TermLinkRemove;
 import nars.storage.Memory;
 import nars.main.Shell;
 import nars.main.Parameters;
@@ -42,7 +37,7 @@ import nars.io.Symbols.NativeOperator;
 import nars.language.CompoundTerm;
 import nars.language.Term;
 import nars.storage.Bag;
-import nars.storage.LevelBag;
+import nars.storage.BeliefTable;
 import static nars.inference.UtilityFunctions.or;
 
 public class Concept extends Item<Term> implements Serializable {
@@ -88,16 +83,15 @@ public class Concept extends Item<Term> implements Serializable {
     public final List<Task> quests;
 
     /**
-     * Judgments directly made about the term Use ArrayList because of access
-     * and insertion in the middle
+     * Judgments directly made about the term, ordered by rank
      */
-    public final ArrayList<Task> beliefs;
-    public final ArrayList<Task> executable_preconditions;
+    public final BeliefTable beliefs;
+    public final BeliefTable executable_preconditions;
 
     /**
      * Desire values on the term, similar to the above one
      */
-    public final ArrayList<Task> desires;
+    public final BeliefTable desires;
 
     /**
      * Reference to the memory to which the Concept belongs
@@ -112,6 +106,13 @@ public class Concept extends Item<Term> implements Serializable {
 
     public boolean observable = false;
 
+    /**
+     * Whether the concept may have changed since it was last written by a
+     * Checkpoint. Set wherever the concept is changed, cleared by the
+     * checkpoint which writes it.
+     */
+    public boolean dirty = true;
+
     /**
      * Constructor, called in Memory.getConcept only
      *
@@ -125,13 +126,17 @@ public class Concept extends Item<Term> implements Serializable {
         this.memory = memory;
 
         this.questions = new ArrayList<>();
-        this.beliefs = new ArrayList<>();
-        this.executable_preconditions = new ArrayList<>();
+        this.beliefs = new BeliefTable(false);
+        this.executable_preconditions = new BeliefTable(true);
         this.quests = new ArrayList<>();
-        this.desires = new ArrayList<>();
+        this.desires = new BeliefTable(false);
 
-        this.taskLinks = new LevelBag<>(Parameters.TASK_LINK_BAG_LEVELS, Parameters.TASK_LINK_BAG_SIZE);
-        this.termLinks = new LevelBag<>(Parameters.TERM_LINK_BAG_LEVELS, Parameters.TERM_LINK_BAG_SIZE);
+        this.taskLinks = memory.bags.newTaskLinkBag();
+        this.termLinks = memory.bags.newTermLinkBag();
+        if (memory.taskLinkForgetting != null) {
+            taskLinks.setForgetting(memory.taskLinkForgetting);
+            termLinks.setForgetting(memory.termLinkForgetting);
+        }
                 
         if (tm instanceof CompoundTerm) {
             this.termLinkTemplates = ((CompoundTerm) tm).prepareComponentLinks();
@@ -157,24 +162,47 @@ public class Concept extends Item<Term> implements Serializable {
 
 
 
-    public void addToTable(final Task task, final boolean rankTruthExpectation, final ArrayList<Task> table, final int max, final Class eventAdd, final Class eventRemove, final Object... extraEventArguments) {
+    /**
+     * Add a new belief (or goal) into a table at its rank, remove the one of
+     * the lowest rank when it is full, and emit the events of the change
+     *
+     * @param max The capacity of the table, tasks beyond it are removed
+     */
+    public void addToTable(final Task task, final BeliefTable table, final int max, final Class eventAdd, final Class eventRemove) {
+        addToTable(task, table, max, eventAdd, eventRemove, NO_ARGUMENTS);
+    }
+
+    /** no extra event arguments, without an array for each insert */
+    private static final Object[] NO_ARGUMENTS = new Object[0];
+
+    public void addToTable(final Task task, final BeliefTable table, final int max, final Class eventAdd, final Class eventRemove, final Object... extraEventArguments) {
+        dirty = true;
+        while (table.size() > max) { //capacity lowered since the last one was added
+            removedFromTable(table.remove(table.size() - 1), task, table, eventRemove, extraEventArguments);
+        }
         
         int preSize = table.size();
-        Task removedT;
-        Sentence removed = null;
-        removedT = addToTable(task, table, max, rankTruthExpectation);
-        if(removedT != null) {
-            removed=removedT.sentence;
+        Task removedT = table.add(task, max);
+        if ((preSize != table.size()) || (removedT != null)) {
+            if (table == beliefs) {
+                memory.beliefIndex.add(task.sentence.term, task);
+            }
         }
-
-        if (removed != null) {
-            memory.event.emit(eventRemove, this, removed, task, extraEventArguments);
+        if (removedT != null) {
+            removedFromTable(removedT, task, table, eventRemove, extraEventArguments);
         }
-        if ((preSize != table.size()) || (removed != null)) {
+        if ((preSize != table.size()) || (removedT != null)) {
             memory.event.emit(eventAdd, this, task, extraEventArguments);
         }
     }
     
+    private void removedFromTable(final Task removedT, final Task task, final BeliefTable table, final Class eventRemove, final Object[] extraEventArguments) {
+        if (table == beliefs) {
+            memory.beliefIndex.remove(removedT.sentence.term, removedT);
+        }
+        memory.event.emit(eventRemove, this, removedT.sentence, task, extraEventArguments);
+    }
+    
     /**
      * Link to a new task from all relevant concepts for continued processing in
      * the near future for unspecified time.
@@ -220,49 +248,12 @@ public class Concept extends Item<Term> implements Serializable {
         }
     }
 
-    /**
-     * Add a new belief (or goal) into the table Sort the beliefs/desires by
-     * rank, and remove redundant or low rank one
-     *
-     * @param newSentence The judgment to be processed
-     * @param table The table to be revised
-     * @param capacity The capacity of the table
-     * @return whether table was modified
-     */
-    public static Task addToTable(final Task newTask, final List<Task> table, final int capacity, boolean rankTruthExpectation) {
-        Sentence newSentence = newTask.sentence;
-        final float rank1 = rankBelief(newSentence, rankTruthExpectation);    // for the new isBelief
-        float rank2;        
-        int i;
-        for (i = 0; i < table.size(); i++) {
-            Sentence judgment2 = table.get(i).sentence;
-            rank2 = rankBelief(judgment2, rankTruthExpectation);
-            if (rank1 >= rank2) {
-                if (newSentence.truth.equals(judgment2.truth) && newSentence.stamp.equals(judgment2.stamp,false,true,true)) {
-                    //System.out.println(" ---------- Equivalent Belief: " + newSentence + " == " + judgment2);
-                    return null;
-                }
-                table.add(i, newTask);
-                break;
-            }            
-        }
-        
-        if (table.size() == capacity) {
-            // nothing
-        }
-        else if (table.size() > capacity) {
-            Task removed = table.remove(table.size() - 1);
-            return removed;
-        }
-        else if (i == table.size()) { // branch implies implicit table.size() < capacity
-            table.add(newTask);
-        }
-        
-        return null;
-    }
-
     /**
      * Select a belief value or desire value for a given query
+     * <p>
+     * The quality of a candidate is its confidence at most, so in a table
+     * ranked by confidence the search stops at the first one whose rank is
+     * not above the best quality found.
      *
      * @param query The query to be processed
      * @param list The list of beliefs or desires to be used
@@ -276,8 +267,12 @@ public class Concept extends Item<Term> implements Serializable {
         float beliefQuality;
         Task candidate = null;
         boolean rateByConfidence = true; //table vote, yes/no question / local processing
+        final BeliefTable table = (list instanceof BeliefTable && !((BeliefTable) list).rankTruthExpectation) ? (BeliefTable) list : null;
         synchronized (list) {            
             for (int i = 0; i < list.size(); i++) {
+                if (table != null && table.rank(i) <= currentBest) {
+                    break;
+                }
                 Task judgT = list.get(i);
                 Sentence judg = judgT.sentence;
                 beliefQuality = LocalRules.solutionQuality(rateByConfidence, query, judg, memory); //makes revision explicitly search for 
@@ -304,6 +299,7 @@ public class Concept extends Item<Term> implements Serializable {
      * @param taskLink The termLink to be inserted
      */
     protected boolean insertTaskLink(final TaskLink taskLink, DerivationContext nal) {        
+        dirty = true;
         Task target = taskLink.getTarget();
         
         //what question answering, question side:
@@ -330,7 +326,7 @@ public class Concept extends Item<Term> implements Serializable {
                 }
                 if(nSameContent > Parameters.TASKLINK_PER_CONTENT) { //ok we reached the maximum so lets delete the lowest
                     taskLinks.take(lowest);
-                    memory.emit(TaskLinkRemove.class, lowest, this);
+                    memory.emit(memory.taskLinkRemove, lowest, this);
                     break;
                 }
             }
@@ -342,16 +338,16 @@ public class Concept extends Item<Term> implements Serializable {
         
         if (removed!=null) {
             if (removed == taskLink) {
-                memory.emit(TaskLinkRemove.class, taskLink, this);
+                memory.emit(memory.taskLinkRemove, taskLink, this);
                 return false;
             }
             else {
-                memory.emit(TaskLinkRemove.class, removed, this);
+                memory.emit(memory.taskLinkRemove, removed, this);
             }
             
             removed.end();
         }
-        memory.emit(TaskLinkAdd.class, taskLink, this);
+        memory.emit(memory.taskLinkAdd, taskLink, this);
         return true;
     }
 
@@ -404,17 +400,18 @@ public class Concept extends Item<Term> implements Serializable {
      * @param termLink The termLink to be inserted
      */
     public boolean insertTermLink(final TermLink termLink) {
+        dirty = true;
         TermLink removed = termLinks.putIn(termLink);
         if (removed!=null) {
             if (removed == termLink) {
-                memory.emit(TermLinkRemove.class, termLink, this);
+                memory.emit(memory.termLinkRemove, termLink, this);
                 return false;
             }
             else {
-                memory.emit(TermLinkRemove.class, removed, this);
+                memory.emit(memory.termLinkRemove, removed, this);
             }
         }
-        memory.emit(TermLinkAdd.class, termLink, this);
+        memory.emit(memory.termLinkAdd, termLink, this);
         return true;        
     }
 
@@ -506,7 +503,7 @@ public class Concept extends Item<Term> implements Serializable {
 
         for (final Task beliefT : beliefs) {  
             Sentence belief = beliefT.sentence;
-            nal.emit(BeliefSelect.class, belief);
+            nal.memory.emit(nal.memory.beliefSelect, belief);
             nal.setTheNewStamp(taskStamp, belief.stamp, currentTime);
             
             Sentence projectedBelief = belief.projection(taskStamp.getOccurrenceTime(), memory.time());
@@ -591,14 +588,17 @@ public class Concept extends Item<Term> implements Serializable {
     }
 
     public void discountConfidence(final boolean onBeliefs) {
+        dirty = true;
         if (onBeliefs) {
             for (final Task t : beliefs) {
                 t.sentence.discountConfidence();
             }
+            beliefs.rerank();
         } else {
             for (final Task t : desires) {
                 t.sentence.discountConfidence();
             }
+            desires.rerank();
         }
     }
 
@@ -41,6 +41,7 @@ import nars.language.Interval;
 import nars.language.Interval.AtomicDuration;
 import nars.language.Statement;
 import nars.language.Term;
+import nars.language.TermStore;
 import nars.language.Variable;
 
 /**
@@ -236,7 +237,7 @@ public class Sentence<T extends Term> implements Cloneable, Serializable {
             c.setNormalized(true);            
         }
         else {
-            this.term = _content;
+            this.term = TermStore.intern(_content);
         }
     
         if (isNotTermlinkNormalizer())
@@ -24,7 +24,6 @@ import com.google.common.collect.Iterators;
 import java.io.Serializable;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import nars.storage.Memory;
 import nars.main.Parameters;
@@ -53,6 +52,10 @@ public class Stamp implements Cloneable, Serializable {
     public static final long ETERNAL = Integer.MIN_VALUE;
     /** caches evidentialBase as a set for comparisons and hashcode, stores the unique Long's in-order for efficiency*/    
     private long[] evidentialSet = null;
+    /** 128 bit bloom signature of the evidential base, a stamp can only overlap with stamps sharing one of its bits */
+    private long evidentialBloomLow, evidentialBloomHigh;
+    /** false if the evidential base is known to not contain a serial twice */
+    private boolean evidentialMayRepeat;
     /*Tense of the item*/
     private Tense tense;
     /*True when its a neg confirmation task that was already checked:*/
@@ -96,6 +99,7 @@ public class Stamp implements Cloneable, Serializable {
         this.baseLength = 1;
         this.evidentialBase = new long[baseLength];
         this.evidentialBase[0] = serial;
+        indexEvidentialBase();
         this.tense = tense;
         this.creationTime = -1;
     }
@@ -135,6 +139,9 @@ public class Stamp implements Cloneable, Serializable {
     public Stamp(final Stamp old, final long creationTime, final Stamp useEvidentialBase) {        
         this.evidentialBase = useEvidentialBase.evidentialBase;
         this.baseLength = useEvidentialBase.baseLength;
+        this.evidentialBloomLow = useEvidentialBase.evidentialBloomLow;
+        this.evidentialBloomHigh = useEvidentialBase.evidentialBloomHigh;
+        this.evidentialMayRepeat = useEvidentialBase.evidentialMayRepeat;
         this.creationTime = creationTime;
 
         this.occurrenceTime = old.getOccurrenceTime();
@@ -172,6 +179,29 @@ public class Stamp implements Cloneable, Serializable {
                 evidentialBase[j++] = firstBase[i1++];
             }
         }
+        
+        if (baseLength == firstLength + secondLength) { //the signature of all serials of both
+            evidentialBloomLow = first.evidentialBloomLow | second.evidentialBloomLow;
+            evidentialBloomHigh = first.evidentialBloomHigh | second.evidentialBloomHigh;
+            evidentialMayRepeat = first.evidentialMayRepeat || second.evidentialMayRepeat || 
+                    bloomIntersects(first, second);
+        } else {
+            indexEvidentialBase();
+        }
+    }
+
+    /**
+     * Restore a stamp, of a snapshot for example
+     *
+     * @param evidentialBase The serials of the evidential base
+     * @param creationTime Creation time of the stamp
+     * @param occurrenceTime Occurrence time, or ETERNAL
+     */
+    public Stamp(final long[] evidentialBase, final long creationTime, final long occurrenceTime) {
+        setEvidentialBase(evidentialBase);
+        this.creationTime = creationTime;
+        this.occurrenceTime = occurrenceTime;
+        this.tense = (occurrenceTime == ETERNAL) ? Tense.Eternal : Tense.Present;
     }
 
     public Stamp(final Memory memory, final Tense tense) {
@@ -183,34 +213,109 @@ public class Stamp implements Cloneable, Serializable {
         this(memory, Tense.Present);
     }
     
-    /** Detects evidental base overlaps **/
-    public static boolean baseOverlap(long[] base1, long[] base2) {
-        HashSet<Long> task_base = new HashSet<>(base1.length + base2.length);
-        for(int i=0; i < base1.length; i++) {
-            if(task_base.contains(base1[i])) { //can have an overlap in itself already
-                return true;
+    /** Detects evidental base overlaps, also when a base has an overlap in itself already **/
+    public static boolean baseOverlap(final long[] base1, final long[] base2) {
+        final int n = base1.length + base2.length;
+        if (n <= 32) { //compare pairwise, without allocation
+            for (int i = 0; i < base1.length; i++) {
+                final long b = base1[i];
+                for (int j = i + 1; j < base1.length; j++) {
+                    if (b == base1[j]) return true;
+                }
+                for (int j = 0; j < base2.length; j++) {
+                    if (b == base2[j]) return true;
+                }
             }
-            task_base.add(base1[i]);
-        }
-        for(int i=0; i < base2.length; i++) {
-            if(task_base.contains(base2[i])) {
-                return true;
+            for (int i = 0; i < base2.length; i++) {
+                for (int j = i + 1; j < base2.length; j++) {
+                    if (base2[i] == base2[j]) return true;
+                }
             }
-            task_base.add(base2[i]); //also add to detect collision with itself
+            return false;
+        }
+        final long[] all = Arrays.copyOf(base1, n);
+        System.arraycopy(base2, 0, all, base1.length, base2.length);
+        Arrays.sort(all);
+        for (int i = 1; i < n; i++) {
+            if (all[i - 1] == all[i]) return true;
+        }
+        return false;
+    }
+    
+    /** 
+     * Detects evidental base overlaps of two stamps, like baseOverlap(long[], long[]).
+     * Most stamps without overlap are rejected by their bloom signatures,
+     * the others are compared by merging their sorted evidential sets.
+     */
+    public static boolean baseOverlap(final Stamp a, final Stamp b) {
+        if (a.evidenceIsCyclic() || b.evidenceIsCyclic()) {
+            return true;
+        }
+        if (!bloomIntersects(a, b)) {
+            return false;
+        }
+        final long[] x = a.toSet(), y = b.toSet();
+        int i = 0, j = 0;
+        while ((i < x.length) && (j < y.length)) {
+            if (x[i] < y[j]) i++;
+            else if (x[i] > y[j]) j++;
+            else return true;
         }
         return false;
-     }
+    }
     
     public boolean evidenceIsCyclic() {
-        HashSet<Long> task_base = new HashSet<Long>(this.evidentialBase.length);
-        boolean cyclic = false;
-        for(int i=0; i < this.evidentialBase.length; i++) {
-            if(task_base.contains(Long.valueOf(this.evidentialBase[i]))) { //can have an overlap in itself already
-                return true;
+        //a repetition sets a bit twice, so a base can only be cyclic if this happened
+        return evidentialMayRepeat && (toSet().length < evidentialBase.length);
+    }
+    
+    /** whether every serial of this stamp's evidential base is also in the one of s */
+    public boolean evidenceIsSubsetOf(final Stamp s) {
+        if (((evidentialBloomLow & ~s.evidentialBloomLow) != 0) || 
+                ((evidentialBloomHigh & ~s.evidentialBloomHigh) != 0)) {
+            return false;
+        }
+        final long[] x = toSet(), y = s.toSet();
+        int j = 0;
+        for (final long serial : x) {
+            while ((j < y.length) && (y[j] < serial)) j++;
+            if ((j == y.length) || (y[j] != serial)) return false;
+        }
+        return true;
+    }
+    
+    private static boolean bloomIntersects(final Stamp a, final Stamp b) {
+        return ((a.evidentialBloomLow & b.evidentialBloomLow) != 0) || 
+               ((a.evidentialBloomHigh & b.evidentialBloomHigh) != 0);
+    }
+    
+    /** computes the bloom signature of evidentialBase */
+    private void indexEvidentialBase() {
+        long low = 0, high = 0;
+        boolean repeat = false;
+        for (final long serial : evidentialBase) {
+            final int bit = (int) ((serial * 0x9E3779B97F4A7C15L) >>> 57); //0..127
+            final long m = 1L << bit; //uses the lower 6 bits
+            if (bit < 64) {
+                repeat |= (low & m) != 0;
+                low |= m;
+            } else {
+                repeat |= (high & m) != 0;
+                high |= m;
             }
-            task_base.add(this.evidentialBase[i]);
         }
-        return false;
+        evidentialBloomLow = low;
+        evidentialBloomHigh = high;
+        evidentialMayRepeat = repeat;
+    }
+    
+    /** replaces the evidential base, for stamps which are built up before their sentence is created */
+    public void setEvidentialBase(final long[] base) {
+        evidentialBase = base;
+        baseLength = base.length;
+        evidentialSet = null;
+        name = null;
+        indexEvidentialBase();
     }
 
     public boolean isEternal() {
@@ -300,12 +405,14 @@ public class Stamp implements Cloneable, Serializable {
      * @return The TreeSet representation of the evidential base
      */
     private long[] toSet() {        
-        if (evidentialSet == null) {        
-            evidentialSet = toSetArray(evidentialBase);
-            evidentialHash = Arrays.hashCode(evidentialSet);
+        long[] set = evidentialSet;
+        if (set == null) {        
+            set = toSetArray(evidentialBase);
+            evidentialHash = Arrays.hashCode(set);
+            evidentialSet = set; //after the hash, which is valid once the set is
         }
         
-        return evidentialSet;
+        return set;
     }
 
     
@@ -76,6 +76,20 @@ public class Task<T extends Term> extends Item<Sentence<T>> implements Serializa
         this.bestSolution = solution;   
     }
     
+    /**
+     * Constructor for a restored task, of a snapshot for example
+     *
+     * @param s The sentence
+     * @param b The budget
+     * @param parentBelief The belief from which the task was derived
+     * @param solution The best solution found so far
+     * @param isInput Whether the task was input
+     */
+    public Task(final Sentence<T> s, final BudgetValue b, final Sentence parentBelief, final Sentence solution, final boolean isInput) {
+        this(s, b, parentBelief, solution);
+        this.isInput = isInput;
+    }
+
     /**
      * Constructor for an activated task
      *
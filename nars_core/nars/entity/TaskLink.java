@@ -21,9 +21,7 @@
 package nars.entity;
 
 import java.io.Serializable;
-import java.util.ArrayDeque;
-import java.util.Deque;
-import java.util.Iterator;
+import java.util.Arrays;
 import nars.main.Parameters;
 import nars.language.Term;
 
@@ -41,34 +39,176 @@ public class TaskLink extends Item<Task> implements TLink<Task>, Serializable {
      * The Task linked. The "target" field in TermLink is not used here.
      */
     public final Task targetTask;
-    private final int recordLength;
     
     
-    /* Remember the TermLinks, and when they has been used recently with this TaskLink */
-    public final static class Recording implements Serializable {
-    
-        public final TermLink link;
-        long time;
+    /**
+     * Remember the TermLinks, and when they has been used recently with this
+     * TaskLink: the most recently used ones, in a few arrays allocated by the
+     * first record, so that a lookup is a hash probe and a record allocates
+     * nothing.
+     * <p>
+     * The records are in a list from the oldest to the newest, linked by slot,
+     * and the slots of the links are in an open addressing table by hash.
+     */
+    public final static class Records implements Serializable {
+
+        /** largest number of records */
+        public static final int MAX_CAPACITY = Short.MAX_VALUE;
+
+        public final int capacity;
+        int size = 0;
+
+        /** the links and their last use, in the slots below size */
+        private TermLink[] links;
+        private long[] times;
+        /** next older and newer slot, -1 at the ends */
+        private short[] older, newer;
+        private int oldest = -1, newest = -1;
 
-        public Recording(TermLink link, long time) {
-            this.link = link;
-            this.time = time;
+        /** slot + 1 of the links by hash, 0 if free; linear probing */
+        private short[] table;
+
+        public Records(final int capacity) {
+            if (capacity > MAX_CAPACITY) {
+                throw new IllegalArgumentException(capacity + " TaskLink records");
+            }
+            this.capacity = Math.max(1, capacity);
         }
 
-        public long getTime() {
-            return time;
+        public int size() {
+            return size;
         }
 
-        
-        public void setTime(long t) {
-            this.time = t;
+        public void clear() {
+            if (links != null) {
+                Arrays.fill(links, null);
+                Arrays.fill(table, (short) 0);
+            }
+            size = 0;
+            oldest = newest = -1;
+        }
+
+        private static int hash(final TermLink link) {
+            final int h = link.hashCode();
+            return h ^ (h >>> 16);
+        }
+
+        /** position of a link in the table, or of the free entry where it would go */
+        private int position(final TermLink link) {
+            final int mask = table.length - 1;
+            int i = hash(link) & mask;
+            int s;
+            while ((s = table[i]) != 0) {
+                if (link.equals(links[s - 1])) {
+                    return i;
+                }
+                i = (i + 1) & mask;
+            }
+            return i;
+        }
+
+        /** frees a position of the table, shifting back the entries probed past it */
+        private void unindex(int i) {
+            final int mask = table.length - 1;
+            int j = i;
+            while (true) {
+                j = (j + 1) & mask;
+                final int s = table[j];
+                if (s == 0) {
+                    break;
+                }
+                final int home = hash(links[s - 1]) & mask;
+                //move the entry at j to i unless its home lies cyclically in (i, j]
+                if ((i < j) ? (home <= i || home > j) : (home <= i && home > j)) {
+                    table[i] = table[j];
+                    i = j;
+                }
+            }
+            table[i] = 0;
+        }
+
+        /** slot of a link, or -1 */
+        public int slot(final TermLink link) {
+            if (size == 0) {
+                return -1;
+            }
+            return table[position(link)] - 1;
+        }
+
+        public TermLink getLink(final int slot) {
+            return links[slot];
+        }
+
+        public long getTime(final int slot) {
+            return times[slot];
+        }
+
+        /** slot of the oldest record, -1 if there is none */
+        public int oldest() {
+            return oldest;
+        }
+
+        /** slot of the next newer record, -1 after the newest */
+        public int newer(final int slot) {
+            return newer[slot];
+        }
+
+        private void unlink(final int s) {
+            if (older[s] == -1) {
+                oldest = newer[s];
+            } else {
+                newer[older[s]] = newer[s];
+            }
+            if (newer[s] == -1) {
+                newest = older[s];
+            } else {
+                older[newer[s]] = older[s];
+            }
+        }
+
+        private void append(final int s, final long time) {
+            times[s] = time;
+            older[s] = (short) newest;
+            newer[s] = -1;
+            if (newest == -1) {
+                oldest = s;
+            } else {
+                newer[newest] = (short) s;
+            }
+            newest = s;
+        }
+
+        /** makes the record of a slot the newest, used at a time */
+        public void renew(final int slot, final long time) {
+            unlink(slot);
+            append(slot, time);
+        }
+
+        /** records a link as the newest, forgetting the oldest one when full */
+        public void add(final TermLink link, final long time) {
+            if (links == null) {
+                final int n = capacity;
+                links = new TermLink[n];
+                times = new long[n];
+                older = new short[n];
+                newer = new short[n];
+                table = new short[Integer.highestOneBit(n * 2 - 1) * 2];
+            }
+            final int s;
+            if (size == capacity) {
+                s = oldest;
+                unindex(position(links[s]));
+                unlink(s);
+            } else {
+                s = size++;
+            }
+            links[s] = link;
+            table[position(link)] = (short) (s + 1);
+            append(s, time);
         }
-        
     }
     
-    public final Deque<Recording> records;
-    
-
+    public final Records records;
     
     /** The type of link, one of the above */    
     public final short type;
@@ -101,8 +241,8 @@ public class TaskLink extends Item<Task> implements TLink<Task>, Serializable {
         
         this.targetTask = t;
         
-        this.recordLength = recordLength;
-        this.records = new ArrayDeque(recordLength);
+        //as many as the record length counting the link checked
+        this.records = new Records(recordLength - 1);
         
     }
 
@@ -160,33 +300,21 @@ public class TaskLink extends Item<Task> implements TLink<Task>, Serializable {
         if (!transformTask && bTerm.equals(targetTask.sentence.term)) {            
             return false;
         }
-        TermLink linkKey = termLink.name();
-        int next, i;
-                
-        //iterating the FIFO deque from oldest (first) to newest (last)
-        Iterator<Recording> ir = records.iterator();
-        while (ir.hasNext()) {
-            Recording r = ir.next();
-            if (linkKey.equals(r.link)) {
-                if (currentTime < r.getTime() + Parameters.NOVELTY_HORIZON) {
-                    //too recent, not novel
-                    return false;
-                } else {
-                    //happened long enough ago that we have forgotten it somewhat, making it seem more novel
-                    r.setTime(currentTime);
-                    ir.remove();
-                    records.addLast(r);
-                    return true;
-                }
+        final TermLink linkKey = termLink.name();
+        final int r = records.slot(linkKey);
+        if (r != -1) {
+            if (currentTime < records.getTime(r) + Parameters.NOVELTY_HORIZON) {
+                //too recent, not novel
+                return false;
+            } else {
+                //happened long enough ago that we have forgotten it somewhat, making it seem more novel
+                records.renew(r, currentTime);
+                return true;
             }
         }
         
-        
-        //keep recordedLinks queue a maximum finite size
-        while (records.size() + 1 >= recordLength) records.removeFirst();
-        
-        // add knowledge reference to recordedLinks
-        records.addLast(new Recording(linkKey, currentTime));
+        // add knowledge reference to recordedLinks, forgetting the oldest one
+        records.add(linkKey, currentTime);
         
         return true;
     }
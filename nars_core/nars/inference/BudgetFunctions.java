@@ -199,6 +199,29 @@ public final class BudgetFunctions extends UtilityFunctions {
         return quality;
     }
 
+    /**
+     * Decrease Priority with the time passed, for lazy forgetting which is
+     * evaluated when the priority is read instead of each time the item is
+     * used: after forgetCycles cycles p-q becomes d*(p-q), whether the item
+     * was accessed or not.
+     *
+     * @param priority The priority when it was last evaluated
+     * @param durability The durability of the budget
+     * @param quality The quality of the budget
+     * @param cycles The cycles passed since then
+     * @param forgetCycles The cycles in which p-q decays by d
+     * @param relativeThreshold The relative threshold of the bag
+     * @return The decayed priority
+     */
+    public static float decay(final float priority, final float durability, final float quality, final long cycles, final float forgetCycles, final float relativeThreshold) {
+        final float q = quality * relativeThreshold;      // re-scaled quality
+        final float p = priority - q;                     // priority above quality
+        if (p <= 0 || cycles <= 0) {
+            return priority;
+        }
+        return q + p * (float) pow(durability, cycles / forgetCycles);
+    }
+
     
     /**
      * Merge an item into another one in a bag, when the two are identical
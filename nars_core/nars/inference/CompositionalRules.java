@@ -25,6 +25,7 @@ import nars.main.Parameters;
 import nars.entity.BudgetValue;
 import nars.entity.Concept;
 import nars.control.DerivationContext;
+import nars.control.Profiler;
 import nars.entity.Sentence;
 import nars.entity.Task;
 import nars.entity.TruthValue;
@@ -80,73 +81,78 @@ public final class CompositionalRules {
      * @param nal Reference to the memory
      */
     static void composeCompound(final Statement taskContent, final Statement beliefContent, final int index, final DerivationContext nal) {
-        if ((!nal.getCurrentTask().sentence.isJudgment()) || (taskContent.getClass() != beliefContent.getClass())) {
-            return;
-        }   
-        final Term componentT = taskContent.term[1 - index];
-        final Term componentB = beliefContent.term[1 - index];
-        final Term componentCommon = taskContent.term[index];
-        int order1 = taskContent.getTemporalOrder();
-        int order2 = beliefContent.getTemporalOrder();
-        int order = TemporalRules.composeOrder(order1, order2);
-        if (order == TemporalRules.ORDER_INVALID) {
-            return;
-        } 
-        if ((componentT instanceof CompoundTerm) && ((CompoundTerm) componentT).containsAllTermsOf(componentB)) {
-            decomposeCompound((CompoundTerm) componentT, componentB, componentCommon, index, true, order, nal);
-            return;
-        } else if ((componentB instanceof CompoundTerm) && ((CompoundTerm) componentB).containsAllTermsOf(componentT)) {
-            decomposeCompound((CompoundTerm) componentB, componentT, componentCommon, index, false, order, nal);
-            return;
-        }
-        final TruthValue truthT = nal.getCurrentTask().sentence.truth;
-        final TruthValue truthB = nal.getCurrentBelief().truth;
-        final TruthValue truthOr = union(truthT, truthB);
-        final TruthValue truthAnd = intersection(truthT, truthB);
-        TruthValue truthDif = null;
-        Term termOr = null;
-        Term termAnd = null;
-        Term termDif = null;
-        if (index == 0) {
-            if (taskContent instanceof Inheritance) {
-                termOr = IntersectionInt.make(componentT, componentB);
-                termAnd = IntersectionExt.make(componentT, componentB);
-                if (truthB.isNegative()) {
-                    if (!truthT.isNegative()) {
-                        termDif = DifferenceExt.make(componentT, componentB);
-                        truthDif = intersection(truthT, negation(truthB));
+        Profiler.enter(nal.memory, Profiler.COMPOSE_COMPOUND);
+        try {
+            if ((!nal.getCurrentTask().sentence.isJudgment()) || (taskContent.getClass() != beliefContent.getClass())) {
+                return;
+            }   
+            final Term componentT = taskContent.term[1 - index];
+            final Term componentB = beliefContent.term[1 - index];
+            final Term componentCommon = taskContent.term[index];
+            int order1 = taskContent.getTemporalOrder();
+            int order2 = beliefContent.getTemporalOrder();
+            int order = TemporalRules.composeOrder(order1, order2);
+            if (order == TemporalRules.ORDER_INVALID) {
+                return;
+            } 
+            if ((componentT instanceof CompoundTerm) && ((CompoundTerm) componentT).containsAllTermsOf(componentB)) {
+                decomposeCompound((CompoundTerm) componentT, componentB, componentCommon, index, true, order, nal);
+                return;
+            } else if ((componentB instanceof CompoundTerm) && ((CompoundTerm) componentB).containsAllTermsOf(componentT)) {
+                decomposeCompound((CompoundTerm) componentB, componentT, componentCommon, index, false, order, nal);
+                return;
+            }
+            final TruthValue truthT = nal.getCurrentTask().sentence.truth;
+            final TruthValue truthB = nal.getCurrentBelief().truth;
+            final TruthValue truthOr = union(truthT, truthB);
+            final TruthValue truthAnd = intersection(truthT, truthB);
+            TruthValue truthDif = null;
+            Term termOr = null;
+            Term termAnd = null;
+            Term termDif = null;
+            if (index == 0) {
+                if (taskContent instanceof Inheritance) {
+                    termOr = IntersectionInt.make(componentT, componentB);
+                    termAnd = IntersectionExt.make(componentT, componentB);
+                    if (truthB.isNegative()) {
+                        if (!truthT.isNegative()) {
+                            termDif = DifferenceExt.make(componentT, componentB);
+                            truthDif = intersection(truthT, negation(truthB));
+                        }
+                    } else if (truthT.isNegative()) {
+                        termDif = DifferenceExt.make(componentB, componentT);
+                        truthDif = intersection(truthB, negation(truthT));
                     }
-                } else if (truthT.isNegative()) {
-                    termDif = DifferenceExt.make(componentB, componentT);
-                    truthDif = intersection(truthB, negation(truthT));
+                } else if (taskContent instanceof Implication) {
+                    termOr = Disjunction.make(componentT, componentB);
+                    termAnd = Conjunction.make(componentT, componentB);
                 }
-            } else if (taskContent instanceof Implication) {
-                termOr = Disjunction.make(componentT, componentB);
-                termAnd = Conjunction.make(componentT, componentB);
-            }
-            processComposed(taskContent, componentCommon, termOr, order, truthOr, nal);
-            processComposed(taskContent, componentCommon, termAnd, order, truthAnd, nal);
-            processComposed(taskContent, componentCommon, termDif, order, truthDif, nal);
-        } else {    // index == 1
-            if (taskContent instanceof Inheritance) {
-                termOr = IntersectionExt.make(componentT, componentB);
-                termAnd = IntersectionInt.make(componentT, componentB);
-                if (truthB.isNegative()) {
-                    if (!truthT.isNegative()) {
-                        termDif = DifferenceInt.make(componentT, componentB);
-                        truthDif = intersection(truthT, negation(truthB));
+                processComposed(taskContent, componentCommon, termOr, order, truthOr, nal);
+                processComposed(taskContent, componentCommon, termAnd, order, truthAnd, nal);
+                processComposed(taskContent, componentCommon, termDif, order, truthDif, nal);
+            } else {    // index == 1
+                if (taskContent instanceof Inheritance) {
+                    termOr = IntersectionExt.make(componentT, componentB);
+                    termAnd = IntersectionInt.make(componentT, componentB);
+                    if (truthB.isNegative()) {
+                        if (!truthT.isNegative()) {
+                            termDif = DifferenceInt.make(componentT, componentB);
+                            truthDif = intersection(truthT, negation(truthB));
+                        }
+                    } else if (truthT.isNegative()) {
+                        termDif = DifferenceInt.make(componentB, componentT);
+                        truthDif = intersection(truthB, negation(truthT));
                     }
-                } else if (truthT.isNegative()) {
-                    termDif = DifferenceInt.make(componentB, componentT);
-                    truthDif = intersection(truthB, negation(truthT));
+                } else if (taskContent instanceof Implication) {
+                    termOr = Conjunction.make(componentT, componentB);
+                    termAnd = Disjunction.make(componentT, componentB);
                 }
-            } else if (taskContent instanceof Implication) {
-                termOr = Conjunction.make(componentT, componentB);
-                termAnd = Disjunction.make(componentT, componentB);
+                processComposed(taskContent, termOr, componentCommon, order, truthOr, nal);
+                processComposed(taskContent, termAnd, componentCommon, order, truthAnd, nal);
+                processComposed(taskContent, termDif, componentCommon, order, truthDif, nal);
             }
-            processComposed(taskContent, termOr, componentCommon, order, truthOr, nal);
-            processComposed(taskContent, termAnd, componentCommon, order, truthAnd, nal);
-            processComposed(taskContent, termDif, componentCommon, order, truthDif, nal);
+        } finally {
+            Profiler.exit(nal.memory, Profiler.COMPOSE_COMPOUND);
         }
     }
 
@@ -277,81 +283,86 @@ public final class CompositionalRules {
      * @param nal Reference to the memory
      */
     static void decomposeStatement(CompoundTerm compound, Term component, boolean compoundTask, int index, DerivationContext nal) {
-        boolean isTemporalConjunction = (compound instanceof Conjunction) && !((Conjunction) compound).isSpatial;
-        if (isTemporalConjunction && (compound.getTemporalOrder() == TemporalRules.ORDER_FORWARD) && (index != 0)) {
-            return;
-        }
-        if(isTemporalConjunction && (compound.getTemporalOrder() == TemporalRules.ORDER_FORWARD)) {
-            if(!nal.getCurrentTask().sentence.isEternal() && compound.term[index + 1] instanceof Interval) {
-                long shift_occurrence = ((Interval)compound.term[1]).getTime(nal.memory);
-                nal.getTheNewStamp().setOccurrenceTime(nal.getCurrentTask().sentence.getOccurenceTime() + shift_occurrence);
+        Profiler.enter(nal.memory, Profiler.DECOMPOSE_STATEMENT);
+        try {
+            boolean isTemporalConjunction = (compound instanceof Conjunction) && !((Conjunction) compound).isSpatial;
+            if (isTemporalConjunction && (compound.getTemporalOrder() == TemporalRules.ORDER_FORWARD) && (index != 0)) {
+                return;
             }
-        }
-
-        Task task = nal.getCurrentTask();
-        Sentence taskSentence = task.sentence;
-        Sentence belief = nal.getCurrentBelief();
-        Term content = reduceComponents(compound, component, nal.mem());
-        if (content == null) {
-            return;
-        }
-        TruthValue truth = null;
-        BudgetValue budget;
-        if (taskSentence.isQuestion() || taskSentence.isQuest()) {
-            budget = BudgetFunctions.compoundBackward(content, nal);
-            nal.doublePremiseTask(content, truth, budget, false, false);
-            // special inference to answer conjunctive questions with query variables
-            if (taskSentence.term.hasVarQuery()) {
-                Concept contentConcept = nal.mem().concept(content);
-                if (contentConcept == null) {
-                    return;
+            if(isTemporalConjunction && (compound.getTemporalOrder() == TemporalRules.ORDER_FORWARD)) {
+                if(!nal.getCurrentTask().sentence.isEternal() && compound.term[index + 1] instanceof Interval) {
+                    long shift_occurrence = ((Interval)compound.term[1]).getTime(nal.memory);
+                    nal.getTheNewStamp().setOccurrenceTime(nal.getCurrentTask().sentence.getOccurenceTime() + shift_occurrence);
                 }
-                Sentence contentBelief = contentConcept.getBelief(nal, task);
-                if (contentBelief == null) {
-                    return;
-                }
-                Task contentTask = new Task(contentBelief, task.budget, false);
-                nal.setCurrentTask(contentTask);
-                Term conj = Conjunction.make(component, content);
-                truth = intersection(contentBelief.truth, belief.truth);
-                budget = BudgetFunctions.compoundForward(truth, conj, nal);
-                nal.doublePremiseTask(conj, truth, budget, false, false);
             }
-        } else {
-            TruthValue v1, v2;
-            if (compoundTask) {
-                v1 = taskSentence.truth;
-                v2 = belief.truth;
-            } else {
-                v1 = belief.truth;
-                v2 = taskSentence.truth;
+
+            Task task = nal.getCurrentTask();
+            Sentence taskSentence = task.sentence;
+            Sentence belief = nal.getCurrentBelief();
+            Term content = reduceComponents(compound, component, nal.mem());
+            if (content == null) {
+                return;
             }
-            if (compound instanceof Conjunction) {
-                if (taskSentence.isGoal()) {
-                    if (compoundTask) {
-                        truth = intersection(v1, v2);
-                    } else {
+            TruthValue truth = null;
+            BudgetValue budget;
+            if (taskSentence.isQuestion() || taskSentence.isQuest()) {
+                budget = BudgetFunctions.compoundBackward(content, nal);
+                nal.doublePremiseTask(content, truth, budget, false, false);
+                // special inference to answer conjunctive questions with query variables
+                if (taskSentence.term.hasVarQuery()) {
+                    Concept contentConcept = nal.mem().concept(content);
+                    if (contentConcept == null) {
                         return;
                     }
-                } else { // isJudgment
-                    truth = reduceConjunction(v1, v2);
-                }
-            } else if (compound instanceof Disjunction) {
-                if (taskSentence.isGoal()) {
-                    if (compoundTask) {
-                        truth = reduceConjunction(v2, v1);
-                    } else {
+                    Sentence contentBelief = contentConcept.getBelief(nal, task);
+                    if (contentBelief == null) {
                         return;
                     }
-                } else {  // isJudgment
-                    truth = reduceDisjunction(v1, v2);
+                    Task contentTask = new Task(contentBelief, task.budget, false);
+                    nal.setCurrentTask(contentTask);
+                    Term conj = Conjunction.make(component, content);
+                    truth = intersection(contentBelief.truth, belief.truth);
+                    budget = BudgetFunctions.compoundForward(truth, conj, nal);
+                    nal.doublePremiseTask(conj, truth, budget, false, false);
                 }
             } else {
-                return;
+                TruthValue v1, v2;
+                if (compoundTask) {
+                    v1 = taskSentence.truth;
+                    v2 = belief.truth;
+                } else {
+                    v1 = belief.truth;
+                    v2 = taskSentence.truth;
+                }
+                if (compound instanceof Conjunction) {
+                    if (taskSentence.isGoal()) {
+                        if (compoundTask) {
+                            truth = intersection(v1, v2);
+                        } else {
+                            return;
+                        }
+                    } else { // isJudgment
+                        truth = reduceConjunction(v1, v2);
+                    }
+                } else if (compound instanceof Disjunction) {
+                    if (taskSentence.isGoal()) {
+                        if (compoundTask) {
+                            truth = reduceConjunction(v2, v1);
+                        } else {
+                            return;
+                        }
+                    } else {  // isJudgment
+                        truth = reduceDisjunction(v1, v2);
+                    }
+                } else {
+                    return;
+                }
+                budget = BudgetFunctions.compoundForward(truth, content, nal);
             }
-            budget = BudgetFunctions.compoundForward(truth, content, nal);
+            nal.doublePremiseTask(content, truth, budget, false, false);
+        } finally {
+            Profiler.exit(nal.memory, Profiler.DECOMPOSE_STATEMENT);
         }
-        nal.doublePremiseTask(content, truth, budget, false, false);
     }
 
     
@@ -367,192 +378,196 @@ public final class CompositionalRules {
      * @param nal Reference to the memory
      */
     public static void introVarOuter(final Statement taskContent, final Statement beliefContent, final int index, final DerivationContext nal) {
+        Profiler.enter(nal.memory, Profiler.INTRO_VAR_OUTER);
+        try {
+            if (!(taskContent instanceof Inheritance)) {
+                return;
+            }
 
-        if (!(taskContent instanceof Inheritance)) {
-            return;
-        }
-
-        Variable varInd1 = new Variable("$varInd1");
-        Variable varInd2 = new Variable("$varInd2");
+            Variable varInd1 = new Variable("$varInd1");
+            Variable varInd2 = new Variable("$varInd2");
         
-        Term term11dependent=null, term12dependent=null, term21dependent=null, term22dependent=null;
-        Term term11, term12, term21, term22, commonTerm = null;
-        HashMap<Term, Term> subs = new HashMap<>();
-        if (index == 0) {
-            term11 = varInd1;
-            term21 = varInd1;
-            term12 = taskContent.getPredicate();
-            term22 = beliefContent.getPredicate();
-            term12dependent=term12;
-            term22dependent=term22;
-            if (term12 instanceof ImageExt) {
+            Term term11dependent=null, term12dependent=null, term21dependent=null, term22dependent=null;
+            Term term11, term12, term21, term22, commonTerm = null;
+            HashMap<Term, Term> subs = new HashMap<>();
+            if (index == 0) {
+                term11 = varInd1;
+                term21 = varInd1;
+                term12 = taskContent.getPredicate();
+                term22 = beliefContent.getPredicate();
+                term12dependent=term12;
+                term22dependent=term22;
+                if (term12 instanceof ImageExt) {
 
-                if ((/*(ImageExt)*/term12).containsTermRecursively(term22)) {
-                    commonTerm = term22;
+                    if ((/*(ImageExt)*/term12).containsTermRecursively(term22)) {
+                        commonTerm = term22;
+                    }
+                
+                    if(commonTerm == null && term12 instanceof ImageExt) {
+                        commonTerm = ((ImageExt) term12).getTheOtherComponent();
+                        if(!(term22.containsTermRecursively(commonTerm))) {
+                            commonTerm=null;
+                        }
+                        if (term22 instanceof ImageExt && ((commonTerm == null) || !(term22).containsTermRecursively(commonTerm))) {
+                            commonTerm = ((ImageExt) term22).getTheOtherComponent();
+                            if ((commonTerm == null) || !(term12).containsTermRecursively(commonTerm)) {
+                                commonTerm = null;
+                            }
+                        }
+                    }
+                
+                    if (commonTerm != null) {
+                        subs.put(commonTerm, varInd2);
+                        term12 = ((CompoundTerm) term12).applySubstitute(subs);
+                        if(!(term22 instanceof CompoundTerm)) {
+                            term22 = varInd2;
+                        } else {
+                            term22 = ((CompoundTerm) term22).applySubstitute(subs);
+                        }
+                    }
                 }
+                if (commonTerm==null && term22 instanceof ImageExt) {
                 
-                if(commonTerm == null && term12 instanceof ImageExt) {
-                    commonTerm = ((ImageExt) term12).getTheOtherComponent();
-                    if(!(term22.containsTermRecursively(commonTerm))) {
-                        commonTerm=null;
+                    if ((/*(ImageExt)*/term22).containsTermRecursively(term12)) {
+                        commonTerm = term12;
                     }
-                    if (term22 instanceof ImageExt && ((commonTerm == null) || !(term22).containsTermRecursively(commonTerm))) {
+                
+                    if(commonTerm == null && term22 instanceof ImageExt) {
                         commonTerm = ((ImageExt) term22).getTheOtherComponent();
-                        if ((commonTerm == null) || !(term12).containsTermRecursively(commonTerm)) {
-                            commonTerm = null;
+                        if(!(term12.containsTermRecursively(commonTerm))) {
+                            commonTerm=null;
+                        }
+                        if (term12 instanceof ImageExt && ((commonTerm == null) || !(term12).containsTermRecursively(commonTerm))) {
+                            commonTerm = ((ImageExt) term12).getTheOtherComponent();
+                            if ((commonTerm == null) || !(term22).containsTermRecursively(commonTerm)) {
+                                commonTerm = null;
+                            }
                         }
                     }
-                }
                 
-                if (commonTerm != null) {
-                    subs.put(commonTerm, varInd2);
-                    term12 = ((CompoundTerm) term12).applySubstitute(subs);
-                    if(!(term22 instanceof CompoundTerm)) {
-                        term22 = varInd2;
-                    } else {
+                    if (commonTerm != null) {
+                        subs.put(commonTerm, varInd2);
                         term22 = ((CompoundTerm) term22).applySubstitute(subs);
+                        if(!(term12 instanceof CompoundTerm)) {
+                            term12 = varInd2;
+                        } else {
+                            term12 = ((CompoundTerm) term12).applySubstitute(subs);
+                        }
                     }
                 }
-            }
-            if (commonTerm==null && term22 instanceof ImageExt) {
-                
-                if ((/*(ImageExt)*/term22).containsTermRecursively(term12)) {
-                    commonTerm = term12;
-                }
+            } else {
+                term11 = taskContent.getSubject();
+                term21 = beliefContent.getSubject();
+                term12 = varInd1;
+                term22 = varInd1;
+                term11dependent=term11;
+                term21dependent=term21;
+                if (term21 instanceof ImageInt) {
                 
-                if(commonTerm == null && term22 instanceof ImageExt) {
-                    commonTerm = ((ImageExt) term22).getTheOtherComponent();
-                    if(!(term12.containsTermRecursively(commonTerm))) {
-                        commonTerm=null;
+                    if ((/*(ImageInt)*/term21).containsTermRecursively(term11)) {
+                        commonTerm = term11;
                     }
-                    if (term12 instanceof ImageExt && ((commonTerm == null) || !(term12).containsTermRecursively(commonTerm))) {
-                        commonTerm = ((ImageExt) term12).getTheOtherComponent();
-                        if ((commonTerm == null) || !(term22).containsTermRecursively(commonTerm)) {
-                            commonTerm = null;
+                
+                    if(term11 instanceof ImageInt && commonTerm == null && term21 instanceof ImageInt) {
+                        commonTerm = ((ImageInt) term11).getTheOtherComponent();
+                        if(!(term21.containsTermRecursively(commonTerm))) {
+                            commonTerm=null;
+                        }
+                        if ((commonTerm == null) || !(term21).containsTermRecursively(commonTerm)) {
+                            commonTerm = ((ImageInt) term21).getTheOtherComponent();
+                            if ((commonTerm == null) || !(term11).containsTermRecursively(commonTerm)) {
+                                commonTerm = null;
+                            }
                         }
                     }
-                }
                 
-                if (commonTerm != null) {
-                    subs.put(commonTerm, varInd2);
-                    term22 = ((CompoundTerm) term22).applySubstitute(subs);
-                    if(!(term12 instanceof CompoundTerm)) {
-                        term12 = varInd2;
-                    } else {
-                        term12 = ((CompoundTerm) term12).applySubstitute(subs);
+                    if (commonTerm != null) {
+                        subs.put(commonTerm, varInd2);
+                        term21 = ((CompoundTerm) term21).applySubstitute(subs);
+                        if(!(term11 instanceof CompoundTerm)) {
+                            term11 = varInd2;
+                        } else {
+                            term11 = ((CompoundTerm) term11).applySubstitute(subs);
+                        }
                     }
                 }
-            }
-        } else {
-            term11 = taskContent.getSubject();
-            term21 = beliefContent.getSubject();
-            term12 = varInd1;
-            term22 = varInd1;
-            term11dependent=term11;
-            term21dependent=term21;
-            if (term21 instanceof ImageInt) {
-                
-                if ((/*(ImageInt)*/term21).containsTermRecursively(term11)) {
-                    commonTerm = term11;
-                }
+                if (commonTerm==null && term11 instanceof ImageInt) {
                 
-                if(term11 instanceof ImageInt && commonTerm == null && term21 instanceof ImageInt) {
-                    commonTerm = ((ImageInt) term11).getTheOtherComponent();
-                    if(!(term21.containsTermRecursively(commonTerm))) {
-                        commonTerm=null;
+                    if ((/*(ImageInt)*/term11).containsTermRecursively(term21)) {
+                        commonTerm = term21;
                     }
-                    if ((commonTerm == null) || !(term21).containsTermRecursively(commonTerm)) {
+                
+                    if(term21 instanceof ImageInt && commonTerm == null && term11 instanceof ImageInt) {
                         commonTerm = ((ImageInt) term21).getTheOtherComponent();
+                        if(!(term11.containsTermRecursively(commonTerm))) {
+                            commonTerm=null;
+                        }
                         if ((commonTerm == null) || !(term11).containsTermRecursively(commonTerm)) {
-                            commonTerm = null;
+                            commonTerm = ((ImageInt) term11).getTheOtherComponent();
+                            if ((commonTerm == null) || !(term21).containsTermRecursively(commonTerm)) {
+                                commonTerm = null;
+                            }
                         }
                     }
-                }
                 
-                if (commonTerm != null) {
-                    subs.put(commonTerm, varInd2);
-                    term21 = ((CompoundTerm) term21).applySubstitute(subs);
-                    if(!(term11 instanceof CompoundTerm)) {
-                        term11 = varInd2;
-                    } else {
+                    if (commonTerm != null) {
+                        subs.put(commonTerm, varInd2);
                         term11 = ((CompoundTerm) term11).applySubstitute(subs);
-                    }
-                }
-            }
-            if (commonTerm==null && term11 instanceof ImageInt) {
-                
-                if ((/*(ImageInt)*/term11).containsTermRecursively(term21)) {
-                    commonTerm = term21;
-                }
-                
-                if(term21 instanceof ImageInt && commonTerm == null && term11 instanceof ImageInt) {
-                    commonTerm = ((ImageInt) term21).getTheOtherComponent();
-                    if(!(term11.containsTermRecursively(commonTerm))) {
-                        commonTerm=null;
-                    }
-                    if ((commonTerm == null) || !(term11).containsTermRecursively(commonTerm)) {
-                        commonTerm = ((ImageInt) term11).getTheOtherComponent();
-                        if ((commonTerm == null) || !(term21).containsTermRecursively(commonTerm)) {
-                            commonTerm = null;
+                        if(!(term21 instanceof CompoundTerm)) {
+                            term21 = varInd2;
+                        } else {
+                            term21 = ((CompoundTerm) term21).applySubstitute(subs);
                         }
                     }
                 }
-                
-                if (commonTerm != null) {
-                    subs.put(commonTerm, varInd2);
-                    term11 = ((CompoundTerm) term11).applySubstitute(subs);
-                    if(!(term21 instanceof CompoundTerm)) {
-                        term21 = varInd2;
-                    } else {
-                        term21 = ((CompoundTerm) term21).applySubstitute(subs);
-                    }
-                }
             }
-        }
-        Statement state1 = Inheritance.make(term11, term12);
-        Statement state2 = Inheritance.make(term21, term22);
-        Term content = Implication.make(state1, state2);
-        if (content == null) {
-            return;
-        }
+            Statement state1 = Inheritance.make(term11, term12);
+            Statement state2 = Inheritance.make(term21, term22);
+            Term content = Implication.make(state1, state2);
+            if (content == null) {
+                return;
+            }
 
-        TruthValue truthT = nal.getCurrentTask().sentence.truth;
-        TruthValue truthB = nal.getCurrentBelief().truth;
-        if ((truthT == null) || (truthB == null)) {
-            if(Parameters.DEBUG) {
-                System.out.println("ERROR: Belief with null truth value. (introVarOuter)");
+            TruthValue truthT = nal.getCurrentTask().sentence.truth;
+            TruthValue truthB = nal.getCurrentBelief().truth;
+            if ((truthT == null) || (truthB == null)) {
+                if(Parameters.DEBUG) {
+                    System.out.println("ERROR: Belief with null truth value. (introVarOuter)");
+                }
+                return;
             }
-            return;
-        }
 
-        TruthValue truth = induction(truthT, truthB);
-        BudgetValue budget = BudgetFunctions.compoundForward(truth, content, nal);
-        nal.doublePremiseTask(content, truth, budget, false, false);
-        content = Implication.make(state2, state1);
-        truth = induction(truthB, truthT);
-        budget = BudgetFunctions.compoundForward(truth, content, nal);
-        nal.doublePremiseTask(content, truth, budget, false, false);
-        content = Equivalence.make(state1, state2);
-        truth = comparison(truthT, truthB);
-        budget = BudgetFunctions.compoundForward(truth, content, nal);
-        nal.doublePremiseTask(content, truth, budget, false, false);
-
-        Variable varDep = new Variable("#varDep");
-        if (index == 0) {
-            state1 = Inheritance.make(varDep, term12dependent);
-            state2 = Inheritance.make(varDep, term22dependent);
-        } else {
-            state1 = Inheritance.make(term11dependent, varDep);
-            state2 = Inheritance.make(term21dependent, varDep);
-        }
+            TruthValue truth = induction(truthT, truthB);
+            BudgetValue budget = BudgetFunctions.compoundForward(truth, content, nal);
+            nal.doublePremiseTask(content, truth, budget, false, false);
+            content = Implication.make(state2, state1);
+            truth = induction(truthB, truthT);
+            budget = BudgetFunctions.compoundForward(truth, content, nal);
+            nal.doublePremiseTask(content, truth, budget, false, false);
+            content = Equivalence.make(state1, state2);
+            truth = comparison(truthT, truthB);
+            budget = BudgetFunctions.compoundForward(truth, content, nal);
+            nal.doublePremiseTask(content, truth, budget, false, false);
+
+            Variable varDep = new Variable("#varDep");
+            if (index == 0) {
+                state1 = Inheritance.make(varDep, term12dependent);
+                state2 = Inheritance.make(varDep, term22dependent);
+            } else {
+                state1 = Inheritance.make(term11dependent, varDep);
+                state2 = Inheritance.make(term21dependent, varDep);
+            }
         
-        if ((state1==null) || (state2 == null))
-            return;
+            if ((state1==null) || (state2 == null))
+                return;
         
-        content = Conjunction.make(state1, state2);
-        truth = intersection(truthT, truthB);
-        budget = BudgetFunctions.compoundForward(truth, content, nal);
-        nal.doublePremiseTask(content, truth, budget, false, false);
+            content = Conjunction.make(state1, state2);
+            truth = intersection(truthT, truthB);
+            budget = BudgetFunctions.compoundForward(truth, content, nal);
+            nal.doublePremiseTask(content, truth, budget, false, false);
+        } finally {
+            Profiler.exit(nal.memory, Profiler.INTRO_VAR_OUTER);
+        }
     }
 
     /**
@@ -568,86 +583,91 @@ public final class CompositionalRules {
      * @param nal Reference to the memory
      */
     static boolean introVarInner(Statement premise1, Statement premise2, CompoundTerm oldCompound, DerivationContext nal) {
-        Task task = nal.getCurrentTask();
-        Sentence taskSentence = task.sentence;
-        if (!taskSentence.isJudgment() || (premise1.getClass() != premise2.getClass()) || oldCompound.containsTerm(premise1)) {
-            return false;
-        }
+        Profiler.enter(nal.memory, Profiler.INTRO_VAR_INNER);
+        try {
+            Task task = nal.getCurrentTask();
+            Sentence taskSentence = task.sentence;
+            if (!taskSentence.isJudgment() || (premise1.getClass() != premise2.getClass()) || oldCompound.containsTerm(premise1)) {
+                return false;
+            }
         
-        Term subject1 = premise1.getSubject();
-        Term subject2 = premise2.getSubject();
-        Term predicate1 = premise1.getPredicate();
-        Term predicate2 = premise2.getPredicate();
-        Term commonTerm1, commonTerm2;
-        if (subject1.equals(subject2)) {
-            commonTerm1 = subject1;
-            commonTerm2 = secondCommonTerm(predicate1, predicate2, 0);
-        } else if (predicate1.equals(predicate2)) {
-            commonTerm1 = predicate1;
-            commonTerm2 = secondCommonTerm(subject1, subject2, 0);
-        } else {
-            return false;
-        }
+            Term subject1 = premise1.getSubject();
+            Term subject2 = premise2.getSubject();
+            Term predicate1 = premise1.getPredicate();
+            Term predicate2 = premise2.getPredicate();
+            Term commonTerm1, commonTerm2;
+            if (subject1.equals(subject2)) {
+                commonTerm1 = subject1;
+                commonTerm2 = secondCommonTerm(predicate1, predicate2, 0);
+            } else if (predicate1.equals(predicate2)) {
+                commonTerm1 = predicate1;
+                commonTerm2 = secondCommonTerm(subject1, subject2, 0);
+            } else {
+                return false;
+            }
         
-        Sentence belief = nal.getCurrentBelief();
-        HashMap<Term, Term> substitute = new HashMap<>();
+            Sentence belief = nal.getCurrentBelief();
+            HashMap<Term, Term> substitute = new HashMap<>();
         
-        boolean b1 = false, b2 = false;
+            boolean b1 = false, b2 = false;
         
-        {
-            Variable varDep2 = new Variable("#varDep2");
+            {
+                Variable varDep2 = new Variable("#varDep2");
 
 
-            Term content = Conjunction.make(premise1, oldCompound);
+                Term content = Conjunction.make(premise1, oldCompound);
 
-            if (!(content instanceof CompoundTerm))
-                return false;           
+                if (!(content instanceof CompoundTerm))
+                    return false;           
 
-            substitute.put(commonTerm1, varDep2);
+                substitute.put(commonTerm1, varDep2);
 
-            content = ((CompoundTerm)content).applySubstitute(substitute);
+                content = ((CompoundTerm)content).applySubstitute(substitute);
 
-            TruthValue truth = intersection(taskSentence.truth, belief.truth);
-            BudgetValue budget = BudgetFunctions.forward(truth, nal);
+                TruthValue truth = intersection(taskSentence.truth, belief.truth);
+                BudgetValue budget = BudgetFunctions.forward(truth, nal);
 
-            b1 = (nal.doublePremiseTask(content, truth, budget, false, false))!=null;
-        }
+                b1 = (nal.doublePremiseTask(content, truth, budget, false, false))!=null;
+            }
 
-        substitute.clear();
+            substitute.clear();
 
-        {
-            Variable varInd1 = new Variable("$varInd1");
-            Variable varInd2 = new Variable("$varInd2");
+            {
+                Variable varInd1 = new Variable("$varInd1");
+                Variable varInd2 = new Variable("$varInd2");
 
-            substitute.put(commonTerm1, varInd1);
+                substitute.put(commonTerm1, varInd1);
 
-            if (commonTerm2 != null) {
-                substitute.put(commonTerm2, varInd2);
-            }
+                if (commonTerm2 != null) {
+                    substitute.put(commonTerm2, varInd2);
+                }
 
 
-            Term content = Implication.make(premise1, oldCompound);
+                Term content = Implication.make(premise1, oldCompound);
 
-            if ((content == null) || (!(content instanceof CompoundTerm))) {
-                return false;
-            }
+                if ((content == null) || (!(content instanceof CompoundTerm))) {
+                    return false;
+                }
 
-            content = ((CompoundTerm)content).applySubstituteToCompound(substitute);
+                content = ((CompoundTerm)content).applySubstituteToCompound(substitute);
 
-            TruthValue truth;
+                TruthValue truth;
             
-            if (premise1.equals(taskSentence.term)) {
-                truth = induction(belief.truth, taskSentence.truth);
-            } else {
-                truth = induction(taskSentence.truth, belief.truth);
-            }
+                if (premise1.equals(taskSentence.term)) {
+                    truth = induction(belief.truth, taskSentence.truth);
+                } else {
+                    truth = induction(taskSentence.truth, belief.truth);
+                }
 
-            BudgetValue budget = BudgetFunctions.forward(truth, nal);
+                BudgetValue budget = BudgetFunctions.forward(truth, nal);
 
-            b2 = nal.doublePremiseTask(content, truth, budget, false, false)!=null;
-        }
+                b2 = nal.doublePremiseTask(content, truth, budget, false, false)!=null;
+            }
         
-        return b1 || b2;
+            return b1 || b2;
+        } finally {
+            Profiler.exit(nal.memory, Profiler.INTRO_VAR_INNER);
+        }
     }
 
     /**
@@ -690,317 +710,327 @@ OUT: <lock1 --> lock>.
     http://code.google.com/p/open-nars/issues/detail?id=40&can=1
     */
     public static void eliminateVariableOfConditionAbductive(final int figure, final Sentence sentence, final Sentence belief, final DerivationContext nal) {
-        Statement T1 = (Statement) sentence.term;
-        Statement T2 = (Statement) belief.term;
-
-        Term S1 = T2.getSubject();
-        Term S2 = T1.getSubject();
-        Term P1 = T2.getPredicate();
-        Term P2 = T1.getPredicate();
-
-        HashMap<Term, Term> res1 = new HashMap<>();
-        HashMap<Term, Term> res2 = new HashMap<>();
-        HashMap<Term, Term> res3 = new HashMap<>();
-        HashMap<Term, Term> res4 = new HashMap<>();
-
-        if (figure == 21) {
-            res1.clear();
-            res2.clear();
-            Variables.findSubstitute(Symbols.VAR_INDEPENDENT, P1, S2, res1, res2); //this part is 
-            T1 = (Statement) T1.applySubstitute(res2); //independent, the rule works if it unifies
-            if(T1==null) {
-                return;
-            }
-            T2 = (Statement) T2.applySubstitute(res1);
-            if(T2==null) {
-                return;
-            }
-            S1 = T2.getSubject();
-            S2 = T1.getSubject();
-            P1 = T2.getPredicate();
-            P2 = T1.getPredicate(); //update the variables because T1 and T2 may have changed
-
-            if (S1 instanceof Conjunction) {
-                //try to unify P2 with a component
-                for (final Term s1 : ((CompoundTerm) S1).term) {
-                    res3.clear();
-                    res4.clear(); //here the dependent part matters, see example of Issue40
-                    if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, P2, res3, res4)) {
-                        for (Term s2 : ((CompoundTerm) S1).term) {
-                            if (!(s2 instanceof CompoundTerm)) {
-                                continue;
-                            }
-                            s2 = ((CompoundTerm) s2).applySubstitute(res3);
-                            if(s2==null || s2.hasVarIndep()) {
-                                continue;
-                            }
-                            if (!s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
-                                TruthValue truth = abduction(sentence.truth, belief.truth);
-                                BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
-                                nal.doublePremiseTask(s2, truth, budget, false, false);
+        Profiler.enter(nal.memory, Profiler.ELIMINATE_VARIABLE_OF_CONDITION_ABDUCTIVE);
+        try {
+            Statement T1 = (Statement) sentence.term;
+            Statement T2 = (Statement) belief.term;
+
+            Term S1 = T2.getSubject();
+            Term S2 = T1.getSubject();
+            Term P1 = T2.getPredicate();
+            Term P2 = T1.getPredicate();
+
+            HashMap<Term, Term> res1 = new HashMap<>();
+            HashMap<Term, Term> res2 = new HashMap<>();
+            HashMap<Term, Term> res3 = new HashMap<>();
+            HashMap<Term, Term> res4 = new HashMap<>();
+
+            if (figure == 21) {
+                res1.clear();
+                res2.clear();
+                Variables.findSubstitute(Symbols.VAR_INDEPENDENT, P1, S2, res1, res2); //this part is 
+                T1 = (Statement) T1.applySubstitute(res2); //independent, the rule works if it unifies
+                if(T1==null) {
+                    return;
+                }
+                T2 = (Statement) T2.applySubstitute(res1);
+                if(T2==null) {
+                    return;
+                }
+                S1 = T2.getSubject();
+                S2 = T1.getSubject();
+                P1 = T2.getPredicate();
+                P2 = T1.getPredicate(); //update the variables because T1 and T2 may have changed
+
+                if (S1 instanceof Conjunction) {
+                    //try to unify P2 with a component
+                    for (final Term s1 : ((CompoundTerm) S1).term) {
+                        res3.clear();
+                        res4.clear(); //here the dependent part matters, see example of Issue40
+                        if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, P2, res3, res4)) {
+                            for (Term s2 : ((CompoundTerm) S1).term) {
+                                if (!(s2 instanceof CompoundTerm)) {
+                                    continue;
+                                }
+                                s2 = ((CompoundTerm) s2).applySubstitute(res3);
+                                if(s2==null || s2.hasVarIndep()) {
+                                    continue;
+                                }
+                                if (!s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
+                                    TruthValue truth = abduction(sentence.truth, belief.truth);
+                                    BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
+                                    nal.doublePremiseTask(s2, truth, budget, false, false);
+                                }
                             }
                         }
                     }
                 }
-            }
-            if (P2 instanceof Conjunction) {
-                //try to unify S1 with a component
-                for (final Term s1 : ((CompoundTerm) P2).term) {
-                    res3.clear();
-                    res4.clear(); //here the dependent part matters, see example of Issue40
-                    if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, S1, res3, res4)) {
-                        for (Term s2 : ((CompoundTerm) P2).term) {
-                            if (!(s2 instanceof CompoundTerm)) {
-                                continue;
-                            }
-                            s2 = ((CompoundTerm) s2).applySubstitute(res3);
-                            if(s2==null || s2.hasVarIndep()) {
-                                continue;
-                            }
-                            if (!s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
-                                TruthValue truth = abduction(sentence.truth, belief.truth);
-                                BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
-                                nal.doublePremiseTask(s2, truth, budget, false, false);
+                if (P2 instanceof Conjunction) {
+                    //try to unify S1 with a component
+                    for (final Term s1 : ((CompoundTerm) P2).term) {
+                        res3.clear();
+                        res4.clear(); //here the dependent part matters, see example of Issue40
+                        if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, S1, res3, res4)) {
+                            for (Term s2 : ((CompoundTerm) P2).term) {
+                                if (!(s2 instanceof CompoundTerm)) {
+                                    continue;
+                                }
+                                s2 = ((CompoundTerm) s2).applySubstitute(res3);
+                                if(s2==null || s2.hasVarIndep()) {
+                                    continue;
+                                }
+                                if (!s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
+                                    TruthValue truth = abduction(sentence.truth, belief.truth);
+                                    BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
+                                    nal.doublePremiseTask(s2, truth, budget, false, false);
+                                }
                             }
                         }
                     }
                 }
             }
-        }
 
-        if (figure == 12) {
-            res1.clear();
-            res2.clear();
-            Variables.findSubstitute(Symbols.VAR_INDEPENDENT, S1, P2, res1, res2); //this part is 
-            T1 = (Statement) T1.applySubstitute(res2); //independent, the rule works if it unifies
-            if(T1==null) {
-                return;
-            }
-            T2 = (Statement) T2.applySubstitute(res1);
-            if(T2==null) {
-                return;
-            }
-            S1 = T2.getSubject();
-            S2 = T1.getSubject();
-            P1 = T2.getPredicate();
-            P2 = T1.getPredicate(); //update the variables because T1 and T2 may have changed
-
-            if (S2 instanceof Conjunction) {
-                //try to unify P1 with a component
-                for (final Term s1 : ((CompoundTerm) S2).term) {
-                    res3.clear();
-                    res4.clear(); //here the dependent part matters, see example of Issue40
-                    if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, P1, res3, res4)) {
-                        for (Term s2 : ((CompoundTerm) S2).term) {
-                            if (!(s2 instanceof CompoundTerm)) {
-                                continue;
-                            }
-                            s2 = ((CompoundTerm) s2).applySubstitute(res3);
-                            if(s2==null || s2.hasVarIndep()) {
-                                continue;
-                            }
-                            if (!s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
-                                TruthValue truth = abduction(sentence.truth, belief.truth);
-                                BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
-                                nal.doublePremiseTask(s2, truth, budget, false, false);
+            if (figure == 12) {
+                res1.clear();
+                res2.clear();
+                Variables.findSubstitute(Symbols.VAR_INDEPENDENT, S1, P2, res1, res2); //this part is 
+                T1 = (Statement) T1.applySubstitute(res2); //independent, the rule works if it unifies
+                if(T1==null) {
+                    return;
+                }
+                T2 = (Statement) T2.applySubstitute(res1);
+                if(T2==null) {
+                    return;
+                }
+                S1 = T2.getSubject();
+                S2 = T1.getSubject();
+                P1 = T2.getPredicate();
+                P2 = T1.getPredicate(); //update the variables because T1 and T2 may have changed
+
+                if (S2 instanceof Conjunction) {
+                    //try to unify P1 with a component
+                    for (final Term s1 : ((CompoundTerm) S2).term) {
+                        res3.clear();
+                        res4.clear(); //here the dependent part matters, see example of Issue40
+                        if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, P1, res3, res4)) {
+                            for (Term s2 : ((CompoundTerm) S2).term) {
+                                if (!(s2 instanceof CompoundTerm)) {
+                                    continue;
+                                }
+                                s2 = ((CompoundTerm) s2).applySubstitute(res3);
+                                if(s2==null || s2.hasVarIndep()) {
+                                    continue;
+                                }
+                                if (!s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
+                                    TruthValue truth = abduction(sentence.truth, belief.truth);
+                                    BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
+                                    nal.doublePremiseTask(s2, truth, budget, false, false);
+                                }
                             }
                         }
                     }
                 }
-            }
-            if (P1 instanceof Conjunction) {
-                //try to unify S2 with a component
-                for (final Term s1 : ((CompoundTerm) P1).term) {
-                    res3.clear();
-                    res4.clear(); //here the dependent part matters, see example of Issue40
-                    if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, S2, res3, res4)) {
-                        for (Term s2 : ((CompoundTerm) P1).term) {
-                            if (!(s2 instanceof CompoundTerm)) {
-                                continue;
-                            }
-                            s2 = ((CompoundTerm) s2).applySubstitute(res3);
-                            if(s2==null || s2.hasVarIndep()) {
-                                continue;
-                            }
-                            if (!s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
-                                TruthValue truth = abduction(sentence.truth, belief.truth);
-                                BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
-                                nal.doublePremiseTask(s2, truth, budget, false, false);
+                if (P1 instanceof Conjunction) {
+                    //try to unify S2 with a component
+                    for (final Term s1 : ((CompoundTerm) P1).term) {
+                        res3.clear();
+                        res4.clear(); //here the dependent part matters, see example of Issue40
+                        if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, S2, res3, res4)) {
+                            for (Term s2 : ((CompoundTerm) P1).term) {
+                                if (!(s2 instanceof CompoundTerm)) {
+                                    continue;
+                                }
+                                s2 = ((CompoundTerm) s2).applySubstitute(res3);
+                                if(s2==null || s2.hasVarIndep()) {
+                                    continue;
+                                }
+                                if (!s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
+                                    TruthValue truth = abduction(sentence.truth, belief.truth);
+                                    BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
+                                    nal.doublePremiseTask(s2, truth, budget, false, false);
+                                }
                             }
                         }
                     }
                 }
             }
-        }
 
-        if (figure == 11) {
-            res1.clear();
-            res2.clear();
-            Variables.findSubstitute(Symbols.VAR_INDEPENDENT, S1, S2, res1, res2); //this part is 
-            T1 = (Statement) T1.applySubstitute(res2); //independent, the rule works if it unifies
-            if(T1==null) {
-                return;
-            }
-            T2 = (Statement) T2.applySubstitute(res1);
-            if(T2==null) {
-                return;
-            }
-            S1 = T2.getSubject();
-            S2 = T1.getSubject();
-            P1 = T2.getPredicate();
-            P2 = T1.getPredicate(); //update the variables because T1 and T2 may have changed
-
-            if (P1 instanceof Conjunction) {
-                //try to unify P2 with a component
-                for (final Term s1 : ((CompoundTerm) P1).term) {
-                    res3.clear();
-                    res4.clear(); //here the dependent part matters, see example of Issue40
-                    if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, P2, res3, res4)) {
-                        for (Term s2 : ((CompoundTerm) P1).term) {
-                            if (!(s2 instanceof CompoundTerm)) {
-                                continue;
-                            }
-                            s2 = ((CompoundTerm) s2).applySubstitute(res3);
-                            if(s2==null || s2.hasVarIndep()) {
-                                continue;
-                            }
-                            if ((!s2.equals(s1)) && (sentence.truth != null) && (belief.truth != null)) {
-                                TruthValue truth = abduction(sentence.truth, belief.truth);
-                                BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
-                                nal.doublePremiseTask(s2, truth, budget, false, false);
+            if (figure == 11) {
+                res1.clear();
+                res2.clear();
+                Variables.findSubstitute(Symbols.VAR_INDEPENDENT, S1, S2, res1, res2); //this part is 
+                T1 = (Statement) T1.applySubstitute(res2); //independent, the rule works if it unifies
+                if(T1==null) {
+                    return;
+                }
+                T2 = (Statement) T2.applySubstitute(res1);
+                if(T2==null) {
+                    return;
+                }
+                S1 = T2.getSubject();
+                S2 = T1.getSubject();
+                P1 = T2.getPredicate();
+                P2 = T1.getPredicate(); //update the variables because T1 and T2 may have changed
+
+                if (P1 instanceof Conjunction) {
+                    //try to unify P2 with a component
+                    for (final Term s1 : ((CompoundTerm) P1).term) {
+                        res3.clear();
+                        res4.clear(); //here the dependent part matters, see example of Issue40
+                        if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, P2, res3, res4)) {
+                            for (Term s2 : ((CompoundTerm) P1).term) {
+                                if (!(s2 instanceof CompoundTerm)) {
+                                    continue;
+                                }
+                                s2 = ((CompoundTerm) s2).applySubstitute(res3);
+                                if(s2==null || s2.hasVarIndep()) {
+                                    continue;
+                                }
+                                if ((!s2.equals(s1)) && (sentence.truth != null) && (belief.truth != null)) {
+                                    TruthValue truth = abduction(sentence.truth, belief.truth);
+                                    BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
+                                    nal.doublePremiseTask(s2, truth, budget, false, false);
+                                }
                             }
                         }
                     }
                 }
-            }
-            if (P2 instanceof Conjunction) {
-                //try to unify P1 with a component
-                for (final Term s1 : ((CompoundTerm) P2).term) {
-                    res3.clear();
-                    res4.clear(); //here the dependent part matters, see example of Issue40
-                    if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, P1, res3, res4)) {
-                        for (Term s2 : ((CompoundTerm) P2).term) {
-                            if (!(s2 instanceof CompoundTerm)) {
-                                continue;
-                            }
-                            s2 = ((CompoundTerm) s2).applySubstitute(res3);
-                            if(s2==null || s2.hasVarIndep()) {
-                                continue;
-                            }
-                            if (!s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
-                                TruthValue truth = abduction(sentence.truth, belief.truth);
-                                BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
-                                nal.doublePremiseTask(s2, truth, budget, false, false);
+                if (P2 instanceof Conjunction) {
+                    //try to unify P1 with a component
+                    for (final Term s1 : ((CompoundTerm) P2).term) {
+                        res3.clear();
+                        res4.clear(); //here the dependent part matters, see example of Issue40
+                        if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, P1, res3, res4)) {
+                            for (Term s2 : ((CompoundTerm) P2).term) {
+                                if (!(s2 instanceof CompoundTerm)) {
+                                    continue;
+                                }
+                                s2 = ((CompoundTerm) s2).applySubstitute(res3);
+                                if(s2==null || s2.hasVarIndep()) {
+                                    continue;
+                                }
+                                if (!s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
+                                    TruthValue truth = abduction(sentence.truth, belief.truth);
+                                    BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
+                                    nal.doublePremiseTask(s2, truth, budget, false, false);
+                                }
                             }
                         }
                     }
                 }
             }
-        }
 
-        if (figure == 22) {
-            res1.clear();
-            res2.clear();
-            Variables.findSubstitute(Symbols.VAR_INDEPENDENT, P1, P2, res1, res2); //this part is 
-            T1 = (Statement) T1.applySubstitute(res2); //independent, the rule works if it unifies
-            if(T1==null) {
-                return;
-            }
-            T2 = (Statement) T2.applySubstitute(res1);
-            if(T2==null) {
-                return;
-            }
-            S1 = T2.getSubject();
-            S2 = T1.getSubject();
-            P1 = T2.getPredicate();
-            P2 = T1.getPredicate(); //update the variables because T1 and T2 may have changed
-
-            if (S1 instanceof Conjunction) {
-                //try to unify S2 with a component
-                for (final Term s1 : ((CompoundTerm) S1).term) {
-                    res3.clear();
-                    res4.clear(); //here the dependent part matters, see example of Issue40
-                    if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, S2, res3, res4)) {
-                        for (Term s2 : ((CompoundTerm) S1).term) {
-                            if (!(s2 instanceof CompoundTerm)) {
-                                continue;
-                            }
-                            s2 = ((CompoundTerm) s2).applySubstitute(res3);
-                            if(s2==null || s2.hasVarIndep()) {
-                                continue;
-                            }
-                            if (s2!=null && !s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
-                                TruthValue truth = abduction(sentence.truth, belief.truth);
-                                BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
-                                nal.doublePremiseTask(s2, truth, budget, false, false);
+            if (figure == 22) {
+                res1.clear();
+                res2.clear();
+                Variables.findSubstitute(Symbols.VAR_INDEPENDENT, P1, P2, res1, res2); //this part is 
+                T1 = (Statement) T1.applySubstitute(res2); //independent, the rule works if it unifies
+                if(T1==null) {
+                    return;
+                }
+                T2 = (Statement) T2.applySubstitute(res1);
+                if(T2==null) {
+                    return;
+                }
+                S1 = T2.getSubject();
+                S2 = T1.getSubject();
+                P1 = T2.getPredicate();
+                P2 = T1.getPredicate(); //update the variables because T1 and T2 may have changed
+
+                if (S1 instanceof Conjunction) {
+                    //try to unify S2 with a component
+                    for (final Term s1 : ((CompoundTerm) S1).term) {
+                        res3.clear();
+                        res4.clear(); //here the dependent part matters, see example of Issue40
+                        if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, S2, res3, res4)) {
+                            for (Term s2 : ((CompoundTerm) S1).term) {
+                                if (!(s2 instanceof CompoundTerm)) {
+                                    continue;
+                                }
+                                s2 = ((CompoundTerm) s2).applySubstitute(res3);
+                                if(s2==null || s2.hasVarIndep()) {
+                                    continue;
+                                }
+                                if (s2!=null && !s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
+                                    TruthValue truth = abduction(sentence.truth, belief.truth);
+                                    BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
+                                    nal.doublePremiseTask(s2, truth, budget, false, false);
+                                }
                             }
                         }
                     }
                 }
-            }
-            if (S2 instanceof Conjunction) {
-                //try to unify S1 with a component
-                for (final Term s1 : ((CompoundTerm) S2).term) {
-                    res3.clear();
-                    res4.clear(); //here the dependent part matters, see example of Issue40
-                    if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, S1, res3, res4)) {
-                        for (Term s2 : ((CompoundTerm) S2).term) {
-                            if (!(s2 instanceof CompoundTerm)) {
-                                continue;
-                            }
+                if (S2 instanceof Conjunction) {
+                    //try to unify S1 with a component
+                    for (final Term s1 : ((CompoundTerm) S2).term) {
+                        res3.clear();
+                        res4.clear(); //here the dependent part matters, see example of Issue40
+                        if (Variables.findSubstitute(Symbols.VAR_DEPENDENT, s1, S1, res3, res4)) {
+                            for (Term s2 : ((CompoundTerm) S2).term) {
+                                if (!(s2 instanceof CompoundTerm)) {
+                                    continue;
+                                }
 
-                            s2 = ((CompoundTerm) s2).applySubstitute(res3);
-                            if(s2==null || s2.hasVarIndep()) {
-                                continue;
-                            }
-                            if (s2!=null && !s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
-                                TruthValue truth = abduction(sentence.truth, belief.truth);
-                                BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
-                                nal.doublePremiseTask(s2, truth, budget, false, false);
+                                s2 = ((CompoundTerm) s2).applySubstitute(res3);
+                                if(s2==null || s2.hasVarIndep()) {
+                                    continue;
+                                }
+                                if (s2!=null && !s2.equals(s1) && (sentence.truth != null) && (belief.truth != null)) {
+                                    TruthValue truth = abduction(sentence.truth, belief.truth);
+                                    BudgetValue budget = BudgetFunctions.compoundForward(truth, s2, nal);
+                                    nal.doublePremiseTask(s2, truth, budget, false, false);
+                                }
                             }
                         }
                     }
                 }
             }
+        } finally {
+            Profiler.exit(nal.memory, Profiler.ELIMINATE_VARIABLE_OF_CONDITION_ABDUCTIVE);
         }
     }
 
     static void IntroVarSameSubjectOrPredicate(final Sentence originalMainSentence, final Sentence subSentence, final Term component, final Term content, final int index, final DerivationContext nal) {
-        Term T1 = originalMainSentence.term;
-        if (!(T1 instanceof CompoundTerm) || !(content instanceof CompoundTerm)) {
-            return;
-        }
-        CompoundTerm T = (CompoundTerm) T1;
-        CompoundTerm T2 = (CompoundTerm) content;
+        Profiler.enter(nal.memory, Profiler.INTRO_VAR_SAME_SUBJECT_OR_PREDICATE);
+        try {
+            Term T1 = originalMainSentence.term;
+            if (!(T1 instanceof CompoundTerm) || !(content instanceof CompoundTerm)) {
+                return;
+            }
+            CompoundTerm T = (CompoundTerm) T1;
+            CompoundTerm T2 = (CompoundTerm) content;
         
         
-        if ((component instanceof Inheritance && content instanceof Inheritance)
-                || (component instanceof Similarity && content instanceof Similarity)) {
-            //CompoundTerm result = T;
-            if (component.equals(content)) {
-                return; //wouldnt make sense to create a conjunction here, would contain a statement twice
-            }
-            Variable depIndVar1 = new Variable("#depIndVar1");
-            Variable depIndVar2 = new Variable("#depIndVar2");
-
-            if (((Statement) component).getPredicate().equals(((Statement) content).getPredicate()) && !(((Statement) component).getPredicate() instanceof Variable)) {
-
-                CompoundTerm zw = (CompoundTerm) T.term[index];
-                zw = (CompoundTerm) zw.setComponent(1, depIndVar1, nal.mem());
-                T2 = (CompoundTerm) T2.setComponent(1, depIndVar1, nal.mem());
-                Conjunction res = (Conjunction) Conjunction.make(zw, T2);
-                T = (CompoundTerm) T.setComponent(index, res, nal.mem());
-            } else if (((Statement) component).getSubject().equals(((Statement) content).getSubject()) && !(((Statement) component).getSubject() instanceof Variable)) {
-
-                CompoundTerm zw = (CompoundTerm) T.term[index];
-                zw = (CompoundTerm) zw.setComponent(0, depIndVar2, nal.mem());
-                T2 = (CompoundTerm) T2.setComponent(0, depIndVar2, nal.mem());
-                Conjunction res = (Conjunction) Conjunction.make(zw, T2);
-                T = (CompoundTerm) T.setComponent(index, res, nal.mem());
+            if ((component instanceof Inheritance && content instanceof Inheritance)
+                    || (component instanceof Similarity && content instanceof Similarity)) {
+                //CompoundTerm result = T;
+                if (component.equals(content)) {
+                    return; //wouldnt make sense to create a conjunction here, would contain a statement twice
+                }
+                Variable depIndVar1 = new Variable("#depIndVar1");
+                Variable depIndVar2 = new Variable("#depIndVar2");
+
+                if (((Statement) component).getPredicate().equals(((Statement) content).getPredicate()) && !(((Statement) component).getPredicate() instanceof Variable)) {
+
+                    CompoundTerm zw = (CompoundTerm) T.term[index];
+                    zw = (CompoundTerm) zw.setComponent(1, depIndVar1, nal.mem());
+                    T2 = (CompoundTerm) T2.setComponent(1, depIndVar1, nal.mem());
+                    Conjunction res = (Conjunction) Conjunction.make(zw, T2);
+                    T = (CompoundTerm) T.setComponent(index, res, nal.mem());
+                } else if (((Statement) component).getSubject().equals(((Statement) content).getSubject()) && !(((Statement) component).getSubject() instanceof Variable)) {
+
+                    CompoundTerm zw = (CompoundTerm) T.term[index];
+                    zw = (CompoundTerm) zw.setComponent(0, depIndVar2, nal.mem());
+                    T2 = (CompoundTerm) T2.setComponent(0, depIndVar2, nal.mem());
+                    Conjunction res = (Conjunction) Conjunction.make(zw, T2);
+                    T = (CompoundTerm) T.setComponent(index, res, nal.mem());
+                }
+                TruthValue truth = induction(originalMainSentence.truth, subSentence.truth);
+                BudgetValue budget = BudgetFunctions.compoundForward(truth, T, nal);
+                nal.doublePremiseTask(T, truth, budget, false, false);
             }
-            TruthValue truth = induction(originalMainSentence.truth, subSentence.truth);
-            BudgetValue budget = BudgetFunctions.compoundForward(truth, T, nal);
-            nal.doublePremiseTask(T, truth, budget, false, false);
+        } finally {
+            Profiler.exit(nal.memory, Profiler.INTRO_VAR_SAME_SUBJECT_OR_PREDICATE);
         }
     }
 }
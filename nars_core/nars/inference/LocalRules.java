@@ -26,6 +26,7 @@ import nars.io.events.Events.Answer;
 import nars.io.events.Events.Unsolved;
 import nars.storage.Memory;
 import nars.control.DerivationContext;
+import nars.control.Profiler;
 import nars.entity.BudgetValue;
 import nars.entity.Concept;
 import nars.entity.Sentence;
@@ -73,21 +74,26 @@ public class LocalRules {
      * @param memory Reference to the memory
      */
     public static boolean match(final Task task, final Sentence belief, final DerivationContext nal) {
-        Sentence sentence = task.sentence;
+        Profiler.enter(nal.memory, Profiler.MATCH);
+        try {
+            Sentence sentence = task.sentence;
         
-        if (sentence.isJudgment()) {
-            if (revisible(sentence, belief)) {
-                return revision(sentence, belief, true, nal);
-            }
-        } else {
-            if (matchingOrder(sentence, belief)) {
-                Term[] u = new Term[] { sentence.term, belief.term };
-                if (Variables.unify(Symbols.VAR_QUERY, u)) {
-                    trySolution(belief, task, nal, true);
+            if (sentence.isJudgment()) {
+                if (revisible(sentence, belief)) {
+                    return revision(sentence, belief, true, nal);
+                }
+            } else {
+                if (matchingOrder(sentence, belief)) {
+                    Term[] u = new Term[] { sentence.term, belief.term };
+                    if (Variables.unify(Symbols.VAR_QUERY, u)) {
+                        trySolution(belief, task, nal, true);
+                    }
                 }
             }
+            return false;
+        } finally {
+            Profiler.exit(nal.memory, Profiler.MATCH);
         }
-        return false;
     }
 
     /**
@@ -111,7 +117,7 @@ public class LocalRules {
         return (s1.getRevisible() && 
                 matchingOrder(s1.getTemporalOrder(), s2.getTemporalOrder()) &&
                 CompoundTerm.replaceIntervals(s1.term).equals(CompoundTerm.replaceIntervals(s2.term)) &&
-                !Stamp.baseOverlap(s1.stamp.evidentialBase, s2.stamp.evidentialBase));
+                !Stamp.baseOverlap(s1.stamp, s2.stamp));
     }
 
     /**
@@ -137,6 +143,7 @@ public class LocalRules {
         if(newBelief.getTerm().hasInterval()) {
             Term cterm = replaceIntervals(newBelief.getTerm());
             Concept c = nal.memory.concept(cterm);
+            c.dirty = true;
             ArrayList<Long> ivalOld = extractIntervals(nal.memory, oldBelief.getTerm());
             if(c.recent_intervals.size() == 0) {
                 for(Long l : ivalOld) {
@@ -234,6 +241,34 @@ public class LocalRules {
         return false;
     }
     
+    /**
+     * Check if a belief of any concept in memory provides a better answer to
+     * a question with query variables: the beliefs which could unify with it
+     * are retrieved from the belief index, and the best of those which unify
+     * is tried as solution
+     *
+     * @param task The question to be answered
+     * @return Whether a better answer was found
+     */
+    public static boolean trySolutions(final Task task, final DerivationContext nal) {
+        final Memory memory = nal.mem();
+        final Term query = task.getTerm();
+        Sentence best = null;
+        float bestQ = 0;
+        for (final Task t : memory.beliefIndex.candidates(query, new ArrayList<Task>())) {
+            final Sentence belief = t.sentence;
+            if (belief.term.hasVarQuery() || !Variables.hasSubstitute(Symbols.VAR_QUERY, query, belief.term)) {
+                continue;
+            }
+            final float q = solutionQuality(false, task, belief, memory);
+            if (best == null || q > bestQ) {
+                best = belief;
+                bestQ = q;
+            }
+        }
+        return best != null && trySolution(best, task, nal, true);
+    }
+
     /**
      * Evaluate the quality of the judgment as a solution to a problem
      *
@@ -318,15 +353,20 @@ public class LocalRules {
      * @param nal Reference to the memory
      */
     public static void matchReverse(final DerivationContext nal) {
-        Task task = nal.getCurrentTask();
-        Sentence belief = nal.getCurrentBelief();
-        Sentence sentence = task.sentence;
-        if (matchingOrder(sentence.getTemporalOrder(), reverseOrder(belief.getTemporalOrder()))) {
-            if (sentence.isJudgment()) {
-                inferToSym(sentence, belief, nal);
-            } else {
-                conversion(nal);
+        Profiler.enter(nal.memory, Profiler.MATCH_REVERSE);
+        try {
+            Task task = nal.getCurrentTask();
+            Sentence belief = nal.getCurrentBelief();
+            Sentence sentence = task.sentence;
+            if (matchingOrder(sentence.getTemporalOrder(), reverseOrder(belief.getTemporalOrder()))) {
+                if (sentence.isJudgment()) {
+                    inferToSym(sentence, belief, nal);
+                } else {
+                    conversion(nal);
+                }
             }
+        } finally {
+            Profiler.exit(nal.memory, Profiler.MATCH_REVERSE);
         }
     }
 
@@ -339,10 +379,15 @@ public class LocalRules {
      * @param nal Reference to the memory
      */
     public static void matchAsymSym(final Sentence asym, final Sentence sym, int figure, final DerivationContext nal) {
-        if (nal.getCurrentTask().sentence.isJudgment()) {
-            inferToAsym(asym, sym, nal);
-        } else {
-            convertRelation(nal);
+        Profiler.enter(nal.memory, Profiler.MATCH_ASYM_SYM);
+        try {
+            if (nal.getCurrentTask().sentence.isJudgment()) {
+                inferToAsym(asym, sym, nal);
+            } else {
+                convertRelation(nal);
+            }
+        } finally {
+            Profiler.exit(nal.memory, Profiler.MATCH_ASYM_SYM);
         }
     }
 
@@ -20,7 +20,6 @@
  */
 package nars.inference;
 
-import nars.io.events.Events;
 import nars.storage.Memory;
 import nars.main.Parameters;
 import nars.control.DerivationContext;
@@ -90,7 +89,7 @@ public class RuleTables {
           /*Sentence belief_event = beliefConcept.getBeliefForTemporalInference(task);
             if(belief_event != null) {
                 boolean found_overlap = false;
-                if(Stamp.baseOverlap(task.sentence.stamp.evidentialBase, belief_event.stamp.evidentialBase)) {
+                if(Stamp.baseOverlap(task.sentence.stamp, belief_event.stamp)) {
                     found_overlap = true;
                 }
                 if(!found_overlap) { //temporal rules are inductive so no chance to succeed if there is an overlap
@@ -105,7 +104,7 @@ public class RuleTables {
             }*/
             
             //too restrictive, its checked for non-deductive inference rules in derivedTask (also for single prem)
-            if(Stamp.baseOverlap(task.sentence.stamp.evidentialBase, belief.stamp.evidentialBase)) {
+            if(Stamp.baseOverlap(task.sentence.stamp, belief.stamp)) {
                 nal.evidentalOverlap = true;
                 if(!task.sentence.isEternal() || !belief.isEternal()) {
                     return; //only allow for eternal reasoning for now to prevent derived event floods
@@ -114,7 +113,7 @@ public class RuleTables {
             }
             //comment out for recursive examples, this is for the future, it generates a lot of potentially useless tasks
             
-            nal.emit(Events.BeliefReason.class, belief, beliefTerm, taskTerm, nal);
+            nal.memory.emit(nal.memory.beliefReason, belief, beliefTerm, taskTerm, nal.evidentalOverlap);
             
             if (LocalRules.match(task, belief, nal)) { //new tasks resulted from the match, so return
                 return;
@@ -24,6 +24,7 @@ import java.util.List;
 import nars.main.Parameters;
 import nars.storage.Memory;
 import nars.control.DerivationContext;
+import nars.control.Profiler;
 import nars.entity.BudgetValue;
 import nars.entity.Sentence;
 import nars.entity.Task;
@@ -71,47 +72,52 @@ public final class StructuralRules {
      * @param nal Reference to the memory
      */
     static void structuralCompose2(CompoundTerm compound, short index, Statement statement, short side, DerivationContext nal) {
-        if (compound.equals(statement.term[side])) {
-            return;
-        }
-        Term sub = statement.getSubject();
-        Term pred = statement.getPredicate();
-        List<Term> components = compound.asTermList();
-        if (((side == 0) && components.contains(pred)) || ((side == 1) && components.contains(sub))) {
-            return;
-        }
-        if (side == 0) {
-            if (components.contains(sub)) {
-                sub = compound;
-                components.set(index, pred);
-                pred = Terms.term(compound, components);
-            }
-        } else {
-            if (components.contains(pred)) {
-                components.set(index, sub);
-                sub = Terms.term(compound, components);
-                pred = compound;
+        Profiler.enter(nal.memory, Profiler.STRUCTURAL_COMPOSE2);
+        try {
+            if (compound.equals(statement.term[side])) {
+                return;
+            }
+            Term sub = statement.getSubject();
+            Term pred = statement.getPredicate();
+            List<Term> components = compound.asTermList();
+            if (((side == 0) && components.contains(pred)) || ((side == 1) && components.contains(sub))) {
+                return;
+            }
+            if (side == 0) {
+                if (components.contains(sub)) {
+                    sub = compound;
+                    components.set(index, pred);
+                    pred = Terms.term(compound, components);
+                }
+            } else {
+                if (components.contains(pred)) {
+                    components.set(index, sub);
+                    sub = Terms.term(compound, components);
+                    pred = compound;
+                }
             }
-        }
         
-        if ((sub == null) || (pred == null))
-            return;
+            if ((sub == null) || (pred == null))
+                return;
         
-        Statement content;
-        int order = statement.getTemporalOrder();
-        if (switchOrder(compound, index)) {
-            content = Statement.make(statement, pred, sub, TemporalRules.reverseOrder(order));
-        } else {
-            content = Statement.make(statement, sub, pred, order);
-        }
+            Statement content;
+            int order = statement.getTemporalOrder();
+            if (switchOrder(compound, index)) {
+                content = Statement.make(statement, pred, sub, TemporalRules.reverseOrder(order));
+            } else {
+                content = Statement.make(statement, sub, pred, order);
+            }
         
-        if (content == null)
-            return;
+            if (content == null)
+                return;
         
-        Sentence sentence = nal.getCurrentTask().sentence;
-        TruthValue truth = TruthFunctions.deduction(sentence.truth, Parameters.reliance);
-        BudgetValue budget = BudgetFunctions.compoundForward(truth, content, nal);
-        nal.singlePremiseTask(content, truth, budget);
+            Sentence sentence = nal.getCurrentTask().sentence;
+            TruthValue truth = TruthFunctions.deduction(sentence.truth, Parameters.reliance);
+            BudgetValue budget = BudgetFunctions.compoundForward(truth, content, nal);
+            nal.singlePremiseTask(content, truth, budget);
+        } finally {
+            Profiler.exit(nal.memory, Profiler.STRUCTURAL_COMPOSE2);
+        }
     }
 
     /**
@@ -121,44 +127,49 @@ public final class StructuralRules {
      * @param nal Reference to the memory
      */
     static void structuralDecompose2(Statement statement, int index, DerivationContext nal) {
-        Term subj = statement.getSubject();
-        Term pred = statement.getPredicate();
-        if (subj.getClass() != pred.getClass()) {
-            return;
-        }
+        Profiler.enter(nal.memory, Profiler.STRUCTURAL_DECOMPOSE2);
+        try {
+            Term subj = statement.getSubject();
+            Term pred = statement.getPredicate();
+            if (subj.getClass() != pred.getClass()) {
+                return;
+            }
         
-        if (!(subj instanceof Product) && !(subj instanceof SetExt) && !(subj instanceof SetInt)) {
-            return; // no abduction on other compounds for now, but may change in the future
-        }
+            if (!(subj instanceof Product) && !(subj instanceof SetExt) && !(subj instanceof SetInt)) {
+                return; // no abduction on other compounds for now, but may change in the future
+            }
         
-        CompoundTerm sub = (CompoundTerm) subj;
-        CompoundTerm pre = (CompoundTerm) pred;
-        if (sub.size() != pre.size() || sub.size() <= index) {
-            return;
-        }
+            CompoundTerm sub = (CompoundTerm) subj;
+            CompoundTerm pre = (CompoundTerm) pred;
+            if (sub.size() != pre.size() || sub.size() <= index) {
+                return;
+            }
         
-        Term t1 = sub.term[index];
-        Term t2 = pre.term[index];
-        Statement content;
-        int order = statement.getTemporalOrder();
-        if (switchOrder(sub, (short) index)) {
-            content = Statement.make(statement, t2, t1, TemporalRules.reverseOrder(order));
-        } else {
-            content = Statement.make(statement, t1, t2, order);
-        }
-        if (content == null) {
-            return;
-        }
-        Task task = nal.getCurrentTask();
-        Sentence sentence = task.sentence;
-        TruthValue truth = sentence.truth;
-        BudgetValue budget;
-        if (sentence.isQuestion() || sentence.isQuest()) {
-            budget = BudgetFunctions.compoundBackward(content, nal);
-        } else {
-            budget = BudgetFunctions.compoundForward(truth, content, nal);
+            Term t1 = sub.term[index];
+            Term t2 = pre.term[index];
+            Statement content;
+            int order = statement.getTemporalOrder();
+            if (switchOrder(sub, (short) index)) {
+                content = Statement.make(statement, t2, t1, TemporalRules.reverseOrder(order));
+            } else {
+                content = Statement.make(statement, t1, t2, order);
+            }
+            if (content == null) {
+                return;
+            }
+            Task task = nal.getCurrentTask();
+            Sentence sentence = task.sentence;
+            TruthValue truth = sentence.truth;
+            BudgetValue budget;
+            if (sentence.isQuestion() || sentence.isQuest()) {
+                budget = BudgetFunctions.compoundBackward(content, nal);
+            } else {
+                budget = BudgetFunctions.compoundForward(truth, content, nal);
+            }
+            nal.singlePremiseTask(content, truth, budget);
+        } finally {
+            Profiler.exit(nal.memory, Profiler.STRUCTURAL_DECOMPOSE2);
         }
-        nal.singlePremiseTask(content, truth, budget);
     }
 
     /**
@@ -184,46 +195,51 @@ public final class StructuralRules {
      * @param nal Reference to the memory
      */
     static void structuralCompose1(CompoundTerm compound, short index, Statement statement, DerivationContext nal) {
-        if (!nal.getCurrentTask().sentence.isJudgment()) {
-            return;     // forward inference only
-        }
-        Term component = compound.term[index];
-        Task task = nal.getCurrentTask();
-        Sentence sentence = task.sentence;
-        int order = sentence.getTemporalOrder();
-        TruthValue truth = sentence.truth;
+        Profiler.enter(nal.memory, Profiler.STRUCTURAL_COMPOSE1);
+        try {
+            if (!nal.getCurrentTask().sentence.isJudgment()) {
+                return;     // forward inference only
+            }
+            Term component = compound.term[index];
+            Task task = nal.getCurrentTask();
+            Sentence sentence = task.sentence;
+            int order = sentence.getTemporalOrder();
+            TruthValue truth = sentence.truth;
         
-        final float reliance = Parameters.reliance;
-        TruthValue truthDed = TruthFunctions.deduction(truth, reliance);
-        TruthValue truthNDed = TruthFunctions.negation(TruthFunctions.deduction(truth, reliance));
+            final float reliance = Parameters.reliance;
+            TruthValue truthDed = TruthFunctions.deduction(truth, reliance);
+            TruthValue truthNDed = TruthFunctions.negation(TruthFunctions.deduction(truth, reliance));
         
-        Term subj = statement.getSubject();
-        Term pred = statement.getPredicate();
+            Term subj = statement.getSubject();
+            Term pred = statement.getPredicate();
         
-        if (component.equals(subj)) {
-            if (compound instanceof IntersectionExt) {
-                structuralStatement(compound, pred, order, truthDed, nal);
-            } else if (compound instanceof IntersectionInt) {
-            } else if ((compound instanceof DifferenceExt) && (index == 0)) {
-                structuralStatement(compound, pred, order, truthDed, nal);
-            } else if (compound instanceof DifferenceInt) {
-                if (index == 0) {
-                } else {
-                    structuralStatement(compound, pred, order, truthNDed, nal);
+            if (component.equals(subj)) {
+                if (compound instanceof IntersectionExt) {
+                    structuralStatement(compound, pred, order, truthDed, nal);
+                } else if (compound instanceof IntersectionInt) {
+                } else if ((compound instanceof DifferenceExt) && (index == 0)) {
+                    structuralStatement(compound, pred, order, truthDed, nal);
+                } else if (compound instanceof DifferenceInt) {
+                    if (index == 0) {
+                    } else {
+                        structuralStatement(compound, pred, order, truthNDed, nal);
+                    }
                 }
-            }
-        } else if (component.equals(pred)) {
-            if (compound instanceof IntersectionExt) {
-            } else if (compound instanceof IntersectionInt) {
-                structuralStatement(subj, compound, order, truthDed, nal);
-            } else if (compound instanceof DifferenceExt) {
-                if (index == 0) {
-                } else {
-                    structuralStatement(subj, compound, order, truthNDed, nal);
+            } else if (component.equals(pred)) {
+                if (compound instanceof IntersectionExt) {
+                } else if (compound instanceof IntersectionInt) {
+                    structuralStatement(subj, compound, order, truthDed, nal);
+                } else if (compound instanceof DifferenceExt) {
+                    if (index == 0) {
+                    } else {
+                        structuralStatement(subj, compound, order, truthNDed, nal);
+                    }
+                } else if ((compound instanceof DifferenceInt) && (index == 0)) {
+                    structuralStatement(subj, compound, order, truthDed, nal);
                 }
-            } else if ((compound instanceof DifferenceInt) && (index == 0)) {
-                structuralStatement(subj, compound, order, truthDed, nal);
             }
+        } finally {
+            Profiler.exit(nal.memory, Profiler.STRUCTURAL_COMPOSE1);
         }
     }
 
@@ -236,50 +252,55 @@ public final class StructuralRules {
      * @param nal Reference to the memory
      */
     static void structuralDecompose1(CompoundTerm compound, short index, Statement statement, DerivationContext nal) {
-        if(index >= compound.term.length) {
-            return;
-        }
-        Term component = compound.term[index];
-        Task task = nal.getCurrentTask();
-        Sentence sentence = task.sentence;
-        int order = sentence.getTemporalOrder();
-        TruthValue truth = sentence.truth;
+        Profiler.enter(nal.memory, Profiler.STRUCTURAL_DECOMPOSE1);
+        try {
+            if(index >= compound.term.length) {
+                return;
+            }
+            Term component = compound.term[index];
+            Task task = nal.getCurrentTask();
+            Sentence sentence = task.sentence;
+            int order = sentence.getTemporalOrder();
+            TruthValue truth = sentence.truth;
         
-        if (truth == null) {
-            return;
-        }
+            if (truth == null) {
+                return;
+            }
         
-        final float reliance = Parameters.reliance;
-        TruthValue truthDed = TruthFunctions.deduction(truth, reliance);
-        TruthValue truthNDed = TruthFunctions.negation(TruthFunctions.deduction(truth, reliance));
+            final float reliance = Parameters.reliance;
+            TruthValue truthDed = TruthFunctions.deduction(truth, reliance);
+            TruthValue truthNDed = TruthFunctions.negation(TruthFunctions.deduction(truth, reliance));
         
-        Term subj = statement.getSubject();
-        Term pred = statement.getPredicate();
-        if (compound.equals(subj)) {
-            if (compound instanceof IntersectionInt) {
-                structuralStatement(component, pred, order, truthDed, nal);
-            } else if ((compound instanceof SetExt) && (compound.size() > 1)) {
-                Term[] t1 = new Term[]{component};
-                structuralStatement(new SetExt(t1), pred, order, truthDed, nal);
-            } else if (compound instanceof DifferenceInt) {
-                if (index == 0) {
+            Term subj = statement.getSubject();
+            Term pred = statement.getPredicate();
+            if (compound.equals(subj)) {
+                if (compound instanceof IntersectionInt) {
                     structuralStatement(component, pred, order, truthDed, nal);
-                } else {
-                    structuralStatement(component, pred, order, truthNDed, nal);
+                } else if ((compound instanceof SetExt) && (compound.size() > 1)) {
+                    Term[] t1 = new Term[]{component};
+                    structuralStatement(new SetExt(t1), pred, order, truthDed, nal);
+                } else if (compound instanceof DifferenceInt) {
+                    if (index == 0) {
+                        structuralStatement(component, pred, order, truthDed, nal);
+                    } else {
+                        structuralStatement(component, pred, order, truthNDed, nal);
+                    }
                 }
-            }
-        } else if (compound.equals(pred)) {
-            if (compound instanceof IntersectionExt) {
-                structuralStatement(subj, component, order, truthDed, nal);
-            } else if ((compound instanceof SetInt) && (compound.size() > 1)) {
-                structuralStatement(subj, new SetInt(component), order, truthDed, nal);
-            } else if (compound instanceof DifferenceExt) {
-                if (index == 0) {
+            } else if (compound.equals(pred)) {
+                if (compound instanceof IntersectionExt) {
                     structuralStatement(subj, component, order, truthDed, nal);
-                } else {
-                    structuralStatement(subj, component, order, truthNDed, nal);
+                } else if ((compound instanceof SetInt) && (compound.size() > 1)) {
+                    structuralStatement(subj, new SetInt(component), order, truthDed, nal);
+                } else if (compound instanceof DifferenceExt) {
+                    if (index == 0) {
+                        structuralStatement(subj, component, order, truthDed, nal);
+                    } else {
+                        structuralStatement(subj, component, order, truthNDed, nal);
+                    }
                 }
             }
+        } finally {
+            Profiler.exit(nal.memory, Profiler.STRUCTURAL_DECOMPOSE1);
         }
     }
 
@@ -313,40 +334,45 @@ public final class StructuralRules {
      * @param nal Reference to the memory
      */
     static void transformSetRelation(CompoundTerm compound, Statement statement, short side, DerivationContext nal) {
-        if (compound.size() > 1) {
-            return;
-        }
-        if (statement instanceof Inheritance) {
-            if (((compound instanceof SetExt) && (side == 0)) || ((compound instanceof SetInt) && (side == 1))) {
+        Profiler.enter(nal.memory, Profiler.TRANSFORM_SET_RELATION);
+        try {
+            if (compound.size() > 1) {
                 return;
             }
-        }
-        Term sub = statement.getSubject();
-        Term pre = statement.getPredicate();
-        Statement content;
-        if (statement instanceof Inheritance) {
-            content = Similarity.make(sub, pre);
-        } else {
-            if (((compound instanceof SetExt) && (side == 0)) || ((compound instanceof SetInt) && (side == 1))) {
-                content = Inheritance.make(pre, sub);
+            if (statement instanceof Inheritance) {
+                if (((compound instanceof SetExt) && (side == 0)) || ((compound instanceof SetInt) && (side == 1))) {
+                    return;
+                }
+            }
+            Term sub = statement.getSubject();
+            Term pre = statement.getPredicate();
+            Statement content;
+            if (statement instanceof Inheritance) {
+                content = Similarity.make(sub, pre);
             } else {
-                content = Inheritance.make(sub, pre);
+                if (((compound instanceof SetExt) && (side == 0)) || ((compound instanceof SetInt) && (side == 1))) {
+                    content = Inheritance.make(pre, sub);
+                } else {
+                    content = Inheritance.make(sub, pre);
+                }
+            }
+            if (content == null) {
+                return;
             }
-        }
-        if (content == null) {
-            return;
-        }
 
-        Task task = nal.getCurrentTask();
-        Sentence sentence = task.sentence;
-        TruthValue truth = sentence.truth;
-        BudgetValue budget;
-        if (sentence.isJudgment()) {
-            budget = BudgetFunctions.compoundForward(truth, content, nal);
-        } else {
-            budget = BudgetFunctions.compoundBackward(content, nal);
+            Task task = nal.getCurrentTask();
+            Sentence sentence = task.sentence;
+            TruthValue truth = sentence.truth;
+            BudgetValue budget;
+            if (sentence.isJudgment()) {
+                budget = BudgetFunctions.compoundForward(truth, content, nal);
+            } else {
+                budget = BudgetFunctions.compoundBackward(content, nal);
+            }
+            nal.singlePremiseTask(content, truth, budget);
+        } finally {
+            Profiler.exit(nal.memory, Profiler.TRANSFORM_SET_RELATION);
         }
-        nal.singlePremiseTask(content, truth, budget);
     }
 
     /* -------------------- products and images transform -------------------- */
@@ -363,108 +389,113 @@ public final class StructuralRules {
      * @param memory Reference to the memory
      */
     static void transformProductImage(Inheritance inh, CompoundTerm oldContent, short[] indices, DerivationContext nal) {
-        final Memory memory = nal.mem();
-        Term subject = inh.getSubject();
-        Term predicate = inh.getPredicate();
-        short index = indices[indices.length - 1];
-        short side = indices[indices.length - 2];
-        if (inh.equals(oldContent)) {
-            if (subject instanceof CompoundTerm) {
-                transformSubjectPI(index, (CompoundTerm) subject, predicate, nal);
-            }
-            if (predicate instanceof CompoundTerm) {
-                transformPredicatePI(index, subject, (CompoundTerm) predicate, nal);
-            }
-            return;
-        }
+        Profiler.enter(nal.memory, Profiler.TRANSFORM_PRODUCT_IMAGE);
+        try {
+            final Memory memory = nal.mem();
+            Term subject = inh.getSubject();
+            Term predicate = inh.getPredicate();
+            short index = indices[indices.length - 1];
+            short side = indices[indices.length - 2];
+            if (inh.equals(oldContent)) {
+                if (subject instanceof CompoundTerm) {
+                    transformSubjectPI(index, (CompoundTerm) subject, predicate, nal);
+                }
+                if (predicate instanceof CompoundTerm) {
+                    transformPredicatePI(index, subject, (CompoundTerm) predicate, nal);
+                }
+                return;
+            }
 
-        Term compT = inh.term[side];
-        if (!(compT instanceof CompoundTerm))
-            return;
-        CompoundTerm comp = (CompoundTerm)compT;
+            Term compT = inh.term[side];
+            if (!(compT instanceof CompoundTerm))
+                return;
+            CompoundTerm comp = (CompoundTerm)compT;
         
-        if (comp instanceof Product) {
-            if (side == 0) {
-                subject = comp.term[index];
-                predicate = ImageExt.make((Product) comp, inh.getPredicate(), index);
+            if (comp instanceof Product) {
+                if (side == 0) {
+                    subject = comp.term[index];
+                    predicate = ImageExt.make((Product) comp, inh.getPredicate(), index);
+                } else {
+                    subject = ImageInt.make((Product) comp, inh.getSubject(), index);
+                    predicate = comp.term[index];
+                }
+            } else if ((comp instanceof ImageExt) && (side == 1)) {
+                if (index == ((ImageExt) comp).relationIndex) {
+                    subject = Product.make(comp, inh.getSubject(), index);
+                    predicate = comp.term[index];
+                } else {
+                    subject = comp.term[index];
+                    predicate = ImageExt.make((ImageExt) comp, inh.getSubject(), index);
+                }
+            } else if ((comp instanceof ImageInt) && (side == 0)) {
+                if (index == ((ImageInt) comp).relationIndex) {
+                    subject = comp.term[index];
+                    predicate = Product.make(comp, inh.getPredicate(), index);
+                } else {
+                    subject = ImageInt.make((ImageInt) comp, inh.getPredicate(), index);
+                    predicate = comp.term[index];
+                }
             } else {
-                subject = ImageInt.make((Product) comp, inh.getSubject(), index);
-                predicate = comp.term[index];
+                return;
             }
-        } else if ((comp instanceof ImageExt) && (side == 1)) {
-            if (index == ((ImageExt) comp).relationIndex) {
-                subject = Product.make(comp, inh.getSubject(), index);
-                predicate = comp.term[index];
-            } else {
-                subject = comp.term[index];
-                predicate = ImageExt.make((ImageExt) comp, inh.getSubject(), index);
+        
+            CompoundTerm newInh = null;
+            if(predicate.equals(Term.SEQ_SPATIAL)) {
+                newInh = (CompoundTerm) Conjunction.make(((CompoundTerm) subject).term, TemporalRules.ORDER_FORWARD, true);
+            } else
+            if(predicate.equals(Term.SEQ_TEMPORAL)) {
+                newInh = (CompoundTerm) Conjunction.make(((CompoundTerm) subject).term, TemporalRules.ORDER_FORWARD, false);
             }
-        } else if ((comp instanceof ImageInt) && (side == 0)) {
-            if (index == ((ImageInt) comp).relationIndex) {
-                subject = comp.term[index];
-                predicate = Product.make(comp, inh.getPredicate(), index);
-            } else {
-                subject = ImageInt.make((ImageInt) comp, inh.getPredicate(), index);
-                predicate = comp.term[index];
+            else 
+            {
+                newInh = Inheritance.make(subject, predicate);
             }
-        } else {
-            return;
-        }
-        
-        CompoundTerm newInh = null;
-        if(predicate.equals(Term.SEQ_SPATIAL)) {
-            newInh = (CompoundTerm) Conjunction.make(((CompoundTerm) subject).term, TemporalRules.ORDER_FORWARD, true);
-        } else
-        if(predicate.equals(Term.SEQ_TEMPORAL)) {
-            newInh = (CompoundTerm) Conjunction.make(((CompoundTerm) subject).term, TemporalRules.ORDER_FORWARD, false);
-        }
-        else 
-        {
-            newInh = Inheritance.make(subject, predicate);
-        }
-        if (newInh == null)
-            return;
+            if (newInh == null)
+                return;
         
-        CompoundTerm content = null;
-        if (indices.length == 2) {
-            content = newInh;
-        } else if ((oldContent instanceof Statement) && (indices[0] == 1)) {
-            content = Statement.make((Statement) oldContent, oldContent.term[0], newInh, oldContent.getTemporalOrder());
-        } else {
-            Term[] componentList;
-            Term condition = oldContent.term[0];
-            if (((oldContent instanceof Implication) || (oldContent instanceof Equivalence)) && (condition instanceof Conjunction)) {
-                componentList = ((CompoundTerm) condition).cloneTerms();
-                componentList[indices[1]] = newInh;
-                Term newCond = Terms.term((CompoundTerm) condition, componentList);
-                content = Statement.make((Statement) oldContent, newCond, ((Statement) oldContent).getPredicate(), oldContent.getTemporalOrder());
+            CompoundTerm content = null;
+            if (indices.length == 2) {
+                content = newInh;
+            } else if ((oldContent instanceof Statement) && (indices[0] == 1)) {
+                content = Statement.make((Statement) oldContent, oldContent.term[0], newInh, oldContent.getTemporalOrder());
             } else {
-                componentList = oldContent.cloneTerms();
-                componentList[indices[0]] = newInh;
-                if (oldContent instanceof Conjunction) {
-                    Term newContent = Terms.term(oldContent, componentList);
-                    if (!(newContent instanceof CompoundTerm))
-                        return;
-                    content = (CompoundTerm)newContent;
-                } else if ((oldContent instanceof Implication) || (oldContent instanceof Equivalence)) {
-                    content = Statement.make((Statement) oldContent, componentList[0], componentList[1], oldContent.getTemporalOrder());
+                Term[] componentList;
+                Term condition = oldContent.term[0];
+                if (((oldContent instanceof Implication) || (oldContent instanceof Equivalence)) && (condition instanceof Conjunction)) {
+                    componentList = ((CompoundTerm) condition).cloneTerms();
+                    componentList[indices[1]] = newInh;
+                    Term newCond = Terms.term((CompoundTerm) condition, componentList);
+                    content = Statement.make((Statement) oldContent, newCond, ((Statement) oldContent).getPredicate(), oldContent.getTemporalOrder());
+                } else {
+                    componentList = oldContent.cloneTerms();
+                    componentList[indices[0]] = newInh;
+                    if (oldContent instanceof Conjunction) {
+                        Term newContent = Terms.term(oldContent, componentList);
+                        if (!(newContent instanceof CompoundTerm))
+                            return;
+                        content = (CompoundTerm)newContent;
+                    } else if ((oldContent instanceof Implication) || (oldContent instanceof Equivalence)) {
+                        content = Statement.make((Statement) oldContent, componentList[0], componentList[1], oldContent.getTemporalOrder());
+                    }
                 }
             }
-        }
         
-        if (content == null)
-            return;
+            if (content == null)
+                return;
         
-        Sentence sentence = nal.getCurrentTask().sentence;
-        TruthValue truth = sentence.truth;
-        BudgetValue budget;
-        if (sentence.isQuestion() || sentence.isQuest()) {
-            budget = BudgetFunctions.compoundBackward(content, nal);
-        } else {
-            budget = BudgetFunctions.compoundForward(truth, content, nal);
-        }
+            Sentence sentence = nal.getCurrentTask().sentence;
+            TruthValue truth = sentence.truth;
+            BudgetValue budget;
+            if (sentence.isQuestion() || sentence.isQuest()) {
+                budget = BudgetFunctions.compoundBackward(content, nal);
+            } else {
+                budget = BudgetFunctions.compoundForward(truth, content, nal);
+            }
         
-        nal.singlePremiseTask(content, truth, budget);
+            nal.singlePremiseTask(content, truth, budget);
+        } finally {
+            Profiler.exit(nal.memory, Profiler.TRANSFORM_PRODUCT_IMAGE);
+        }
     }
 
     /**
@@ -688,7 +719,7 @@ public final class StructuralRules {
                 boolean hasLeft = index > 1;
                 boolean hasRight = index < compound.size() - 2;
                 if(hasLeft) {
-                    int minIndex = Memory.randomNumber.nextInt(index-1); //if index-1 it would have length 1, no group
+                    int minIndex = Memory.random().nextInt(index-1); //if index-1 it would have length 1, no group
                     Term[] newTermLeft = new Term[(index-minIndex)];
                     System.arraycopy(conjCompound.term, minIndex, newTermLeft, minIndex - minIndex, index - minIndex);
                     Term contLeft  = Conjunction.make(newTermLeft,  conjCompound.getTemporalOrder(), conjCompound.getIsSpatial());
@@ -713,7 +744,7 @@ public final class StructuralRules {
                     }
                 }
                 if(hasRight) {
-                    int maxIndex = compound.term.length - 1 - (Memory.randomNumber.nextInt(1 + (compound.term.length - 1) - (index + 2)));
+                    int maxIndex = compound.term.length - 1 - (Memory.random().nextInt(1 + (compound.term.length - 1) - (index + 2)));
                     Term[] newTermRight = new Term[maxIndex -index];
                     System.arraycopy(conjCompound.term, index + 1, newTermRight, index + 1 - (index + 1), maxIndex + 1 - (index + 1));
                     Term contRight = Conjunction.make(newTermRight, conjCompound.getTemporalOrder(), conjCompound.getIsSpatial());
@@ -765,59 +796,63 @@ public final class StructuralRules {
      * @param nal Reference to the memory
      */
     static boolean structuralCompound(CompoundTerm compound, Term component, boolean compoundTask, int index, DerivationContext nal) {
-        
-        if(compound instanceof Conjunction) {
-            if(nal.getCurrentTask().getTerm() == compound) {
-                Conjunction conj = (Conjunction) compound; //only for # for now, will be gradually applied to &/ later
-                if(conj.getTemporalOrder() == TemporalRules.ORDER_FORWARD && conj.isSpatial) { //and some also to && &|
-                    //flattenSequence(compound, component, compoundTask, index, nal);
-                    groupSequence(compound, component, compoundTask, index, nal);
-                    //takeOutFromConjunction(compound, component, compoundTask, index, nal);
-                    splitConjunctionApart(compound, component, compoundTask, index, nal);
-                }
-                if(conj.getTemporalOrder() == TemporalRules.ORDER_FORWARD) {
-                    seqToImage(conj, index, nal);
+        Profiler.enter(nal.memory, Profiler.STRUCTURAL_COMPOUND);
+        try {
+            if(compound instanceof Conjunction) {
+                if(nal.getCurrentTask().getTerm() == compound) {
+                    Conjunction conj = (Conjunction) compound; //only for # for now, will be gradually applied to &/ later
+                    if(conj.getTemporalOrder() == TemporalRules.ORDER_FORWARD && conj.isSpatial) { //and some also to && &|
+                        //flattenSequence(compound, component, compoundTask, index, nal);
+                        groupSequence(compound, component, compoundTask, index, nal);
+                        //takeOutFromConjunction(compound, component, compoundTask, index, nal);
+                        splitConjunctionApart(compound, component, compoundTask, index, nal);
+                    }
+                    if(conj.getTemporalOrder() == TemporalRules.ORDER_FORWARD) {
+                        seqToImage(conj, index, nal);
+                    }
                 }
             }
-        }
         
-        if (component.hasVarIndep()) { //moved down here since flattening also works when indep
-            return false;
-        } //and also for &/ with index > 0
-        if ((compound instanceof Conjunction) && !compound.getIsSpatial() && (compound.getTemporalOrder() == TemporalRules.ORDER_FORWARD) && (index != 0)) {
-            return false;
-        } 
+            if (component.hasVarIndep()) { //moved down here since flattening also works when indep
+                return false;
+            } //and also for &/ with index > 0
+            if ((compound instanceof Conjunction) && !compound.getIsSpatial() && (compound.getTemporalOrder() == TemporalRules.ORDER_FORWARD) && (index != 0)) {
+                return false;
+            } 
         
-        final Term content = compoundTask ? component : compound;
-        Task task = nal.getCurrentTask();
+            final Term content = compoundTask ? component : compound;
+            Task task = nal.getCurrentTask();
 
-        Sentence sentence = task.sentence;
-        TruthValue truth = sentence.truth;
+            Sentence sentence = task.sentence;
+            TruthValue truth = sentence.truth;
 
-        final float reliance = Parameters.reliance;
+            final float reliance = Parameters.reliance;
 
-        BudgetValue budget;
-        if (sentence.isQuestion() || sentence.isQuest()) {
-            budget = BudgetFunctions.compoundBackward(content, nal);
-        } else {  // need to redefine the cases
+            BudgetValue budget;
+            if (sentence.isQuestion() || sentence.isQuest()) {
+                budget = BudgetFunctions.compoundBackward(content, nal);
+            } else {  // need to redefine the cases
             
-            //[03:24] <patham9> <a --> b>.     (||,<a --> b>,<x --> y>)?    =>    (||,<a --> b>,<x --> y>).
-            //[03:25] <patham9> <a --> b>.     (||,<a --> b>,<x --> y>).     => dont derive it  "outputMustNotContain(<x --> y>)"
-            //[03:25] <patham9> <a --> b>.     (&&,<a --> b>,<x --> y>)?    =>      dont derive it   "outputMustNotContain( (&&,<a --> b>,<x --> y>))"
-            //[03:25] <patham9> <a --> b>.     (&&,<a --> b>,<x --> y>).   =>    <x --> y>
-            if ((sentence.isJudgment() || sentence.isGoal()) && 
-                ((!compoundTask && compound instanceof Disjunction) ||
-                (compoundTask && compound instanceof Conjunction))) {
-                truth = TruthFunctions.deduction(truth, reliance);
-            }else {
-                TruthValue v1, v2;
-                v1 = TruthFunctions.negation(truth);
-                v2 = TruthFunctions.deduction(v1, reliance);
-                truth = TruthFunctions.negation(v2);
-            }
-            budget = BudgetFunctions.forward(truth, nal);
+                //[03:24] <patham9> <a --> b>.     (||,<a --> b>,<x --> y>)?    =>    (||,<a --> b>,<x --> y>).
+                //[03:25] <patham9> <a --> b>.     (||,<a --> b>,<x --> y>).     => dont derive it  "outputMustNotContain(<x --> y>)"
+                //[03:25] <patham9> <a --> b>.     (&&,<a --> b>,<x --> y>)?    =>      dont derive it   "outputMustNotContain( (&&,<a --> b>,<x --> y>))"
+                //[03:25] <patham9> <a --> b>.     (&&,<a --> b>,<x --> y>).   =>    <x --> y>
+                if ((sentence.isJudgment() || sentence.isGoal()) && 
+                    ((!compoundTask && compound instanceof Disjunction) ||
+                    (compoundTask && compound instanceof Conjunction))) {
+                    truth = TruthFunctions.deduction(truth, reliance);
+                }else {
+                    TruthValue v1, v2;
+                    v1 = TruthFunctions.negation(truth);
+                    v2 = TruthFunctions.deduction(v1, reliance);
+                    truth = TruthFunctions.negation(v2);
+                }
+                budget = BudgetFunctions.forward(truth, nal);
+            }
+            return nal.singlePremiseTask(content, truth, budget);
+        } finally {
+            Profiler.exit(nal.memory, Profiler.STRUCTURAL_COMPOUND);
         }
-        return nal.singlePremiseTask(content, truth, budget);
     }
 
     /* --------------- Negation related rules --------------- */
@@ -828,19 +863,24 @@ public final class StructuralRules {
      * @param nal Reference to the memory
      */
     public static void transformNegation(CompoundTerm content, DerivationContext nal) {
-        Task task = nal.getCurrentTask();
-        Sentence sentence = task.sentence;
-        TruthValue truth = sentence.truth;
+        Profiler.enter(nal.memory, Profiler.TRANSFORM_NEGATION);
+        try {
+            Task task = nal.getCurrentTask();
+            Sentence sentence = task.sentence;
+            TruthValue truth = sentence.truth;
 
-        BudgetValue budget;
+            BudgetValue budget;
         
-        if (sentence.isJudgment() || sentence.isGoal()) {
-            truth = TruthFunctions.negation(truth);
-            budget = BudgetFunctions.compoundForward(truth, content, nal);
-        } else {
-            budget = BudgetFunctions.compoundBackward(content, nal);
+            if (sentence.isJudgment() || sentence.isGoal()) {
+                truth = TruthFunctions.negation(truth);
+                budget = BudgetFunctions.compoundForward(truth, content, nal);
+            } else {
+                budget = BudgetFunctions.compoundBackward(content, nal);
+            }
+            nal.singlePremiseTask(content, truth, budget);
+        } finally {
+            Profiler.exit(nal.memory, Profiler.TRANSFORM_NEGATION);
         }
-        nal.singlePremiseTask(content, truth, budget);
     }
 
     /**
@@ -850,34 +890,39 @@ public final class StructuralRules {
      * @param memory Reference to the memory
      */
     protected static boolean contraposition(final Statement statement, final Sentence sentence, final DerivationContext nal) {
-        Memory memory = nal.mem();
-        //memory.logic.CONTRAPOSITION.commit(statement.complexity);
+        Profiler.enter(nal.memory, Profiler.CONTRAPOSITION);
+        try {
+            Memory memory = nal.mem();
+            //memory.logic.CONTRAPOSITION.commit(statement.complexity);
         
-        Term subj = statement.getSubject();
-        Term pred = statement.getPredicate();
+            Term subj = statement.getSubject();
+            Term pred = statement.getPredicate();
         
-        Statement content = Statement.make(statement, 
-                Negation.make(pred), 
-                Negation.make(subj), 
-                TemporalRules.reverseOrder(statement.getTemporalOrder()));                
+            Statement content = Statement.make(statement, 
+                    Negation.make(pred), 
+                    Negation.make(subj), 
+                    TemporalRules.reverseOrder(statement.getTemporalOrder()));                
         
-        if (content == null) return false;
+            if (content == null) return false;
         
-        TruthValue truth = sentence.truth;
-        BudgetValue budget;
-        if (sentence.isQuestion() || sentence.isQuest()) {
-            if (content instanceof Implication) {
-                budget = BudgetFunctions.compoundBackwardWeak(content, nal);
+            TruthValue truth = sentence.truth;
+            BudgetValue budget;
+            if (sentence.isQuestion() || sentence.isQuest()) {
+                if (content instanceof Implication) {
+                    budget = BudgetFunctions.compoundBackwardWeak(content, nal);
+                } else {
+                    budget = BudgetFunctions.compoundBackward(content, nal);
+                }
+                return nal.singlePremiseTask(content, Symbols.QUESTION_MARK, truth, budget);
             } else {
-                budget = BudgetFunctions.compoundBackward(content, nal);
-            }
-            return nal.singlePremiseTask(content, Symbols.QUESTION_MARK, truth, budget);
-        } else {
-            if (content instanceof Implication) {
-                truth = TruthFunctions.contraposition(truth);
+                if (content instanceof Implication) {
+                    truth = TruthFunctions.contraposition(truth);
+                }
+                budget = BudgetFunctions.compoundForward(truth, content, nal);
+                return nal.singlePremiseTask(content, Symbols.JUDGMENT_MARK, truth, budget);
             }
-            budget = BudgetFunctions.compoundForward(truth, content, nal);
-            return nal.singlePremiseTask(content, Symbols.JUDGMENT_MARK, truth, budget);
+        } finally {
+            Profiler.exit(nal.memory, Profiler.CONTRAPOSITION);
         }
     }
 }
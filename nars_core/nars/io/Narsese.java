@@ -1,8 +1,6 @@
 package nars.io;
 
-import nars.io.Symbols;
 import java.io.Serializable;
-import static java.lang.Float.parseFloat;
 import java.util.ArrayList;
 import nars.storage.Memory;
 import nars.main.NAR;
@@ -31,10 +29,7 @@ import static nars.io.Symbols.STAMP_CLOSER;
 import static nars.io.Symbols.STAMP_OPENER;
 import static nars.io.Symbols.TRUTH_VALUE_MARK;
 import static nars.io.Symbols.VALUE_SEPARATOR;
-import static nars.io.Symbols.getCloser;
 import static nars.io.Symbols.getOpener;
-import static nars.io.Symbols.getRelation;
-import static nars.io.Symbols.isRelation;
 import nars.language.Interval;
 import nars.language.SetExt;
 import nars.language.SetInt;
@@ -47,20 +42,21 @@ import nars.operator.Operation;
 import static nars.operator.Operation.make;
 import nars.operator.Operator;
 import static java.lang.String.valueOf;
-import static nars.io.Symbols.getOperator;
 import static nars.language.Variables.containVar;
 import static nars.language.Statement.make;
 
 /**
  * Utility methods for working and reacting to Narsese input.
- * This will eventually be integrated with NarseseParser for systematic
- * parsing and prediction of input.
+ * <p>
+ * Input is read in a single pass by a cursor over the CharSequence, terms are
+ * built directly while reading and no strings are created except the names of
+ * atomic terms.
  */
 public class Narsese implements Serializable {
-    
+
     public final Memory memory;
 
-                
+
     /**
      * All kinds of invalid addInput lines
      */
@@ -73,16 +69,51 @@ public class Narsese implements Serializable {
         InvalidInputException(String s) {
             super(s);
         }
-    }    
-    
-    public Narsese(Memory memory) {        
+    }
+
+    private static final NativeOperator[] operators = NativeOperator.values();
+
+    private static final NativeOperator[] relations;
+
+    /** classes of the ASCII characters, so atoms can be scanned without operator lookups */
+    private static final byte OPENER = 1, CLOSER = 2, RELATION_START = 4;
+    private static final byte[] charClass = new byte[128];
+
+    static {
+        int n = 0;
+        for (final NativeOperator o : operators) {
+            if (o.relation) n++;
+        }
+        relations = new NativeOperator[n];
+        n = 0;
+        for (final NativeOperator o : operators) {
+            if (o.relation) relations[n++] = o;
+        }
+        for (final NativeOperator o : operators) {
+            if (o.relation) {
+                charClass[o.symbol.charAt(0)] |= RELATION_START;
+            } else if (o.opener || o.closer) {
+                charClass[o.ch] |= o.opener ? OPENER : CLOSER;
+            }
+        }
+        charClass[ARGUMENT_SEPARATOR] |= CLOSER;
+    }
+
+    private static int charClass(final char c) {
+        return (c < 128) ? charClass[c] : 0;
+    }
+
+    /** exact float values of the powers of 10 used for decimals by parseFloat */
+    private static final float[] pow10 = { 1f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f };
+
+    public Narsese(Memory memory) {
         this.memory = memory;
     }
 
     public Narsese(NAR n) {
         this(n.memory);
     }
-    
+
 
     /**
      * Parse a line of addInput experience
@@ -95,21 +126,21 @@ public class Narsese implements Serializable {
      * @return An experienced task
      */
     public Task parseNarsese(StringBuilder buffer) throws InvalidInputException {
-        
+
         int i = buffer.indexOf(valueOf(PREFIX_MARK));
         if (i > 0) {
             String prefix = buffer.substring(0, i).trim();
             if (prefix.equals(INPUT_LINE_PREFIX)) {
-                buffer.delete(0, i + 1);                
+                buffer.delete(0, i + 1);
             }
             else if (prefix.equals(OUTPUT_LINE_PREFIX)) {
                 //ignore outputs
-                return null;                
-            }            
+                return null;
+            }
         }
-        
-        
-        
+
+
+
         char c = buffer.charAt(buffer.length() - 1);
         if (c == STAMP_CLOSER) {
             //ignore stamp
@@ -123,33 +154,77 @@ public class Narsese implements Serializable {
         }
         return parseTask(buffer.toString().trim());
     }
-    
+
     /**
      * Enter a new Task in String into the memory, called from InputWindow or
      * locally.
+     * <p>
+     * The budget is recognized at the beginning, the truth value, tense and
+     * punctuation at the end, the rest is the content term.
      *
-     * @param s the single-line addInput String
-     * @param memory Reference to the memory
-     * @param time The current time
+     * @param input the single-line addInput
      * @return An experienced task
-     */    
-    public Task parseTask(String s) throws InvalidInputException {
-        StringBuilder buffer = new StringBuilder(Texts.escape(s));
-        
-        String budgetString = getBudgetString(buffer);
-        String truthString = getTruthString(buffer);
-        Tense tense = parseTense(buffer);
-        String str = buffer.toString().trim();
-        int last = str.length() - 1;
-        char punc = str.charAt(last);
-        
-        Stamp stamp = new Stamp(-1 /* if -1, will be set right before the Task is input */, 
+     */
+    public Task parseTask(final CharSequence input) throws InvalidInputException {
+        //quoted names are escaped first, so that no marks are recognized inside of them
+        final CharSequence s = (indexOf(input, Symbols.QUOTE, 0, input.length()) != -1) ? Texts.escape(input) : input;
+        int start = 0;
+        int end = s.length();
+        if (end == 0) {
+            throw new InvalidInputException("empty input");
+        }
+
+        int budgetStart = -1, budgetEnd = -1;
+        if (s.charAt(0) == BUDGET_VALUE_MARK) {
+            budgetEnd = indexOf(s, BUDGET_VALUE_MARK, 1, end);    // looking for the end
+            if (budgetEnd < 0) {
+                throw new InvalidInputException("missing budget closer");
+            }
+            budgetStart = 1;
+            if (isBlank(s, budgetStart, budgetEnd)) {
+                throw new InvalidInputException("empty budget");
+            }
+            start = budgetEnd + 1;
+            if (start == end) {
+                throw new InvalidInputException("missing sentence");
+            }
+        }
+
+        int truthStart = -1, truthEnd = -1;
+        if (s.charAt(end - 1) == TRUTH_VALUE_MARK) {
+            final int first = indexOf(s, TRUTH_VALUE_MARK, start, end);    // looking for the beginning
+            if (first == end - 1) { // no matching closer
+                throw new InvalidInputException("missing truth mark");
+            }
+            truthStart = first + 1;
+            truthEnd = end - 1;
+            if (isBlank(s, truthStart, truthEnd)) {                // empty usage
+                throw new InvalidInputException("empty truth");
+            }
+            end = first;
+        }
+
+        Tense tense = Tense.Eternal;
+        final int tenseStart = indexOf(s, Symbols.TENSE_MARK.charAt(0), start, end);
+        if (tenseStart > start) {
+            tense = parseTense(s, tenseStart, end);
+            end = tenseStart;
+        }
+
+        while ((start < end) && (s.charAt(start) <= ' ')) start++;
+        while ((end > start) && (s.charAt(end - 1) <= ' ')) end--;
+        if (start == end) {
+            throw new InvalidInputException("missing sentence");
+        }
+        final char punc = s.charAt(end - 1);
+
+        Stamp stamp = new Stamp(-1 /* if -1, will be set right before the Task is input */,
                 tense, memory.newStampSerial(), memory.param.duration.get());
 
-        TruthValue truth = parseTruth(truthString, punc);
-        Term content = parseTerm(str.substring(0, last));
+        TruthValue truth = parseTruth(s, truthStart, truthEnd, punc);
+        Term content = parseTerm(s, start, end - 1);
         if (content == null) throw new InvalidInputException("Content term missing");
-            
+
         Sentence sentence = new Sentence(
             content,
             punc,
@@ -159,7 +234,7 @@ public class Narsese implements Serializable {
         //if ((content instanceof Conjunction) && Variable.containVarDep(content.getName())) {
         //    sentence.setRevisible(false);
         //}
-        BudgetValue budget = parseBudget(budgetString, punc, truth);
+        BudgetValue budget = parseBudget(s, budgetStart, budgetEnd, punc, truth);
         Task task = new Task(sentence, budget, true);
         return task;
 
@@ -167,63 +242,15 @@ public class Narsese implements Serializable {
 
     /* ---------- react values ---------- */
     /**
-     * Return the prefix of a task symbol that contains a BudgetValue
-     *
-     * @param s the addInput in a StringBuilder
-     * @return a String containing a BudgetValue
-     * @throws nars.io.StringParser.InvalidInputException if the addInput cannot be
- parsed into a BudgetValue
-     */
-    private static String getBudgetString(StringBuilder s) throws InvalidInputException {
-        if (s.charAt(0) != BUDGET_VALUE_MARK) {
-            return null;
-        }
-        int i = s.indexOf(valueOf(BUDGET_VALUE_MARK), 1);    // looking for the end
-        if (i < 0) {
-            throw new InvalidInputException("missing budget closer");
-        }
-        String budgetString = s.substring(1, i).trim();
-        if (budgetString.length() == 0) {
-            throw new InvalidInputException("empty budget");
-        }
-        s.delete(0, i + 1);
-        return budgetString;
-    }
-
-    /**
-     * Return the postfix of a task symbol that contains a TruthValue
-     *
-     * @return a String containing a TruthValue
-     * @param s the addInput in a StringBuilder
-     * @throws nars.io.StringParser.InvalidInputException if the addInput cannot be
- parsed into a TruthValue
-     */
-    private static String getTruthString(final StringBuilder s) throws InvalidInputException {
-        final int last = s.length() - 1;
-        if (s.charAt(last) != TRUTH_VALUE_MARK) {       // use default
-            return null;
-        }
-        final int first = s.indexOf(valueOf(TRUTH_VALUE_MARK));    // looking for the beginning
-        if (first == last) { // no matching closer
-            throw new InvalidInputException("missing truth mark");
-        }
-        final String truthString = s.substring(first + 1, last).trim();
-        if (truthString.length() == 0) {                // empty usage
-            throw new InvalidInputException("empty truth");
-        }
-        s.delete(first, last + 1);                 // remaining addInput to be processed outside
-        s.trimToSize();
-        return truthString;
-    }
-
-    /**
-     * react the addInput String into a TruthValue (or DesireValue)
+     * react the truth value part of the addInput into a TruthValue (or DesireValue)
      *
-     * @param s addInput String
+     * @param s addInput
+     * @param from start of the truth value, or -1 to use the default
+     * @param to end of the truth value
      * @param type Task type
      * @return the addInput TruthValue
      */
-    private static TruthValue parseTruth(String s, char type) {
+    private static TruthValue parseTruth(final CharSequence s, final int from, final int to, final char type) {
         if ((type == QUESTION_MARK) || (type == QUEST_MARK)) {
             return null;
         }
@@ -232,29 +259,31 @@ public class Narsese implements Serializable {
         if(type==GOAL_MARK) {
             confidence = Parameters.DEFAULT_GOAL_CONFIDENCE;
         }
-        if (s != null) {
-            int i = s.indexOf(VALUE_SEPARATOR);
+        if (from >= 0) {
+            int i = indexOf(s, VALUE_SEPARATOR, from, to);
             if (i < 0) {
-                frequency = parseFloat(s);
+                frequency = parseFloat(s, from, to);
             } else {
-                frequency = parseFloat(s.substring(0, i));
-                confidence = parseFloat(s.substring(i + 1));
+                frequency = parseFloat(s, from, i);
+                confidence = parseFloat(s, i + 1, to);
             }
         }
         return new TruthValue(frequency, confidence);
     }
 
     /**
-     * react the addInput String into a BudgetValue
+     * react the budget part of the addInput into a BudgetValue
      *
-     * @param truth the TruthValue of the task
-     * @param s addInput String
+     * @param s addInput
+     * @param from start of the budget, or -1 to use the default
+     * @param to end of the budget
      * @param punctuation Task punctuation
+     * @param truth the TruthValue of the task
      * @return the addInput BudgetValue
      * @throws nars.io.StringParser.InvalidInputException If the String cannot
      * be parsed into a BudgetValue
      */
-    private static BudgetValue parseBudget(String s, char punctuation, TruthValue truth) throws InvalidInputException {
+    private static BudgetValue parseBudget(final CharSequence s, final int from, final int to, final char punctuation, final TruthValue truth) throws InvalidInputException {
         float priority, durability;
         switch (punctuation) {
             case JUDGMENT_MARK:
@@ -272,20 +301,20 @@ public class Narsese implements Serializable {
             case QUEST_MARK:
                 priority = Parameters.DEFAULT_QUEST_PRIORITY;
                 durability = Parameters.DEFAULT_QUEST_DURABILITY;
-                break;                
+                break;
             default:
                 throw new InvalidInputException("unknown punctuation: '" + punctuation + "'");
         }
-        if (s != null) { // overrite default
-            int i = s.indexOf(VALUE_SEPARATOR);
+        if (from >= 0) { // overrite default
+            int i = indexOf(s, VALUE_SEPARATOR, from, to);
             if (i < 0) {        // default durability
-                priority = parseFloat(s);
+                priority = parseFloat(s, from, to);
             } else {
-                int i2 = s.indexOf(VALUE_SEPARATOR, i+1);
+                int i2 = indexOf(s, VALUE_SEPARATOR, i + 1, to);
                 if (i2 == -1)
-                    i2 = s.length();
-                priority = parseFloat(s.substring(0, i));
-                durability = parseFloat(s.substring(i + 1, i2));
+                    i2 = to;
+                priority = parseFloat(s, from, i);
+                durability = parseFloat(s, i + 1, i2);
             }
         }
         float quality = (truth == null) ? 1 : truthToQuality(truth);
@@ -299,16 +328,56 @@ public class Narsese implements Serializable {
      */
     public static Tense parseTense(StringBuilder s) {
         int i = s.indexOf(Symbols.TENSE_MARK);
-        String t = "";
+        Tense t = Tense.Eternal;
         if (i > 0) {
-            t = s.substring(i).trim();
+            t = parseTense(s, i, s.length());
             s.delete(i, s.length());
         }
-        return Tense.tense(t);
+        return t;
+    }
+
+    /** the tense whose symbol is the trimmed part of s, or Eternal */
+    private static Tense parseTense(final CharSequence s, int from, int to) {
+        while ((from < to) && (s.charAt(from) <= ' ')) from++;
+        while ((to > from) && (s.charAt(to - 1) <= ' ')) to--;
+        for (final Tense t : Tense.values()) {
+            if (regionEquals(s, from, to, t.symbol)) {
+                return t;
+            }
+        }
+        return Tense.Eternal;
+    }
+
+    /**
+     * Float.parseFloat of a part of s. Plain decimals of up to 7 digits, as
+     * used for truth and budget values, are read without creating a String:
+     * their digits and the power of 10 are exact floats, so that their
+     * quotient is rounded like by parseFloat.
+     */
+    static float parseFloat(final CharSequence s, int from, int to) {
+        while ((from < to) && (s.charAt(from) <= ' ')) from++;
+        while ((to > from) && (s.charAt(to - 1) <= ' ')) to--;
+        int mantissa = 0, digits = 0, decimals = -1;
+        for (int i = from; i < to; i++) {
+            final char c = s.charAt(i);
+            if ((c >= '0') && (c <= '9') && (digits < 7)) {
+                mantissa = mantissa * 10 + (c - '0');
+                digits++;
+                if (decimals >= 0) decimals++;
+            } else if ((c == '.') && (decimals < 0)) {
+                decimals = 0;
+            } else { //longer numbers, exponents, signs and invalid input
+                return Float.parseFloat(s.subSequence(from, to).toString());
+            }
+        }
+        if (digits == 0) {
+            return Float.parseFloat(s.subSequence(from, to).toString());
+        }
+        return (decimals > 0) ? mantissa / pow10[decimals] : mantissa;
     }
 
-    
-    
+
+
     /* ---------- react String into term ---------- */
     /**
      * Top-level method that react a Term in general, which may recursively call
@@ -319,313 +388,260 @@ public class Narsese implements Serializable {
  SetInt; 4. <T1 Re T2> is a Statement (including higher-order Statement);
      * 5. otherwise it is a simple term.
      *
-     * @param s0 the String to be parsed
-     * @param memory Reference to the memory
-     * @return the Term generated from the String
+     * @param s the String to be parsed
+     * @return the Term generated from the String, or null if it is empty
      */
-    public Term parseTerm(String s) throws InvalidInputException {
-        s = s.trim();
-        
-        if (s.length() == 0) return null;
-        
-        int index = s.length() - 1;
-        char first = s.charAt(0);
-        char last = s.charAt(index);
-
-        NativeOperator opener = getOpener(first);
-        if (opener!=null) {
-            switch (opener) {
-                case COMPOUND_TERM_OPENER:
-                    if (last == COMPOUND_TERM_CLOSER.ch) {
-                       return parseCompoundTerm(s.substring(1, index));
-                    } else {
-                        throw new InvalidInputException("missing CompoundTerm closer");
-                    }
-                case SET_EXT_OPENER:
-                    if (last == SET_EXT_CLOSER.ch) {
-                        return SetExt.make(parseArguments(s.substring(1, index) + ARGUMENT_SEPARATOR));
-                    } else {
-                        throw new InvalidInputException("missing ExtensionSet closer");
-                    }                    
-                case SET_INT_OPENER:
-                    if (last == SET_INT_CLOSER.ch) {
-                        return SetInt.make(parseArguments(s.substring(1, index) + ARGUMENT_SEPARATOR));
-                    } else {
-                        throw new InvalidInputException("missing IntensionSet closer");
-                    }   
-                case STATEMENT_OPENER:
-                    if (last == STATEMENT_CLOSER.ch) {
-                        return parseStatement(s.substring(1, index));
-                    } else {
-                        throw new InvalidInputException("missing Statement closer");
-                    }
-            }
-        }
-        else if (Parameters.FUNCTIONAL_OPERATIONAL_FORMAT) {
-            
-            //parse functional operation:
-            //  function()
-            //  function(a)
-            //  function(a,b)
-            
-            //test for existence of matching parentheses at beginning at index!=0
-            int pOpen = s.indexOf('(');
-            int pClose = s.lastIndexOf(')');
-            if ((pOpen!=-1) && (pClose!=-1) && (pClose==s.length()-1)) {
-                
-                String operatorString = Operator.addPrefixIfMissing( s.substring(0, pOpen) );
-                                
-                Operator operator = memory.getOperator(operatorString);
-                
-                if (operator == null) {
-                    //???
-                    throw new InvalidInputException("Unknown operator: " + operatorString);
-                }
-                
-                String argString = s.substring(pOpen+1, pClose+1);               
-                
-                
-                Term[] a;                
-                if (argString.length() > 1) {                
-                    ArrayList<Term> args = parseArguments(argString);                                
-                    a = args.toArray(new Term[args.size()]);
-                }
-                else {
-                    //void "()" arguments, default to (SELF)
-                    a = Operation.SELF_TERM_ARRAY;
-                }                                                            
-                
-                Operation o = Operation.make(operator, a, true);
-                return o;                
-            }
-        }
-
-        //if no opener, parse the term            
-        return parseAtomicTerm(s);
-
+    public Term parseTerm(final CharSequence s) throws InvalidInputException {
+        return parseTerm(s, 0, s.length());
     }
 
-//    private static void showWarning(String message) {
-//		new TemporaryFrame( message + "\n( the faulty line has been kept in the addInput window )",
-//				40000, TemporaryFrame.WARNING );
-//    }
-    /**
-     * Parse a Term that has no internal structure.
-     * <p>
-     * The Term can be a constant or a variable.
-     *
-     * @param s0 the String to be parsed
-     * @throws nars.io.StringParser.InvalidInputException the String cannot be
-     * parsed into a Term
-     * @return the Term generated from the String
-     */
-    private Term parseAtomicTerm(String s0) throws InvalidInputException {
-        String s = s0.trim();
-        if (s.length() == 0) {
-            throw new InvalidInputException("missing term");
-        }
-        
-        Operator op = memory.getOperator(s0);
-        if(op != null) {
-            return op;
-        }
-        
-        if (s.contains(" ")) { // invalid characters in a name
-            throw new InvalidInputException("invalid term");
-        }
-        
-        char c = s.charAt(0);
-        if (c == Symbols.INTERVAL_PREFIX) {
-            return Interval.interval(s);
-        }
- 
-        if (containVar(s) && !s.equals("#")) {
-            return new Variable(s);
-        } else {
-            return Term.get(s);
+    private Term parseTerm(final CharSequence s, final int from, final int to) throws InvalidInputException {
+        final Cursor c = new Cursor(s, from, to);
+        c.skipSpace();
+        if (c.pos == to) return null;
+        final Term t = c.term();
+        c.skipSpace();
+        if (c.pos != to) {
+            throw new InvalidInputException("unexpected input after term: " + s.subSequence(c.pos, to));
         }
+        return t;
     }
 
-    /**
-     * Parse a String to create a Statement.
-     *
-     * @return the Statement generated from the String
-     * @param s0 The addInput String to be parsed
-     * @throws nars.io.StringParser.InvalidInputException the String cannot be
-     * parsed into a Term
-     */
-    private Statement parseStatement(String s0) throws InvalidInputException {
-        String s = s0.trim();
-        int i = topRelation(s);
-        if (i < 0) {
-            throw new InvalidInputException("invalid statement: topRelation(s) < 0");
-        }
-        String relation = s.substring(i, i + 3);
-        Term subject = parseTerm(s.substring(0, i));
-        Term predicate = parseTerm(s.substring(i + 3));
-        Statement t = make(getRelation(relation), subject, predicate, false, 0);
-        if (t == null) {
-            throw new InvalidInputException("invalid statement: statement unable to create: " + getOperator(relation) + " " + subject + " " + predicate);
+    /** reads terms from a part of a CharSequence, from left to right */
+    private final class Cursor {
+
+        final CharSequence s;
+        final int end;
+        int pos;
+
+        Cursor(final CharSequence s, final int from, final int to) {
+            this.s = s;
+            this.pos = from;
+            this.end = to;
         }
-        return t;
-    }
 
-    /**
-     * Parse a String to create a CompoundTerm.
-     *
-     * @return the Term generated from the String
-     * @param s0 The String to be parsed
-     * @throws nars.io.StringParser.InvalidInputException the String cannot be
-     * parsed into a Term
-     */
-    private Term parseCompoundTerm(final String s0) throws InvalidInputException {
-        String s = s0.trim();
-        if (s.isEmpty()) {
-            throw new InvalidInputException("Empty compound term: " + s);
+        void skipSpace() {
+            while ((pos < end) && (s.charAt(pos) <= ' ')) pos++;
         }
-        int firstSeparator = s.indexOf(ARGUMENT_SEPARATOR);
-        if (firstSeparator == -1) {
-            throw new InvalidInputException("Invalid compound term (missing ARGUMENT_SEPARATOR): " + s);
+
+        Term term() throws InvalidInputException {
+            skipSpace();
+            if (pos == end) {
+                throw new InvalidInputException("missing term");
+            }
+            final char c = s.charAt(pos);
+            final NativeOperator opener = ((charClass(c) & OPENER) != 0) ? getOpener(c) : null;
+            if ((opener != null) && (relation(pos) == null)) {
+                pos++;
+                switch (opener) {
+                    case COMPOUND_TERM_OPENER:
+                        return compoundTerm();
+                    case SET_EXT_OPENER:
+                        return SetExt.make(arguments(SET_EXT_CLOSER.ch));
+                    case SET_INT_OPENER:
+                        return SetInt.make(arguments(SET_INT_CLOSER.ch));
+                    case STATEMENT_OPENER:
+                        return statement();
+                }
+            }
+            return atomicTerm();
         }
-                
-        String op = (firstSeparator < 0) ? s : s.substring(0, firstSeparator).trim();
-        NativeOperator oNative = getOperator(op);
-        Operator oRegistered = memory.getOperator(op);
-        
-        if ((oRegistered==null) && (oNative == null)) {
-            throw new InvalidInputException("Unknown operator: " + op);
+
+        /** the relation starting at i, or null */
+        NativeOperator relation(final int i) {
+            if ((i + 3 > end) || ((charClass(s.charAt(i)) & RELATION_START) == 0)) return null;
+            for (final NativeOperator r : relations) {
+                if (regionEquals(s, i, i + 3, r.symbol)) {
+                    return r;
+                }
+            }
+            return null;
         }
 
-        ArrayList<Term> arg = (firstSeparator < 0) ? new ArrayList<>(0)
-                : parseArguments(s.substring(firstSeparator + 1) + ARGUMENT_SEPARATOR);
+        /**
+         * Parse a Term that has no internal structure.
+         * <p>
+         * The Term can be a constant, a variable, an interval, an operator or
+         * an operation in functional form like op(a,b).
+         */
+        Term atomicTerm() throws InvalidInputException {
+            final int start = pos;
+            while (pos < end) {
+                final char c = s.charAt(pos);
+                if ((c == '[') && (pos > start)) { //indices of the term, like p[1,2]
+                    skipIndices();
+                    continue;
+                }
+                final int cc = charClass(c);
+                if ((c <= ' ') || ((cc & (OPENER | CLOSER)) != 0) || (((cc & RELATION_START) != 0) && (relation(pos) != null))) {
+                    break;
+                }
+                pos++;
+            }
+            if (pos == start) {
+                throw new InvalidInputException("missing term");
+            }
+
+            if ((pos < end) && (s.charAt(pos) == NativeOperator.COMPOUND_TERM_OPENER.ch) && Parameters.FUNCTIONAL_OPERATIONAL_FORMAT) {
+                return functionalOperation(start);
+            }
 
-        Term[] argA = arg.toArray(new Term[arg.size()]);
-        
-        Term t;
-        
-        if (oNative!=null) {
-            t = Terms.term(oNative, argA);
-        }
-        else if (oRegistered!=null) {
-            t = make(oRegistered, argA, true);
+            final String name = s.subSequence(start, pos).toString();
+            Operator op = memory.getOperator(name);
+            if(op != null) {
+                return op;
+            }
+
+            if (name.charAt(0) == Symbols.INTERVAL_PREFIX) {
+                return Interval.interval(name);
+            }
+
+            if (containVar(name) && !name.equals("#")) {
+                return new Variable(name);
+            } else {
+                return Term.get(name);
+            }
         }
-        else {
-            throw new InvalidInputException("Invalid compound term");
+
+        void skipIndices() throws InvalidInputException {
+            int level = 0;
+            do {
+                final char c = s.charAt(pos++);
+                if (c == '[') level++;
+                else if (c == ']') level--;
+            } while ((level > 0) && (pos < end));
+            if (level > 0) {
+                throw new InvalidInputException("missing ] of term indices");
+            }
         }
-        
-        return t;
-    }
 
-    /**
-     * Parse a String into the argument get of a CompoundTerm.
-     *
-     * @return the arguments in an ArrayList
-     * @param s0 The String to be parsed
-     * @throws nars.io.StringParser.InvalidInputException the String cannot be
-     * parsed into an argument get
-     */
-    private ArrayList<Term> parseArguments(String s0) throws InvalidInputException {
-        String s = s0.trim();
-        ArrayList<Term> list = new ArrayList<>();
-        int start = 0;
-        int end = 0;
-        Term t;
-        while (end < s.length() - 1) {
-            end = nextSeparator(s, start);
-            if (end == start)
-                break;
-            t = parseTerm(s.substring(start, end));     // recursive call
-            list.add(t);
-            start = end + 1;
+        /**
+         * parse functional operation:
+         *   function()
+         *   function(a)
+         *   function(a,b)
+         */
+        Term functionalOperation(final int start) throws InvalidInputException {
+            String operatorString = Operator.addPrefixIfMissing(s.subSequence(start, pos).toString());
+            Operator operator = memory.getOperator(operatorString);
+            if (operator == null) {
+                throw new InvalidInputException("Unknown operator: " + operatorString);
+            }
+            pos++;
+            Term[] a;
+            if ((pos < end) && (s.charAt(pos) == COMPOUND_TERM_CLOSER.ch)) {
+                //void "()" arguments, default to (SELF)
+                pos++;
+                a = Operation.SELF_TERM_ARRAY;
+            } else {
+                ArrayList<Term> args = arguments(COMPOUND_TERM_CLOSER.ch);
+                a = args.toArray(new Term[args.size()]);
+            }
+            return Operation.make(operator, a, true);
         }
-        if (list.isEmpty()) {
-            throw new InvalidInputException("null argument");
+
+        /** a Statement, after its opener */
+        Statement statement() throws InvalidInputException {
+            Term subject = term();
+            skipSpace();
+            NativeOperator relation = relation(pos);
+            if (relation == null) {
+                throw new InvalidInputException("invalid statement: missing relation");
+            }
+            pos += 3;
+            Term predicate = term();
+            skipSpace();
+            if ((pos == end) || (s.charAt(pos) != STATEMENT_CLOSER.ch)) {
+                throw new InvalidInputException("missing Statement closer");
+            }
+            pos++;
+            Statement t = make(relation, subject, predicate, false, 0);
+            if (t == null) {
+                throw new InvalidInputException("invalid statement: statement unable to create: " + relation + " " + subject + " " + predicate);
+            }
+            return t;
         }
-        return list;
-    }
 
-    /* ---------- locate top-level substring ---------- */
-    /**
-     * Locate the first top-level separator in a CompoundTerm
-     *
-     * @return the index of the next seperator in a String
-     * @param s The String to be parsed
-     * @param first The starting index
-     */
-    private static int nextSeparator(String s, int first) {
-        int levelCounter = 0;
-        int i = first;
-        while (i < s.length() - 1) {
-            if (isOpener(s, i)) {
-                levelCounter++;
-            } else if (isCloser(s, i)) {
-                levelCounter--;
-            } else if (s.charAt(i) == ARGUMENT_SEPARATOR) {
-                if (levelCounter == 0) {
+        /** a CompoundTerm, after its opener */
+        Term compoundTerm() throws InvalidInputException {
+            skipSpace();
+            final int opStart = pos;
+            while ((pos < end) && (s.charAt(pos) != ARGUMENT_SEPARATOR) && (s.charAt(pos) != COMPOUND_TERM_CLOSER.ch)) {
+                pos++;
+            }
+            if ((pos == end) || (s.charAt(pos) != ARGUMENT_SEPARATOR)) {
+                throw new InvalidInputException("Invalid compound term (missing ARGUMENT_SEPARATOR)");
+            }
+            int opEnd = pos;
+            while ((opEnd > opStart) && (s.charAt(opEnd - 1) <= ' ')) opEnd--;
+            pos++;
+
+            NativeOperator oNative = null;
+            for (final NativeOperator o : operators) {
+                if (regionEquals(s, opStart, opEnd, o.symbol)) {
+                    oNative = o;
                     break;
                 }
             }
-            i++;
-        }
-        return i;
-    }
+            Operator oRegistered = null;
+            if (oNative == null) {
+                String op = s.subSequence(opStart, opEnd).toString();
+                oRegistered = memory.getOperator(op);
+                if (oRegistered == null) {
+                    throw new InvalidInputException("Unknown operator: " + op);
+                }
+            }
 
-    /**
-     * locate the top-level getRelation in a statement
-     *
-     * @return the index of the top-level getRelation
-     * @param s The String to be parsed
-     */
-    private static int topRelation(final String s) {      // need efficiency improvement
-        int levelCounter = 0;
-        int i = 0;
-        while (i < s.length() - 3) {    // don't need to check the last 3 characters
-            if ((levelCounter == 0) && (isRelation(s.substring(i, i + 3)))) {
-                return i;
+            ArrayList<Term> arg = arguments(COMPOUND_TERM_CLOSER.ch);
+            Term[] argA = arg.toArray(new Term[arg.size()]);
+
+            if (oNative!=null) {
+                return Terms.term(oNative, argA);
             }
-            if (isOpener(s, i)) {
-                levelCounter++;
-            } else if (isCloser(s, i)) {
-                levelCounter--;
+            return make(oRegistered, argA, true);
+        }
+
+        /** the arguments of a compound term up to and including its closer */
+        ArrayList<Term> arguments(final char closer) throws InvalidInputException {
+            ArrayList<Term> list = new ArrayList<>();
+            while (true) {
+                list.add(term());
+                skipSpace();
+                if (pos == end) {
+                    throw new InvalidInputException("missing closer " + closer);
+                }
+                final char c = s.charAt(pos++);
+                if (c == closer) {
+                    return list;
+                }
+                if (c != ARGUMENT_SEPARATOR) {
+                    throw new InvalidInputException("unexpected " + c + " in arguments");
+                }
             }
-            i++;
+        }
+    }
+
+    private static int indexOf(final CharSequence s, final char c, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) == c) return i;
         }
         return -1;
     }
 
-    /* ---------- recognize symbols ---------- */
-    /**
-     * Check CompoundTerm opener symbol
-     *
-     * @return if the given String is an opener symbol
-     * @param s The String to be checked
-     * @param i The starting index
-     */
-    private static boolean isOpener(final String s, final int i) {
-        char c = s.charAt(i);
-        
-        boolean b = (getOpener(c)!=null);
-        if (!b)
-            return false;
-        
-        return i + 3 > s.length() || !isRelation(s.substring(i, i + 3));
+    private static boolean isBlank(final CharSequence s, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (s.charAt(i) > ' ') return false;
+        }
+        return true;
     }
 
-    /**
-     * Check CompoundTerm closer symbol
-     *
-     * @return if the given String is a closer symbol
-     * @param s The String to be checked
-     * @param i The starting index
-     */
-    private static boolean isCloser(String s, int i) {
-        char c = s.charAt(i);
-
-        boolean b = (getCloser(c)!=null);
-        if (!b)
-            return false;
-        
-        return i < 2 || !isRelation(s.substring(i - 2, i + 1));
+    private static boolean regionEquals(final CharSequence s, final int from, final int to, final String x) {
+        final int n = x.length();
+        if (to - from != n) return false;
+        for (int i = 0; i < n; i++) {
+            if (s.charAt(from + i) != x.charAt(i)) return false;
+        }
+        return true;
     }
 
     public static boolean possiblyNarsese(String s) {
@@ -634,6 +650,6 @@ public class Narsese implements Serializable {
         }
         return false;
     }
-            
-    
+
+
 }
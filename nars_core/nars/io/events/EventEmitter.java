@@ -1,134 +1,405 @@
-
 package nars.io.events;
 
-import java.util.ArrayDeque;
-import java.util.ArrayList;
-import java.util.Deque;
-import java.util.HashMap;
-import java.util.List;
+import java.util.Arrays;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import nars.main.Parameters;
 
 /**
  * Adapted from http://www.recursiverobot.com/post/86215392884/witness-a-simple-android-and-java-event-emitter
- * TODO separate this into a single-thread and multithread implementation
+ * <p>
+ * The observers of each event class are kept in arrays which are copied when
+ * an observer is added or removed, so emitting never locks and observers can
+ * be added and removed while events are emitted, by any thread. Observers are
+ * either synchronous, called by the emitting thread, or asynchronous: their
+ * events are written into a ring buffer and delivered in batches by a
+ * consumer thread of the emitter, so that a slow observer does not hold up
+ * the reasoner unless the buffer is full. Asynchronous observers get the
+ * events in the order they were emitted, with the arguments as they are at
+ * delivery time; events emitted by asynchronous observers themselves are
+ * delivered right away. Exceptions thrown by observers are counted and do
+ * not stop the delivery to the others.
  */
 public class EventEmitter {
 
-    
+
     /** Observes events emitted by EventEmitter */
     public interface EventObserver<C> {
         public void event(Class<? extends C> event, Object[] args);
     }
 
-    private final Map<Class<?>, List<EventObserver>> events;
-            
-    
-    private Deque<Object[]> pendingOps = new ArrayDeque();
-    
-    /** EventEmitter that allows unknown events; must use concurrent collection
-     *  for multithreading since new event classes may be added at any time.
+    /** the observers of an event class, replaced on change */
+    static final class Observers {
+        static final EventObserver[] NONE = new EventObserver[0];
+        static final Observers EMPTY = new Observers(NONE, NONE);
+
+        final EventObserver[] sync;
+        final EventObserver[] async;
+
+        Observers(final EventObserver[] sync, final EventObserver[] async) {
+            this.sync = sync;
+            this.async = async;
+        }
+
+        boolean isEmpty() {
+            return sync.length == 0 && async.length == 0;
+        }
+
+        static EventObserver[] with(final EventObserver[] a, final EventObserver o) {
+            final EventObserver[] b = Arrays.copyOf(a, a.length + 1);
+            b[a.length] = o;
+            return b;
+        }
+
+        static EventObserver[] without(final EventObserver[] a, final EventObserver o) {
+            for (int i = 0; i < a.length; i++) {
+                if (a[i] == o) {
+                    final EventObserver[] b = new EventObserver[a.length - 1];
+                    System.arraycopy(a, 0, b, 0, i);
+                    System.arraycopy(a, i + 1, b, i, a.length - i - 1);
+                    return b;
+                }
+            }
+            return a;
+        }
+    }
+
+    static final Object[] NO_ARGS = new Object[0];
+
+    /**
+     * The observers of an event class. Emitting through a channel checks
+     * whether it is active before the array of the arguments is built, so an
+     * event without observers costs a field read.
      */
+    public final class Channel {
+        public final Class event;
+        volatile Observers observers = Observers.EMPTY;
+        /** whether the event has observers */
+        public volatile boolean active = false;
+
+        Channel(final Class event) {
+            this.event = event;
+        }
+
+        void set(final Observers o) {
+            observers = o;
+            active = !o.isEmpty();
+        }
+
+        public void emit() {
+            if (active) {
+                emit(NO_ARGS);
+            }
+        }
+
+        public void emit(final Object a) {
+            if (active) {
+                emit(new Object[] { a });
+            }
+        }
+
+        public void emit(final Object a, final Object b) {
+            if (active) {
+                emit(new Object[] { a, b });
+            }
+        }
+
+        public void emit(final Object a, final Object b, final Object c) {
+            if (active) {
+                emit(new Object[] { a, b, c });
+            }
+        }
+
+        public void emit(final Object a, final Object b, final Object c, final Object d) {
+            if (active) {
+                emit(new Object[] { a, b, c, d });
+            }
+        }
+
+        public void emit(final Object[] params) {
+            final Observers o = observers;
+            final EventObserver[] sync = o.sync;
+            for (int i = 0; i < sync.length; i++) {
+                deliver(sync[i], event, params);
+            }
+            if (o.async.length > 0) {
+                enqueue(event, o.async, params);
+            }
+        }
+    }
+
+    /** capacity of the ring buffer of asynchronous events */
+    public static final int ASYNC_CAPACITY = 4096;
+    /** most events delivered in a batch */
+    static final int ASYNC_BATCH = 256;
+
+    private final Map<Class<?>, Channel> channels = new ConcurrentHashMap<>();
+
+    /** number of exceptions thrown by observers */
+    private final AtomicLong errors = new AtomicLong();
+
+    private final Object ring = new Object();
+    private final Class[] ringClasses = new Class[ASYNC_CAPACITY];
+    private final EventObserver[][] ringObservers = new EventObserver[ASYNC_CAPACITY][];
+    private final Object[][] ringArgs = new Object[ASYNC_CAPACITY][];
+    /** positions of the next event to deliver and to write, and events delivered */
+    private long head = 0, tail = 0, delivered = 0;
+    /** delivers the asynchronous events while there are asynchronous observers */
+    private volatile Thread consumer = null;
+    private int asyncObservers = 0;
+
+    /** EventEmitter that allows unknown events */
     public EventEmitter() {
-        /*if (Parameters.THREADS > 1)
-            events = new ConcurrentHashMap<>();
-        else*/
-            //events = new HashMap<>();
-        events = new HashMap<>();
     }
 
-    /** EventEmitter with a fixed set of known events; the 'events' map
-     *  can then be made unmodifiable and non-concurrent for speed.    */
+    /** EventEmitter with a set of known events, which can be turned off before they were turned on */
     public EventEmitter(Class... knownEventClasses) {
-        events = new HashMap(knownEventClasses.length);
         for (Class c : knownEventClasses) {
-            events.put(c, newObserverList());
+            channel(c);
         }
     }
 
-    protected List<EventObserver> newObserverList() {
-        return new ArrayList();
-        /*return Parameters.THREADS == 1 ? 
-                new ArrayList() : Collections.synchronizedList(new ArrayList());*/
-    }
-    
-    public final boolean isActive(final Class event) {
-        if (events.get(event)!=null)
-            if (!events.get(event).isEmpty())
-                return true;
-        return false;
-    }
-    
-    //apply pending on/off changes when synchronizing, ex: in-between memory cycles
-    public void synch() {
-        synchronized (pendingOps) {
-            if (!pendingOps.isEmpty()) {
-                for (Object[] o : pendingOps) {
-                    Class c = (Class)o[1];
-                    EventObserver d = (EventObserver)o[2];
-                    if ((Boolean)o[0]) {                        
-                        on(c,d);
-                    }
-                    else {                        
-                        off(c,d);
-                    }
+    /** the channel of an event class, which is the same as long as the emitter lives */
+    public Channel channel(final Class event) {
+        Channel c = channels.get(event);
+        if (c == null) {
+            synchronized (this) {
+                c = channels.get(event);
+                if (c == null) {
+                    c = new Channel(event);
+                    channels.put(event, c);
                 }
             }
-            pendingOps.clear();
         }
-    }  
+        return c;
+    }
+
+    public final boolean isActive(final Class event) {
+        final Channel c = channels.get(event);
+        return c != null && c.active;
+    }
+
     public void on(final Class<?> event, final EventObserver o) {
-        if (events.containsKey(event))
-            events.get(event).add(o);
-        else {
-            List<EventObserver> a = newObserverList();
-            a.add(o);
-            events.put(event, a);
-        }       
-    }
- 
+        on(event, o, false);
+    }
+
     /**
-     * @param event
-     * @param o
-     * @return  whether it was removed
+     * @param async whether the observer gets the events on the consumer thread
+     * instead of the emitting one
      */
-    public void off(final Class<?> event, final EventObserver o) {
+    public synchronized void on(final Class<?> event, final EventObserver o, final boolean async) {
+        final Channel c = channel(event);
+        final Observers obs = c.observers;
+        c.set(async ?
+                new Observers(obs.sync, Observers.with(obs.async, o)) :
+                new Observers(Observers.with(obs.sync, o), obs.async));
+        if (async) {
+            asyncObservers++;
+            startConsumer();
+        }
+    }
+
+    private synchronized void startConsumer() {
+        if (consumer == null) {
+            consumer = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    consume();
+                }
+            }, "Events");
+            consumer.setDaemon(true);
+            consumer.start();
+        }
+    }
+
+    /** Remove an observer of an event, whether synchronous or asynchronous */
+    public synchronized void off(final Class<?> event, final EventObserver o) {
         if (null == event || null == o)
             throw new RuntimeException("Invalid parameter");
- 
-        if (!events.containsKey(event))
+
+        final Channel c = channels.get(event);
+        if (c == null)
             throw new RuntimeException("Unknown event: " + event);
-        
-        try {
-        events.get(event).remove(o);
-        } catch(Exception ex) { }
-        /*if (!removed) {
-            throw new RuntimeException("EventObserver " + o + " was not registered for events");
-        }*/        
+
+        final Observers obs = c.observers;
+        final EventObserver[] async = Observers.without(obs.async, o);
+        asyncObservers -= obs.async.length - async.length;
+        c.set(new Observers(Observers.without(obs.sync, o), async));
     }
 
     /** for enabling many events at the same time */
     public void set(final EventObserver o, final boolean enable, final Class... events) {
+        set(o, enable, false, events);
+    }
+
+    public void set(final EventObserver o, final boolean enable, final boolean async, final Class... events) {
         for (final Class c : events) {
             if (enable)
-                on(c, o);
+                on(c, o, async);
             else
                 off(c, o);
         }
     }
-    
+
 
     public void emit(final Class eventClass, final Object... params) {
-        List<EventObserver> observers = events.get(eventClass);
-        
-        if ((observers == null) || (observers.isEmpty())) return;
-
-        int n = observers.size();
-        for (int i = 0; i < n; i++) {
-            try{
-            EventObserver m = observers.get(i);
+        final Channel c = channels.get(eventClass);
+        if (c != null && c.active) {
+            c.emit(params);
+        }
+    }
+
+    //without varargs, so that no array is built for an event without observers
+
+    public void emit(final Class eventClass) {
+        final Channel c = channels.get(eventClass);
+        if (c != null) {
+            c.emit();
+        }
+    }
+
+    public void emit(final Class eventClass, final Object a) {
+        final Channel c = channels.get(eventClass);
+        if (c != null) {
+            c.emit(a);
+        }
+    }
+
+    public void emit(final Class eventClass, final Object a, final Object b) {
+        final Channel c = channels.get(eventClass);
+        if (c != null) {
+            c.emit(a, b);
+        }
+    }
+
+    public void emit(final Class eventClass, final Object a, final Object b, final Object c) {
+        final Channel ch = channels.get(eventClass);
+        if (ch != null) {
+            ch.emit(a, b, c);
+        }
+    }
+
+    public void emit(final Class eventClass, final Object a, final Object b, final Object c, final Object d) {
+        final Channel ch = channels.get(eventClass);
+        if (ch != null) {
+            ch.emit(a, b, c, d);
+        }
+    }
+
+    private void deliver(final EventObserver m, final Class eventClass, final Object[] params) {
+        try {
             m.event(eventClass, params);
-            }catch(Exception ex){}
+        } catch (Exception ex) {
+            errors.incrementAndGet();
+            if (Parameters.DEBUG) {
+                ex.printStackTrace();
+            }
+        }
+    }
+
+    /** number of exceptions thrown by observers */
+    public long getErrors() {
+        return errors.get();
+    }
+
+    /** writes an event into the ring buffer, waiting while it is full */
+    private void enqueue(final Class eventClass, final EventObserver[] observers, final Object[] params) {
+        if (Thread.currentThread() == consumer) {
+            //emitted by an asynchronous observer, which would wait for itself if the buffer is full
+            for (int i = 0; i < observers.length; i++) {
+                deliver(observers[i], eventClass, params);
+            }
+            return;
+        }
+        synchronized (ring) {
+            while (tail - head == ASYNC_CAPACITY) {
+                try {
+                    ring.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+            final int i = (int) (tail & (ASYNC_CAPACITY - 1));
+            ringClasses[i] = eventClass;
+            ringObservers[i] = observers;
+            ringArgs[i] = params;
+            if (tail++ == head) {
+                ring.notifyAll();
+            }
+        }
+        if (consumer == null) { //stopped after the observers were removed
+            startConsumer();
+        }
+    }
+
+    void consume() {
+        final Class[] classes = new Class[ASYNC_BATCH];
+        final EventObserver[][] observers = new EventObserver[ASYNC_BATCH][];
+        final Object[][] args = new Object[ASYNC_BATCH][];
+        while (true) {
+            final int n;
+            synchronized (ring) {
+                while (head == tail) {
+                    synchronized (this) {
+                        if (asyncObservers == 0) {
+                            consumer = null;
+                            return;
+                        }
+                    }
+                    try {
+                        ring.wait(1000);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                n = (int) Math.min(tail - head, ASYNC_BATCH);
+                for (int k = 0; k < n; k++) {
+                    final int i = (int) ((head + k) & (ASYNC_CAPACITY - 1));
+                    classes[k] = ringClasses[i];
+                    observers[k] = ringObservers[i];
+                    args[k] = ringArgs[i];
+                    ringClasses[i] = null;
+                    ringObservers[i] = null;
+                    ringArgs[i] = null;
+                }
+                head += n;
+                ring.notifyAll(); //emitters waiting for space
+            }
+            for (int k = 0; k < n; k++) {
+                final EventObserver[] obs = observers[k];
+                for (int j = 0; j < obs.length; j++) {
+                    deliver(obs[j], classes[k], args[k]);
+                }
+                classes[k] = null;
+                observers[k] = null;
+                args[k] = null;
+            }
+            synchronized (ring) {
+                delivered += n;
+                ring.notifyAll(); //flush
+            }
+        }
+    }
+
+    /** number of asynchronous events which were emitted but not delivered yet */
+    public int getPending() {
+        synchronized (ring) {
+            return (int) (tail - delivered);
+        }
+    }
+
+    /** Wait until the asynchronous events emitted so far are delivered */
+    public void flush() throws InterruptedException {
+        if (Thread.currentThread() == consumer) {
+            return;
+        }
+        synchronized (ring) {
+            final long target = tail;
+            while (delivered < target) {
+                ring.wait();
+            }
         }
-        
     }
 }
\ No newline at end of file
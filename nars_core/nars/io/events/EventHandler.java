@@ -8,14 +8,25 @@ import nars.main.NAR;
 public abstract class EventHandler implements EventEmitter.EventObserver {
     protected final EventEmitter source;
     protected boolean active = false;
+    /** whether the events are delivered by the consumer thread of the emitter */
+    protected final boolean async;
     private final Class[] events;
 
     public EventHandler(NAR n, boolean active, Class... events) {
         this(n.memory.event, active, events);
     }
     
+    public EventHandler(NAR n, boolean active, boolean async, Class... events) {
+        this(n.memory.event, active, async, events);
+    }
+    
     public EventHandler(EventEmitter source, boolean active, Class... events) {
+        this(source, active, false, events);
+    }
+    
+    public EventHandler(EventEmitter source, boolean active, boolean async, Class... events) {
         this.source = source;
+        this.async = async;
         this.events = events;
         setActive(active);
     }
@@ -24,7 +35,7 @@ public abstract class EventHandler implements EventEmitter.EventObserver {
         if (this.active == b) return;
         
         this.active = b;
-        source.set(this, b, events);
+        source.set(this, b, async, events);
     }
 
     public boolean isActive() {
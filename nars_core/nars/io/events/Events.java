@@ -3,11 +3,10 @@ package nars.io.events;
 import java.util.Arrays;
 import java.util.List;
 import nars.io.events.EventEmitter.EventObserver;
-import nars.control.GeneralInferenceControl;
-import nars.control.DerivationContext;
 import nars.entity.Concept;
 import nars.entity.Sentence;
 import nars.entity.Task;
+import nars.entity.TaskLink;
 
 /** empty event classes for use with EventEmitter */
 public class Events {
@@ -89,6 +88,7 @@ public class Events {
     public static class UnexecutableGoal {   }
     public static class UnexecutableOperation {   }
     public static class NewTaskExecution {    }
+    /** the new event task */
     public static class InduceSucceedingEvent {    }
     
 
@@ -104,31 +104,30 @@ public class Events {
     
     abstract public static class ConceptFire implements EventObserver { 
         
-        /**
-         * use:
-         * Concept n.getCurrentConcept()
-         * TaskLink n.getCurrentTaskLink()
-         */
-        abstract public void onFire(GeneralInferenceControl n);
+        /** the concept fired, with the task link it fired */
+        abstract public void onFire(Concept c, TaskLink l);
         
         @Override public void event(Class event, Object[] args) {
-            onFire((GeneralInferenceControl)args[0]);
+            onFire((Concept)args[0], (TaskLink)args[1]);
         }
         
     }
     abstract public static class TaskImmediateProcess implements EventObserver { 
 
-        abstract public void onProcessed(Task t, DerivationContext n);
+        /** the task, with the concept it was processed in */
+        abstract public void onProcessed(Task t, Concept c);
         
         @Override public void event(Class event, Object[] args) {
-            onProcessed((Task)args[0], (DerivationContext)args[1]);
+            onProcessed((Task)args[0], (Concept)args[1]);
         }
         
     }
+    /** term link, concept, task link */
     public static class TermLinkSelect { }
     public static class BeliefSelect { }
     
     /** called from RuleTables.reason for a given Belief */
+    /** belief, belief term, task term, whether the evidence of the task and belief overlaps */
     public static class BeliefReason {    }
     
     public static class ConceptUnification { } //2nd level unification in CompositionalRules
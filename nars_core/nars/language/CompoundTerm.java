@@ -56,9 +56,14 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
     private boolean hasVariables, hasVarQueries, hasVarIndeps, hasVarDeps, hasIntervals;
     
     int containedTemporalRelations = -1;
-    int hash;
+    
+    /** cached structural hash, 0 until computed, see structuralHash() */
+    private transient long structuralHash;
     private boolean normalized;
     
+    /** whether this is the shared instance of TermStore */
+    transient boolean interned;
+    
 
     /**
      * Abstract method to get the operator of the compound
@@ -168,6 +173,7 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
     
     public void invalidateName() {        
         this.name = null; //invalidate name so it will be (re-)created lazily        
+        this.structuralHash = 0;
         for (Term t : term) {
             if (t.hasVar())
                 if (t instanceof CompoundTerm)
@@ -207,23 +213,29 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
         }
     }
     
-    static Interval conceptival = interval(1);
-    private static void ReplaceIntervals(CompoundTerm comp) {
+    static final Interval conceptival = interval(1);
+    /** @return whether comp was changed */
+    private static boolean ReplaceIntervals(CompoundTerm comp) {
+        boolean changed = false;
         for(int i=0; i<comp.term.length; i++) {
             Term t = comp.term[i];
             if(t instanceof Interval) {
                 comp.term[i] = conceptival;
-                comp.invalidateName();
+                changed = true;
             }
             else
             if(t instanceof CompoundTerm) {
-                ReplaceIntervals((CompoundTerm) t);
+                changed |= ReplaceIntervals((CompoundTerm) t);
             }
         }
+        if(changed) {
+            comp.invalidateName(); //also when only a component changed, its name and hash are part of ours
+        }
+        return changed;
     }
 
     public static Term replaceIntervals(Term T) {
-        if(T instanceof CompoundTerm) {
+        if(T instanceof CompoundTerm && T.hasInterval()) {
             T=T.cloneDeep(); //we will operate on a copy
             ReplaceIntervals((CompoundTerm) T);
         }
@@ -749,8 +761,40 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
             return name().hashCode();
         }
         else {
-            return hash;
+            final long h = structuralHash();
+            return (int) (h ^ (h >>> 32));
+        }
+    }
+
+    /**
+     * 64-bit hash of the operator, temporal order and components, computed
+     * once without building the name. Terms with equal names have equal
+     * structural hashes.
+     */
+    public long structuralHash() {
+        long h = structuralHash;
+        if (h == 0) {
+            h = hashStructure();
+            if (h == 0) h = 1; //0 marks a hash which is not computed yet
+            structuralHash = h;
         }
+        return h;
+    }
+
+    /** hash of what equalsByTerm compares, subclasses with own fields mix them in */
+    protected long hashStructure() {
+        long h = mix(operator().ordinal() + 1, getTemporalOrder());
+        h = mix(h, getIsSpatial() ? 1 : 0);
+        for (final Term t : term) {
+            //variables by name only, like in the name, their scope is this term
+            h = mix(h, (t instanceof CompoundTerm) ? ((CompoundTerm) t).structuralHash() : t.name().hashCode());
+        }
+        return h;
+    }
+
+    protected static long mix(final long h, final long x) {
+        final long z = (h ^ x) * 0x9E3779B97F4A7C15L;
+        return z ^ (z >>> 31);
     }
 
     @Override
@@ -758,27 +802,10 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
         if (that==this) return 0;
         
         if (Parameters.TERM_ELEMENT_EQUIVALENCY) {
-            if (that instanceof CompoundTerm) {
-                CompoundTerm t = (CompoundTerm)that;
-
-                int h = Integer.compare(hashCode(), t.hashCode());
-                if (h != 0) return h;
-
-                int o = operator().compareTo(t.operator());
-                if (o != 0) return o;
-
-                //same operator
-                int c = Integer.compare(getComplexity(), t.getComplexity());
-                if (c!=0) return c;
-
-                //should almost never reach here, the hashcode above will handle > 99% of comparisons
-                if (!equals(that)) {
-                    return Integer.compare(System.identityHashCode(this), System.identityHashCode(that));
-                }
+            //equal terms are found without their names, the order of different terms stays the textual one
+            //so that the canonical order of components does not depend on the mode
+            if ((that instanceof CompoundTerm) && equalsByTerm(that))
                 return 0;
-            }
-            else
-                return super.compareTo(that);
         }
         return
                 super.compareTo(that);
@@ -789,16 +816,23 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
         if (that==this) return true;                
         if (!(that instanceof Term))
             return false;
+        if (interned && (that instanceof CompoundTerm) && ((CompoundTerm)that).interned)
+            return false; //different shared instances are different terms
         if (Parameters.TERM_ELEMENT_EQUIVALENCY)
             return equalsByTerm(that);
         return name().equals(((Term)that).name());
     }
     
+    /** component-wise equality, which agrees with the equality of the names */
     public boolean equalsByTerm(final Object that) {
+        if (that==this) return true;
         if (!(that instanceof CompoundTerm)) return false;
 
         final CompoundTerm t = (CompoundTerm)that;        
 
+        if (structuralHash() != t.structuralHash())
+            return false;
+
         if (operator() != t.operator())
             return false;
 
@@ -818,14 +852,22 @@ public abstract class CompoundTerm extends Term implements Iterable<Term> {
             return false;
 
         for (int i = 0; i < term.length; i++) {            
-            if (!term[i].equals(t.term[i]))
+            if (!equalsComponent(term[i], t.term[i]))
                 return false;
         }
 
         return true;        
     }
     
-    
+    private static boolean equalsComponent(final Term a, final Term b) {
+        if (a == b) return true;
+        if (a instanceof CompoundTerm)
+            return ((CompoundTerm)a).equalsByTerm(b);
+        if (b instanceof CompoundTerm)
+            return false;
+        //atoms, intervals and variables by name, the scope of a variable is the term compared
+        return a.name().equals(b.name());
+    }
     
     
     /** additional equality checks, in subclasses*/
@@ -1,7 +1,5 @@
 package nars.language;
 
-import java.util.Objects;
-import nars.main.Parameters;
 import nars.io.Symbols;
 import nars.io.Symbols.NativeOperator;
 import static nars.io.Symbols.NativeOperator.COMPOUND_TERM_CLOSER;
@@ -24,17 +22,8 @@ abstract public class Image extends CompoundTerm {
     }
 
     @Override
-    protected void init(Term[] components) {
-        super.init(components);
-        this.hash = Objects.hash(super.hashCode(), relationIndex); 
-    }
-    
-    @Override
-    public int hashCode() {
-        if (Parameters.TERM_ELEMENT_EQUIVALENCY)
-            return hash;        
-        else
-            return super.hashCode();
+    protected long hashStructure() {
+        return mix(super.hashStructure(), relationIndex);
     }
 
     @Override
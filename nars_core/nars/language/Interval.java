@@ -103,7 +103,13 @@ public class Interval extends Term {
     }
     
     static final int INTERVAL_POOL_SIZE = 16;
-    static Interval[] INTERVAL = new Interval[INTERVAL_POOL_SIZE];
+    static final Interval[] INTERVAL = new Interval[INTERVAL_POOL_SIZE];
+    static {
+        //created up front, as the pool is shared by the reasoners of all threads
+        for (int i = 0; i < INTERVAL_POOL_SIZE; i++) {
+            INTERVAL[i] = new Interval(i, true);
+        }
+    }
     
     public static Interval interval(final String i) {
         return interval( Integer.parseInt(i.substring(1)) - 1);
@@ -123,12 +129,7 @@ public class Interval extends Term {
         else if (magnitude < 0)
             magnitude = 0;
             
-        Interval existing = INTERVAL[magnitude];
-        if (existing == null) {
-            existing = new Interval(magnitude, true);
-            INTERVAL[magnitude] = existing;
-        }
-        return existing;            
+        return INTERVAL[magnitude];
     }
     
     @Override
@@ -21,6 +21,7 @@
 package nars.language;
 
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.util.*;
 
 import nars.storage.Memory;
@@ -43,7 +44,8 @@ import nars.operator.Operator;
  */
 public class Term implements AbstractTerm, Serializable {
     public ImaginationSpace imagination;
-    private static final Map<CharSequence,Term> atoms = new HashMap();
+    /** atoms by name, released when no longer used */
+    private static final Map<CharSequence,WeakReference<Term>> atoms = new WeakHashMap<>();
 
     final public static Term SELF = SetExt.make(Term.get("SELF"));
     final public static Term SEQ_SPATIAL = Term.get("#");
@@ -101,7 +103,14 @@ public class Term implements AbstractTerm, Serializable {
     
     /** gets the atomic term given a name */
     public final static Term get(final CharSequence name) {
-        Term x = atoms.get(name); //only
+        synchronized (atoms) { //may be called by concepts fired concurrently
+            return getAtom(name);
+        }
+    }
+    
+    private static Term getAtom(final CharSequence name) {
+        final WeakReference<Term> ref = atoms.get(name);
+        Term x = (ref != null) ? ref.get() : null; //only
         if (x != null && !x.toString().endsWith("]")) { //return only if it isn't an index term
             return x;
         }
@@ -110,25 +119,17 @@ public class Term implements AbstractTerm, Serializable {
         //p[s,i,j]
         int[] term_indices = null;
         String before_indices_str = null;
-        if(namestr.endsWith("]") && namestr.contains("[")) { //simple check, failing for most terms
-            String indices_str = namestr.split("\\[")[1].split("\\]")[0];
-            before_indices_str = namestr.split("\\[")[0];
-            String[] inds = indices_str.split(",");
-            if(inds.length == 2) { //only position info given
-                indices_str="1,1,"+indices_str;
-                inds = indices_str.split(",");
-            }
-            term_indices = new int[inds.length];
-            for(int i=0;i<inds.length;i++) {
-                try {
-                    term_indices[i] = Integer.valueOf(inds[i]);
-                }
-                catch(NumberFormatException ex)
-                {
-                    term_indices = null;
-                    break;
-                }
-            }
+        final int open = namestr.indexOf('[');
+        if(open != -1 && namestr.endsWith("]")) { //simple check, failing for most terms
+            //the indices are up to the first ] or the next [
+            int close = namestr.indexOf('[', open + 1);
+            if (close == -1)
+                close = namestr.length();
+            final int closer = namestr.indexOf(']', open + 1);
+            if (closer != -1 && closer < close)
+                close = closer;
+            before_indices_str = namestr.substring(0, open);
+            term_indices = parseIndices(namestr, open + 1, close);
         }
         
         CharSequence name2 = name;
@@ -138,11 +139,44 @@ public class Term implements AbstractTerm, Serializable {
         x = new Term(name2);
         x.term_indices = term_indices;
         x.index_variable = before_indices_str;
-        atoms.put(name2, x);
+        atoms.put(name2, new WeakReference<>(x));
         
         return x;
     }
     
+    /** 
+     * the comma separated integers in name, with 1,1 in front if there are
+     * only two, or null if one is no integer
+     */
+    private static int[] parseIndices(final String name, final int from, int to) {
+        while (to > from && name.charAt(to - 1) == ',') //like split, ignores trailing empty indices
+            to--;
+        int n = 1;
+        for (int i = from; i < to; i++) {
+            if (name.charAt(i) == ',')
+                n++;
+        }
+        final int[] indices = new int[(n == 2) ? 4 : n]; //only position info given
+        int k = indices.length - n;
+        for (int i = 0; i < k; i++) {
+            indices[i] = 1;
+        }
+        int start = from;
+        for (int i = from; i <= to; i++) {
+            if (i == to || name.charAt(i) == ',') {
+                try {
+                    indices[k++] = Integer.parseInt(name.substring(start, i));
+                }
+                catch(NumberFormatException ex)
+                {
+                    return null;
+                }
+                start = i + 1;
+            }
+        }
+        return indices;
+    }
+    
     /** gets the atomic term of an integer */
     public final static Term get(final int i) {
         return get(Integer.toString(i));
@@ -279,25 +313,12 @@ public class Term implements AbstractTerm, Serializable {
     public int compareTo(final AbstractTerm that) {
         if (that==this) return 0;
         
-        if (Parameters.TERM_ELEMENT_EQUIVALENCY) {
-            if (!getClass().equals(that.getClass())) {
-                //differnt class, use class as ordering
-                return getClass().getSimpleName().compareTo(that.getClass().getSimpleName());
-            }
-            else {
-                //same class, compare by name()
-                return Texts.compareTo(name(), that.name());
-            }
-
-        }
-        else {
-            //previously: Orders among terms: variable < atomic < compound
-            if ((that instanceof Variable) && (getClass()!=Variable.class))
-                return 1;
-            else if ((this instanceof Variable) && (that.getClass()!=Variable.class))
-                return -1;
-            return Texts.compareTo(name(), that.name());            
-        }
+        //Orders among terms: variable < atomic < compound
+        if ((that instanceof Variable) && (getClass()!=Variable.class))
+            return 1;
+        else if ((this instanceof Variable) && (that.getClass()!=Variable.class))
+            return -1;
+        return Texts.compareTo(name(), that.name());
     }
 
     
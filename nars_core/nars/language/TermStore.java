@@ -0,0 +1,65 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.language;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+import nars.main.Parameters;
+
+/**
+ * Hash-consing store of terms: equal terms which are kept by sentences and
+ * concepts share one instance, so their name is built only once and comparing
+ * two of them is a reference check.
+ * <p>
+ * Entries are weak, a term is released as soon as no sentence, concept or
+ * other structure refers to it anymore.
+ * <p>
+ * Only compound terms without variables are interned, because variables are
+ * renamed in place during normalization and unification. Atoms are interned
+ * separately by Term.get.
+ */
+public final class TermStore {
+
+    private static final Map<CompoundTerm, WeakReference<CompoundTerm>> compounds = new WeakHashMap<>();
+
+    private TermStore() {
+    }
+
+    /**
+     * @return the shared instance of a term equal to t, which is t itself if
+     * there was none, or t if it can not be interned
+     */
+    public static <T extends Term> T intern(final T t) {
+        if (!Parameters.INTERN_COMPOUND_TERMS || !(t instanceof CompoundTerm)) {
+            return t;
+        }
+        final CompoundTerm c = (CompoundTerm) t;
+        if (c.interned) {
+            return t;
+        }
+        if (c.hasVar() || c.term_indices != null) { //may still be modified in place
+            return t;
+        }
+        synchronized (compounds) {
+            final WeakReference<CompoundTerm> ref = compounds.get(c);
+            final CompoundTerm existing = (ref != null) ? ref.get() : null;
+            if (existing != null) {
+                //an equal term of another class stays the only one interned, so equal interned terms are the same
+                return (existing.getClass() == c.getClass()) ? (T) existing : t;
+            }
+            c.interned = true;
+            compounds.put(c, new WeakReference<>(c));
+            return t;
+        }
+    }
+
+    /** number of interned compound terms which have not been released yet */
+    public static int size() {
+        synchronized (compounds) {
+            return compounds.size();
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package nars.language;
+
+import java.util.AbstractMap;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import nars.inference.TemporalRules;
+import nars.io.Symbols;
+import nars.storage.Memory;
+
+/**
+ * Unification of two terms, with the semantics of Variables.findSubstitute.
+ * <p>
+ * The substitutions of both terms are kept in one stack of bindings, which
+ * is also the trail: a binding shadows the earlier bindings of its variable,
+ * and backtracking truncates the stack to a mark. Alternatives are tried
+ * without copying maps, and a unifier is reused by its thread, so a
+ * unification which binds fewer variables than the stack has room for does
+ * not allocate.
+ */
+public final class Unifier {
+
+    private static final ThreadLocal<Unifier> unifiers = new ThreadLocal<Unifier>() {
+        @Override protected Unifier initialValue() {
+            return new Unifier();
+        }
+    };
+
+    /** side of each binding: 0 for the variables of the first term, 1 for the second */
+    private byte[] sides = new byte[16];
+    private Term[] keys = new Term[16];
+    private Term[] values = new Term[16];
+    private int size;
+
+    /**
+     * bindings in [hideFrom, hideTo) are not visible: the components of a
+     * partially matched conjunction are each unified with the bindings from
+     * before the match only
+     */
+    private int hideFrom, hideTo;
+
+    /** orders and matched flags of commutative compounds being unified */
+    private int[] scratch = new int[16];
+    private int scratchSize;
+
+    private boolean busy;
+
+    private final Bindings[] bindings = { new Bindings(0), new Bindings(1) };
+
+    /** the unifier of the current thread, or a new one if it is in use */
+    public static Unifier acquire() {
+        final Unifier u = unifiers.get();
+        if (u.busy) {
+            return new Unifier();
+        }
+        u.busy = true;
+        return u;
+    }
+
+    /** clears the bindings, making the unifier available to its thread again */
+    public void release() {
+        for (int i = 0; i < size; i++) {
+            keys[i] = values[i] = null;
+        }
+        size = 0;
+        hideFrom = hideTo = 0;
+        scratchSize = 0;
+        busy = false;
+    }
+
+    public int mark() {
+        return size;
+    }
+
+    /** undoes the bindings made since a mark */
+    public void undo(final int mark) {
+        size = mark;
+    }
+
+    /** the substitution of a variable of a side, or null */
+    public Term get(final int side, final Term key) {
+        return get(side, key, size);
+    }
+
+    private Term get(final int side, final Term key, final int below) {
+        final int h = key.hashCode();
+        for (int i = below - 1; i >= 0; i--) {
+            if (i < hideTo && i >= hideFrom) {
+                i = hideFrom;
+                continue;
+            }
+            final Term k = keys[i];
+            if (sides[i] == side && (k == key || (k.hashCode() == h && k.equals(key)))) {
+                return values[i];
+            }
+        }
+        return null;
+    }
+
+    private boolean has(final int side, final Term key, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (sides[i] == side && keys[i].equals(key)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public void put(final int side, final Term key, final Term value) {
+        if (size == keys.length) {
+            sides = Arrays.copyOf(sides, size * 2);
+            keys = Arrays.copyOf(keys, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        sides[size] = (byte) side;
+        keys[size] = key;
+        values[size] = value;
+        size++;
+    }
+
+    /** the substitutions of a side, as a map which is valid until the unifier changes */
+    public Map<Term, Term> bindings(final int side) {
+        return bindings[side];
+    }
+
+    /** pushes the substitutions of maps as they are passed to findSubstitute */
+    public void load(final Map<Term, Term>[] map) {
+        for (int side = 0; side < 2; side++) {
+            if (map[side] != null && !map[side].isEmpty()) {
+                for (final Map.Entry<Term, Term> e : map[side].entrySet()) {
+                    put(side, e.getKey(), e.getValue());
+                }
+            }
+        }
+    }
+
+    /** puts the substitutions into maps, which are created if needed */
+    public void store(final Map<Term, Term>[] map) {
+        if (size > 0 && (map[0] == null || map[1] == null)) {
+            if (map[0] == null) {
+                map[0] = new HashMap<>();
+            }
+            if (map[1] == null) {
+                map[1] = new HashMap<>();
+            }
+        }
+        for (int i = 0; i < size; i++) {
+            map[sides[i]].put(keys[i], values[i]);
+        }
+    }
+
+    /**
+     * Unifies two terms, binding the variables of the given type and the
+     * types it may be unified with. The bindings made before a failure are
+     * kept, callers undo them to a mark.
+     */
+    public boolean unify(final char type, final Term term1, final Term term2, final boolean allowPartial) {
+
+        boolean term1HasVar = term1.hasVar(type);
+        if(type == Symbols.VAR_INDEPENDENT) {
+            term1HasVar |= term1.hasVarDep();
+            term1HasVar |= term1.hasVarQuery();
+        }
+        if(type == Symbols.VAR_DEPENDENT) {
+            term1HasVar |= term1.hasVarQuery();
+        }
+        final boolean term2HasVar = term2.hasVar(type);
+
+        final boolean term1Var = term1 instanceof Variable;
+        final boolean term2Var = term2 instanceof Variable;
+
+        if(allowPartial && term1 instanceof Conjunction && term2 instanceof Conjunction) {
+            final Conjunction c1 = (Conjunction) term1;
+            final Conjunction c2 = (Conjunction) term2;
+            //more effective matching for NLP
+            if(c1.getTemporalOrder() == TemporalRules.ORDER_FORWARD &&
+                    c2.getTemporalOrder() == TemporalRules.ORDER_FORWARD &&
+                    c1.size() < c2.size() && unifyPartial(type, c1, c2)) {
+                return true;
+            }
+        }
+
+        final boolean termsEqual = term1.equals(term2);
+        if (!term1Var && !term2Var && termsEqual)  {
+            return true;
+        }
+
+        //variable "renaming" to variable of same type is always valid
+        if(term1Var && term2Var) {
+            final Variable v1 = (Variable) term1;
+            final Variable v2 = (Variable) term2;
+            if(v1.getType() == v2.getType()) {
+                final Variable commonVar = Variables.makeCommonVariable(term1, term2);
+                put(0, v1, commonVar);
+                put(1, v2, commonVar);
+                return true;
+            }
+        }
+        if (term1Var && Variables.allowUnification(((Variable) term1).getType(), type)) {
+            final Variable var1 = (Variable) term1;
+            final Term t = get(0, var1);
+            if (t != null) {
+                return unify(type, t, term2, false);
+            }
+            if (term2Var && Variables.allowUnification(((Variable) term2).getType(), type)) {
+                final Variable commonVar = Variables.makeCommonVariable(term1, term2);
+                put(0, var1, commonVar);
+                put(1, term2, commonVar);
+            } else {
+                if(term2Var && ((((Variable)term2).getType()==Symbols.VAR_QUERY && var1.getType()!=Symbols.VAR_QUERY) ||
+                                (((Variable)term2).getType()!=Symbols.VAR_QUERY && var1.getType()==Symbols.VAR_QUERY))) {
+                    return false;
+                }
+                put(0, var1, term2);
+                if (var1.isCommon()) {
+                    put(1, var1, term2);
+                }
+            }
+            return true;
+        } else if (term2Var && Variables.allowUnification(((Variable) term2).getType(), type)) {
+            final Variable var2 = (Variable) term2;
+            final Term t = get(1, var2);
+            if (t != null) {
+                return unify(type, term1, t, false);
+            }
+            put(1, var2, term1);
+            if (var2.isCommon()) {
+                put(0, var2, term1);
+            }
+            return true;
+        } else if ((term1HasVar || term2HasVar) && (term1 instanceof CompoundTerm) && term1.getClass().equals(term2.getClass())) {
+            final CompoundTerm cTerm1 = (CompoundTerm) term1;
+            final CompoundTerm cTerm2 = (CompoundTerm) term2;
+
+            //consider temporal order on term matching
+            if(term1 instanceof Conjunction && term2 instanceof Conjunction) {
+                if(((Conjunction)term1).getTemporalOrder() != ((Conjunction)term2).getTemporalOrder() ||
+                   ((Conjunction)term1).getIsSpatial() != ((Conjunction)term2).getIsSpatial())
+                    return false;
+            }
+            if(term1 instanceof Implication && term2 instanceof Implication) {
+                if(((Implication)term1).getTemporalOrder() != ((Implication)term2).getTemporalOrder())
+                    return false;
+            }
+            if(term1 instanceof Equivalence && term2 instanceof Equivalence) {
+                if(((Equivalence)term1).getTemporalOrder() != ((Equivalence)term2).getTemporalOrder())
+                    return false;
+            }
+
+            if (cTerm1.size() != cTerm2.size()) {
+                return false;
+            }
+            if ((cTerm1 instanceof ImageExt) && (((ImageExt) cTerm1).relationIndex != ((ImageExt) cTerm2).relationIndex) || (cTerm1 instanceof ImageInt) && (((ImageInt) cTerm1).relationIndex != ((ImageInt) cTerm2).relationIndex)) {
+                return false;
+            }
+            if (cTerm1.isCommutative()) {
+                return unifyCommutative(type, cTerm1, cTerm2);
+            }
+            for (int i = 0; i < cTerm1.size(); i++) {
+                if (!unify(type, cTerm1.term[i], cTerm2.term[i], false)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        return termsEqual;
+    }
+
+    /**
+     * Matches the components of a shorter forward conjunction with the
+     * components of a longer one at some offset. Each component is unified
+     * with the bindings from before the match; their bindings are combined
+     * as if each was a copy of those bindings merged in turn.
+     */
+    private boolean unifyPartial(final char type, final Conjunction c1, final Conjunction c2) {
+        final int base = size;
+        final int n = c1.term.length;
+        hideFrom = base;
+        for (int k = 0; k < c2.term.length - n; k++) {
+            boolean succeeded = true;
+            int last = base;
+            for (int j = k; j < k + n; j++) {
+                last = size;
+                hideTo = last;
+                if (!unify(type, c1.term[j - k], c2.term[j], false)) {
+                    succeeded = false;
+                    break;
+                }
+            }
+            hideFrom = hideTo = 0;
+            if (succeeded) {
+                //a substitution from before which an earlier component changed is reset by the later copies
+                final int end = size;
+                for (int i = base; i < last; i++) {
+                    final Term before = get(sides[i], keys[i], base);
+                    if (before != null && !has(sides[i], keys[i], last, end)) {
+                        put(sides[i], keys[i], before);
+                    }
+                }
+                return true;
+            }
+            size = base;
+            hideFrom = base;
+        }
+        hideFrom = hideTo = 0;
+        return false;
+    }
+
+    /**
+     * Unifies the components of commutative compounds in a random order of
+     * the first one, trying each component once for every component of the
+     * second which is not matched yet
+     */
+    private boolean unifyCommutative(final char type, final CompoundTerm cTerm1, final CompoundTerm cTerm2) {
+        final int n = cTerm1.term.length;
+        final int order = scratchSize;
+        final int matched = order + n;
+        scratchSize = matched + n;
+        if (scratch.length < scratchSize) {
+            scratch = Arrays.copyOf(scratch, Math.max(scratchSize, scratch.length * 2));
+        }
+        for (int i = 0; i < n; i++) {
+            scratch[order + i] = i;
+            scratch[matched + i] = 0;
+        }
+        //same draws as CompoundTerm.shuffle
+        if (n >= 2) {
+            final Random random = Memory.random();
+            for (int i = n - 1; i > 0; i--) {
+                final int index = random.nextInt(i + 1);
+                final int a = scratch[order + index];
+                scratch[order + index] = scratch[order + i];
+                scratch[order + i] = a;
+            }
+        }
+        try {
+            for (int i = 0; i < n; i++) {
+                final Term ti = cTerm1.term[scratch[order + i]];
+                boolean succeeded = false;
+                for (int j = 0; j < n; j++) {
+                    if (scratch[matched + j] != 0) { //this one already was used to match one of the i's
+                        continue;
+                    }
+                    final int mark = size;
+                    if (unify(type, ti, cTerm2.term[i], false)) {
+                        succeeded = true;
+                        scratch[matched + j] = 1;
+                        break;
+                    }
+                    size = mark;
+                }
+                if (!succeeded) {
+                    return false;
+                }
+            }
+            return true;
+        } finally {
+            scratchSize = order;
+        }
+    }
+
+    /** read-only view of the substitutions of one side */
+    private final class Bindings extends AbstractMap<Term, Term> {
+
+        private final int side;
+
+        Bindings(final int side) {
+            this.side = side;
+        }
+
+        @Override
+        public Term get(final Object key) {
+            return (key instanceof Term) ? Unifier.this.get(side, (Term) key) : null;
+        }
+
+        @Override
+        public boolean containsKey(final Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public boolean isEmpty() {
+            for (int i = 0; i < size; i++) {
+                if (sides[i] == side) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Set<Entry<Term, Term>> entrySet() {
+            final Map<Term, Term> m = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                if (sides[i] == side) {
+                    m.put(keys[i], values[i]);
+                }
+            }
+            return m.entrySet();
+        }
+    }
+}
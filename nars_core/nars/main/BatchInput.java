@@ -0,0 +1,142 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.main;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import nars.control.Profiler;
+import nars.entity.Task;
+import nars.io.Narsese;
+import nars.io.Narsese.InvalidInputException;
+
+/**
+ * Bulk input of Narsese, for loading large knowledge bases.
+ * <p>
+ * All lines are parsed by one parser and their tasks are put into the new
+ * tasks of memory without running cycles in between, unlike
+ * NAR.addInput(String) which runs a cycle per line. Numbers of cycles in the
+ * input are not run but summed up in cycles, so the caller can run them
+ * afterwards. Comments and empty lines are skipped, lines which can not be
+ * parsed are collected in errors instead of being thrown.
+ */
+public class BatchInput {
+
+    /** a line which could not be parsed */
+    public static class LineError {
+        /** line number, starting at 1 */
+        public final int line;
+        public final String text;
+        public final String message;
+
+        public LineError(final int line, final String text, final String message) {
+            this.line = line;
+            this.text = text;
+            this.message = message;
+        }
+
+        @Override
+        public String toString() {
+            return line + ": " + message + ": " + text;
+        }
+    }
+
+    private final NAR nar;
+    private final Narsese narsese;
+
+    /** number of lines read */
+    public int lines;
+    /** number of tasks input */
+    public int tasks;
+    /** sum of the cycles requested by the input, which were not run */
+    public long cycles;
+    public final List<LineError> errors = new ArrayList<>();
+    /** time spent reading, parsing and inputting */
+    public long nanos;
+
+    public BatchInput(final NAR nar) {
+        this.nar = nar;
+        this.narsese = new Narsese(nar);
+    }
+
+    public BatchInput read(final Reader input) throws IOException {
+        final long start = System.nanoTime();
+        final BufferedReader reader = (input instanceof BufferedReader) ? (BufferedReader) input : new BufferedReader(input);
+        String line;
+        while ((line = reader.readLine()) != null) {
+            accept(line);
+        }
+        nanos += System.nanoTime() - start;
+        return this;
+    }
+
+    public BatchInput read(final Stream<String> input) {
+        final long start = System.nanoTime();
+        input.forEachOrdered(this::accept);
+        nanos += System.nanoTime() - start;
+        return this;
+    }
+
+    /** inputs one line */
+    public void accept(final String line) {
+        lines++;
+        final String s = line.trim();
+        if (s.isEmpty() || isComment(s)) {
+            return;
+        }
+        if (isNumber(s)) {
+            cycles += Long.parseLong(s);
+            return;
+        }
+        if (s.charAt(0) == '*') {
+            if (!nar.addCommand(s)) {
+                errors.add(new LineError(lines, line, "Unknown command"));
+            }
+            return;
+        }
+        try {
+            final Task t;
+            Profiler.enter(nar.memory, Profiler.PARSE);
+            try {
+                t = narsese.parseTask(s);
+            } finally {
+                Profiler.exit(nar.memory, Profiler.PARSE);
+            }
+            nar.memory.inputTask(t);
+            tasks++;
+        } catch (InvalidInputException | RuntimeException e) {
+            errors.add(new LineError(lines, line, (e.getMessage() != null) ? e.getMessage() : e.toString()));
+        }
+    }
+
+    static boolean isComment(final String s) {
+        return (s.charAt(0) == '\'') || s.startsWith("//");
+    }
+
+    static boolean isNumber(final String s) {
+        if (s.length() > 18) { //does not fit into a long
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (!Character.isDigit(s.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public double sentencesPerSecond() {
+        return (nanos > 0) ? tasks / (nanos / 1.0e9) : 0;
+    }
+
+    @Override
+    public String toString() {
+        return tasks + " tasks from " + lines + " lines, " + errors.size() + " errors, " +
+                Math.round(sentencesPerSecond()) + " sentences/s";
+    }
+}
@@ -2,6 +2,7 @@ package nars.main;
 
 import java.io.BufferedReader;
 import nars.plugin.Plugin;
+import nars.control.Profiler;
 import nars.storage.Memory;
 import nars.io.events.Events;
 import nars.io.events.EventEmitter;
@@ -12,7 +13,9 @@ import java.io.FileReader;
 import java.io.IOException;
 import java.io.ObjectInputStream;
 import java.io.ObjectOutputStream;
+import java.io.Reader;
 import java.io.Serializable;
+import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -20,6 +23,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.logging.Level;
 import java.util.logging.Logger;
+import java.util.stream.Stream;
 import nars.io.events.EventEmitter.EventObserver;
 import nars.entity.BudgetValue;
 import nars.entity.Concept;
@@ -36,7 +40,9 @@ import nars.language.Tense;
 import nars.operator.Operator;
 import nars.plugin.perception.SensoryChannel;
 import nars.language.Term;
-import nars.storage.LevelBag;
+import nars.storage.BagType;
+import nars.storage.BagConfig;
+import nars.storage.Snapshot;
 import nars.io.events.Events.CyclesEnd;
 import nars.io.events.Events.CyclesStart;
 
@@ -88,7 +94,7 @@ public class NAR extends SensoryChannel implements Serializable,Runnable {
         FileInputStream inStream = new FileInputStream(name);
         ObjectInputStream stream = new ObjectInputStream(inStream);
         NAR ret = (NAR) stream.readObject();
-        ret.memory.event = new EventEmitter();
+        ret.memory.setEvents(new EventEmitter());
         ret.plugins = new ArrayList<>(); 
         for (Operator o : Operators.get(ret))
             ret.memory.addOperator(o);
@@ -96,6 +102,20 @@ public class NAR extends SensoryChannel implements Serializable,Runnable {
         return ret;
     }
 
+    /**
+     * Write a binary snapshot of memory, between cycles
+     *
+     * @return the size of the file in bytes
+     */
+    public long saveSnapshot(String name) throws IOException {
+        return Snapshot.write(memory, Paths.get(name));
+    }
+
+    /** Replace memory by a snapshot of saveSnapshot */
+    public void loadSnapshot(String name) throws IOException {
+        Snapshot.read(Paths.get(name), memory);
+    }
+
     private Thread thread = null;
     long minCyclePeriodMS;
 
@@ -118,6 +138,10 @@ public class NAR extends SensoryChannel implements Serializable,Runnable {
        public final Interval.PortableDouble taskLinkForgetDurations = new Interval.PortableDouble(Parameters.TASKLINK_FORGET_DURATIONS);
        public final Interval.PortableDouble eventForgetDurations = new Interval.PortableDouble(Parameters.EVENT_FORGET_DURATIONS);
        public final Interval.PortableDouble decisionThreshold = new Interval.PortableDouble(Parameters.DECISION_THRESHOLD);
+       public final Interval.PortableInteger conceptsFiredPerCycle = new Interval.PortableInteger(Parameters.CONCEPTS_FIRED_PER_CYCLE);
+       public final Interval.PortableInteger threads = new Interval.PortableInteger(Parameters.THREADS);
+       public final Interval.PortableInteger conceptBeliefsMax = new Interval.PortableInteger(Parameters.CONCEPT_BELIEFS_MAX);
+       public final Interval.PortableInteger conceptGoalsMax = new Interval.PortableInteger(Parameters.CONCEPT_GOALS_MAX);
    }
     public RuntimeParameters param;
 
@@ -156,12 +180,23 @@ public class NAR extends SensoryChannel implements Serializable,Runnable {
     private boolean threadYield;
 
     public NAR() {
-        Plugins b = new Plugins();
-        Memory m = new Memory(new RuntimeParameters(),
-                new LevelBag(Parameters.CONCEPT_BAG_LEVELS, Parameters.CONCEPT_BAG_SIZE),
-                new LevelBag<>(Parameters.NOVEL_TASK_BAG_LEVELS, Parameters.NOVEL_TASK_BAG_SIZE),
-                new LevelBag<>(Parameters.SEQUENCE_BAG_LEVELS, Parameters.SEQUENCE_BAG_SIZE),
-                new LevelBag<>(Parameters.OPERATION_BAG_LEVELS, Parameters.OPERATION_BAG_SIZE));
+        this(BagType.Level);
+    }
+    
+    /**
+     * @param bags bag implementation of the concepts, task links and term links,
+     * BagType.ConcurrentLevel if they are accessed by several threads
+     */
+    public NAR(BagType bags) {
+        this(new BagConfig(bags));
+    }
+    
+    /**
+     * @param bags capacities and levels of the bags of memory, the
+     * configuration is copied
+     */
+    public NAR(BagConfig bags) {
+        Memory m = new Memory(new RuntimeParameters(), bags);
         this.memory = m;
         this.param = m.param;
         for (Operator o : Operators.get(this))
@@ -197,7 +232,8 @@ public class NAR extends SensoryChannel implements Serializable,Runnable {
         return false;
     }
     
-    private boolean addCommand(final String text) {
+    /** executes a command like **, *volume= or a number of cycles, returns false if text is no command */
+    boolean addCommand(final String text) {
         if(text.startsWith("**")) {
             this.reset();
             return true;
@@ -233,13 +269,31 @@ public class NAR extends SensoryChannel implements Serializable,Runnable {
             if(addCommand(text)) {
                 return;
             }
-            Task t = narsese.parseTask(text.trim());
+            final Task t;
+            Profiler.enter(memory, Profiler.PARSE);
+            try {
+                t = narsese.parseTask(text.trim());
+            } finally {
+                Profiler.exit(memory, Profiler.PARSE);
+            }
             this.memory.inputTask(t);
         } catch (Exception ex) {
             //Logger.getLogger(NAR.class.getName()).log(Level.SEVERE, null, ex);
         }
     }
     
+    /**
+     * Bulk input: every line is parsed by one parser and the tasks are
+     * enqueued without running cycles in between, see BatchInput
+     */
+    public BatchInput addInput(final Reader input) throws IOException {
+        return new BatchInput(this).read(input);
+    }
+    
+    public BatchInput addInput(final Stream<String> lines) {
+        return new BatchInput(this).read(lines);
+    }
+    
     public void addInputFile(String s) {
         try (BufferedReader br = new BufferedReader(new FileReader(s))) {
             String line;
@@ -363,17 +417,39 @@ public class NAR extends SensoryChannel implements Serializable,Runnable {
     }
 
     /**
-     * Stop the inference process, killing its thread.
+     * Stop the inference process, killing its thread and the threads firing
+     * concepts in parallel.
      */
     public void stop() {
         if (thread!=null) {
             thread.interrupt();
             thread = null;
         }
+        memory.stopWorkers();
         stopped = true;
         running = false;
     }
 
+    /**
+     * Record the timings of the phases of the cycles and of the inference
+     * rules until stopProfiling
+     *
+     * @return the profiler of the memory, the one already recording if there is one
+     */
+    public Profiler startProfiling() {
+        if (memory.profiler == null) {
+            memory.profiler = new Profiler();
+        }
+        return memory.profiler;
+    }
+
+    /** @return the profiler which was recording, or null */
+    public Profiler stopProfiling() {
+        final Profiler p = memory.profiler;
+        memory.profiler = null;
+        return p;
+    }
+
     /** Execute a fixed number of cycles.*/
     public void cycles(final int cycles) {
         memory.allowExecution = true;
@@ -0,0 +1,378 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.main;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Runs many reasoners on a fixed pool of worker threads, instead of a thread
+ * per reasoner as NAR.start does.
+ * <p>
+ * Each reasoner is a tenant which runs in slices of cycles, scheduled by
+ * weighted fair queuing: the virtual time of a tenant advances by the cycles
+ * of each of its slices divided by its weight, and the runnable tenant with
+ * the lowest virtual time runs next, so runnable tenants get cycles in
+ * proportion to their weights. A tenant is runnable while it has cycles left
+ * of its budget and either input to process or cycles left to think after
+ * its last input; otherwise it is parked, taking no worker and no CPU, until
+ * it gets input or budget.
+ * <p>
+ * Input is queued by Tenant.input and put into the reasoner by the worker
+ * before a slice, as a BatchInput, so that the cycles asked for by numbers in
+ * the input are thought within the slices and the budget. The reasoners must not be started or cycled by other
+ * threads while they are hosted, and their event observers are called on the
+ * worker threads. A tenant whose slice throws is parked with its failure, and
+ * is not run again, so that it does not take the workers down.
+ */
+public class NARHost {
+
+    /** length of the window cycles per second are measured over */
+    static final long RATE_WINDOW_NS = 1000000000L;
+
+    public class Tenant {
+        public final NAR nar;
+        final long id;
+
+        private volatile float weight;
+        /** cycles this tenant may still run */
+        private long budget;
+        /** cycles left to think after the last input */
+        private long thinking;
+        private final Queue<String> inputs = new ConcurrentLinkedQueue<>();
+        /** tasks waiting in memory after the last slice */
+        private volatile int waiting;
+
+        /** virtual time, which orders the runnable tenants */
+        double pass;
+        boolean queued, running, removed;
+        /** what a slice threw, which parks the tenant for good */
+        private volatile Throwable failure;
+
+        private volatile long cycles;
+        private volatile long windowStart = System.nanoTime();
+        private volatile long windowCycles;
+        private volatile double rate;
+        private volatile boolean measured;
+
+        Tenant(final NAR nar, final long id, final float weight, final long budget) {
+            this.nar = nar;
+            this.id = id;
+            this.weight = weight;
+            this.budget = budget;
+        }
+
+        /**
+         * Queue lines of input, which wake the tenant if it is parked; a
+         * number of cycles among them is thought as with think
+         */
+        public void input(final String... lines) {
+            for (final String line : lines) {
+                inputs.add(line);
+            }
+            synchronized (NARHost.this) {
+                schedule(this);
+            }
+        }
+
+        /** Add cycles to the budget, which wakes the tenant if it is parked */
+        public void grant(final long moreCycles) {
+            synchronized (NARHost.this) {
+                budget = (Long.MAX_VALUE - budget < moreCycles) ? Long.MAX_VALUE : budget + moreCycles;
+                schedule(this);
+            }
+        }
+
+        /** Keep thinking for a number of cycles without further input */
+        public void think(final long moreCycles) {
+            synchronized (NARHost.this) {
+                thinking = Math.max(thinking, moreCycles);
+                schedule(this);
+            }
+        }
+
+        /** Share of the cycles relative to the other tenants, greater than 0 */
+        public void setWeight(final float weight) {
+            if (!(weight > 0)) {
+                throw new IllegalArgumentException("weight " + weight);
+            }
+            this.weight = weight;
+        }
+
+        public float getWeight() {
+            return weight;
+        }
+
+        public long getBudget() {
+            synchronized (NARHost.this) {
+                return budget;
+            }
+        }
+
+        /** cycles run since the tenant was added */
+        public long getCycles() {
+            return cycles;
+        }
+
+        /**
+         * cycles per second over the last second the tenant ran in, or since
+         * it was added during its first second
+         */
+        public double getCyclesPerSecond() {
+            final long elapsed = System.nanoTime() - windowStart;
+            if (elapsed >= RATE_WINDOW_NS || !measured) { //parked since, or first window
+                return windowCycles * 1e9 / Math.max(elapsed, 1);
+            }
+            return rate;
+        }
+
+        /** lines of input queued plus tasks waiting in memory after the last slice */
+        public int getQueueDepth() {
+            return inputs.size() + waiting;
+        }
+
+        /** what the last slice threw, or null while the tenant is healthy */
+        public Throwable getFailure() {
+            return failure;
+        }
+
+        public boolean isParked() {
+            synchronized (NARHost.this) {
+                return !queued && !running;
+            }
+        }
+
+        boolean isRunnable() {
+            return budget > 0 && (thinking > 0 || !inputs.isEmpty());
+        }
+
+        /** runs a slice of at most n cycles, on a worker */
+        long run(final long n) {
+            final long start = nar.time();
+            String line;
+            BatchInput batch = null;
+            while ((line = inputs.poll()) != null) {
+                if (batch == null) {
+                    batch = new BatchInput(nar);
+                }
+                batch.accept(line);
+            }
+            final long slice;
+            synchronized (NARHost.this) {
+                if (batch != null) {
+                    thinking = Math.max(thinking, Math.max(idleCycles, batch.cycles));
+                }
+                slice = Math.min(n, thinking);
+            }
+            nar.cycles((int) slice);
+            final long ran = nar.time() - start;
+            waiting = nar.memory.newTasks.size();
+
+            cycles += ran;
+            windowCycles += ran;
+            final long now = System.nanoTime();
+            final long elapsed = now - windowStart;
+            if (elapsed >= RATE_WINDOW_NS) {
+                rate = windowCycles * 1e9 / elapsed;
+                measured = true;
+                windowStart = now;
+                windowCycles = 0;
+            }
+            return ran;
+        }
+
+        @Override
+        public String toString() {
+            return "tenant " + id + " weight " + weight + " cycles " + cycles;
+        }
+    }
+
+    /** cycles of a slice */
+    public final int sliceCycles;
+    /** cycles a tenant thinks after its last input before it is parked */
+    public final long idleCycles;
+
+    private final PriorityQueue<Tenant> runnable = new PriorityQueue<>(64, new Comparator<Tenant>() {
+        @Override
+        public int compare(final Tenant a, final Tenant b) {
+            final int c = Double.compare(a.pass, b.pass);
+            return c != 0 ? c : Long.compare(a.id, b.id);
+        }
+    });
+    private final List<Tenant> tenants = new ArrayList<>();
+    private final Thread[] workers;
+    private double virtualTime = 0;
+    private long nextId = 0;
+    private int running = 0;
+    private boolean shutdown = false;
+
+    /**
+     * @param threads number of worker threads
+     * @param sliceCycles cycles a tenant runs before the next one is chosen
+     * @param idleCycles cycles a tenant thinks after its last input before it is parked
+     */
+    public NARHost(final int threads, final int sliceCycles, final long idleCycles) {
+        this.sliceCycles = sliceCycles;
+        this.idleCycles = idleCycles;
+        this.workers = new Thread[threads];
+        for (int i = 0; i < threads; i++) {
+            workers[i] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    work();
+                }
+            }, "NARHost-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    public NARHost(final int threads) {
+        this(threads, 10, 1000);
+    }
+
+    /**
+     * Host a reasoner, which is parked until it gets input or is told to think
+     *
+     * @param weight share of the cycles relative to the other tenants, greater than 0
+     * @param budget cycles the reasoner may run, Long.MAX_VALUE for no limit
+     */
+    public Tenant add(final NAR nar, final float weight, final long budget) {
+        if (!(weight > 0)) {
+            throw new IllegalArgumentException("weight " + weight);
+        }
+        synchronized (this) {
+            final Tenant t = new Tenant(nar, nextId++, weight, budget);
+            t.pass = virtualTime;
+            tenants.add(t);
+            return t;
+        }
+    }
+
+    /** Stop hosting a tenant, after the slice it may be running */
+    public synchronized void remove(final Tenant t) {
+        t.removed = true;
+        if (t.queued) {
+            runnable.remove(t);
+            t.queued = false;
+        }
+        tenants.remove(t);
+        t.nar.memory.stopWorkers();
+        notifyAll();
+    }
+
+    public synchronized List<Tenant> getTenants() {
+        return new ArrayList<>(tenants);
+    }
+
+    /** number of tenants waiting for a worker */
+    public synchronized int getRunQueueDepth() {
+        return runnable.size();
+    }
+
+    /** number of tenants neither waiting for a worker nor running */
+    public synchronized int getParked() {
+        return tenants.size() - runnable.size() - running;
+    }
+
+    /**
+     * Wait until all tenants are parked
+     *
+     * @return false if they were not within the timeout
+     */
+    public synchronized boolean awaitParked(final long timeoutMS) throws InterruptedException {
+        final long end = System.currentTimeMillis() + timeoutMS;
+        while (!runnable.isEmpty() || running > 0) {
+            final long left = end - System.currentTimeMillis();
+            if (left <= 0) {
+                return false;
+            }
+            wait(left);
+        }
+        return true;
+    }
+
+    /**
+     * Stop the workers after the slices they are running, and the threads the
+     * tenants fire concepts with
+     */
+    public void shutdown() {
+        synchronized (this) {
+            shutdown = true;
+            notifyAll();
+        }
+        for (final Thread w : workers) {
+            try {
+                w.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+        for (final Tenant t : getTenants()) {
+            t.nar.memory.stopWorkers();
+        }
+    }
+
+    /** queues a tenant which became runnable, holding the lock */
+    void schedule(final Tenant t) {
+        if (t.queued || t.running || t.removed || t.failure != null || !t.isRunnable()) {
+            return;
+        }
+        //a tenant which was parked starts at the present, not with the credit of its parked time
+        t.pass = Math.max(t.pass, virtualTime);
+        runnable.add(t);
+        t.queued = true;
+        notifyAll();
+    }
+
+    void work() {
+        while (true) {
+            final Tenant t;
+            final long n;
+            synchronized (this) {
+                while (!shutdown && runnable.isEmpty()) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (shutdown) {
+                    return;
+                }
+                t = runnable.poll();
+                t.queued = false;
+                t.running = true;
+                running++;
+                virtualTime = t.pass;
+                n = Math.min(sliceCycles, t.budget);
+            }
+            long ran = 0;
+            try {
+                ran = t.run(n);
+            } catch (Throwable e) {
+                t.failure = e;
+                Logger.getLogger(NARHost.class.getName()).log(Level.SEVERE, "parked " + t + " which failed", e);
+            } finally {
+                synchronized (this) {
+                    t.running = false;
+                    running--;
+                    t.budget = Math.max(0, t.budget - ran);
+                    t.thinking = Math.max(0, t.thinking - ran);
+                    t.pass += Math.max(ran, 1) / (double) t.weight;
+                    schedule(t);
+                    notifyAll();
+                }
+            }
+        }
+    }
+}
@@ -121,6 +121,9 @@ public class Parameters {
 
     /** (see its use in budgetfunctions iterative forgetting) */
     public static float FORGET_QUALITY_RELATIVE = 0.1f;
+
+    /** Items of the concept bag per cycle, and of the link bags of a concept per firing, moved to the levels of their decayed priorities with lazy forgetting */
+    public static int BAG_REBALANCE_BATCH = 16;
     
     public static int REVISION_MAX_OCCURRENCE_DISTANCE = 10;
 
@@ -163,13 +166,13 @@ public class Parameters {
     /** Record-length for newly created TermLink's */
     public static final int TERM_LINK_RECORD_LENGTH =10;
     
-    /** Maximum number of beliefs kept in a Concept */
+    /** Maximum number of beliefs kept in a Concept, the default of NAR.param.conceptBeliefsMax */
     public static final int CONCEPT_BELIEFS_MAX = 28; //was 7
     
     /** Maximum number of questions kept in a Concept */
     public static final int CONCEPT_QUESTIONS_MAX = 5;
 
-    /** Maximum number of goals kept in a Concept */
+    /** Maximum number of goals kept in a Concept, the default of NAR.param.conceptGoalsMax */
     public static final int CONCEPT_GOALS_MAX = 7;
     
     /** Reliance factor, the empirical confidence of analytical truth.
@@ -226,12 +229,20 @@ public class Parameters {
     
 
     
-    /** equivalency based on Term contents; experimental mode - not ready yet, leave FALSE */
-    public static boolean TERM_ELEMENT_EQUIVALENCY = false;
+    /** equality and hash of compound terms by their structure instead of their name, see CompoundTerm.structuralHash */
+    public static boolean TERM_ELEMENT_EQUIVALENCY = true;
+    
+    /** share one instance of equal variable-free compound terms of sentences and concepts, see TermStore */
+    public static boolean INTERN_COMPOUND_TERMS = true;
     
-    //temporary parameter for setting #threads to use, globally
     public static boolean IMMEDIATE_ETERNALIZATION=true;
     
+    /** Concepts fired per cycle; more than one enables parallel concept firing */
+    public static int CONCEPTS_FIRED_PER_CYCLE = 1;
+    
+    /** Threads firing concepts in parallel, the default of each NAR */
+    public static int THREADS = Runtime.getRuntime().availableProcessors();
+    
     
    // public static int STM_SIZE = 1;
     public static int SEQUENCE_BAG_ATTEMPTS = 10; //5 //20
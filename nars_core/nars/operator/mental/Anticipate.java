@@ -22,11 +22,15 @@
 
 package nars.operator.mental;
 
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.LinkedHashMap;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 import nars.io.events.EventEmitter.EventObserver;
 import nars.io.events.Events;
@@ -35,6 +39,7 @@ import nars.storage.Memory;
 import nars.main.NAR;
 import nars.main.Parameters;
 import nars.control.DerivationContext;
+import nars.control.Profiler;
 import nars.entity.BudgetValue;
 import nars.entity.Sentence;
 import nars.entity.Stamp;
@@ -57,10 +62,55 @@ import nars.plugin.mental.InternalExperience;
  //*
 public class Anticipate extends Operator implements EventObserver {
 
-    public final Map<Vector2Int,LinkedHashSet<Term>> anticipations = new LinkedHashMap();
+    /** a term expected to be observed, until it is or the expiry cycle is reached */
+    static final class Anticipation {
+        final Term term;
+        /** when the prediction happened */
+        final long predictionCreationTime;
+        /** when the event is expected */
+        final long predictedOccurenceTime;
+        /** first cycle at which it did not happen */
+        final long expiry;
+        /** order of creation, in which the anticipations of a cycle are concluded */
+        final long serial;
+        /** confirmed or expired */
+        boolean done = false;
+
+        Anticipation(final Term term, final long predictionCreationTime, final long predictedOccurenceTime, final long expiry, final long serial) {
+            this.term = term;
+            this.predictionCreationTime = predictionCreationTime;
+            this.predictedOccurenceTime = predictedOccurenceTime;
+            this.expiry = expiry;
+            this.serial = serial;
+        }
+    }
+
+    static final Comparator<Anticipation> byExpiry = new Comparator<Anticipation>() {
+        @Override
+        public int compare(final Anticipation a, final Anticipation b) {
+            final int c = Long.compare(a.expiry, b.expiry);
+            return c != 0 ? c : Long.compare(a.serial, b.serial);
+        }
+    };
+
+    static final Comparator<Anticipation> bySerial = new Comparator<Anticipation>() {
+        @Override
+        public int compare(final Anticipation a, final Anticipation b) {
+            return Long.compare(a.serial, b.serial);
+        }
+    };
+
+    /** pending anticipations by expiry, with the confirmed ones left until they expire */
+    final PriorityQueue<Anticipation> expiries = new PriorityQueue<>(16, byExpiry);
+    /** pending anticipations of each term, in order of creation */
+    final Map<Term,ArrayDeque<Anticipation>> anticipations = new HashMap<>();
+    int pending = 0;
+    long serial = 0;
+    /** anticipations concluded in a cycle */
+    private final List<Anticipation> concluded = new ArrayList<>();
             
     final Set<Term> newTasks = new LinkedHashSet();
-    DerivationContext nal;
+    Memory memory;
  
     final static TruthValue expiredTruth = new TruthValue(0.0f, Parameters.ANTICIPATION_CONFIDENCE);
     final static BudgetValue expiredBudget = new BudgetValue(Parameters.DEFAULT_JUDGMENT_PRIORITY, Parameters.DEFAULT_JUDGMENT_DURABILITY, BudgetFunctions.truthToQuality(expiredTruth));
@@ -71,93 +121,65 @@ public class Anticipate extends Operator implements EventObserver {
 
     @Override
     public boolean setEnabled(NAR n, boolean enabled) {
+        memory = n.memory;
         n.memory.event.set(this, enabled, Events.InduceSucceedingEvent.class, Events.CycleEnd.class);
         return true;
     }
-    
-    class Vector2Int {
-        public long predictionCreationTime; //2014 and this is still the best way to define a data structure that simple?
-        public long predictedOccurenceTime; 
-        public Vector2Int(long predictionCreationTime, long predictedOccurenceTime) { //rest of the crap:
-            this.predictionCreationTime=predictionCreationTime; //when the prediction happened
-            this.predictedOccurenceTime=predictedOccurenceTime; //when the event is expected
-        }
+
+    /** number of anticipations neither confirmed nor expired */
+    public int getPending() {
+        return pending;
     }
     
+    /**
+     * Concludes the anticipations which expire in this cycle and the ones
+     * confirmed by the events of this cycle, without looking at the others
+     */
     public void updateAnticipations() {
 
-        if (anticipations.isEmpty()) return;
+        if (pending == 0) return;
 
-        long now=nal.memory.time();
-                
-        //share stamps created by tasks in this cycle
-        
-        boolean hasNewTasks = !newTasks.isEmpty();
-        
-        Iterator<Map.Entry<Vector2Int, LinkedHashSet<Term>>> aei = anticipations.entrySet().iterator();
-        while (aei.hasNext()) {
-            
-            Map.Entry<Vector2Int, LinkedHashSet<Term>> ae = aei.next();
-            
-            long aTime = ae.getKey().predictedOccurenceTime;
-            long predictionstarted=ae.getKey().predictionCreationTime;
-            if(aTime < predictionstarted) { //its about the past..
-                return;
-            }
-            
-            //lets say  a and <(&/,a,+4) =/> b> leaded to prediction of b with specific occurence time
-            //this indicates that this interval can be reconstructed by looking by when the prediction
-            //happened and for what time it predicted, Only when the happening would already lead to <(&/,a,+5) =/> b>
-            //we are allowed to apply CWA already, i think this is the perfect time to do this
-            //since there is no way anymore that the observation would support <(&/,a,+4) =/> b> at this time,
-            //also this way it is not applied to early, it seems to be the perfect time to me,
-            //making hopeExpirationWindow parameter entirely osbolete
-            Interval Int=Interval.interval(aTime-predictionstarted, nal.memory);
-            //ok we know the magnitude now, let's now construct a interval with magnitude one higher
-            //(this we can skip because magnitudeToTime allows it without being explicitly constructed)
-            //ok, and what predicted occurence time would that be? because only if now is bigger or equal, didnt happen is true
-            double expiredate=predictionstarted+Interval.magnitudeToTime(Int.magnitude*Parameters.ANTICIPATION_TOLERANCE, nal.memory.param.duration);
-            //
-            
-            boolean didntHappen = (now>=expiredate);
-            boolean maybeHappened = hasNewTasks && !didntHappen;
-                
-            if ((!didntHappen) && (!maybeHappened))
-                continue;
-            
-            LinkedHashSet<Term> terms = ae.getValue();
-            
-            Iterator<Term> ii = terms.iterator();
-            while (ii.hasNext()) {
-                Term aTerm = ii.next();
-                
-                boolean remove = false;
-                
-                if (didntHappen) {
-                    deriveDidntHappen(aTerm,aTime);                                
-                    remove = true;
-                }
+        long now=memory.time();
 
-                if (maybeHappened) {
-                    if (newTasks.remove(aTerm)) {
-                        //in case it happened, temporal induction will do the rest, else deriveDidntHappen occurred
-                        if(!remove) {
-                            nal.memory.emit(CONFIRM.class, aTerm);
-                        }
-                        remove = true; 
-                        hasNewTasks = !newTasks.isEmpty();
+        //did not happen
+        while (!expiries.isEmpty() && expiries.peek().expiry <= now) {
+            final Anticipation a = expiries.poll();
+            if (!a.done) {
+                concluded.add(a);
+            }
+        }
+        
+        //happened: the first one of the term which is not expired
+        for (final Term t : newTasks) {
+            final ArrayDeque<Anticipation> l = anticipations.get(t);
+            if (l != null) {
+                for (final Anticipation a : l) {
+                    if (a.expiry > now) {
+                        concluded.add(a);
+                        break;
                     }
                 }
-                
-                if (remove)
-                    ii.remove();
             }
-            
-            if (terms.isEmpty()) {
-                //remove this time entry because its terms have been emptied
-                aei.remove();
+        }
+        
+        Collections.sort(concluded, bySerial);
+        for (int i = 0; i < concluded.size(); i++) {
+            final Anticipation a = concluded.get(i);
+            if (a.expiry <= now) {
+                deriveDidntHappen(a.term, a.predictedOccurenceTime);
+            } else {
+                //in case it happened, temporal induction will do the rest, else deriveDidntHappen occurred
+                memory.emit(CONFIRM.class, a.term);
+            }
+            a.done = true;
+            pending--;
+            final ArrayDeque<Anticipation> l = anticipations.get(a.term);
+            l.remove(a);
+            if (l.isEmpty()) {
+                anticipations.remove(a.term);
             }
-        }       
+        }
+        concluded.clear();
     
         newTasks.clear();        
     }
@@ -166,15 +188,19 @@ public class Anticipate extends Operator implements EventObserver {
     public void event(Class event, Object[] args) {
         if (event == Events.InduceSucceedingEvent.class || event == Events.TaskDerive.class) {            
             Task newEvent = (Task)args[0];
-            this.nal= (DerivationContext)args[1];
             
             if (newEvent.sentence.truth != null && newEvent.sentence.isJudgment() && newEvent.sentence.truth.getExpectation() > Parameters.DEFAULT_CONFIRMATION_EXPECTATION && !newEvent.sentence.isEternal()) {
                 newTasks.add(newEvent.getTerm()); //new: always add but keep truth value in mind
             }
         }
 
-        if (nal!=null && event == CycleEnd.class) {            
-            updateAnticipations();
+        if (memory!=null && event == CycleEnd.class) {            
+            Profiler.enter(memory, Profiler.UPDATE_ANTICIPATIONS);
+            try {
+                updateAnticipations();
+            } finally {
+                Profiler.exit(memory, Profiler.UPDATE_ANTICIPATIONS);
+            }
         }
     }
     
@@ -191,7 +217,12 @@ public class Anticipate extends Operator implements EventObserver {
             return null; //not as mental operator but as fundamental principle
         }
         
-        anticipate(args[1],memory,memory.time()+memory.param.duration.get(), null);
+        Profiler.enter(memory, Profiler.ANTICIPATE);
+        try {
+            anticipate(args[1],memory,memory.time()+memory.param.duration.get(), null);
+        } finally {
+            Profiler.exit(memory, Profiler.ANTICIPATE);
+        }
         
         return null;
     }
@@ -230,13 +261,38 @@ public class Anticipate extends Operator implements EventObserver {
           memory.emit(ANTICIPATE.class, content);
        }
         
-        LinkedHashSet<Term> ae = new LinkedHashSet();
-        anticipations.put(new Vector2Int(memory.time(),occurenceTime), ae);
-
-        ae.add(content);
+        this.memory = memory;
+        schedule(content, memory.time(), occurenceTime, memory);
         anticipationFeedback(content, t, memory);
     }
 
+    void schedule(final Term content, final long predictionstarted, final long aTime, final Memory memory) {
+        if(aTime < predictionstarted) { //its about the past..
+            return;
+        }
+        //lets say  a and <(&/,a,+4) =/> b> leaded to prediction of b with specific occurence time
+        //this indicates that this interval can be reconstructed by looking by when the prediction
+        //happened and for what time it predicted, Only when the happening would already lead to <(&/,a,+5) =/> b>
+        //we are allowed to apply CWA already, i think this is the perfect time to do this
+        //since there is no way anymore that the observation would support <(&/,a,+4) =/> b> at this time,
+        //also this way it is not applied to early, it seems to be the perfect time to me,
+        //making hopeExpirationWindow parameter entirely osbolete
+        final int magnitude = Interval.timeToMagnitude(aTime-predictionstarted, memory.param.duration);
+        //ok we know the magnitude now, let's now construct a interval with magnitude one higher
+        //(this we can skip because magnitudeToTime allows it without being explicitly constructed)
+        //ok, and what predicted occurence time would that be? because only if now is bigger or equal, didnt happen is true
+        final double expiredate=predictionstarted+Interval.magnitudeToTime(magnitude*Parameters.ANTICIPATION_TOLERANCE, memory.param.duration);
+
+        final Anticipation a = new Anticipation(content, predictionstarted, aTime, (long) Math.ceil(expiredate), serial++);
+        expiries.add(a);
+        ArrayDeque<Anticipation> l = anticipations.get(content);
+        if (l == null) {
+            anticipations.put(content, l = new ArrayDeque<>(2));
+        }
+        l.add(a);
+        pending++;
+    }
+
     public void anticipationFeedback(Term content, Task t, Memory memory) {
         if(anticipationOperator) {
             Operation op=(Operation) Operation.make(Product.make(Term.SELF,content), this);
@@ -269,8 +325,8 @@ public class Anticipate extends Operator implements EventObserver {
         TruthValue truth = expiredTruth;
         BudgetValue budget = expiredBudget;
 
-        Stamp stamp = new Stamp(nal.memory);
-        //stamp.setOccurrenceTime(nal.memory.time());
+        Stamp stamp = new Stamp(memory);
+        //stamp.setOccurrenceTime(memory.time());
         stamp.setOccurrenceTime(expectedOccurenceTime); //it did not happen, so the time of when it did not 
         //happen is exactly the time it was expected
         
@@ -281,8 +337,13 @@ public class Anticipate extends Operator implements EventObserver {
             stamp);
 
         Task task = new Task(S, budget, true);
-        nal.derivedTask(task, false, true, false); 
+        final DerivationContext nal = memory.acquireContext();
+        try {
+            nal.derivedTask(task, false, true, false);
+        } finally {
+            memory.releaseContext(nal);
+        }
         task.setElemOfSequenceBuffer(true);
-        nal.memory.emit(DISAPPOINT.class, task);
+        memory.emit(DISAPPOINT.class, task);
     }
 }
\ No newline at end of file
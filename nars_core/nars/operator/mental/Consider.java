@@ -56,9 +56,13 @@ public class Consider extends Operator {
         
         Concept concept = memory.conceptualize(Consider.budgetMentalConcept(operation), term);
         
-        DerivationContext cont = new DerivationContext(memory);
-        cont.setCurrentConcept(concept);
-        GeneralInferenceControl.fireConcept(cont, 1);
+        DerivationContext cont = memory.acquireContext();
+        try {
+            cont.setCurrentConcept(concept);
+            GeneralInferenceControl.fireConcept(cont, 1);
+        } finally {
+            memory.releaseContext(cont);
+        }
         
         return null;
     }
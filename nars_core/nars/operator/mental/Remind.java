@@ -42,6 +42,7 @@ public class Remind extends Operator {
     public void activate(Memory memory, final Concept c, final BudgetValue b, Activating mode) {
         memory.concepts.take(c.name());
         BudgetFunctions.activate(c.budget, b, mode);
+        c.dirty = true;
         memory.concepts.putBack(c, memory.cycles(memory.param.conceptForgetDurations), memory);
     }
 
@@ -20,7 +20,8 @@ import org.encog.ml.tree.TreeNode;
  */
 public class MathExpression  extends FunctionOperator {
 
-    static EncogProgramContext context;
+    /** context of the programs of this operator, created on the first use */
+    private EncogProgramContext context;
 
     
     public MathExpression() {
@@ -33,9 +34,8 @@ public class MathExpression  extends FunctionOperator {
     
     
     @Override
-    protected Term function(Memory memory, Term[] x) {
+    protected synchronized Term function(Memory memory, Term[] x) {
 
-        //TODO this may not be thread-safe, this block may need synchronized:
         if (context == null) {
             context = new EncogProgramContext();            
             context.loadAllFunctions();
@@ -40,7 +40,8 @@ public class Abbreviation implements Plugin {
             super("^abbreviate");
         }
 
-        private static PortableInteger currentTermSerial = new PortableInteger(1);
+        /** serial of the names, per memory as each has its own operator */
+        private final PortableInteger currentTermSerial = new PortableInteger(1);
 
         public Term newSerialTerm(char prefix) {
             return new Term(prefix + String.valueOf(currentTermSerial.incrementAndGet()));
@@ -108,7 +109,7 @@ public class Abbreviation implements Plugin {
                     if (event != TaskDerive.class)
                         return;
                     
-                    if ((abbreviationProbability < 1.0) && (Memory.randomNumber.nextDouble() > abbreviationProbability))
+                    if ((abbreviationProbability < 1.0) && (Memory.random().nextDouble() > abbreviationProbability))
                         return;
 
                     Task task = (Task)a[0];
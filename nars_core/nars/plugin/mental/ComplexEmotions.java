@@ -58,6 +58,7 @@ public class ComplexEmotions implements Plugin {
                                         Concept C1 = memory.concept(future_task.getTerm());
                                         if(C1 != null) {
                                             C1.incPriority(fear);
+                                            C1.dirty = true;
                                         }
                                         memory.emit(Answer.class, "Fear value="+fear);
                                         System.out.println("Fear value="+fear);
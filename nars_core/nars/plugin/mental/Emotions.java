@@ -3,6 +3,7 @@ package nars.plugin.mental;
 import nars.main.NAR;
 import nars.main.Parameters;
 import nars.control.DerivationContext;
+import nars.control.ParallelInferenceControl;
 import nars.entity.BudgetValue;
 import nars.entity.Sentence;
 import nars.entity.Stamp;
@@ -54,6 +55,9 @@ public class Emotions implements Plugin {
     public long last_busy_time = 0;
     public long change_steps_demanded = 1000;
     public void adjustSatisfaction(float newValue, float weight, DerivationContext nal) {
+        if (ParallelInferenceControl.defer(() -> adjustSatisfaction(newValue, weight, nal))) {
+            return;
+        }
         
         //        float oldV = happyValue;
         happy += newValue * weight;
@@ -123,6 +127,9 @@ public class Emotions implements Plugin {
     public double lastbusy=0.5;
     public double CHANGE_THRESHOLD = 0.25f;
     public void adjustBusy(float newValue, float weight, DerivationContext nal) {
+        if (ParallelInferenceControl.defer(() -> adjustBusy(newValue, weight, nal))) {
+            return;
+        }
 
         busy += newValue * weight;
         busy /= (1.0f + weight);
@@ -161,12 +161,12 @@ public class InternalExperience implements Plugin, EventObserver {
             }
         }
         else if (event == Events.BeliefReason.class) {
-            //belief, beliefTerm, taskTerm, nal
+            //belief, beliefTerm, taskTerm, evidentalOverlap
             Sentence belief = (Sentence)a[0];
             Term beliefTerm = (Term)a[1];
             Term taskTerm = (Term)a[2];
-            DerivationContext nal = (DerivationContext)a[3];
-            beliefReason(belief, beliefTerm, taskTerm, nal);
+            boolean evidentalOverlap = (Boolean)a[3];
+            beliefReason(belief, beliefTerm, taskTerm, evidentalOverlap);
         }
     }
     
@@ -239,15 +239,13 @@ public class InternalExperience implements Plugin, EventObserver {
     }; 
     
     /** used in full internal experience mode only */
-    protected void beliefReason(Sentence belief, Term beliefTerm, Term taskTerm, DerivationContext nal) {
-        
-        Memory memory = nal.memory;
+    protected void beliefReason(Sentence belief, Term beliefTerm, Term taskTerm, boolean evidentalOverlap) {
     
-        if (Memory.randomNumber.nextDouble() < INTERNAL_EXPERIENCE_RARE_PROBABILITY ) {
+        if (Memory.random().nextDouble() < INTERNAL_EXPERIENCE_RARE_PROBABILITY ) {
             
             //the operators which dont have a innate belief
             //also get a chance to reveal its effects to the system this way
-            Operator op=memory.getOperator(nonInnateBeliefOperators[Memory.randomNumber.nextInt(nonInnateBeliefOperators.length)]);
+            Operator op=memory.getOperator(nonInnateBeliefOperators[Memory.random().nextInt(nonInnateBeliefOperators.length)]);
             
             Product prod=new Product(new Term[]{belief.term});
             
@@ -267,11 +265,11 @@ public class InternalExperience implements Plugin, EventObserver {
                     quality);
 
                 Task newTask = new Task(sentence, budget, true);       
-                nal.derivedTask(newTask, false, false, false);
+                derivedTask(newTask, evidentalOverlap);
             }
         }
 
-        if (beliefTerm instanceof Implication && Memory.randomNumber.nextDouble()<=INTERNAL_EXPERIENCE_PROBABILITY) {
+        if (beliefTerm instanceof Implication && Memory.random().nextDouble()<=INTERNAL_EXPERIENCE_PROBABILITY) {
             Implication imp=(Implication) beliefTerm;
             if(imp.getTemporalOrder()==TemporalRules.ORDER_FORWARD) {
                 //1. check if its (&/,term,+i1,...,+in) =/> anticipateTerm form:
@@ -314,9 +312,20 @@ public class InternalExperience implements Plugin, EventObserver {
                         quality);
 
                     Task newTask = new Task(sentence, budget, true);       
-                    nal.derivedTask(newTask, false, false, false);
+                    derivedTask(newTask, evidentalOverlap);
                 }
             }
         }
     }    
+
+    /** derives a task of the inference it was reasoned from, outside of it */
+    private void derivedTask(final Task task, final boolean evidentalOverlap) {
+        final DerivationContext nal = memory.acquireContext();
+        try {
+            nal.evidentalOverlap = evidentalOverlap;
+            nal.derivedTask(task, false, false, false);
+        } finally {
+            memory.releaseContext(nal);
+        }
+    }
 }
@@ -26,11 +26,6 @@ public class VisualSpace implements ImaginationSpace {
     public int px = 0;
     public int py = 0;
     
-    //those are the same for each instance:
-    static NullOperator right = new NullOperator("^right");
-    static NullOperator left = new NullOperator("^left");
-    static NullOperator up = new NullOperator("^up");
-    static NullOperator down = new NullOperator("^down");
     HashSet<Operator> ops = new HashSet<Operator>();
     NAR nar;
     
@@ -51,14 +46,20 @@ public class VisualSpace implements ImaginationSpace {
                 cropped[i][j] = source[py+i][px+j];
             }
         }
-        nar.addPlugin(right);
-        nar.addPlugin(left);
-        nar.addPlugin(up);
-        nar.addPlugin(down);
-        ops.add(right);
-        ops.add(left);
-        ops.add(up);
-        ops.add(down);
+        addOperator("^right");
+        addOperator("^left");
+        addOperator("^up");
+        addOperator("^down");
+    }
+
+    //those are the same for each instance in a reasoner:
+    private void addOperator(final String name) {
+        Operator op = nar.memory.getOperator(name);
+        if (op == null) {
+            op = new NullOperator(name);
+            nar.addPlugin(op);
+        }
+        ops.add(op);
     }
 
     @Override
@@ -1,12 +1,16 @@
 package nars.storage;
 
 import java.util.Iterator;
+import java.util.List;
 import java.util.Set;
 import nars.main.Parameters;
 import nars.entity.Item;
 import nars.inference.BudgetFunctions;
 
 public abstract class Bag<E extends Item<K>,K> implements Iterable<E> {
+
+    /** decay of the priorities of the items with time if they are forgotten lazily, null if they are forgotten when put back */
+    protected Forgetting forgetting = null;
     
     public static int bin(final float x, final int bins) {
         int i = (int)Math.floor((x + 0.5f/bins) * bins);
@@ -38,6 +42,16 @@ public abstract class Bag<E extends Item<K>,K> implements Iterable<E> {
 
     abstract public int getCapacity();
 
+    /**
+     * Change the capacity of the bag. When it is lowered below the number of
+     * items, items are taken out of the lowest non-empty level, in the order
+     * they are displaced on overflow, until the bag fits.
+     *
+     * @param capacity The new capacity
+     * @return The items taken out, in the order they were taken out
+     */
+    abstract public List<E> setCapacity(int capacity);
+
     abstract public float getMass();
 
     /**
@@ -75,6 +89,7 @@ public abstract class Bag<E extends Item<K>,K> implements Iterable<E> {
         if (existingItemWithSameKey != null) {            
             newItem = (E)existingItemWithSameKey.merge(newItem);
         }
+        adopt(newItem);
         
         // put the (new or merged) item into itemTable        
         final E overflowItem = addItem(newItem);
@@ -91,6 +106,22 @@ public abstract class Bag<E extends Item<K>,K> implements Iterable<E> {
 
     abstract public E take(final K key);
 
+    /**
+     * Move an item of the bag to the level of its priority after its budget
+     * was changed in place, like take and addItem do but without its removal
+     *
+     * @param item The item, or one of the same key
+     * @return false if no item of its key is in the bag
+     */
+    public boolean reprioritize(final E item) {
+        final E e = take(item.name());
+        if (e == null) {
+            return false;
+        }
+        addItem(e);
+        return true;
+    }
+
     public E take(E value) {
         return take(value.name());
     }
@@ -136,18 +167,65 @@ public abstract class Bag<E extends Item<K>,K> implements Iterable<E> {
     /**
      * Put an item back into the itemTable
      * <p>
-     * The only place where the forgetting rate is applied
+     * The forgetting rate is applied here or by forget
      *
      * @param oldItem The Item to put back
      * @return the item which was removed, or null if none removed
      */    
     public E putBack(final E oldItem, final float forgetCycles, final Memory m) {
-        float relativeThreshold = Parameters.FORGET_QUALITY_RELATIVE;
-        BudgetFunctions.applyForgetting(oldItem.budget, getForgetCycles(forgetCycles, oldItem), relativeThreshold);
+        forget(oldItem, forgetCycles);
         return putIn(oldItem);
     }
+
+    /**
+     * Apply the forgetting rate to the budget of an item, which is then to be
+     * put in or reprioritized; nothing to do if it is forgotten lazily
+     */
+    public void forget(final E item, final float forgetCycles) {
+        if (forgetting != null) {
+            return;
+        }
+        float relativeThreshold = Parameters.FORGET_QUALITY_RELATIVE;
+        BudgetFunctions.applyForgetting(item.budget, getForgetCycles(forgetCycles, item), relativeThreshold);
+    }
     
     
+    /**
+     * Let the priorities of the items decay with time, evaluated when they are
+     * read, instead of forgetting the items each time they are put back
+     *
+     * @param f The forgetting of the items, null to forget them when put back
+     */
+    public void setForgetting(final Forgetting f) {
+        forgetting = f;
+        for (final E e : this) {
+            e.budget.setForgetting(f);
+        }
+    }
+
+    public Forgetting getForgetting() {
+        return forgetting;
+    }
+
+    /** makes the priority of an item put in decay with time, if the items are forgotten lazily */
+    protected final void adopt(final E item) {
+        if (forgetting != null) {
+            item.budget.setForgetting(forgetting);
+        }
+    }
+
+    /**
+     * Move a batch of items whose priorities decayed since they were put in
+     * to the levels of their priorities, if the items are forgotten lazily;
+     * the next call goes on with the next batch
+     *
+     * @param batch The number of items to look at
+     * @return The number of items moved
+     */
+    public int rebalance(final int batch) {
+        return 0;
+    }
+
     /** x = takeOut(), then putBack(x)
      *  @forgetCycles forgetting time in cycles
      *  @return the variable that was updated, or null if none was taken out
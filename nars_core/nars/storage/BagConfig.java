@@ -0,0 +1,136 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.storage;
+
+import java.io.Serializable;
+import nars.entity.Concept;
+import nars.entity.Item;
+import nars.language.Term;
+import nars.main.Parameters;
+
+/**
+ * Capacities and levels of the bags of a Memory, so that reasoners in one JVM
+ * can have different footprints. The defaults are the ones of Parameters at
+ * the time the configuration is created.
+ * <p>
+ * A memory creates its bags from the configuration it was created with; the
+ * concept bag can be resized later by Memory.resizeConcepts, the link bags of
+ * concepts created after a change of the configuration get the new sizes.
+ */
+public class BagConfig implements Serializable, Cloneable {
+
+    /** bag implementation of the concepts */
+    public BagType type;
+
+    /**
+     * bag implementation of the task links and term links of each concept,
+     * compact unless the concepts are in concurrent bags
+     */
+    public BagType linkType;
+
+    public int conceptBagSize = Parameters.CONCEPT_BAG_SIZE;
+    public int conceptBagLevels = Parameters.CONCEPT_BAG_LEVELS;
+
+    public int taskLinkBagSize = Parameters.TASK_LINK_BAG_SIZE;
+    public int taskLinkBagLevels = Parameters.TASK_LINK_BAG_LEVELS;
+
+    public int termLinkBagSize = Parameters.TERM_LINK_BAG_SIZE;
+    public int termLinkBagLevels = Parameters.TERM_LINK_BAG_LEVELS;
+
+    public int novelTaskBagSize = Parameters.NOVEL_TASK_BAG_SIZE;
+    public int novelTaskBagLevels = Parameters.NOVEL_TASK_BAG_LEVELS;
+
+    /** the sequence bags of memory and of the concepts of operations */
+    public int sequenceBagSize = Parameters.SEQUENCE_BAG_SIZE;
+    public int sequenceBagLevels = Parameters.SEQUENCE_BAG_LEVELS;
+
+    public int operationBagSize = Parameters.OPERATION_BAG_SIZE;
+    public int operationBagLevels = Parameters.OPERATION_BAG_LEVELS;
+
+    /**
+     * whether the priorities of concepts, task links and term links decay with
+     * time, evaluated when they are read, instead of being forgotten each time
+     * they are put back; not for concepts fired in parallel, so a memory with
+     * concurrent bags or more than one concept fired per cycle is rejected, and
+     * one created with it fires one concept per cycle
+     */
+    public boolean lazyForgetting = false;
+
+    public BagConfig() {
+        this(BagType.Level);
+    }
+
+    /**
+     * @param type bag implementation of the concepts, task links and term links,
+     * BagType.ConcurrentLevel if they are accessed by several threads; the
+     * link bags of BagType.Level are BagType.Compact
+     */
+    public BagConfig(final BagType type) {
+        this(type, type == BagType.Level ? BagType.Compact : type);
+    }
+
+    public BagConfig(final BagType type, final BagType linkType) {
+        this.type = type;
+        this.linkType = linkType;
+    }
+
+    /** sets the capacities of the concept, task link and term link bags */
+    public BagConfig capacities(final int concepts, final int taskLinks, final int termLinks) {
+        this.conceptBagSize = concepts;
+        this.taskLinkBagSize = taskLinks;
+        this.termLinkBagSize = termLinks;
+        return this;
+    }
+
+    /** sets the number of levels of the concept, task link and term link bags */
+    public BagConfig levels(final int concepts, final int taskLinks, final int termLinks) {
+        this.conceptBagLevels = concepts;
+        this.taskLinkBagLevels = taskLinks;
+        this.termLinkBagLevels = termLinks;
+        return this;
+    }
+
+    /** sets lazy forgetting, see lazyForgetting */
+    public BagConfig forgetLazily() {
+        this.lazyForgetting = true;
+        return this;
+    }
+
+    public Bag<Concept,Term> newConceptBag() {
+        return type.newBag(conceptBagLevels, conceptBagSize);
+    }
+
+    public <E extends Item<K>,K> Bag<E,K> newTaskLinkBag() {
+        return linkType.newBag(taskLinkBagLevels, taskLinkBagSize);
+    }
+
+    public <E extends Item<K>,K> Bag<E,K> newTermLinkBag() {
+        return linkType.newBag(termLinkBagLevels, termLinkBagSize);
+    }
+
+    public <E extends Item<K>,K> LevelBag<E,K> newSequenceBag() {
+        return new LevelBag<>(sequenceBagLevels, sequenceBagSize);
+    }
+
+    @Override
+    public BagConfig clone() {
+        try {
+            return (BagConfig) super.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return type + " concepts " + conceptBagSize + "/" + conceptBagLevels +
+                ", " + linkType + " task links " + taskLinkBagSize + "/" + taskLinkBagLevels +
+                ", term links " + termLinkBagSize + "/" + termLinkBagLevels +
+                ", novel tasks " + novelTaskBagSize + "/" + novelTaskBagLevels +
+                ", sequences " + sequenceBagSize + "/" + sequenceBagLevels +
+                ", operations " + operationBagSize + "/" + operationBagLevels +
+                (lazyForgetting ? ", lazy forgetting" : "");
+    }
+}
@@ -0,0 +1,45 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.storage;
+
+import nars.entity.Item;
+
+/**
+ * Bag implementation used for concepts, task links and term links
+ */
+public enum BagType {
+
+    /** single-threaded {@link LevelBag} */
+    Level {
+        @Override
+        public <E extends Item<K>,K> Bag<E,K> newBag(final int levels, final int capacity) {
+            return new LevelBag<>(levels, capacity);
+        }
+    },
+
+    /**
+     * {@link CompactBag}, selecting like LevelBag in less memory, for bags of
+     * at most CompactBag.MAX_CAPACITY items; larger ones are LevelBags
+     */
+    Compact {
+        @Override
+        public <E extends Item<K>,K> Bag<E,K> newBag(final int levels, final int capacity) {
+            if (capacity > CompactBag.MAX_CAPACITY || levels > CompactBag.MAX_LEVELS) {
+                return new LevelBag<>(levels, capacity);
+            }
+            return new CompactBag<>(levels, capacity);
+        }
+    },
+
+    /** thread-safe {@link ConcurrentLevelBag}, for concepts fired concurrently */
+    ConcurrentLevel {
+        @Override
+        public <E extends Item<K>,K> Bag<E,K> newBag(final int levels, final int capacity) {
+            return new ConcurrentLevelBag<>(levels, capacity);
+        }
+    };
+
+    public abstract <E extends Item<K>,K> Bag<E,K> newBag(int levels, int capacity);
+}
@@ -0,0 +1,182 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.storage;
+
+import java.io.Serializable;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+import nars.entity.Sentence;
+import nars.entity.Task;
+import static nars.inference.BudgetFunctions.rankBelief;
+
+/**
+ * Tasks of a concept ordered by the rank of their sentences, highest first,
+ * as the beliefs and desires of a Concept.
+ * <p>
+ * The rank of each task and a hash of its stamp are computed once when it is
+ * added, so adding a task finds its place by binary search and only compares
+ * stamps of the tasks with the same hash. The table is a list whose first
+ * elements are the top ones; tasks put in with the list methods are kept at
+ * the position given, which has to respect the order.
+ */
+public class BeliefTable extends AbstractList<Task> implements RandomAccess, Serializable {
+
+    /** rank by truth expectation instead of confidence */
+    public final boolean rankTruthExpectation;
+
+    private Task[] tasks;
+    private float[] ranks;
+    private int[] hashes;
+    private int size;
+
+    public BeliefTable(final boolean rankTruthExpectation) {
+        this.rankTruthExpectation = rankTruthExpectation;
+        this.tasks = new Task[4];
+        this.ranks = new float[4];
+        this.hashes = new int[4];
+    }
+
+    static int hash(final Sentence s) {
+        return s.stamp.evidentialHash() * 31 + Long.hashCode(s.stamp.getOccurrenceTime());
+    }
+
+    /**
+     * Adds a task at its rank, after the tasks with a higher or the same
+     * rank. A task with the truth and the evidence of a task of the same
+     * rank, or of the first task of a lower rank, is a duplicate and is not
+     * added; nor is a task which would be the last of a full table.
+     *
+     * @param capacity the capacity of the table, which has at most that many tasks
+     * @return the last task, which is removed when the table was full, or null
+     */
+    public Task add(final Task newTask, final int capacity) {
+        final Sentence newSentence = newTask.sentence;
+        final float rank = rankBelief(newSentence, rankTruthExpectation);
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            final int mid = (lo + hi) >>> 1;
+            if (ranks[mid] <= rank) {
+                hi = mid;
+            } else {
+                lo = mid + 1;
+            }
+        }
+        final int i = lo;
+        final int h = hash(newSentence);
+        for (int j = i; j < size && (j == i || ranks[j] == rank); j++) {
+            if (hashes[j] == h) {
+                final Sentence s = tasks[j].sentence;
+                if (newSentence.truth.equals(s.truth) && newSentence.stamp.equals(s.stamp, false, true, true)) {
+                    return null;
+                }
+            }
+        }
+        if (i < size) {
+            insert(i, newTask, rank, h);
+            if (size > capacity) {
+                return remove(size - 1);
+            }
+        } else if (size < capacity) {
+            insert(size, newTask, rank, h);
+        }
+        return null;
+    }
+
+    private void insert(final int i, final Task t, final float rank, final int h) {
+        if (size == tasks.length) {
+            final int n = size * 2;
+            tasks = Arrays.copyOf(tasks, n);
+            ranks = Arrays.copyOf(ranks, n);
+            hashes = Arrays.copyOf(hashes, n);
+        }
+        System.arraycopy(tasks, i, tasks, i + 1, size - i);
+        System.arraycopy(ranks, i, ranks, i + 1, size - i);
+        System.arraycopy(hashes, i, hashes, i + 1, size - i);
+        tasks[i] = t;
+        ranks[i] = rank;
+        hashes[i] = h;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Computes the ranks again after the truth values of the tasks were
+     * changed in place, moving the tasks to the positions of their new ranks
+     * and keeping the order of the tasks of the same rank.
+     */
+    public void rerank() {
+        for (int i = 0; i < size; i++) {
+            final Task t = tasks[i];
+            final float rank = rankBelief(t.sentence, rankTruthExpectation);
+            final int h = hashes[i];
+            int j = i;
+            while (j > 0 && ranks[j - 1] < rank) {
+                tasks[j] = tasks[j - 1];
+                ranks[j] = ranks[j - 1];
+                hashes[j] = hashes[j - 1];
+                j--;
+            }
+            tasks[j] = t;
+            ranks[j] = rank;
+            hashes[j] = h;
+        }
+        modCount++;
+    }
+
+    /** the rank of the task at a position, as computed when it was added */
+    public float rank(final int i) {
+        if (i >= size) {
+            throw new IndexOutOfBoundsException(i + " of " + size);
+        }
+        return ranks[i];
+    }
+
+    /** view of the k tasks of the highest ranks, or of all if there are fewer */
+    public List<Task> top(final int k) {
+        return subList(0, Math.min(k, size));
+    }
+
+    @Override
+    public Task get(final int i) {
+        if (i >= size) {
+            throw new IndexOutOfBoundsException(i + " of " + size);
+        }
+        return tasks[i];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(final int i, final Task t) {
+        if (i > size || i < 0) {
+            throw new IndexOutOfBoundsException(i + " of " + size);
+        }
+        insert(i, t, rankBelief(t.sentence, rankTruthExpectation), hash(t.sentence));
+    }
+
+    @Override
+    public Task remove(final int i) {
+        final Task t = get(i);
+        final int moved = size - i - 1;
+        System.arraycopy(tasks, i + 1, tasks, i, moved);
+        System.arraycopy(ranks, i + 1, ranks, i, moved);
+        System.arraycopy(hashes, i + 1, hashes, i, moved);
+        tasks[--size] = null;
+        modCount++;
+        return t;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(tasks, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+}
@@ -0,0 +1,269 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.storage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import nars.entity.Concept;
+import nars.io.events.EventEmitter.EventObserver;
+import nars.io.events.Events;
+import nars.io.events.OutputHandler.ERR;
+import nars.language.Term;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Incremental checkpoints of a Memory into a directory.
+ * <p>
+ * The first checkpoint is a full Snapshot. The following ones are deltas
+ * which contain the concepts marked dirty since the previous checkpoint, the
+ * terms of the concepts which were forgotten, and the task bags of memory.
+ * Each delta also rewrites the concepts of one of a number of slots, by the
+ * hash of their term, so within that number of checkpoints every concept is
+ * written again. Older files are not needed anymore then and are deleted:
+ * compaction is spread over the deltas, and restoring replays at most that
+ * number of files.
+ * <p>
+ * A checkpoint is encoded on the thread of the reasoner between its cycles,
+ * into a buffer which is written to disk by a background thread, so the
+ * reasoner only pauses for the encoding of the changed concepts. Files
+ * appear under their name only when they are complete.
+ * <p>
+ * A task shared by concepts is written with each concept which refers to it,
+ * so a concept which did not change since its last checkpoint is restored
+ * with its tasks as they were when it was written. The concepts of a delta
+ * are put back after the other concepts of their level, so their order
+ * within the levels of the bag is not kept.
+ */
+public class Checkpoint implements EventObserver, Closeable {
+
+    static final String BASE = ".snapshot", DELTA = ".delta", PARTIAL = ".tmp";
+
+    public final Memory memory;
+    public final Path dir;
+
+    /** cycles between the checkpoints taken on Events.CyclesEnd, 0 to checkpoint only on request */
+    public final int period;
+
+    /** checkpoints within which every concept is written again */
+    public final int window;
+
+    /** terms of the concepts which were forgotten since the last checkpoint */
+    private final Set<Term> removed = new HashSet<>();
+
+    private final ExecutorService writer;
+
+    private long sequence;
+    /** sequence number of the first checkpoint needed to restore the last one */
+    private long from;
+    private boolean full = true;
+    private long lastTime;
+    private volatile IOException failure;
+
+    /** concepts written, size in bytes and pause of the reasoner in nanoseconds of the last checkpoint */
+    public int lastConcepts;
+    public long lastSize, lastPause;
+
+    public Checkpoint(final Memory memory, final Path dir, final int period, final int window) throws IOException {
+        this.memory = memory;
+        this.dir = Files.createDirectories(dir);
+        this.period = period;
+        this.window = window;
+        this.lastTime = memory.time();
+        for (final long s : files(dir).keySet()) {
+            sequence = Math.max(sequence, s);
+        }
+        this.writer = Executors.newSingleThreadExecutor(r -> {
+            final Thread t = new Thread(r, "Checkpoint");
+            t.setDaemon(true);
+            return t;
+        });
+        memory.event.set(this, true, Events.ConceptForget.class, Events.ResetEnd.class, Events.CyclesEnd.class);
+    }
+
+    @Override
+    public void event(final Class event, final Object[] args) {
+        if (event == Events.ConceptForget.class) {
+            removed.add(((Concept) args[0]).term);
+        } else if (event == Events.ResetEnd.class) {
+            full = true;
+            removed.clear();
+        } else if (event == Events.CyclesEnd.class && period > 0 && memory.time() - lastTime >= period) {
+            try {
+                checkpoint();
+            } catch (IOException e) {
+                memory.emit(ERR.class, e);
+            }
+        }
+    }
+
+    /**
+     * Takes a checkpoint of memory, which has to be between its cycles. The
+     * file is written in the background; a failure of a previous write is
+     * thrown here, and the next checkpoint is a full snapshot then.
+     *
+     * @return the sequence number of the checkpoint
+     */
+    public synchronized long checkpoint() throws IOException {
+        final IOException e = failure;
+        if (e != null) {
+            failure = null;
+            full = true;
+            throw e;
+        }
+        final long start = System.nanoTime();
+        final long s = sequence + 1;
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        final boolean base = full;
+        if (base) {
+            int n = 0;
+            for (final Concept c : memory.concepts) {
+                c.dirty = false;
+                n++;
+            }
+            lastSize = Snapshot.write(memory, Channels.newChannel(bytes));
+            lastConcepts = n;
+            from = s;
+            full = false;
+        } else {
+            final int slot = (int) (s % window);
+            final List<Concept> changed = new ArrayList<>();
+            for (final Concept c : memory.concepts) {
+                if (c.dirty || Math.floorMod(c.term.hashCode(), window) == slot) {
+                    c.dirty = false;
+                    changed.add(c);
+                }
+            }
+            final List<Term> gone = new ArrayList<>(removed.size());
+            for (final Term t : removed) {
+                if (memory.concepts.get(t) == null) {
+                    gone.add(t);
+                }
+            }
+            from = Math.max(from, s - window + 1);
+            lastSize = Snapshot.writeDelta(memory, from, changed, gone, Channels.newChannel(bytes));
+            lastConcepts = changed.size();
+        }
+        removed.clear();
+        lastTime = memory.time();
+        sequence = s;
+        final long needed = from;
+        final byte[] data = bytes.toByteArray();
+        writer.execute(() -> write(s, base, needed, data));
+        lastPause = System.nanoTime() - start;
+        return s;
+    }
+
+    private void write(final long s, final boolean base, final long needed, final byte[] data) {
+        try {
+            final Path file = dir.resolve(name(s, base));
+            final Path partial = dir.resolve(file.getFileName() + PARTIAL);
+            try (FileChannel channel = FileChannel.open(partial, CREATE, WRITE, TRUNCATE_EXISTING)) {
+                final ByteBuffer b = ByteBuffer.wrap(data);
+                while (b.hasRemaining()) {
+                    channel.write(b);
+                }
+                channel.force(true);
+            }
+            Files.move(partial, file, ATOMIC_MOVE);
+            for (final Path old : files(dir).headMap(needed).values()) {
+                Files.deleteIfExists(old);
+            }
+        } catch (IOException e) {
+            failure = e;
+        }
+    }
+
+    /** waits until the checkpoints taken so far are on disk */
+    public void sync() throws IOException {
+        try {
+            writer.submit(() -> { }).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (ExecutionException e) {
+            throw new IOException(e.getCause());
+        }
+        final IOException e = failure;
+        if (e != null) {
+            failure = null;
+            full = true;
+            throw e;
+        }
+    }
+
+    /** stops taking checkpoints and waits for the pending ones to be written */
+    @Override
+    public void close() throws IOException {
+        memory.event.set(this, false, Events.ConceptForget.class, Events.ResetEnd.class, Events.CyclesEnd.class);
+        try {
+            sync();
+        } finally {
+            writer.shutdown();
+        }
+    }
+
+    /**
+     * Restores memory from the checkpoints in a directory, by replaying the
+     * files needed for the last checkpoint whose files are all there. The
+     * memory has to have the operators of the checkpoints registered, as the
+     * memory of a new NAR.
+     *
+     * @return the sequence number of the checkpoint restored
+     */
+    public static long restore(final Path dir, final Memory memory) throws IOException {
+        final TreeMap<Long, Path> files = files(dir);
+        for (final long s : files.descendingKeySet()) {
+            long from = Snapshot.from(files.get(s));
+            if (from < 0) {
+                from = s;
+            }
+            if (files.subMap(from, true, s, true).size() == s - from + 1) {
+                for (final Path f : files.subMap(from, true, s, true).values()) {
+                    Snapshot.read(f, memory, f == files.get(from));
+                }
+                return s;
+            }
+        }
+        throw new IOException("No complete checkpoint in " + dir);
+    }
+
+    static String name(final long sequence, final boolean base) {
+        return String.format("%016d", sequence) + (base ? BASE : DELTA);
+    }
+
+    /** the complete checkpoint files of a directory by their sequence number */
+    static TreeMap<Long, Path> files(final Path dir) throws IOException {
+        final TreeMap<Long, Path> files = new TreeMap<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "????????????????{" + BASE + "," + DELTA + "}")) {
+            for (final Path f : stream) {
+                final String name = f.getFileName().toString();
+                try {
+                    files.put(Long.parseLong(name.substring(0, 16)), f);
+                } catch (NumberFormatException e) {
+                    //not a checkpoint
+                }
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,514 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.storage;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import nars.entity.Item;
+import nars.main.Parameters;
+
+/**
+ * Bag of at most MAX_CAPACITY items in a few arrays, for the task link and
+ * term link bags of which every concept has one.
+ * <p>
+ * The items are kept in slots of an array, with the level of each slot and
+ * the previous and next slot of the same level in parallel arrays of
+ * primitives, and a key is looked up in an open addressing table of slots. The
+ * arrays grow with the number of items up to the capacity. Items are selected,
+ * displaced and iterated exactly as by LevelBag with the same levels and
+ * capacity: the levels are visited in the order of the Distributor, and the
+ * items of a level first in first out.
+ */
+public class CompactBag<E extends Item<K>,K> extends Bag<E,K> implements Serializable {
+
+    /** largest capacity of a compact bag */
+    public static final int MAX_CAPACITY = 256;
+    /** most levels of a compact bag */
+    public static final int MAX_LEVELS = Byte.MAX_VALUE;
+
+    private static final Object[] NONE = new Object[0];
+
+    /**
+     * priority levels
+     */
+    public final int levels;
+    /**
+     * firing threshold
+     */
+    public final int fireCompleteLevelThreshold;
+
+    /**
+     * shared DISTRIBUTOR that produce the probability distribution
+     */
+    final short[] DISTRIBUTOR;
+    final int distributorLength;
+
+    int capacity;
+    int size = 0;
+
+    /** the items, in the slots below size */
+    private Object[] items = NONE;
+    /** level of the item of each slot */
+    private byte[] itemLevel = new byte[0];
+    /** priority of the item of each slot when inserted, so the mass can be corrected exactly on removal */
+    private float[] itemPriority = new float[0];
+    /** previous and next slot of the same level, -1 at the ends */
+    private short[] prev = new short[0], next = new short[0];
+
+    /** first and last slot of each level, -1 if it is empty */
+    private final short[] first, last;
+    private final short[] levelSize;
+
+    /** slot + 1 of the items by the hash of their key, 0 if free; linear probing */
+    private short[] table = new short[0];
+
+    /**
+     * current sum of occupied level
+     */
+    private float mass;
+    /**
+     * index to get next level, kept in individual objects
+     */
+    int levelIndex;
+    /**
+     * current take out level
+     */
+    int currentLevel;
+    /**
+     * maximum number of items to be taken out at current level
+     */
+    int currentCounter;
+
+    public CompactBag(final int levels, final int capacity) {
+        this(levels, capacity, (int) (Parameters.BAG_THRESHOLD * levels));
+    }
+
+    /** thresholdLevel = 0 disables "fire level completely" threshold effect */
+    public CompactBag(final int levels, final int capacity, final int thresholdLevel) {
+        if (capacity > MAX_CAPACITY || levels > MAX_LEVELS) {
+            throw new IllegalArgumentException("CompactBag of " + capacity + " items in " + levels + " levels");
+        }
+        this.levels = levels;
+        this.fireCompleteLevelThreshold = thresholdLevel;
+        this.capacity = capacity;
+        first = new short[levels];
+        last = new short[levels];
+        levelSize = new short[levels];
+        DISTRIBUTOR = Distributor.get(this.levels).order;
+        distributorLength = DISTRIBUTOR.length;
+        clear();
+    }
+
+    @Override
+    public final void clear() {
+        Arrays.fill(items, null);
+        Arrays.fill(table, (short) 0);
+        Arrays.fill(first, (short) -1);
+        Arrays.fill(last, (short) -1);
+        Arrays.fill(levelSize, (short) 0);
+        size = 0;
+        currentLevel = levels - 1;
+        levelIndex = capacity % levels; // so that different bags start at different point
+        mass = 0;
+        currentCounter = 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    private E item(final int slot) {
+        return (E) items[slot];
+    }
+
+    private static int hash(final Object key) {
+        final int h = key.hashCode();
+        return h ^ (h >>> 16);
+    }
+
+    /** position of a key in the table, or of the free entry where it would go */
+    private int position(final Object key) {
+        final int mask = table.length - 1;
+        int i = hash(key) & mask;
+        int s;
+        while ((s = table[i]) != 0) {
+            if (key.equals(item(s - 1).name())) {
+                return i;
+            }
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    /** empties an entry of the table, moving the entries after it which would not be found otherwise */
+    private void unindex(int i) {
+        final int mask = table.length - 1;
+        int j = i;
+        while (true) {
+            j = (j + 1) & mask;
+            final int s = table[j];
+            if (s == 0) {
+                break;
+            }
+            final int home = hash(item(s - 1).name()) & mask;
+            //move the entry at j to i unless its home lies cyclically in (i, j]
+            if ((i < j) ? (home <= i || home > j) : (home <= i && home > j)) {
+                table[i] = table[j];
+                i = j;
+            }
+        }
+        table[i] = 0;
+    }
+
+    @Override
+    public E get(final K key) {
+        if (size == 0) {
+            return null;
+        }
+        final int s = table[position(key)];
+        return s == 0 ? null : item(s - 1);
+    }
+
+    /** makes room for one more slot, the arrays growing with the items */
+    private void ensureSlot() {
+        if (size < items.length) {
+            return;
+        }
+        final int n = Math.min(capacity, Math.max(4, items.length * 2));
+        items = Arrays.copyOf(items, n);
+        itemLevel = Arrays.copyOf(itemLevel, n);
+        itemPriority = Arrays.copyOf(itemPriority, n);
+        prev = Arrays.copyOf(prev, n);
+        next = Arrays.copyOf(next, n);
+        if (table.length < 2 * n) {
+            table = new short[Integer.highestOneBit(2 * n - 1) << 1];
+            for (int s = 0; s < size; s++) {
+                table[position(item(s).name())] = (short) (s + 1);
+            }
+        }
+    }
+
+    /**
+     * Decide the put-in level according to priority
+     *
+     * @param item The Item to put in
+     * @return The put-in level
+     */
+    private int getLevel(final E item) {
+        final float fl = item.getPriority() * levels;
+        final int level = (int) Math.ceil(fl) - 1;
+        if (level < 0) return 0;
+        if (level >= levels) return levels-1;
+        return level;
+    }
+
+    @Override
+    protected E addItem(final E newItem) {
+        E oldItem = null;
+        final int inLevel = getLevel(newItem);
+        if (size >= capacity) {      // the bag will be full after the next
+            int outLevel = 0;
+            while (levelSize[outLevel] == 0) {
+                outLevel++;
+            }
+            if (outLevel > inLevel) {           // ignore the item and exit
+                return newItem;
+            } else {                            // remove an old item in the lowest non-empty level
+                oldItem = takeOutFirst(outLevel);
+            }
+        }
+        ensureSlot();
+        final int s = size++;
+        items[s] = newItem;
+        append(s, inLevel);
+        table[position(newItem.name())] = (short) (s + 1);
+        itemPriority[s] = newItem.getPriority();
+        mass += itemPriority[s];
+        return oldItem;
+    }
+
+    /** appends a slot to a level, FIFO */
+    private void append(final int s, final int level) {
+        itemLevel[s] = (byte) level;
+        prev[s] = last[level];
+        next[s] = -1;
+        if (last[level] == -1) {
+            first[level] = (short) s;
+        } else {
+            next[last[level]] = (short) s;
+        }
+        last[level] = (short) s;
+        levelSize[level]++;
+    }
+
+    /** removes a slot from its level */
+    private void unlink(final int s) {
+        final int l = itemLevel[s];
+        if (prev[s] == -1) {
+            first[l] = next[s];
+        } else {
+            next[prev[s]] = next[s];
+        }
+        if (next[s] == -1) {
+            last[l] = prev[s];
+        } else {
+            prev[next[s]] = prev[s];
+        }
+        levelSize[l]--;
+    }
+
+    /** appends a slot to the level of the current priority of its item */
+    private void reappend(final int s) {
+        unlink(s);
+        append(s, getLevel(item(s)));
+        final float priority = item(s).getPriority();
+        mass += priority - itemPriority[s];
+        itemPriority[s] = priority;
+    }
+
+    /** takes the item of a slot out, moving the item of the last slot into it */
+    private E remove(final int s, final int tablePosition) {
+        final E e = item(s);
+        unindex(tablePosition);
+        unlink(s);
+        mass -= itemPriority[s];
+
+        final int m = --size;
+        if (s != m) {
+            final E moved = item(m);
+            items[s] = moved;
+            itemLevel[s] = itemLevel[m];
+            itemPriority[s] = itemPriority[m];
+            prev[s] = prev[m];
+            next[s] = next[m];
+            if (prev[s] == -1) {
+                first[itemLevel[s]] = (short) s;
+            } else {
+                next[prev[s]] = (short) s;
+            }
+            if (next[s] == -1) {
+                last[itemLevel[s]] = (short) s;
+            } else {
+                prev[next[s]] = (short) s;
+            }
+            table[position(moved.name())] = (short) (s + 1);
+        }
+        items[m] = null;
+        return e;
+    }
+
+    private E takeOutFirst(final int level) {
+        final int s = first[level];
+        if (s == -1) {
+            throw new RuntimeException("Attempt to remove item from empty level: " + level);
+        }
+        return remove(s, position(item(s).name()));
+    }
+
+    @Override
+    public E take(final K name) {
+        if (size == 0) {
+            return null;
+        }
+        final int p = position(name);
+        final int s = table[p];
+        return s == 0 ? null : remove(s - 1, p);
+    }
+
+    /**
+     * Merges an item into the one of the same key in place, which is then
+     * moved like by take and addItem, or inserts it
+     */
+    @Override
+    public E putIn(final E newItem) {
+        final int s = size == 0 ? 0 : table[position(newItem.name())];
+        if (s == 0) {
+            adopt(newItem);
+            return addItem(newItem);
+        }
+        items[s - 1] = item(s - 1).merge(newItem);
+        adopt(item(s - 1));
+        reappend(s - 1);
+        return null;
+    }
+
+    /** slot the next rebalance starts after */
+    private int rebalanceSlot = 0;
+
+    @Override
+    public int rebalance(final int batch) {
+        if (forgetting == null) {
+            return 0;
+        }
+        int moved = 0;
+        for (int n = Math.min(batch, size); n > 0; n--) {
+            if (++rebalanceSlot >= size) {
+                rebalanceSlot = 0;
+            }
+            if (getLevel(item(rebalanceSlot)) != itemLevel[rebalanceSlot]) {
+                reappend(rebalanceSlot);
+                moved++;
+            }
+        }
+        return moved;
+    }
+
+    @Override
+    public boolean reprioritize(final E item) {
+        final int s = size == 0 ? 0 : table[position(item.name())];
+        if (s == 0) {
+            return false;
+        }
+        reappend(s - 1);
+        return true;
+    }
+
+    /** look for a non-empty level */
+    protected void nextNonEmptyLevel() {
+        int cl;
+        do {
+        } while (levelSize[cl = DISTRIBUTOR[(levelIndex++) % distributorLength]] == 0);
+        currentLevel = cl;
+        if (currentLevel < fireCompleteLevelThreshold) { // for dormant levels, take one item
+            currentCounter = 1;
+        } else {                  // for active levels, take all current items
+            currentCounter = levelSize[currentLevel];
+        }
+    }
+
+    @Override
+    public E takeNext() {
+        if (size == 0) {
+            return null; // empty bag
+        }
+        if (levelSize[currentLevel] == 0 || (currentCounter == 0)) { // done with the current level
+            nextNonEmptyLevel();
+        }
+        final E selected = takeOutFirst(currentLevel); // take out the first item in the level
+        currentCounter--;
+        return selected;
+    }
+
+    @Override
+    public E peekNext() {
+        if (size == 0)
+            return null; // empty bag
+        final E e = takeNext();
+        putIn(e);
+        return e;
+    }
+
+    public int getLevelSize(final int level) {
+        return levelSize[level];
+    }
+
+    @Override
+    public float getMass() {
+        return mass;
+    }
+
+    @Override
+    public float getAveragePriority() {
+        if (size == 0) {
+            return 0.01f;
+        }
+        final float f = mass / size;
+        if (f > 1) {
+            return 1.0f;
+        }
+        return f;
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public List<E> setCapacity(final int capacity) {
+        if (capacity > MAX_CAPACITY) {
+            throw new IllegalArgumentException("CompactBag of " + capacity + " items");
+        }
+        this.capacity = capacity;
+        final List<E> removed = new ArrayList<>(Math.max(0, size - capacity));
+        while (size > capacity) {
+            int outLevel = 0;
+            while (levelSize[outLevel] == 0) {
+                outLevel++;
+            }
+            removed.add(takeOutFirst(outLevel));
+        }
+        if (items.length > capacity) {
+            items = Arrays.copyOf(items, capacity);
+            itemLevel = Arrays.copyOf(itemLevel, capacity);
+            itemPriority = Arrays.copyOf(itemPriority, capacity);
+            prev = Arrays.copyOf(prev, capacity);
+            next = Arrays.copyOf(next, capacity);
+        }
+        return removed;
+    }
+
+    @Override
+    public Set<K> keySet() {
+        final Set<K> keys = new LinkedHashSet<>(size * 2);
+        for (int s = 0; s < size; s++) {
+            keys.add(item(s).name());
+        }
+        return keys;
+    }
+
+    /** a copy of the items */
+    @Override
+    public List<E> values() {
+        final List<E> l = new ArrayList<>(size);
+        for (int s = 0; s < size; s++) {
+            l.add(item(s));
+        }
+        return l;
+    }
+
+    /** iterates the levels from the highest, the items of a level in the order they are taken out */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            int l = levels - 1;
+            int s = first[l];
+
+            @Override
+            public boolean hasNext() {
+                while (s == -1) {
+                    if (--l < 0) {
+                        return false;
+                    }
+                    s = first[l];
+                }
+                return true;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final E e = item(s);
+                s = next[s];
+                return e;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+}
@@ -0,0 +1,437 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.storage;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.DoubleAdder;
+import nars.entity.Item;
+import nars.main.Parameters;
+
+/**
+ * Thread-safe variant of {@link LevelBag} which can be used by several threads
+ * at once without locking.
+ * <p>
+ * Items are distributed into the same priority levels and selected with the
+ * same DISTRIBUTOR as in LevelBag, but the name table is a ConcurrentHashMap
+ * and each level is a lock-free queue. Queue entries are slots which are
+ * claimed exactly once, either by takeNext or by take(key); a slot claimed by
+ * take(key) stays in its queue until it is polled or the level is purged.
+ * <p>
+ * The current level and the number of items left to take out of it are kept
+ * in one atomic word, so concurrent takeNext calls share the "fire level
+ * completely" policy of LevelBag. Under contention the capacity may be
+ * exceeded by at most the number of concurrent writers.
+ */
+public class ConcurrentLevelBag<E extends Item<K>,K> extends Bag<E,K> implements Serializable {
+
+    /** queue entry of an item */
+    static final class Slot<E> extends AtomicBoolean {
+        final E item;
+        final int level;
+        /** priority when inserted, so the mass can be corrected exactly on removal */
+        final float priority;
+
+        Slot(final E item, final int level, final float priority) {
+            this.item = item;
+            this.level = level;
+            this.priority = priority;
+        }
+
+        /** @return true for the single caller which removes the item */
+        boolean claim() {
+            return compareAndSet(false, true);
+        }
+
+        boolean removed() {
+            return get();
+        }
+    }
+
+    /**
+     * priority levels
+     */
+    public final int levels;
+    /**
+     * firing threshold
+     */
+    public final int fireCompleteLevelThreshold;
+
+    /**
+     * shared DISTRIBUTOR that produce the probability distribution
+     */
+    final short[] DISTRIBUTOR;
+
+    /**
+     * mapping from key to the slot of the item
+     */
+    final ConcurrentHashMap<K, Slot<E>> nameTable;
+
+    /**
+     * queues of slots, for items on different level
+     */
+    final ConcurrentLinkedQueue<Slot<E>>[] level;
+
+    /**
+     * number of items in each level
+     */
+    final AtomicInteger[] levelSize;
+
+    /**
+     * number of removed slots still queued in each level
+     */
+    final AtomicInteger[] levelRemoved;
+
+    /**
+     * defined in different bags
+     */
+    volatile int capacity;
+
+    final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * current sum of the priority of the items
+     */
+    final DoubleAdder mass = new DoubleAdder();
+
+    /**
+     * index to get next level
+     */
+    final AtomicInteger levelIndex = new AtomicInteger();
+
+    /**
+     * current take out level (high word) and number of items still to take out of it (low word)
+     */
+    final AtomicLong current = new AtomicLong();
+
+    public ConcurrentLevelBag(int levels, int capacity) {
+        this(levels, capacity, (int) (Parameters.BAG_THRESHOLD * levels));
+    }
+
+    /** thresholdLevel = 0 disables "fire level completely" threshold effect */
+    public ConcurrentLevelBag(int levels, int capacity, int thresholdLevel) {
+        this.levels = levels;
+        this.fireCompleteLevelThreshold = thresholdLevel;
+        this.capacity = capacity;
+        nameTable = new ConcurrentHashMap<>(capacity);
+        level = new ConcurrentLinkedQueue[levels];
+        levelSize = new AtomicInteger[levels];
+        levelRemoved = new AtomicInteger[levels];
+        for (int i = 0; i < levels; i++) {
+            level[i] = new ConcurrentLinkedQueue<>();
+            levelSize[i] = new AtomicInteger();
+            levelRemoved[i] = new AtomicInteger();
+        }
+        DISTRIBUTOR = Distributor.get(this.levels).order;
+        clear();
+    }
+
+    private static long cursor(final int level, final int counter) {
+        return (((long) level) << 32) | (counter & 0xffffffffL);
+    }
+
+    @Override
+    public final void clear() {
+        for (int i = 0; i < levels; i++) {
+            level[i].clear();
+            levelSize[i].set(0);
+            levelRemoved[i].set(0);
+        }
+        nameTable.clear();
+        size.set(0);
+        mass.reset();
+        current.set(cursor(levels - 1, 0));
+        levelIndex.set(capacity % levels); // so that different bags start at different point
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public Set<K> keySet() {
+        return nameTable.keySet();
+    }
+
+    @Override
+    public int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public List<E> setCapacity(final int capacity) {
+        this.capacity = capacity;
+        final List<E> removed = new ArrayList<>(Math.max(0, size() - capacity));
+        while (size() > capacity) {
+            int outLevel = 0;
+            while ((outLevel < levels) && (levelSize[outLevel].get() == 0)) {
+                outLevel++;
+            }
+            if (outLevel == levels) {
+                break; //emptied concurrently
+            }
+            final E e = takeOutFirst(outLevel);
+            if (e != null) {
+                removed.add(e);
+            }
+        }
+        return removed;
+    }
+
+    @Override
+    public float getMass() {
+        return (float) mass.sum();
+    }
+
+    /**
+     * Get the average priority of Items
+     *
+     * @return The average priority of Items in the bag
+     */
+    @Override
+    public float getAveragePriority() {
+        final int s = size();
+        if (s == 0) {
+            return 0.01f;
+        }
+        float f = getMass() / s;
+        if (f > 1) {
+            return 1.0f;
+        }
+        return f;
+    }
+
+    @Override
+    public E get(final K key) {
+        final Slot<E> s = nameTable.get(key);
+        return s != null ? s.item : null;
+    }
+
+    public int getLevelSize(final int l) {
+        return levelSize[l].get();
+    }
+
+    /**
+     * Decide the put-in level according to priority
+     *
+     * @param item The Item to put in
+     * @return The put-in level
+     */
+    private int getLevel(final float priority) {
+        final float fl = priority * levels;
+        final int l = (int) Math.ceil(fl) - 1;
+        if (l < 0) return 0;
+        if (l >= levels) return levels-1;
+        return l;
+    }
+
+    /** look for a non-empty level, or -1 if all levels were found empty */
+    private int nextNonEmptyLevel() {
+        final int n = DISTRIBUTOR.length;
+        for (int i = 0; i < n; i++) {
+            final int l = DISTRIBUTOR[(levelIndex.getAndIncrement() & Integer.MAX_VALUE) % n];
+            if (levelSize[l].get() > 0) {
+                return l;
+            }
+        }
+        return -1;
+    }
+
+    /** accounts a claimed slot as removed from the bag */
+    private E removed(final Slot<E> s, final boolean stillQueued) {
+        levelSize[s.level].decrementAndGet();
+        if (stillQueued) {
+            levelRemoved[s.level].incrementAndGet();
+        }
+        size.decrementAndGet();
+        mass.add(-s.priority);
+        return s.item;
+    }
+
+    /** polls the next unclaimed slot of a level and removes its item, or returns null if there is none */
+    private E takeOutFirst(final int l) {
+        Slot<E> s;
+        while ((s = level[l].poll()) != null) {
+            if (s.claim()) {
+                nameTable.remove(s.item.name(), s);
+                return removed(s, false);
+            }
+            levelRemoved[l].decrementAndGet();
+        }
+        return null;
+    }
+
+    @Override
+    public E takeNext() {
+        while (size() > 0) {
+            final long c = current.get();
+            int l = (int) (c >>> 32);
+            final int counter = (int) c;
+            if ((counter <= 0) || (levelSize[l].get() == 0)) { // done with the current level
+                l = nextNonEmptyLevel();
+                if (l == -1) {
+                    continue;
+                }
+                final int n = (l < fireCompleteLevelThreshold) ? 1 : levelSize[l].get(); // for dormant levels, take one item, for active levels all current items
+                if (!current.compareAndSet(c, cursor(l, n - 1))) {
+                    continue;
+                }
+            } else if (!current.compareAndSet(c, cursor(l, counter - 1))) {
+                continue;
+            }
+            final E selected = takeOutFirst(l);
+            if (selected != null) {
+                return selected;
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public E peekNext() {
+        final E e = takeNext();
+        if (e != null) {
+            putIn(e);
+        }
+        return e;
+    }
+
+    @Override
+    public E take(final K key) {
+        final Slot<E> s = nameTable.remove(key);
+        if ((s == null) || !s.claim()) {
+            return null;
+        }
+        return removed(s, true);
+    }
+
+    /**
+     * Insert an item into the itemTable, and return the overflow
+     *
+     * @param newItem The Item to put in
+     * @return null if nothing overflowed, non-null if an overflow Item, which
+     * may be the attempted input item (in which case it was not inserted)
+     */
+    @Override
+    protected E addItem(final E newItem) {
+        if (newItem == null) {
+            throw new RuntimeException("Bag requires non-null items");
+        }
+        final float priority = newItem.getPriority();
+        final int inLevel = getLevel(priority);
+        E oldItem = null;
+        while (size() >= capacity) {
+            int outLevel = 0;
+            while ((outLevel < levels) && (levelSize[outLevel].get() == 0)) {
+                outLevel++;
+            }
+            if (outLevel > inLevel) {           // ignore the item and exit
+                return newItem;
+            }
+            oldItem = takeOutFirst(outLevel);   // remove an old item in the lowest non-empty level
+            if (oldItem != null) {
+                break;
+            }
+        }
+
+        final Slot<E> s = new Slot<>(newItem, inLevel, priority);
+        size.incrementAndGet();
+        levelSize[inLevel].incrementAndGet();
+        mass.add(priority);
+        //the name must be mapped before the slot can be polled, otherwise takeNext could not unmap it
+        final Slot<E> displaced = nameTable.put(newItem.name(), s);
+        level[inLevel].add(s);
+        if ((displaced != null) && displaced.claim()) { // concurrent insertion of the same key
+            removed(displaced, true);
+            if ((oldItem == null) && (displaced.item != newItem)) {
+                oldItem = displaced.item;
+            }
+        }
+        purge(inLevel);
+        return oldItem;
+    }
+
+    /** drops removed slots from a level once they outnumber its items */
+    private void purge(final int l) {
+        final int r = levelRemoved[l].get();
+        if ((r > 16) && (r > levelSize[l].get())) {
+            if (levelRemoved[l].compareAndSet(r, 0)) {
+                final Iterator<Slot<E>> i = level[l].iterator();
+                while (i.hasNext()) {
+                    if (i.next().removed()) {
+                        i.remove();
+                    }
+                }
+            }
+        }
+    }
+
+    @Override
+    public Iterable<E> values() {
+        return this;
+    }
+
+    /** iterates all items from the highest to the lowest level */
+    @Override
+    public Iterator<E> iterator() {
+        return new Iterator<E>() {
+            int l = levels - 1;
+            Iterator<Slot<E>> levelIterator = level[l].iterator();
+            E next;
+
+            @Override
+            public boolean hasNext() {
+                while (next == null) {
+                    while (!levelIterator.hasNext()) {
+                        if (--l < 0) {
+                            return false;
+                        }
+                        levelIterator = level[l].iterator();
+                    }
+                    final Slot<E> s = levelIterator.next();
+                    if (!s.removed()) {
+                        next = s.item;
+                    }
+                }
+                return true;
+            }
+
+            @Override
+            public E next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                final E e = next;
+                next = null;
+                return e;
+            }
+
+            @Override
+            public void remove() {
+                throw new UnsupportedOperationException();
+            }
+        };
+    }
+
+    public int numEmptyLevels() {
+        int empty = 0;
+        for (int i = 0; i < levels; i++) {
+            if (levelSize[i].get() == 0) {
+                empty++;
+            }
+        }
+        return empty;
+    }
+}
@@ -21,8 +21,8 @@
 package nars.storage;
 
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * A pseudo-random number generator, used in Bag.
@@ -34,12 +34,16 @@ public final class Distributor {
     /** Capacity of the array */
     public final int capacity;
 
-    private final static Map<Integer,Distributor> distributors = new HashMap(8);
+    /** distributors by range, shared by the bags of all threads */
+    private final static ConcurrentMap<Integer,Distributor> distributors = new ConcurrentHashMap(8);
     public static Distributor get(int range) {
         Distributor d = distributors.get(range);
         if (d==null) {
             d = new Distributor(range);
-            distributors.put(range, d);
+            final Distributor existing = distributors.putIfAbsent(range, d);
+            if (existing != null) {
+                d = existing;
+            }
         }
         return d;
     }
@@ -0,0 +1,39 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.storage;
+
+import java.io.Serializable;
+import nars.language.Interval.PortableDouble;
+
+/**
+ * Lazy forgetting of the items of a bag: their priorities decay with the time
+ * of a memory, at the forgetting rate of the bag, and are evaluated when they
+ * are read instead of each time the items are put back.
+ * <p>
+ * The priority above the re-scaled quality of a budget is multiplied by its
+ * durability once per forget cycles, see BudgetFunctions.decay, so all the
+ * items of a bag decay alike whether they are selected or not, and time can
+ * pass without cycles at no cost.
+ */
+public class Forgetting implements Serializable {
+
+    public final Memory memory;
+    /** forgetting rate, in durations */
+    public final PortableDouble durations;
+
+    public Forgetting(final Memory memory, final PortableDouble durations) {
+        this.memory = memory;
+        this.durations = durations;
+    }
+
+    public long time() {
+        return memory.time();
+    }
+
+    /** cycles in which the priority above the quality decays by the durability */
+    public float cycles() {
+        return memory.cycles(durations);
+    }
+}
@@ -21,12 +21,13 @@
 package nars.storage;
 
 import java.io.Serializable;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import nars.main.Parameters;
@@ -38,6 +39,21 @@ import nars.entity.Item;
  */
 public class LevelBag<E extends Item<K>,K> extends Bag<E,K> implements Serializable {
 
+    /** entry of an item in the name table */
+    static final class Slot<E> implements Serializable {
+        E item;
+        /** level the item is in, which its priority may not match anymore once its budget was changed in place */
+        int level;
+        /** priority when inserted, so the mass can be corrected exactly on removal */
+        float priority;
+
+        Slot(final E item, final int level, final float priority) {
+            this.item = item;
+            this.level = level;
+            this.priority = priority;
+        }
+    }
+
     /**
      * priority levels
      */
@@ -53,10 +69,9 @@ public class LevelBag<E extends Item<K>,K> extends Bag<E,K> implements Serializa
     final short[] DISTRIBUTOR;
 
     /**
-     * mapping from key to item
+     * mapping from key to the slot of the item
      */
-    //public final Set<E> nameTable;
-    public final Map<K, E> nameTable;
+    final Map<K, Slot<E>> nameTable;
 
     /**
      * array of lists of items, for items on different level
@@ -66,7 +81,7 @@ public class LevelBag<E extends Item<K>,K> extends Bag<E,K> implements Serializa
     /**
      * defined in different bags
      */
-    final int capacity;
+    int capacity;
     /**
      * current sum of occupied level
      */
@@ -247,16 +262,20 @@ public class LevelBag<E extends Item<K>,K> extends Bag<E,K> implements Serializa
      */
     @Override
     public E get(final K key) {
-        return nameTable.get(key);
+        final Slot<E> s = nameTable.get(key);
+        return s == null ? null : s.item;
     }
 
     final int distributorLength;
     
     /** look for a non-empty level */
     protected void nextNonEmptyLevel() {
-        int cl = currentLevel;
-        do {                        
-        } while (levelEmpty[cl = DISTRIBUTOR[(levelIndex++) % distributorLength]]);
+        int cl;
+        do {
+            cl = DISTRIBUTOR[levelIndex];
+            //wrapped here, as a count it overflows in a long run of a bag of few items
+            levelIndex = (levelIndex + 1) % distributorLength;
+        } while (levelEmpty[cl]);
         currentLevel = cl;  
         if (currentLevel < fireCompleteLevelThreshold) { // for dormant levels, take one item
             currentCounter = 1;
@@ -306,36 +325,98 @@ public class LevelBag<E extends Item<K>,K> extends Bag<E,K> implements Serializa
     }
 
     @Override public E take(final K name) {
-        E oldItem = nameTable.remove(name);
-        if (oldItem == null) {
+        final Slot<E> s = nameTable.remove(name);
+        if (s == null) {
             return null;
         }
-        final int expectedLevel = getLevel(oldItem);
-        //TODO scan up/down iteratively, it is likely to be near where it was
-        if (!levelEmpty[expectedLevel]) {
-            if (level[expectedLevel].remove(oldItem)) {                
-                removeMass(oldItem);
-                return oldItem;
-            }            
-        }
-        for (int l = 0; l < levels; l++) {
-            if ((!levelEmpty[l]) && (l!=expectedLevel)) {
-                if (level[l].remove(oldItem)) {
-                    removeMass(oldItem);
-                    return oldItem;
+        //the level it was put in, whatever its priority is now
+        if (!level[s.level].remove(s.item) && Parameters.DEBUG) {
+            throw new RuntimeException("LevelBag inconsistency: " + nameTable.size() + "|" + sizeItems() + " Can not remove missing element " + s.item + " from " + this.getClass().getSimpleName());
+        }
+        mass -= s.priority;
+        return s.item;
+    }
+
+    /**
+     * Merges an item into the one of the same key in place, which is then
+     * moved like by take and addItem, or inserts it
+     */
+    @Override
+    public E putIn(final E newItem) {
+        final Slot<E> s = nameTable.get(newItem.name());
+        if (s == null) {
+            adopt(newItem);
+            return addItem(newItem);
+        }
+        level[s.level].remove(s.item);
+        s.item = (E) s.item.merge(newItem);
+        adopt(s.item);
+        append(s);
+        return null;
+    }
+
+    @Override
+    public boolean reprioritize(final E item) {
+        final Slot<E> s = nameTable.get(item.name());
+        if (s == null) {
+            return false;
+        }
+        level[s.level].remove(s.item);
+        append(s);
+        return true;
+    }
+
+    /** level being rebalanced, walked downward */
+    private int rebalanceLevel = 0;
+    /** items of that level which rebalance has not looked at yet */
+    private int rebalanceLeft = 0;
+
+    /**
+     * Looks at the items from the first of a level on, moving the misplaced
+     * ones and the others to the end of the level, which keeps the order in
+     * which its items are taken out; a level is continued by the next call
+     * when the batch ends in it.
+     */
+    @Override
+    public int rebalance(final int batch) {
+        if (forgetting == null) {
+            return 0;
+        }
+        int seen = 0, moved = 0;
+        for (int n = 0; (n <= levels) && (seen < batch); n++) {
+            if (rebalanceLeft == 0) {
+                if (--rebalanceLevel < 0) {
+                    rebalanceLevel = levels - 1;
                 }
+                rebalanceLeft = levelEmpty[rebalanceLevel] ? 0 : level[rebalanceLevel].size();
+            }
+            final int l = rebalanceLevel;
+            while ((rebalanceLeft > 0) && (seen < batch) && !levelEmpty[l]) {
+                final E e = level[l].removeFirst();
+                if (getLevel(e) != l) {
+                    append(nameTable.get(e.name()));
+                    moved++;
+                } else {
+                    level[l].add(e);
+                }
+                rebalanceLeft--;
+                seen++;
+            }
+            if (levelEmpty[l]) {
+                rebalanceLeft = 0;
             }
         }
-        //If it wasn't found, it probably was removed already.  So this check is probably not necessary
-            //search other levels for this item because it's not where we thought it was according to getLevel()
-        if (Parameters.DEBUG) {
-            int ns = nameTable.size();
-            int is = sizeItems();
-            if (ns == is)
-                return null;
-            throw new RuntimeException("LevelBag inconsistency: " + nameTable.size() + "|" + sizeItems() + " Can not remove missing element: size inconsistency" + oldItem + " from " + this.getClass().getSimpleName());
-        }
-        return oldItem;
+        return moved;
+    }
+
+    /** appends the item of a slot to the level of its current priority */
+    private void append(final Slot<E> s) {
+        final float priority = s.item.getPriority();
+        s.level = getLevel(s.item);
+        ensureLevelExists(s.level);
+        level[s.level].add(s.item);
+        mass += priority - s.priority;
+        s.priority = priority;
     }
 
     /**
@@ -375,8 +456,9 @@ public class LevelBag<E extends Item<K>,K> extends Bag<E,K> implements Serializa
         }
         ensureLevelExists(inLevel);
         level[inLevel].add(newItem);        // FIFO
-        nameTable.put(newItem.name(), newItem);        
-        addMass(newItem);
+        final float priority = newItem.getPriority();
+        nameTable.put(newItem.name(), new Slot<>(newItem, inLevel, priority));
+        mass += priority;
         return oldItem;
     }
 
@@ -395,8 +477,7 @@ public class LevelBag<E extends Item<K>,K> extends Bag<E,K> implements Serializa
     private E takeOutFirst(final int level) {
         final E selected = this.level[level].removeFirst();
         if (selected!=null) {
-            nameTable.remove(selected.name());
-            removeMass(selected);
+            mass -= nameTable.remove(selected.name()).priority;
         }
         else {
             throw new RuntimeException("Attempt to remove item from empty level: " + level);
@@ -404,13 +485,6 @@ public class LevelBag<E extends Item<K>,K> extends Bag<E,K> implements Serializa
         return selected;
     }
 
-    protected void removeMass(E item) {
-        mass -= item.getPriority();
-    }
-    protected void addMass(E item) {
-        mass += item.getPriority();
-    }
-
     /**
      * TODO refactor : paste from preceding method
      */
@@ -484,6 +558,20 @@ public class LevelBag<E extends Item<K>,K> extends Bag<E,K> implements Serializa
         return capacity;
     }
 
+    @Override
+    public List<E> setCapacity(final int capacity) {
+        this.capacity = capacity;
+        final List<E> removed = new ArrayList<>(Math.max(0, size() - capacity));
+        while (size() > capacity) {
+            int outLevel = 0;
+            while (levelEmpty[outLevel]) {
+                outLevel++;
+            }
+            removed.add(takeOutFirst(outLevel));
+        }
+        return removed;
+    }
+
     public Iterable<E> getLevel(final int i) {
         if (level[i] == null) {
             return Collections.EMPTY_LIST;
@@ -491,9 +579,14 @@ public class LevelBag<E extends Item<K>,K> extends Bag<E,K> implements Serializa
         return level[i];
     }
 
+    /** a copy of the items */
     @Override
-    public Collection<E> values() {
-        return nameTable.values();
+    public List<E> values() {
+        final List<E> l = new ArrayList<>(nameTable.size());
+        for (final Slot<E> s : nameTable.values()) {
+            l.add(s.item);
+        }
+        return l;
     }
 
     @Override
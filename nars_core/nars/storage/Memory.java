@@ -23,6 +23,9 @@ package nars.storage;
 import nars.control.ConceptProcessing;
 import nars.io.events.Events;
 import nars.io.events.EventEmitter;
+import nars.io.events.EventEmitter.Channel;
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
 import java.util.ArrayDeque;
 import java.util.Arrays;
@@ -39,6 +42,8 @@ import nars.io.events.Events.ResetStart;
 import nars.io.events.Events.TaskRemove;
 import nars.control.DerivationContext;
 import nars.control.GeneralInferenceControl;
+import nars.control.ParallelInferenceControl;
+import nars.control.Profiler;
 import nars.control.TemporalInferenceControl;
 import nars.plugin.mental.Emotions;
 import nars.entity.BudgetValue;
@@ -55,6 +60,7 @@ import nars.io.events.OutputHandler.OUT;
 import nars.io.Symbols;
 import nars.language.Tense;
 import nars.language.Term;
+import nars.language.TermStore;
 import nars.operator.Operation;
 import nars.operator.Operator;
 import nars.language.CompoundTerm;
@@ -84,16 +90,99 @@ public class Memory implements Serializable, Iterable<Concept> {
     public Task lastDecision = null;
     public boolean allowExecution = true;
 
-    public static long randomSeed = 1;
-    public static Random randomNumber = new Random(randomSeed);
-    public static void resetStatic() {
-        randomNumber.setSeed(randomSeed);    
+    /* seed of the random number generator, which is reseeded with it on reset */
+    public long randomSeed = 1;
+    public final Random randomNumber = new Random(randomSeed);
+    
+    /** Reseed the random number generator of this memory, also on later resets */
+    public void seed(final long seed) {
+        randomSeed = seed;
+        randomNumber.setSeed(seed);
+    }
+    
+    /** the memory in a cycle on each thread, so that reasoners on different threads draw from their own generator */
+    private static final ThreadLocal<Memory> cycling = new ThreadLocal<>();
+    
+    /** generator of each thread outside of the cycles of a memory */
+    private static final ThreadLocal<Random> unbound = new ThreadLocal<Random>() {
+        @Override
+        protected Random initialValue() {
+            return new Random(1);
+        }
+    };
+    
+    /**
+     * random number generator to use in inference: the one of the memory in a
+     * cycle on the calling thread; concepts fired concurrently each have their own
+     */
+    public static Random random() {
+        final Random r = ParallelInferenceControl.random();
+        if (r != null) {
+            return r;
+        }
+        final Memory m = cycling.get();
+        return m != null ? m.randomNumber : unbound.get();
+    }
+    
+    /** most derivation contexts kept for reuse */
+    static final int POOLED_CONTEXTS = 64;
+    
+    /**
+     * derivation contexts which are not in use, shared by the threads firing
+     * concepts and owned by this memory only, so that they go with it
+     */
+    private transient ArrayDeque<DerivationContext> contexts = new ArrayDeque<>();
+    
+    /** the threads firing concepts in parallel, owned by this memory only */
+    private transient ParallelInferenceControl.Workers workers = new ParallelInferenceControl.Workers();
+    
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        contexts = new ArrayDeque<>();
+        workers = new ParallelInferenceControl.Workers();
+    }
+    
+    /**
+     * Stop the threads firing the concepts of this memory in parallel, a later
+     * parallel cycle starts new ones
+     */
+    public void stopWorkers() {
+        workers.shutdown();
+    }
+    
+    /**
+     * A cleared derivation context, which is given back with releaseContext
+     * when the inference it is used for is done
+     */
+    public DerivationContext acquireContext() {
+        final DerivationContext c;
+        synchronized (contexts) {
+            c = contexts.pollFirst();
+        }
+        return c != null ? c : new DerivationContext(this);
+    }
+    
+    /** Give back a context of acquireContext, which must not be used afterwards */
+    public void releaseContext(final DerivationContext c) {
+        c.reset();
+        synchronized (contexts) {
+            if (contexts.size() < POOLED_CONTEXTS) {
+                contexts.addFirst(c);
+            }
+        }
     }
     
     //todo make sense of this class and de-obfuscate
     public final Bag<Concept,Term> concepts;
     public transient EventEmitter event;
     
+    /** records the timings of the cycles and rules if set, see NAR.startProfiling */
+    public transient volatile Profiler profiler;
+    
+    /* channels of the events emitted for each concept fired, link and derivation */
+    public transient Channel conceptFire, termLinkSelect, taskDerive, beliefReason, beliefSelect,
+            taskLinkAdd, taskLinkRemove, termLinkAdd, termLinkRemove;
+    
     /* InnateOperator registry. Containing all registered operators of the system */
     public final HashMap<CharSequence, Operator> operators;
     
@@ -108,11 +197,20 @@ public class Memory implements Serializable, Iterable<Concept> {
     public final Deque<Task> newTasks;
     
     /* System clock, relatively defined to guarantee the repeatability of behaviors */
-    private long cycle;
+    long cycle;
     
     /* System parameters that can be changed at runtime */
     public final RuntimeParameters param;
     
+    /* Capacities and levels of the bags, the link bags of new concepts are created with */
+    public final BagConfig bags;
+
+    /* Lazy forgetting of the concepts, task links and term links, null unless configured by the bags */
+    public final Forgetting conceptForgetting, taskLinkForgetting, termLinkForgetting;
+    
+    /* Beliefs of the concepts in memory by their terms, for the retrieval of the ones which could unify with a query */
+    public final TermIndex<Task> beliefIndex = new TermIndex<>();
+    
     /* ---------- Constructor ---------- */
     /**
      * Create a new memory
@@ -122,28 +220,86 @@ public class Memory implements Serializable, Iterable<Concept> {
     public Memory(RuntimeParameters param, Bag<Concept,Term> concepts, Bag<Task<Term>,Sentence<Term>> novelTasks,
             Bag<Task<Term>,Sentence<Term>> seq_current,
             Bag<Task<Term>,Sentence<Term>> recent_operations) {                
+        this(param, concepts, novelTasks, seq_current, recent_operations, new BagConfig());
+    }
+    
+    /**
+     * Create a new memory
+     *
+     * @param linkBags - bag implementation of the task links and term links of the concepts
+     */
+    public Memory(RuntimeParameters param, Bag<Concept,Term> concepts, Bag<Task<Term>,Sentence<Term>> novelTasks,
+            Bag<Task<Term>,Sentence<Term>> seq_current,
+            Bag<Task<Term>,Sentence<Term>> recent_operations, BagType linkBags) {                
+        this(param, concepts, novelTasks, seq_current, recent_operations, new BagConfig(BagType.Level, linkBags));
+    }
+    
+    /**
+     * Create a new memory with the bags of a configuration
+     *
+     * @param bags - capacities and levels of the bags, which are copied
+     */
+    public Memory(RuntimeParameters param, BagConfig bags) {
+        this(param, bags.newConceptBag(),
+                new LevelBag<>(bags.novelTaskBagLevels, bags.novelTaskBagSize),
+                bags.newSequenceBag(),
+                new LevelBag<>(bags.operationBagLevels, bags.operationBagSize),
+                bags);
+    }
+    
+    private Memory(RuntimeParameters param, Bag<Concept,Term> concepts, Bag<Task<Term>,Sentence<Term>> novelTasks,
+            Bag<Task<Term>,Sentence<Term>> seq_current,
+            Bag<Task<Term>,Sentence<Term>> recent_operations, BagConfig bags) {
 
         this.param = param;
-        this.event = new EventEmitter();
+        this.bags = bags.clone();
+        this.bags.conceptBagSize = concepts.getCapacity();
+        setEvents(new EventEmitter());
         this.concepts = concepts;
         this.novelTasks = novelTasks;                
         this.newTasks = new ArrayDeque<>();
         this.recent_operations = recent_operations;
         this.seq_current = seq_current;
         this.operators = new HashMap<>();
+        if (bags.lazyForgetting) {
+            if (param.conceptsFiredPerCycle.get() > 1 || concepts instanceof ConcurrentLevelBag || bags.linkType == BagType.ConcurrentLevel) {
+                throw new IllegalArgumentException("Lazy forgetting is not for concepts fired in parallel: " + bags + ", " + param.conceptsFiredPerCycle.get() + " concepts fired per cycle");
+            }
+            conceptForgetting = new Forgetting(this, param.conceptForgetDurations);
+            taskLinkForgetting = new Forgetting(this, param.taskLinkForgetDurations);
+            termLinkForgetting = new Forgetting(this, param.termLinkForgetDurations);
+            concepts.setForgetting(conceptForgetting);
+        } else {
+            conceptForgetting = taskLinkForgetting = termLinkForgetting = null;
+        }
         reset();
     }
     
+    /** Use an event emitter, binding the channels of the frequent events to it */
+    public void setEvents(final EventEmitter e) {
+        event = e;
+        conceptFire = e.channel(Events.ConceptFire.class);
+        termLinkSelect = e.channel(Events.TermLinkSelect.class);
+        taskDerive = e.channel(Events.TaskDerive.class);
+        beliefReason = e.channel(Events.BeliefReason.class);
+        beliefSelect = e.channel(Events.BeliefSelect.class);
+        taskLinkAdd = e.channel(Events.TaskLinkAdd.class);
+        taskLinkRemove = e.channel(Events.TaskLinkRemove.class);
+        termLinkAdd = e.channel(Events.TermLinkAdd.class);
+        termLinkRemove = e.channel(Events.TermLinkRemove.class);
+    }
+    
     public void reset() {
         event.emit(ResetStart.class);
         decisionBlock = 0;
         concepts.clear();
+        beliefIndex.clear();
         novelTasks.clear();
         newTasks.clear();    
         this.seq_current.clear();
         cycle = 0;
         emotion.resetEmotions();
-        resetStatic();
+        randomNumber.setSeed(randomSeed);
         event.emit(ResetEnd.class);
     }
 
@@ -182,25 +338,23 @@ public class Memory implements Serializable, Iterable<Concept> {
         if(term instanceof Interval) {
             return null;
         }
-        term = CompoundTerm.replaceIntervals(term);
+        term = TermStore.intern(CompoundTerm.replaceIntervals(term));
         //see if concept is active
-        Concept concept = concepts.take(term);
-        if (concept == null) {                            
-            //create new concept, with the applied budget
-            concept = new Concept(budget, term, this);
-            //if (memory.logic!=null)
-            //    memory.logic.CONCEPT_NEW.commit(term.getComplexity());
-            emit(Events.ConceptNew.class, concept);                
-        }
-        else if (concept!=null) {            
-            //apply budget to existing concept
+        Concept concept = concepts.get(term);
+        if (concept != null) {
+            //apply budget to existing concept, which moves to the level of its new priority in place
             //memory.logic.CONCEPT_ACTIVATE.commit(term.getComplexity());
             BudgetFunctions.activate(concept.budget, budget, BudgetFunctions.Activating.TaskLink);            
+            concept.dirty = true;
+            concepts.forget(concept, cycles(param.conceptForgetDurations));
+            concepts.reprioritize(concept);
+            return concept;
         }
-        else {
-            //unable to create, ex: has variables
-            return null;
-        }
+        //create new concept, with the applied budget
+        concept = new Concept(budget, term, this);
+        //if (memory.logic!=null)
+        //    memory.logic.CONCEPT_NEW.commit(term.getComplexity());
+        emit(Events.ConceptNew.class, concept);                
         Concept displaced = concepts.putBack(concept, cycles(param.conceptForgetDurations), this);   
         if (displaced == null) {
             //added without replacing anything
@@ -222,6 +376,9 @@ public class Memory implements Serializable, Iterable<Concept> {
      * add new task that waits to be processed in the next cycleMemory
      */
     public void addNewTask(final Task t, final String reason) {
+        if (ParallelInferenceControl.defer(() -> addNewTask(t, reason))) {
+            return;
+        }
         newTasks.add(t);
       //  logic.TASK_ADD_NEW.commit(t.getPriority());
         emit(Events.TaskAdd.class, t, reason);
@@ -322,35 +479,160 @@ public class Memory implements Serializable, Iterable<Concept> {
     }
     
     final public void emit(final Class c, final Object... signal) {        
-        event.emit(c, signal);
+        if (event.isActive(c)) {
+            send(event.channel(c), signal);
+        }
+    }
+
+    //without varargs, so that no array is built for an event without observers
+
+    final public void emit(final Class c, final Object x) {
+        if (event.isActive(c)) {
+            send(event.channel(c), new Object[] { x });
+        }
+    }
+
+    final public void emit(final Class c, final Object x, final Object y) {
+        if (event.isActive(c)) {
+            send(event.channel(c), new Object[] { x, y });
+        }
+    }
+
+    final public void emit(final Class c, final Object x, final Object y, final Object z) {
+        if (event.isActive(c)) {
+            send(event.channel(c), new Object[] { x, y, z });
+        }
+    }
+
+    final public void emit(final Class c, final Object x, final Object y, final Object z, final Object w) {
+        if (event.isActive(c)) {
+            send(event.channel(c), new Object[] { x, y, z, w });
+        }
+    }
+
+    final public void emit(final Channel c, final Object x) {
+        if (c.active) {
+            send(c, new Object[] { x });
+        }
+    }
+
+    final public void emit(final Channel c, final Object x, final Object y) {
+        if (c.active) {
+            send(c, new Object[] { x, y });
+        }
+    }
+
+    final public void emit(final Channel c, final Object x, final Object y, final Object z) {
+        if (c.active) {
+            send(c, new Object[] { x, y, z });
+        }
+    }
+
+    final public void emit(final Channel c, final Object x, final Object y, final Object z, final Object w) {
+        if (c.active) {
+            send(c, new Object[] { x, y, z, w });
+        }
+    }
+
+    /** emits now, or after the concepts fired concurrently with the one of the calling thread */
+    private void send(final Channel c, final Object[] signal) {
+        if (ParallelInferenceControl.defer(() -> c.emit(signal))) {
+            return;
+        }
+        c.emit(signal);
     }
 
     final public boolean emitting(final Class channel) {
         return event.isActive(channel);
     }
     
+    /**
+     * Change the capacity of the concept bag, between cycles. When it is
+     * lowered below the number of concepts, the concepts of the lowest
+     * priority are forgotten until the bag fits.
+     *
+     * @return the number of concepts forgotten
+     */
+    public int resizeConcepts(final int capacity) {
+        bags.conceptBagSize = capacity;
+        final List<Concept> forgotten = concepts.setCapacity(capacity);
+        for (final Concept c : forgotten) {
+            conceptRemoved(c);
+        }
+        return forgotten.size();
+    }
+    
     public void conceptRemoved(Concept c) {
+        for (final Task t : c.beliefs) {
+            beliefIndex.remove(t.sentence.term, t);
+        }
         emit(Events.ConceptForget.class, c);
     }
     
     public void cycle(final NAR inputs) {
-    
-        event.emit(Events.CycleStart.class);
-        
-        this.processNewTasks();
-    //if(noResult()) //newTasks empty
-        this.processNovelTask();
-    //if(noResult()) //newTasks empty
-        GeneralInferenceControl.selectConceptForInference(this);
-        
-        event.emit(Events.CycleEnd.class);
-        event.synch();
-        
-        cycle++;
+        final Memory outer = cycling.get();
+        cycling.set(this);
+        Profiler.enter(this, Profiler.CYCLE);
+        try {
+            event.emit(Events.CycleStart.class);
+
+            Profiler.enter(this, Profiler.NEW_TASKS);
+            try {
+                this.processNewTasks();
+            } finally {
+                Profiler.exit(this, Profiler.NEW_TASKS);
+            }
+        //if(noResult()) //newTasks empty
+            Profiler.enter(this, Profiler.NOVEL_TASK);
+            try {
+                this.processNovelTask();
+            } finally {
+                Profiler.exit(this, Profiler.NOVEL_TASK);
+            }
+        //if(noResult()) //newTasks empty
+            Profiler.enter(this, Profiler.FIRE_CONCEPT);
+            try {
+                concepts.rebalance(Parameters.BAG_REBALANCE_BATCH);
+                final int conceptsFired = param.conceptsFiredPerCycle.get();
+                if (conceptsFired > 1 && conceptForgetting == null) {
+                    ParallelInferenceControl.selectConceptsForInference(this, conceptsFired, workers);
+                } else {
+                    GeneralInferenceControl.selectConceptForInference(this);
+                }
+            } finally {
+                Profiler.exit(this, Profiler.FIRE_CONCEPT);
+            }
+
+            event.emit(Events.CycleEnd.class);
+
+            cycle++;
+        } finally {
+            Profiler.exit(this, Profiler.CYCLE);
+            //set rather than removed, so that the next cycle reuses the entry of the thread
+            cycling.set(outer);
+        }
     }
     
+    /**
+     * Let cycles pass without reasoning, like an idle reasoner; with lazy
+     * forgetting the concepts and links decay as if the time had passed
+     */
+    public void skip(final long cycles) {
+        cycle += cycles;
+    }
+
     public void localInference(Task task) {
-        DerivationContext cont = new DerivationContext(this);
+        final DerivationContext cont = acquireContext();
+        Profiler.enter(this, Profiler.LOCAL_INFERENCE);
+        try {
+            localInference(task, cont);
+        } finally {
+            Profiler.exit(this, Profiler.LOCAL_INFERENCE);
+            releaseContext(cont);
+        }
+    }
+    
+    private void localInference(final Task task, final DerivationContext cont) {
         cont.setCurrentTask(task);
         cont.setCurrentTerm(task.getTerm());
         cont.setCurrentConcept(conceptualize(task.budget, cont.getCurrentTerm()));
@@ -362,11 +644,16 @@ public class Memory implements Serializable, Iterable<Concept> {
         }
         
         if (!task.sentence.isEternal() && !(task.sentence.term instanceof Operation)) {
-            TemporalInferenceControl.eventInference(task, cont);
+            Profiler.enter(this, Profiler.EVENT_INFERENCE);
+            try {
+                TemporalInferenceControl.eventInference(task, cont);
+            } finally {
+                Profiler.exit(this, Profiler.EVENT_INFERENCE);
+            }
         }
         
         //memory.logic.TASK_IMMEDIATE_PROCESS.commit();
-        emit(Events.TaskImmediateProcess.class, task, cont);
+        emit(Events.TaskImmediateProcess.class, task, cont.getCurrentConcept());
     }
     
     /**
@@ -426,7 +713,7 @@ public class Memory implements Serializable, Iterable<Concept> {
          return operators.remove(op.name());
      }
 
-    private long currentStampSerial = 0;
+    long currentStampSerial = 0;
     public long newStampSerial() {
         return currentStampSerial++;
     }   
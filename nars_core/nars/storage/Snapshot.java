@@ -0,0 +1,868 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.storage;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import nars.entity.BudgetValue;
+import nars.entity.Concept;
+import nars.entity.Sentence;
+import nars.entity.Stamp;
+import nars.entity.Task;
+import nars.entity.TaskLink;
+import nars.entity.TermLink;
+import nars.entity.TruthValue;
+import nars.io.Symbols.NativeOperator;
+import nars.language.CompoundTerm;
+import nars.language.Image;
+import nars.language.ImageExt;
+import nars.language.ImageInt;
+import nars.language.Interval;
+import nars.language.Statement;
+import nars.language.Term;
+import nars.language.TermStore;
+import nars.language.Terms;
+import nars.language.Variable;
+import nars.main.NAR.RuntimeParameters;
+import nars.main.Parameters;
+import nars.operator.Operator;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Versioned binary snapshot of a Memory: the clock and runtime parameters,
+ * the concepts with their beliefs, desires, questions, quests, term links
+ * and task links, and the task bags of memory.
+ * <p>
+ * Terms, sentences and tasks are written once and referred to by their
+ * index afterwards, so structure shared in memory is shared in the file and
+ * after loading. Numbers are written as variable length integers. Unlike a
+ * Java serialization of the NAR, the format does not depend on the fields of
+ * the classes, it is written through a channel and memory-mapped for reading.
+ * <p>
+ * A memory has to be written between its cycles, for example when the NAR
+ * is stopped or on Events.CycleEnd. The selection state of bags and the
+ * state of plugins are not part of a snapshot; variables are scoped again by
+ * the normalization of the sentences which are read.
+ * <p>
+ * Besides full snapshots there are deltas, which Checkpoint applies in
+ * sequence: they replace the concepts they contain, remove the concepts of
+ * the terms they list and replace the task bags of memory.
+ */
+public final class Snapshot {
+
+    /** "NARS" */
+    public static final int MAGIC = 0x4E415253;
+    /** version of the format, the only one read */
+    public static final int VERSION = 1;
+
+    /** kinds of snapshot files */
+    static final byte FULL = 0, DELTA = 1;
+
+    /** tags of term definitions */
+    static final byte ATOM = 0, VARIABLE = 1, INTERVAL = 2, OPERATOR = 3, COMPOUND = 4, IMAGE = 5;
+
+    /** references: 0 is null, 1 is followed by a definition, n refers to definition n-2 */
+    static final int NULL = 0, DEFINITION = 1;
+
+    private static final NativeOperator[] operators = NativeOperator.values();
+
+    private Snapshot() {
+    }
+
+    /**
+     * Writes a snapshot of memory to a file
+     *
+     * @return the size of the file in bytes
+     */
+    public static long write(final Memory memory, final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, CREATE, WRITE, TRUNCATE_EXISTING)) {
+            return write(memory, channel);
+        }
+    }
+
+    /** writes a full snapshot of memory to a channel, returns its size */
+    static long write(final Memory memory, final WritableByteChannel channel) throws IOException {
+        final Output out = new Output(channel);
+        out.header(FULL);
+        out.state(memory);
+        final List<Concept> concepts = new ArrayList<>(memory.concepts.size());
+        for (final Concept c : memory.concepts) {
+            concepts.add(c);
+        }
+        out.concepts(concepts);
+        out.tasks(memory);
+        out.writeInt(MAGIC);
+        out.flush();
+        return out.written;
+    }
+
+    /**
+     * Writes the changes of memory since a previous snapshot: the concepts
+     * which were changed or added, the terms of the concepts which were
+     * removed, and the task bags of memory, which are small and change in
+     * every cycle
+     *
+     * @param from sequence number of the first checkpoint needed to restore
+     * memory up to this delta
+     * @return the size of the delta in bytes
+     */
+    static long writeDelta(final Memory memory, final long from, final Collection<Concept> changed, final Collection<Term> removed, final WritableByteChannel channel) throws IOException {
+        final Output out = new Output(channel);
+        out.header(DELTA);
+        out.writeVar(from);
+        out.state(memory);
+        out.writeVar(removed.size());
+        for (final Term t : removed) {
+            out.term(t);
+        }
+        out.concepts(changed);
+        out.tasks(memory);
+        out.writeInt(MAGIC);
+        out.flush();
+        return out.written;
+    }
+
+    /**
+     * Replaces the content of memory by a snapshot. The memory has to have
+     * the operators of the snapshot registered, as the memory of a new NAR.
+     */
+    public static void read(final Path file, final Memory memory) throws IOException {
+        if (read(file, memory, true) != FULL) {
+            throw new IOException("Not a full snapshot: " + file);
+        }
+    }
+
+    /**
+     * Reads a full snapshot or applies a delta to memory
+     *
+     * @param replace whether the content of memory is replaced, otherwise the
+     * concepts read replace the existing ones with their terms
+     * @return the kind of the snapshot
+     */
+    static byte read(final Path file, final Memory memory, final boolean replace) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            final Input in = new Input(map(channel, file), memory);
+            final byte kind = in.header();
+            if (kind == DELTA) {
+                in.readVar();
+            }
+            if (replace) {
+                memory.reset();
+            } else {
+                memory.novelTasks.clear();
+                memory.seq_current.clear();
+                memory.newTasks.clear();
+            }
+            memory.recent_operations.clear();
+            in.state();
+            if (kind == DELTA) {
+                final int removed = in.readCount();
+                for (int i = 0; i < removed; i++) {
+                    unindex(memory, memory.concepts.take(in.term()));
+                }
+            }
+            final int n = in.readCount();
+            for (int i = 0; i < n; i++) {
+                final Concept c = in.concept();
+                if (!replace) {
+                    unindex(memory, memory.concepts.take(c.term));
+                }
+                memory.concepts.putIn(c);
+                for (final Task t : c.beliefs) {
+                    memory.beliefIndex.add(t.sentence.term, t);
+                }
+            }
+            in.tasks();
+            in.end();
+            return kind;
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated snapshot: " + file);
+        }
+    }
+
+    /** removes the beliefs of a concept replaced or removed by a delta from the belief index */
+    private static void unindex(final Memory memory, final Concept c) {
+        if (c != null) {
+            for (final Task t : c.beliefs) {
+                memory.beliefIndex.remove(t.sentence.term, t);
+            }
+        }
+    }
+
+    /**
+     * The sequence number of the first checkpoint needed to restore the
+     * memory of a delta, or -1 for a full snapshot
+     */
+    static long from(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            final Input in = new Input(map(channel, file), null);
+            return (in.header() == FULL) ? -1 : in.readVar();
+        } catch (BufferUnderflowException e) {
+            throw new IOException("Truncated snapshot: " + file);
+        }
+    }
+
+    static MappedByteBuffer map(final FileChannel channel, final Path file) throws IOException {
+        if (channel.size() > Integer.MAX_VALUE) {
+            throw new IOException("Snapshot too large to be mapped: " + file);
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+    }
+
+    /** buffered encoder of the records of a snapshot */
+    static final class Output {
+
+        final WritableByteChannel channel;
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+        /** number of bytes flushed to the channel */
+        long written;
+
+        final Map<Term, Integer> terms = new IdentityHashMap<>(4096);
+        final Map<Sentence, Integer> sentences = new IdentityHashMap<>(4096);
+        final Map<Task, Integer> tasks = new IdentityHashMap<>(4096);
+
+        Output(final WritableByteChannel channel) {
+            this.channel = channel;
+        }
+
+        void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+            buffer.clear();
+        }
+
+        void ensure(final int bytes) throws IOException {
+            if (buffer.remaining() < bytes) {
+                flush();
+            }
+        }
+
+        void writeByte(final int b) throws IOException {
+            ensure(1);
+            buffer.put((byte) b);
+        }
+
+        void writeInt(final int i) throws IOException {
+            ensure(4);
+            buffer.putInt(i);
+        }
+
+        void writeFloat(final float f) throws IOException {
+            ensure(4);
+            buffer.putFloat(f);
+        }
+
+        void writeDouble(final double d) throws IOException {
+            ensure(8);
+            buffer.putDouble(d);
+        }
+
+        /** unsigned variable length integer, 7 bits per byte */
+        void writeVar(long v) throws IOException {
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buffer.put((byte) ((v & 0x7F) | 0x80));
+                v >>>= 7;
+            }
+            buffer.put((byte) v);
+        }
+
+        /** variable length integer which is short for small negative numbers too */
+        void writeSigned(final long v) throws IOException {
+            writeVar((v << 1) ^ (v >> 63));
+        }
+
+        /** names are mostly ASCII, which is its own UTF-8 encoding */
+        static boolean ascii(final String s) {
+            for (int i = 0; i < s.length(); i++) {
+                if (s.charAt(i) >= 0x80) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        void writeString(final String s) throws IOException {
+            final int length = s.length();
+            if (length < buffer.capacity() && ascii(s)) {
+                writeVar(length);
+                if (buffer.remaining() < length) {
+                    flush();
+                }
+                for (int i = 0; i < length; i++) {
+                    buffer.put((byte) s.charAt(i));
+                }
+                return;
+            }
+            final byte[] b = s.getBytes(UTF_8);
+            writeVar(b.length);
+            int offset = 0;
+            while (offset < b.length) {
+                if (!buffer.hasRemaining()) {
+                    flush();
+                }
+                final int n = Math.min(buffer.remaining(), b.length - offset);
+                buffer.put(b, offset, n);
+                offset += n;
+            }
+        }
+
+        /** @return true if o has to be defined, otherwise its reference was written */
+        <X> boolean reference(final Map<X, Integer> defined, final X o) throws IOException {
+            if (o == null) {
+                writeVar(NULL);
+                return false;
+            }
+            final Integer id = defined.get(o);
+            if (id != null) {
+                writeVar(id + 2);
+                return false;
+            }
+            writeVar(DEFINITION);
+            return true;
+        }
+
+        void header(final byte kind) throws IOException {
+            writeInt(MAGIC);
+            writeInt(VERSION);
+            writeByte(kind);
+        }
+
+        void state(final Memory memory) throws IOException {
+            writeSigned(memory.time());
+            writeVar(memory.currentStampSerial);
+            writeSigned(memory.decisionBlock);
+            writeByte(memory.allowExecution ? 1 : 0);
+            writeFloat(memory.emotion.happy());
+            writeFloat(memory.emotion.busy());
+            final RuntimeParameters p = memory.param;
+            writeVar(p.noiseLevel.get());
+            writeVar(p.duration.get());
+            writeDouble(p.conceptForgetDurations.get());
+            writeDouble(p.termLinkForgetDurations.get());
+            writeDouble(p.taskLinkForgetDurations.get());
+            writeDouble(p.eventForgetDurations.get());
+            writeDouble(p.decisionThreshold.get());
+            writeVar(p.conceptsFiredPerCycle.get());
+            writeVar(p.conceptBeliefsMax.get());
+            writeVar(p.conceptGoalsMax.get());
+        }
+
+        void term(final Term t) throws IOException {
+            if (!reference(terms, t)) {
+                return;
+            }
+            if (t instanceof CompoundTerm) {
+                final CompoundTerm c = (CompoundTerm) t;
+                if (c instanceof Image) {
+                    writeByte(IMAGE);
+                    writeByte(c.operator().ordinal());
+                    writeVar(((Image) c).relationIndex);
+                } else {
+                    writeByte(COMPOUND);
+                    writeByte(c.operator().ordinal());
+                }
+                writeVar(c.term.length);
+                for (final Term component : c.term) {
+                    term(component);
+                }
+            } else if (t instanceof Variable) {
+                writeByte(VARIABLE);
+                writeString(t.name().toString());
+            } else if (t instanceof Interval) {
+                writeByte(INTERVAL);
+                writeVar(((Interval) t).magnitude);
+            } else if (t instanceof Operator) {
+                writeByte(OPERATOR);
+                writeString(t.name().toString());
+            } else if (t.getClass() == Term.class) {
+                writeByte(ATOM);
+                writeString(t.name().toString());
+            } else {
+                throw new IOException("Unable to write term of " + t.getClass() + ": " + t);
+            }
+            terms.put(t, terms.size());
+        }
+
+        void budget(final BudgetValue b) throws IOException {
+            writeFloat(b.getPriority());
+            writeFloat(b.getDurability());
+            writeFloat(b.getQuality());
+            writeSigned(b.getLastForgetTime());
+        }
+
+        void sentence(final Sentence s) throws IOException {
+            if (!reference(sentences, s)) {
+                return;
+            }
+            term(s.term);
+            writeVar(s.punctuation);
+            final TruthValue truth = s.truth;
+            final Stamp stamp = s.stamp;
+            writeByte((truth != null ? 1 : 0) | (truth != null && truth.getAnalytic() ? 2 : 0) |
+                    (s.getRevisible() ? 4 : 0) | (s.producedByTemporalInduction ? 8 : 0) |
+                    (stamp.alreadyAnticipatedNegConfirmation ? 16 : 0));
+            if (truth != null) {
+                writeFloat(truth.getFrequency());
+                writeFloat(truth.getConfidence());
+            }
+            writeVar(stamp.evidentialBase.length);
+            for (final long serial : stamp.evidentialBase) {
+                writeVar(serial);
+            }
+            writeSigned(stamp.getCreationTime());
+            writeSigned(stamp.getOccurrenceTime());
+            sentences.put(s, sentences.size());
+        }
+
+        void task(final Task t) throws IOException {
+            if (!reference(tasks, t)) {
+                return;
+            }
+            sentence(t.sentence);
+            budget(t.budget);
+            sentence(t.getParentBelief());
+            sentence(t.getBestSolution());
+            writeByte((t.isInput() ? 1 : 0) | (t.isElemOfSequenceBuffer() ? 2 : 0) | (t.isObservablePrediction() ? 4 : 0));
+            tasks.put(t, tasks.size());
+        }
+
+        void tasks(final Collection<Task> c) throws IOException {
+            writeVar(c.size());
+            for (final Task t : c) {
+                task(t);
+            }
+        }
+
+        /** the items of a bag of tasks, or null */
+        void tasks(final Bag<Task<Term>, Sentence<Term>> bag) throws IOException {
+            if (bag == null) {
+                writeVar(0);
+                return;
+            }
+            final List<Task> items = new ArrayList<>(bag.size());
+            for (final Task t : bag) {
+                items.add(t);
+            }
+            writeVar(items.size() + 1);
+            for (final Task t : items) {
+                task(t);
+            }
+        }
+
+        void index(final short[] index) throws IOException {
+            if (index == null) {
+                writeVar(0);
+                return;
+            }
+            writeVar(index.length + 1);
+            for (final short i : index) {
+                writeSigned(i);
+            }
+        }
+
+        void termLink(final TermLink l, final boolean withBudget) throws IOException {
+            term(l.target);
+            writeVar(l.type);
+            index(l.index);
+            if (withBudget) {
+                budget(l.budget);
+            }
+        }
+
+        void taskLink(final TaskLink l) throws IOException {
+            task(l.targetTask);
+            writeVar(l.type);
+            index(l.index);
+            budget(l.budget);
+            writeVar(l.records.size());
+            for (int r = l.records.oldest(); r != -1; r = l.records.newer(r)) {
+                termLink(l.records.getLink(r), false);
+                writeSigned(l.records.getTime(r));
+            }
+        }
+
+        void concept(final Concept c) throws IOException {
+            term(c.term);
+            budget(c.budget);
+            writeByte(c.observable ? 1 : 0);
+            tasks(c.beliefs);
+            tasks(c.executable_preconditions);
+            tasks(c.desires);
+            tasks(c.questions);
+            tasks(c.quests);
+            writeVar(c.recent_intervals.size());
+            for (final Float f : c.recent_intervals) {
+                writeFloat(f);
+            }
+            final List<TermLink> termLinks = new ArrayList<>(c.termLinks.size());
+            for (final TermLink l : c.termLinks) {
+                termLinks.add(l);
+            }
+            writeVar(termLinks.size());
+            for (final TermLink l : termLinks) {
+                termLink(l, true);
+            }
+            final List<TaskLink> taskLinks = new ArrayList<>(c.taskLinks.size());
+            for (final TaskLink l : c.taskLinks) {
+                taskLinks.add(l);
+            }
+            writeVar(taskLinks.size());
+            for (final TaskLink l : taskLinks) {
+                taskLink(l);
+            }
+            tasks(c.seq_before);
+            task(c.negConfirmation);
+            writeFloat(c.negConfirmationPriority);
+            writeSigned(c.negConfirm_abort_mintime);
+            writeSigned(c.negConfirm_abort_maxtime);
+        }
+
+        void concepts(final Collection<Concept> concepts) throws IOException {
+            writeVar(concepts.size());
+            for (final Concept c : concepts) {
+                concept(c);
+            }
+        }
+
+        /** the task bags and buffers of memory */
+        void tasks(final Memory memory) throws IOException {
+            tasks(memory.novelTasks);
+            tasks(memory.seq_current);
+            tasks(memory.recent_operations);
+            tasks(memory.newTasks);
+            task(memory.lastDecision);
+        }
+    }
+
+    /** decoder of the records of a snapshot, into a memory */
+    static final class Input {
+
+        final ByteBuffer buffer;
+        final Memory memory;
+
+        final List<Term> terms = new ArrayList<>();
+        final List<Sentence> sentences = new ArrayList<>();
+        final List<Task> tasks = new ArrayList<>();
+
+        Input(final ByteBuffer buffer, final Memory memory) {
+            this.buffer = buffer;
+            this.memory = memory;
+        }
+
+        long readVar() throws IOException {
+            long v = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                final byte b = buffer.get();
+                v |= (long) (b & 0x7F) << shift;
+                if (b >= 0) {
+                    return v;
+                }
+            }
+            throw new IOException("Invalid number in snapshot");
+        }
+
+        long readSigned() throws IOException {
+            final long v = readVar();
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        int readCount() throws IOException {
+            final long n = readVar();
+            if (n > buffer.remaining()) { //every element takes at least a byte
+                throw new IOException("Invalid count in snapshot: " + n);
+            }
+            return (int) n;
+        }
+
+        String readString() throws IOException {
+            final byte[] b = new byte[readCount()];
+            buffer.get(b);
+            return new String(b, UTF_8);
+        }
+
+        /** @return -1 if a definition follows, otherwise the index of a definition, or null */
+        int reference(final List<?> defined) throws IOException {
+            final long r = readVar();
+            if (r == DEFINITION) {
+                return -1;
+            }
+            if ((r != NULL) && (r - 2 >= defined.size())) {
+                throw new IOException("Invalid reference in snapshot: " + r);
+            }
+            return (int) r - 2;
+        }
+
+        byte header() throws IOException {
+            if (buffer.remaining() < 9 || buffer.getInt() != MAGIC) {
+                throw new IOException("Not a snapshot");
+            }
+            final int version = buffer.getInt();
+            if (version != VERSION) {
+                throw new IOException("Unsupported snapshot version: " + version);
+            }
+            final byte kind = buffer.get();
+            if (kind != FULL && kind != DELTA) {
+                throw new IOException("Unknown kind of snapshot: " + kind);
+            }
+            return kind;
+        }
+
+        void end() throws IOException {
+            if (buffer.getInt() != MAGIC) {
+                throw new IOException("Corrupted snapshot");
+            }
+        }
+
+        void state() throws IOException {
+            memory.cycle = readSigned();
+            memory.currentStampSerial = readVar();
+            memory.decisionBlock = readSigned();
+            memory.allowExecution = buffer.get() != 0;
+            final float happy = buffer.getFloat();
+            memory.emotion.set(happy, buffer.getFloat());
+            final RuntimeParameters p = memory.param;
+            p.noiseLevel.set((int) readVar());
+            p.duration.set((int) readVar());
+            p.conceptForgetDurations.set(buffer.getDouble());
+            p.termLinkForgetDurations.set(buffer.getDouble());
+            p.taskLinkForgetDurations.set(buffer.getDouble());
+            p.eventForgetDurations.set(buffer.getDouble());
+            p.decisionThreshold.set(buffer.getDouble());
+            p.conceptsFiredPerCycle.set((int) readVar());
+            p.conceptBeliefsMax.set((int) readVar());
+            p.conceptGoalsMax.set((int) readVar());
+        }
+
+        NativeOperator operator() throws IOException {
+            final int o = buffer.get();
+            if (o < 0 || o >= operators.length) {
+                throw new IOException("Invalid operator in snapshot: " + o);
+            }
+            return operators[o];
+        }
+
+        Term term() throws IOException {
+            final int r = reference(terms);
+            if (r != -1) {
+                return (r == -2) ? null : terms.get(r);
+            }
+            Term t;
+            final byte tag = buffer.get();
+            switch (tag) {
+                case ATOM:
+                    t = Term.get(readString());
+                    break;
+                case VARIABLE:
+                    t = new Variable(readString());
+                    break;
+                case INTERVAL:
+                    t = Interval.interval((int) readVar());
+                    break;
+                case OPERATOR:
+                    final String name = readString();
+                    t = memory.getOperator(name);
+                    if (t == null) {
+                        throw new IOException("Unknown operator: " + name);
+                    }
+                    break;
+                case COMPOUND:
+                case IMAGE:
+                    final NativeOperator op = operator();
+                    final short relationIndex = (tag == IMAGE) ? (short) readVar() : 0;
+                    final Term[] components = new Term[readCount()];
+                    for (int i = 0; i < components.length; i++) {
+                        components[i] = term();
+                    }
+                    if ((tag == COMPOUND) && op.relation && (components.length == 2)) {
+                        t = Statement.make(op, components[0], components[1], false, 0);
+                    } else if (tag == COMPOUND) {
+                        t = Terms.term(op, components);
+                    } else if (op == NativeOperator.IMAGE_EXT) {
+                        t = new ImageExt(components, relationIndex);
+                    } else {
+                        t = ImageInt.make(components, relationIndex);
+                    }
+                    if (t == null) {
+                        throw new IOException("Invalid compound term in snapshot: " + op + " " + Arrays.toString(components));
+                    }
+                    t = TermStore.intern(t);
+                    break;
+                default:
+                    throw new IOException("Invalid term in snapshot: " + tag);
+            }
+            terms.add(t);
+            return t;
+        }
+
+        BudgetValue budget() throws IOException {
+            final float p = buffer.getFloat();
+            final float d = buffer.getFloat();
+            final BudgetValue b = new BudgetValue(p, d, buffer.getFloat());
+            final long lastForgetTime = readSigned();
+            if (lastForgetTime != -1) {
+                b.setLastForgetTime(lastForgetTime);
+            }
+            return b;
+        }
+
+        Sentence sentence() throws IOException {
+            final int r = reference(sentences);
+            if (r != -1) {
+                return (r == -2) ? null : sentences.get(r);
+            }
+            final Term term = term();
+            final char punctuation = (char) readVar();
+            final int flags = buffer.get();
+            TruthValue truth = null;
+            if ((flags & 1) != 0) {
+                final float f = buffer.getFloat();
+                truth = new TruthValue(f, buffer.getFloat(), (flags & 2) != 0);
+            }
+            final long[] base = new long[readCount()];
+            for (int i = 0; i < base.length; i++) {
+                base[i] = readVar();
+            }
+            final long creationTime = readSigned();
+            final Stamp stamp = new Stamp(base, creationTime, readSigned());
+            stamp.alreadyAnticipatedNegConfirmation = (flags & 16) != 0;
+            final Sentence s = new Sentence(term, punctuation, truth, stamp);
+            s.setRevisible((flags & 4) != 0);
+            s.producedByTemporalInduction = (flags & 8) != 0;
+            sentences.add(s);
+            return s;
+        }
+
+        Task task() throws IOException {
+            final int r = reference(tasks);
+            if (r != -1) {
+                return (r == -2) ? null : tasks.get(r);
+            }
+            final Sentence s = sentence();
+            final BudgetValue b = budget();
+            final Sentence parentBelief = sentence();
+            final Sentence solution = sentence();
+            final int flags = buffer.get();
+            final Task t = new Task(s, b, parentBelief, solution, (flags & 1) != 0);
+            t.setElemOfSequenceBuffer((flags & 2) != 0);
+            t.setObservablePrediction((flags & 4) != 0);
+            tasks.add(t);
+            return t;
+        }
+
+        void tasks(final List<Task> list) throws IOException {
+            final int n = readCount();
+            for (int i = 0; i < n; i++) {
+                list.add(task());
+            }
+        }
+
+        /**
+         * the items of a bag of tasks, which are put in in the order of
+         * iteration so they are taken out of their levels in the same order
+         */
+        void tasks(final Bag<Task<Term>, Sentence<Term>> bag) throws IOException {
+            final int n = readCount();
+            for (int i = 1; i < n; i++) {
+                bag.putIn(task());
+            }
+        }
+
+        short[] index() throws IOException {
+            final int n = readCount();
+            if (n == 0) {
+                return null;
+            }
+            final short[] index = new short[n - 1];
+            for (int i = 0; i < index.length; i++) {
+                index[i] = (short) readSigned();
+            }
+            return index;
+        }
+
+        TermLink termLink(final boolean withBudget) throws IOException {
+            final Term target = term();
+            final short type = (short) readVar();
+            final short[] index = index();
+            return new TermLink(target, type, index, withBudget ? budget() : null);
+        }
+
+        TaskLink taskLink() throws IOException {
+            final Task task = task();
+            final short type = (short) readVar();
+            final short[] index = index();
+            final TermLink template = (type == TermLink.SELF && index == null) ? null : new TermLink(null, type, index, null);
+            final TaskLink l = new TaskLink(task, template, budget(), Parameters.TERM_LINK_RECORD_LENGTH);
+            final int records = readCount();
+            for (int i = 0; i < records; i++) {
+                final TermLink link = termLink(false);
+                l.records.add(link, readSigned());
+            }
+            return l;
+        }
+
+        Concept concept() throws IOException {
+            final Term term = term();
+            final Concept c = new Concept(budget(), term, memory);
+            c.observable = buffer.get() != 0;
+            tasks(c.beliefs);
+            tasks(c.executable_preconditions);
+            tasks(c.desires);
+            tasks(c.questions);
+            tasks(c.quests);
+            final int intervals = readCount();
+            for (int i = 0; i < intervals; i++) {
+                c.recent_intervals.add(buffer.getFloat());
+            }
+            final int termLinks = readCount();
+            for (int i = 0; i < termLinks; i++) {
+                c.termLinks.putIn(termLink(true));
+            }
+            final int taskLinks = readCount();
+            for (int i = 0; i < taskLinks; i++) {
+                c.taskLinks.putIn(taskLink());
+            }
+            final int seq = readCount();
+            if (seq > 0) {
+                c.seq_before = memory.bags.newSequenceBag();
+                for (int i = 1; i < seq; i++) {
+                    c.seq_before.putIn(task());
+                }
+            }
+            c.negConfirmation = task();
+            c.negConfirmationPriority = buffer.getFloat();
+            c.negConfirm_abort_mintime = readSigned();
+            c.negConfirm_abort_maxtime = readSigned();
+            return c;
+        }
+
+        void tasks() throws IOException {
+            tasks(memory.novelTasks);
+            tasks(memory.seq_current);
+            tasks(memory.recent_operations);
+            final List<Task> newTasks = new ArrayList<>();
+            tasks(newTasks);
+            memory.newTasks.addAll(newTasks);
+            memory.lastDecision = task();
+        }
+    }
+}
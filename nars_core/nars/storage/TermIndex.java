@@ -0,0 +1,279 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.storage;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import nars.language.CompoundTerm;
+import nars.language.Conjunction;
+import nars.language.ImageExt;
+import nars.language.ImageInt;
+import nars.language.Term;
+import nars.language.Variable;
+
+/**
+ * Discrimination tree of values by the structure of their terms.
+ * <p>
+ * A term is indexed by the sequence of its subterms in preorder: an atom by
+ * its name, a compound by its shape (class, size, temporal order, relation
+ * index of images), any variable as a wildcard. The components of commutative
+ * compounds are not indexed, as they unify in any order. A query walks the
+ * tree along the path of its term; a wildcard of the query skips one whole
+ * subterm of the tree, a wildcard of the tree one whole subterm of the query.
+ * <p>
+ * The candidates of a query are the values of all terms which could unify
+ * with it, for any type of variable and without partial matches of
+ * conjunctions: a superset of the unifiable ones, which have to be checked
+ * by unification, found without visiting the terms with other atoms or
+ * shapes at the positions the query fixes. The keys hash the same in every
+ * run, so the order of the candidates only depends on the terms added.
+ */
+public class TermIndex<V> implements Serializable {
+
+    /** key of the variables */
+    static final class Wildcard implements Serializable {
+        @Override
+        public int hashCode() {
+            return '_';
+        }
+
+        private Object readResolve() {
+            return WILDCARD;
+        }
+    }
+
+    static final Object WILDCARD = new Wildcard();
+
+    /** key of a compound term: what unification requires to be equal before it looks at the components */
+    static final class Shape implements Serializable {
+        final Class type;
+        final int size, order, relation;
+        final boolean spatial;
+        /** components which follow in the path */
+        final int arity;
+
+        Shape(final CompoundTerm t) {
+            type = t.getClass();
+            size = t.size();
+            order = t.getTemporalOrder();
+            spatial = (t instanceof Conjunction) && t.getIsSpatial();
+            relation = (t instanceof ImageExt) ? ((ImageExt) t).relationIndex :
+                       (t instanceof ImageInt) ? ((ImageInt) t).relationIndex : -1;
+            arity = t.isCommutative() ? 0 : size;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (!(o instanceof Shape)) {
+                return false;
+            }
+            final Shape s = (Shape) o;
+            return type == s.type && size == s.size && order == s.order && relation == s.relation && spatial == s.spatial;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((type.getName().hashCode() * 31 + size) * 31 + order) * 31 + relation + (spatial ? 1 : 0);
+        }
+
+        @Override
+        public String toString() {
+            return type.getSimpleName() + "/" + size;
+        }
+    }
+
+    /** the children of a node are in a map only when there are several, as most paths do not branch */
+    static final class Node<V> implements Serializable {
+        Object key;
+        Node<V> child;
+        Map<Object,Node<V>> children;
+        List<V> values;
+
+        Node<V> get(final Object k) {
+            if (children != null) {
+                return children.get(k);
+            }
+            return (child != null && key.equals(k)) ? child : null;
+        }
+
+        void put(final Object k, final Node<V> c) {
+            if (children != null) {
+                children.put(k, c);
+            } else if (child == null) {
+                key = k;
+                child = c;
+            } else {
+                children = new HashMap<>(4);
+                children.put(key, child);
+                children.put(k, c);
+                key = null;
+                child = null;
+            }
+        }
+
+        void remove(final Object k) {
+            if (children != null) {
+                children.remove(k);
+            } else if (child != null && key.equals(k)) {
+                key = null;
+                child = null;
+            }
+        }
+
+        boolean isEmpty() {
+            return child == null && (children == null || children.isEmpty()) && (values == null || values.isEmpty());
+        }
+    }
+
+    private Node<V> root = new Node<>();
+    private int size;
+
+    /** adds a value under a term */
+    public void add(final Term term, final V value) {
+        final List<Object> path = new ArrayList<>();
+        path(term, path);
+        Node<V> n = root;
+        for (final Object key : path) {
+            Node<V> c = n.get(key);
+            if (c == null) {
+                c = new Node<>();
+                n.put(key, c);
+            }
+            n = c;
+        }
+        if (n.values == null) {
+            n.values = new ArrayList<>(2);
+        }
+        n.values.add(value);
+        size++;
+    }
+
+    /**
+     * removes a value, the same instance, from under a term
+     *
+     * @return whether it was there
+     */
+    public boolean remove(final Term term, final V value) {
+        final List<Object> path = new ArrayList<>();
+        path(term, path);
+        if (remove(root, path, 0, value)) {
+            size--;
+            return true;
+        }
+        return false;
+    }
+
+    private static <V> boolean remove(final Node<V> n, final List<Object> path, final int i, final V value) {
+        if (i == path.size()) {
+            if (n.values != null) {
+                for (int j = 0; j < n.values.size(); j++) {
+                    if (n.values.get(j) == value) {
+                        n.values.remove(j);
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+        final Node<V> c = n.get(path.get(i));
+        if (c == null || !remove(c, path, i + 1, value)) {
+            return false;
+        }
+        if (c.isEmpty()) {
+            n.remove(path.get(i));
+        }
+        return true;
+    }
+
+    public void clear() {
+        root = new Node<>();
+        size = 0;
+    }
+
+    /** number of values */
+    public int size() {
+        return size;
+    }
+
+    /** adds the values of the terms which could unify with a term to a collection */
+    public <C extends Collection<? super V>> C candidates(final Term query, final C into) {
+        final List<Object> path = new ArrayList<>();
+        path(query, path);
+        final Object[] keys = path.toArray();
+        //index after the subterm starting at each position
+        final int[] next = new int[keys.length];
+        for (int i = keys.length - 1; i >= 0; i--) {
+            int j = i + 1;
+            for (int k = arity(keys[i]); k > 0; k--) {
+                j = next[j];
+            }
+            next[i] = j;
+        }
+        match(root, keys, next, 0, into);
+        return into;
+    }
+
+    private static <V> void match(final Node<V> n, final Object[] keys, final int[] next, final int i, final Collection<? super V> into) {
+        if (i == keys.length) {
+            if (n.values != null) {
+                into.addAll(n.values);
+            }
+            return;
+        }
+        final Object key = keys[i];
+        if (key == WILDCARD) {
+            skip(n, 1, keys, next, i + 1, into);
+            return;
+        }
+        final Node<V> any = n.get(WILDCARD);
+        if (any != null) {
+            match(any, keys, next, next[i], into);
+        }
+        final Node<V> c = n.get(key);
+        if (c != null) {
+            match(c, keys, next, i + 1, into);
+        }
+    }
+
+    /** continues the query at position i from the nodes after the next subterms of the tree */
+    private static <V> void skip(final Node<V> n, final int subterms, final Object[] keys, final int[] next, final int i, final Collection<? super V> into) {
+        if (subterms == 0) {
+            match(n, keys, next, i, into);
+            return;
+        }
+        if (n.child != null) {
+            skip(n.child, subterms - 1 + arity(n.key), keys, next, i, into);
+        } else if (n.children != null) {
+            for (final Map.Entry<Object,Node<V>> e : n.children.entrySet()) {
+                skip(e.getValue(), subterms - 1 + arity(e.getKey()), keys, next, i, into);
+            }
+        }
+    }
+
+    static int arity(final Object key) {
+        return (key instanceof Shape) ? ((Shape) key).arity : 0;
+    }
+
+    static void path(final Term t, final List<Object> path) {
+        if (t instanceof Variable) {
+            path.add(WILDCARD);
+        } else if (t instanceof CompoundTerm) {
+            final CompoundTerm c = (CompoundTerm) t;
+            final Shape s = new Shape(c);
+            path.add(s);
+            if (s.arity > 0) {
+                for (final Term component : c.term) {
+                    path(component, path);
+                }
+            }
+        } else {
+            path.add(t.name().toString());
+        }
+    }
+}
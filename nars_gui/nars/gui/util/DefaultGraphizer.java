@@ -4,7 +4,6 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.Map;
 import javax.swing.JTextField;
-import nars.main.Parameters;
 import nars.entity.Concept;
 import nars.entity.Sentence;
 import nars.entity.Task;
@@ -100,7 +99,7 @@ public class DefaultGraphizer implements NARGraph.Graphize {
         
         Term t = c.term;
         
-        if(this.filterBox != null && terms.size() < nConcepts.get()*((double) Parameters.CONCEPT_BAG_SIZE) &&
+        if(this.filterBox != null && terms.size() < nConcepts.get()*((double) c.memory.concepts.getCapacity()) &&
                 c.getPriority() > this.conceptPriorityThreshold.get() &&
                 ("".equals(this.filterBox.getText()) || t.toString().contains(this.filterBox.getText()))){
             g.addVertex(c);
@@ -11,6 +11,7 @@ import nars.main.NAR;
 import nars.main.Parameters;
 import nars.plugin.Plugin;
 import nars.control.DerivationContext;
+import nars.storage.Memory;
 import nars.entity.BudgetValue;
 import nars.entity.Concept;
 import nars.entity.Sentence;
@@ -33,8 +34,11 @@ import nars.language.Term;
  */
 public class PerceptionAccel implements Plugin, EventEmitter.EventObserver {
 
+    Memory memory;
+
     @Override
     public boolean setEnabled(NAR n, boolean enabled) {
+        memory = n.memory;
         //register listening to new events:
         n.memory.event.set(this, enabled, Events.InduceSucceedingEvent.class, Events.ConceptNew.class, Events.ConceptForget.class);
         return true;
@@ -94,8 +98,7 @@ public class PerceptionAccel implements Plugin, EventEmitter.EventObserver {
                 evB[u]=l;
                 u++;
             }
-            st.baseLength=evB.length;
-            st.evidentialBase=evB;
+            st.setEvidentialBase(evB);
             
             boolean eventBufferDidNotHaveSoMuchEvents=false;
             for(int i=0;i<relterms.length;i++) {
@@ -220,8 +223,12 @@ public class PerceptionAccel implements Plugin, EventEmitter.EventObserver {
                 while(eventbuffer.size()>cur_maxlen+1) {
                     eventbuffer.remove(0);
                 }
-                DerivationContext nal= (DerivationContext)args[1];
-                perceive(nal);
+                DerivationContext nal = memory.acquireContext();
+                try {
+                    perceive(nal);
+                } finally {
+                    memory.releaseContext(nal);
+                }
             }
         }
         if(event == Events.ConceptForget.class) {
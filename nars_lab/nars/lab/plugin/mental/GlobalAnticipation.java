@@ -15,6 +15,7 @@ import nars.main.NAR.PluginState;
 import nars.main.Parameters;
 import nars.plugin.Plugin;
 import nars.control.DerivationContext;
+import nars.storage.Memory;
 import nars.entity.BudgetValue;
 import nars.entity.Concept;
 import nars.entity.Sentence;
@@ -37,6 +38,7 @@ import nars.operator.mental.Anticipate;
 public class GlobalAnticipation implements Plugin, EventEmitter.EventObserver {
 
     public final ArrayDeque<Task> stm = new ArrayDeque();
+    Memory memory;
     public final List<Task> current_tasks=new ArrayList<Task>();
     int MatchUpTo=20;
     
@@ -79,7 +81,6 @@ public class GlobalAnticipation implements Plugin, EventEmitter.EventObserver {
         }
         else if (event == Events.InduceSucceedingEvent.class) {            
             Task newEvent = (Task)args[0];
-            DerivationContext nal= (DerivationContext)args[1];
             
             if (newEvent.sentence.truth!=null) {
                 stm.add(newEvent);
@@ -88,7 +89,12 @@ public class GlobalAnticipation implements Plugin, EventEmitter.EventObserver {
                 }
             }
             
-            temporalPredictionsAdapt(nal);
+            DerivationContext nal = memory.acquireContext();
+            try {
+                temporalPredictionsAdapt(nal);
+            } finally {
+                memory.releaseContext(nal);
+            }
         }
     }  
     
@@ -226,6 +232,7 @@ public class GlobalAnticipation implements Plugin, EventEmitter.EventObserver {
     
     @Override
     public boolean setEnabled(NAR n, boolean enabled) {
+        memory = n.memory;
         //Events.TaskDerive.class Events.ConceptBeliefRemove.class
         n.memory.event.set(this, enabled, Events.InduceSucceedingEvent.class, Events.TaskDerive.class, Events.ConceptBeliefRemove.class);
         return true;
@@ -19,7 +19,7 @@ import javax.swing.ImageIcon;
 import nars.io.events.Events.TaskImmediateProcess;
 import nars.main.NAR;
 import nars.main.Parameters;
-import nars.control.DerivationContext;
+import nars.entity.Concept;
 import nars.entity.Sentence;
 import nars.entity.Task;
 import nars.gui.NARSwing;
@@ -125,10 +125,10 @@ public class Predict_NARS_Core {
             
             
             @Override
-            public void onProcessed(Task t, DerivationContext n) {
+            public void onProcessed(Task t, Concept c) {
                // if(true)
                //     return;
-                if (t.sentence.getOccurenceTime() >= n.memory.time() && t.sentence.truth.getExpectation()>0.5) {
+                if (t.sentence.getOccurenceTime() >= n.time() && t.sentence.truth.getExpectation()>0.5) {
                                         Term term = t.getTerm();
                     int time = (int) t.sentence.getOccurenceTime() / thinkInterval;
                     /*if(positionTruthExp.containsKey(time)) {
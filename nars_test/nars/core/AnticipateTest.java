@@ -0,0 +1,112 @@
+package nars.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import nars.entity.BudgetValue;
+import nars.entity.Sentence;
+import nars.entity.Stamp;
+import nars.entity.Task;
+import nars.entity.TruthValue;
+import nars.io.Symbols;
+import nars.io.events.EventEmitter.EventObserver;
+import nars.io.events.Events;
+import nars.io.events.OutputHandler.CONFIRM;
+import nars.io.events.OutputHandler.DISAPPOINT;
+import nars.language.Term;
+import nars.main.NAR;
+import nars.operator.mental.Anticipate;
+import nars.storage.Memory;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class AnticipateTest {
+
+    final NAR n = new NAR();
+    final Memory m = n.memory;
+    final Anticipate anticipate = (Anticipate) m.getOperator("^anticipate");
+    final List<Object> confirmed = new ArrayList<>();
+    final List<Object> disappointed = new ArrayList<>();
+
+    public AnticipateTest() {
+        anticipate.setAnticipationAsOperator(false);
+        m.event.on(CONFIRM.class, new EventObserver() {
+            @Override
+            public void event(Class event, Object[] args) {
+                confirmed.add(args[0]);
+            }
+        });
+        m.event.on(DISAPPOINT.class, new EventObserver() {
+            @Override
+            public void event(Class event, Object[] args) {
+                disappointed.add(((Task) args[0]).getTerm());
+            }
+        });
+    }
+
+    void observe(Term t) {
+        Stamp stamp = new Stamp(m);
+        stamp.setOccurrenceTime(m.time());
+        Sentence s = new Sentence(t, Symbols.JUDGMENT_MARK, new TruthValue(1.0f, 0.9f), stamp);
+        anticipate.event(Events.InduceSucceedingEvent.class, new Object[] { new Task(s, new BudgetValue(0.8f, 0.5f, 0.5f), true) });
+    }
+
+    void cycle(long cycles) {
+        m.skip(cycles);
+        anticipate.event(Events.CycleEnd.class, null);
+    }
+
+    @Test
+    public void testExpires() {
+        Term a = new Term("a");
+        anticipate.anticipate(a, m, m.time() + 5, null);
+        observe(new Term("b"));
+        cycle(1);
+        assertEquals(1, anticipate.getPending());
+        assertEquals(0, disappointed.size());
+        //it did not happen within the tolerance of its interval
+        cycle(1000);
+        assertEquals(0, anticipate.getPending());
+        assertEquals(1, disappointed.size());
+        assertEquals(a, disappointed.get(0));
+        assertEquals(0, confirmed.size());
+    }
+
+    @Test
+    public void testConfirmsFirstPending() {
+        Term a = new Term("a"), b = new Term("b");
+        anticipate.anticipate(a, m, m.time() + 5, null);
+        anticipate.anticipate(b, m, m.time() + 5, null);
+        anticipate.anticipate(a, m, m.time() + 10, null);
+        cycle(3);
+        observe(a);
+        cycle(1);
+        assertEquals(1, confirmed.size());
+        assertEquals(a, confirmed.get(0));
+        assertEquals(2, anticipate.getPending());
+        observe(a);
+        cycle(1);
+        assertEquals(2, confirmed.size());
+        assertEquals(1, anticipate.getPending());
+        //the confirmed ones do not expire
+        cycle(1000);
+        assertEquals(0, anticipate.getPending());
+        assertEquals(1, disappointed.size());
+        assertEquals(b, disappointed.get(0));
+    }
+
+    @Test
+    public void testManyPending() {
+        for (int i = 0; i < 10000; i++) {
+            anticipate.anticipate(new Term("t" + i), m, m.time() + 1 + i % 10, null);
+        }
+        cycle(1);
+        assertEquals(10000, anticipate.getPending());
+        observe(new Term("t5000"));
+        cycle(1);
+        assertEquals(1, confirmed.size());
+        assertEquals(9999, anticipate.getPending());
+        cycle(1000);
+        assertEquals(0, anticipate.getPending());
+        assertEquals(9999, disappointed.size());
+    }
+}
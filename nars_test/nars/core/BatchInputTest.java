@@ -0,0 +1,51 @@
+package nars.core;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.stream.Stream;
+import nars.main.BatchInput;
+import nars.main.NAR;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+public class BatchInputTest {
+
+    static final String input =
+            "'a comment\n" +
+            "<a --> b>.\n" +
+            "\n" +
+            "//another comment\n" +
+            "<b --> c>. %1.00;0.90%\n" +
+            "<a --> c>?\n" +
+            "<a --> >.\n" +
+            "5\n" +
+            "*volume=0\n" +
+            "*nonsense\n" +
+            "10\n";
+
+    @Test
+    public void testReaderInput() throws IOException {
+        NAR n = new NAR();
+        BatchInput b = n.addInput(new StringReader(input));
+
+        assertEquals(11, b.lines);
+        assertEquals(3, b.tasks);
+        assertEquals(15, b.cycles);
+        assertEquals(2, b.errors.size());
+        assertEquals(7, b.errors.get(0).line);
+        assertEquals(10, b.errors.get(1).line);
+        assertEquals(0, n.param.noiseLevel.get());
+
+        //no cycle was run, all tasks are waiting for the next one
+        assertEquals(0, n.time());
+        assertEquals(3, n.memory.newTasks.size());
+    }
+
+    @Test
+    public void testStreamInput() {
+        NAR n = new NAR();
+        BatchInput b = n.addInput(Stream.of(input.split("\n")));
+        assertEquals(3, b.tasks);
+        assertEquals(3, n.memory.newTasks.size());
+    }
+}
@@ -0,0 +1,189 @@
+package nars.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import nars.entity.BudgetValue;
+import nars.entity.Concept;
+import nars.entity.Sentence;
+import nars.entity.Task;
+import nars.inference.LocalRules;
+import nars.io.Narsese;
+import nars.main.NAR;
+import nars.storage.BeliefTable;
+import static nars.inference.BudgetFunctions.rankBelief;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class BeliefTableTest {
+
+    /** Concept.addToTable before BeliefTable */
+    static Task legacyAdd(final Task newTask, final List<Task> table, final int capacity, boolean rankTruthExpectation) {
+        Sentence newSentence = newTask.sentence;
+        final float rank1 = rankBelief(newSentence, rankTruthExpectation);
+        int i;
+        for (i = 0; i < table.size(); i++) {
+            Sentence judgment2 = table.get(i).sentence;
+            if (rank1 >= rankBelief(judgment2, rankTruthExpectation)) {
+                if (newSentence.truth.equals(judgment2.truth) && newSentence.stamp.equals(judgment2.stamp,false,true,true)) {
+                    return null;
+                }
+                table.add(i, newTask);
+                break;
+            }
+        }
+        if (table.size() > capacity) {
+            return table.remove(table.size() - 1);
+        } else if (table.size() < capacity && i == table.size()) {
+            table.add(newTask);
+        }
+        return null;
+    }
+
+    /** Concept.selectCandidate before it stopped at the rank of the best candidate */
+    static Task legacySelect(final Task query, final List<Task> list, final NAR n) {
+        float currentBest = 0;
+        Task candidate = null;
+        for (Task t : list) {
+            float q = LocalRules.solutionQuality(true, query, t.sentence, n.memory);
+            if (q > currentBest) {
+                currentBest = q;
+                candidate = t;
+            }
+        }
+        return candidate;
+    }
+
+    /** beliefs about one term with random truth values, a few of them events at random times */
+    static List<Task> beliefs(NAR n, Random r, int count) throws Exception {
+        Narsese narsese = new Narsese(n);
+        List<Task> beliefs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            if (r.nextInt(4) == 0) {
+                n.cycles(r.nextInt(3));
+            }
+            String truth = " %" + r.nextInt(11) / 10f + ";" + (1 + r.nextInt(9)) / 10f + "%";
+            beliefs.add(narsese.parseTask("<a --> b>." + (r.nextInt(3) == 0 ? " :|:" : "") + truth));
+        }
+        return beliefs;
+    }
+
+    @Test
+    public void testSameTableAsLegacy() throws Exception {
+        Random r = new Random(1);
+        for (boolean expectation : new boolean[] { false, true }) {
+            for (int capacity : new int[] { 1, 7, 28, 200 }) {
+                NAR n = new NAR();
+                BeliefTable table = new BeliefTable(expectation);
+                List<Task> legacy = new ArrayList<>();
+                for (Task t : beliefs(n, r, 400)) {
+                    assertSame(legacyAdd(t, legacy, capacity, expectation), table.add(t, capacity));
+                    assertEquals(legacy, table);
+                }
+                for (int i = 1; i < table.size(); i++) {
+                    assertTrue(table.rank(i - 1) >= table.rank(i));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRejectsDuplicates() throws Exception {
+        NAR n = new NAR();
+        Narsese narsese = new Narsese(n);
+        BeliefTable table = new BeliefTable(false);
+        Task a = narsese.parseTask("<a --> b>. %1.0;0.9%");
+        Task b = narsese.parseTask("<a --> b>. %0.0;0.9%");
+        Task c = narsese.parseTask("<a --> b>. %0.5;0.8%");
+        assertNull(table.add(a, 3));
+        assertNull(table.add(b, 3));
+        assertNull(table.add(c, 3));
+        //a is not the first of its rank anymore
+        assertNull(table.add(a, 3));
+        assertNull(table.add(c, 3));
+        assertEquals(3, table.size());
+        assertEquals(2, table.top(2).size());
+        assertSame(b, table.top(2).get(0));
+        assertSame(c, table.top(5).get(2));
+        //a new belief of the lowest rank does not fit
+        Task d = narsese.parseTask("<a --> b>. %0.5;0.1%");
+        assertNull(table.add(d, 3));
+        assertEquals(3, table.size());
+        Task e = narsese.parseTask("<a --> b>. %0.5;0.85%");
+        assertSame(c, table.add(e, 3));
+        assertSame(e, table.get(2));
+    }
+
+    @Test
+    public void testSelectsSameCandidateAsScan() throws Exception {
+        Random r = new Random(2);
+        NAR n = new NAR();
+        Narsese narsese = new Narsese(n);
+        Concept c = new Concept(new BudgetValue(0.5f, 0.5f, 0.5f), narsese.parseTerm("<a --> b>"), n.memory);
+        for (Task t : beliefs(n, r, 300)) {
+            c.addToTable(t, c.beliefs, 28, Object.class, Object.class);
+            for (String q : new String[] { "<a --> b>?", "<a --> b>? :|:" }) {
+                Task query = narsese.parseTask(q);
+                assertSame(legacySelect(query, c.beliefs, n), c.selectCandidate(query, c.beliefs));
+            }
+        }
+    }
+
+    @Test
+    public void testRerankAfterDoubt() throws Exception {
+        NAR n = new NAR();
+        Narsese narsese = new Narsese(n);
+        Concept c = new Concept(new BudgetValue(0.5f, 0.5f, 0.5f), narsese.parseTerm("<a --> b>"), n.memory);
+        Task a = narsese.parseTask("<a --> b>. %1.0;0.9%");
+        Task b = narsese.parseTask("<a --> b>. %1.0;0.8%");
+        Task d = narsese.parseTask("<a --> b>. %1.0;0.7%");
+        for (Task t : new Task[] { a, b, d }) {
+            c.addToTable(t, c.beliefs, 3, Object.class, Object.class);
+        }
+        c.discountConfidence(true);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(rankBelief(c.beliefs.get(i).sentence, false), c.beliefs.rank(i), 0);
+        }
+        //ranked above the doubted beliefs, the lowest of them is removed
+        Task e = narsese.parseTask("<a --> b>. %1.0;0.42%");
+        c.addToTable(e, c.beliefs, 3, Object.class, Object.class);
+        assertEquals(3, c.beliefs.size());
+        assertSame(a, c.beliefs.get(0));
+        assertSame(e, c.beliefs.get(1));
+        assertSame(b, c.beliefs.get(2));
+
+        //a task whose truth changed alone moves to its new rank
+        a.sentence.discountConfidence();
+        a.sentence.discountConfidence();
+        c.beliefs.rerank();
+        assertSame(e, c.beliefs.get(0));
+        assertSame(b, c.beliefs.get(1));
+        assertSame(a, c.beliefs.get(2));
+        for (int i = 1; i < 3; i++) {
+            assertTrue(c.beliefs.rank(i - 1) >= c.beliefs.rank(i));
+        }
+    }
+
+    @Test
+    public void testCapacityPerNAR() throws Exception {
+        NAR n = new NAR();
+        n.memory.param.conceptBeliefsMax.set(3);
+        for (int i = 1; i <= 9; i++) {
+            n.addInput("<a --> b>. %1.0;0." + i + "%");
+        }
+        n.cycles(1);
+        Concept c = n.memory.concept(new Narsese(n).parseTerm("<a --> b>"));
+        assertEquals(3, c.beliefs.size());
+        assertEquals(0.9f, c.beliefs.get(0).sentence.truth.getConfidence(), 0.001f);
+
+        //lowering the capacity trims the table on the next belief
+        n.memory.param.conceptBeliefsMax.set(2);
+        n.addInput("<a --> b>. %0.0;0.95%");
+        n.cycles(1);
+        assertEquals(2, c.beliefs.size());
+        assertEquals(0.95f, c.beliefs.get(0).sentence.truth.getConfidence(), 0.001f);
+    }
+}
@@ -0,0 +1,123 @@
+package nars.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import nars.entity.Concept;
+import nars.main.NAR;
+import nars.storage.Checkpoint;
+import static nars.core.SnapshotTest.describe;
+import static nars.core.SnapshotTest.reasoned;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class CheckpointTest {
+
+    /** the descriptions of the concepts, as the order of changed concepts within their levels is not kept */
+    static List<String> concepts(NAR n) {
+        List<String> concepts = new ArrayList<>();
+        StringBuilder c = new StringBuilder();
+        for (String line : describe(n)) {
+            if (!line.startsWith(" ") && c.length() > 0) {
+                concepts.add(c.toString());
+                c.setLength(0);
+            }
+            c.append(line).append('\n');
+        }
+        concepts.add(c.toString());
+        Collections.sort(concepts);
+        return concepts;
+    }
+
+    static int files(Path dir) {
+        return dir.toFile().list().length;
+    }
+
+    @Test
+    public void testRestoresRollingDeltas() throws IOException {
+        Path dir = Files.createTempDirectory("checkpoint");
+        dir.toFile().deleteOnExit();
+        NAR a = reasoned();
+        try (Checkpoint c = new Checkpoint(a.memory, dir, 0, 3)) {
+            assertEquals(1, c.checkpoint());
+            for (int i = 0; i < 3; i++) {
+                a.addInput("<{Tweety} --> [yellow]>.");
+                a.cycles(50);
+                c.checkpoint();
+                assertTrue(c.lastConcepts < a.memory.concepts.size());
+            }
+            c.sync();
+            //every concept was written again within the last 3 deltas, the snapshot is deleted
+            assertEquals(3, files(dir));
+            assertTrue(new File(dir.toFile(), "0000000000000002.delta").exists());
+
+            NAR b = new NAR();
+            assertEquals(4, Checkpoint.restore(dir, b.memory));
+            assertEquals(concepts(a), concepts(b));
+
+            a.cycles(50);
+            assertEquals(5, c.checkpoint());
+            a.cycles(50);
+            c.checkpoint();
+            c.sync();
+            assertEquals(3, files(dir));
+
+            NAR d = new NAR();
+            assertEquals(6, Checkpoint.restore(dir, d.memory));
+            assertEquals(concepts(a), concepts(d));
+        }
+        for (File f : dir.toFile().listFiles()) {
+            f.delete();
+        }
+    }
+
+    @Test
+    public void testPeriodicCheckpoints() throws IOException {
+        Path dir = Files.createTempDirectory("checkpoint");
+        dir.toFile().deleteOnExit();
+        NAR a = reasoned();
+        try (Checkpoint c = new Checkpoint(a.memory, dir, 10, 100)) {
+            for (int i = 0; i < 50; i++) {
+                a.cycles(1);
+            }
+        }
+        assertEquals(5, files(dir));
+        NAR b = new NAR();
+        Checkpoint.restore(dir, b.memory);
+        assertEquals(concepts(a), concepts(b));
+        for (File f : dir.toFile().listFiles()) {
+            f.delete();
+        }
+    }
+
+    @Test
+    public void testLookupNotDirty() throws IOException {
+        Path dir = Files.createTempDirectory("checkpoint");
+        dir.toFile().deleteOnExit();
+        NAR a = reasoned();
+        try (Checkpoint c = new Checkpoint(a.memory, dir, 0, 3)) {
+            c.checkpoint();
+            //looking a concept up does not change it
+            Concept concept = null;
+            for (Concept k : a.memory.concepts) {
+                concept = k;
+            }
+            assertSame(concept, a.memory.concept(concept.term));
+            assertFalse(concept.dirty);
+            concept.discountConfidence(true);
+            assertTrue(concept.dirty);
+            c.checkpoint();
+            assertFalse(concept.dirty);
+        }
+        for (File f : dir.toFile().listFiles()) {
+            f.delete();
+        }
+    }
+}
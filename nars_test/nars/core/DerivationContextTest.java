@@ -0,0 +1,76 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.core;
+
+import java.lang.ref.WeakReference;
+import nars.control.DerivationContext;
+import nars.entity.BudgetValue;
+import nars.entity.Stamp;
+import nars.language.Term;
+import nars.main.NAR;
+import nars.storage.Memory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import org.junit.Test;
+
+public class DerivationContextTest {
+
+    @Test
+    public void testReused() {
+        Memory m = new NAR().memory;
+        DerivationContext c = m.acquireContext();
+        DerivationContext nested = m.acquireContext();
+        assertNotSame(c, nested);
+        m.releaseContext(nested);
+
+        c.setCurrentConcept(m.conceptualize(new BudgetValue(0.5f, 0.5f, 0.5f), new Term("a")));
+        c.evidentalOverlap = true;
+        c.setTheNewStamp(new Stamp(m), new Stamp(m), m.time());
+        m.releaseContext(c);
+
+        DerivationContext again = m.acquireContext();
+        assertSame(c, again);
+        assertNull(again.getCurrentConcept());
+        assertNull(again.getTheNewStamp());
+        assertFalse(again.evidentalOverlap);
+    }
+
+    @Test
+    public void testMemoryCollected() throws Exception {
+        NAR n = new NAR();
+        n.addInput("<a --> b>.");
+        n.addInput("<b --> c>.");
+        n.cycles(10);
+        WeakReference<Memory> m = new WeakReference<>(n.memory);
+        n = null;
+        //the contexts pooled on this thread do not keep the memory
+        for (int i = 0; i < 50 && m.get() != null; i++) {
+            System.gc();
+            Thread.sleep(10);
+        }
+        assertNull(m.get());
+    }
+
+    @Test
+    public void testLazyStamp() {
+        Memory m = new NAR().memory;
+        DerivationContext c = m.acquireContext();
+        Stamp a = new Stamp(m), b = new Stamp(m);
+        c.setTheNewStamp(a, b, 3);
+        assertNull(c.getNewStamp());
+        Stamp s = c.getTheNewStamp();
+        assertSame(s, c.getTheNewStamp());
+        assertEquals(2, s.baseLength);
+        assertEquals(3, s.getCreationTime());
+
+        //a given stamp replaces the premises
+        c.setTheNewStamp(a, b, 4);
+        c.setTheNewStamp(a);
+        assertSame(a, c.getTheNewStamp());
+    }
+}
@@ -0,0 +1,254 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.core;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import nars.entity.Concept;
+import nars.entity.TaskLink;
+import nars.io.events.EventEmitter;
+import nars.io.events.EventEmitter.EventObserver;
+import nars.io.events.EventHandler;
+import nars.io.events.Events;
+import nars.main.NAR;
+import nars.storage.Memory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assume.assumeTrue;
+import org.junit.Test;
+
+public class EventEmitterTest {
+
+    static class A { }
+    static class B { }
+
+    static class Recorder implements EventObserver {
+        final List<Object> got = Collections.synchronizedList(new ArrayList<>());
+        volatile Thread thread;
+
+        @Override
+        public void event(Class event, Object[] args) {
+            thread = Thread.currentThread();
+            got.add(args[0]);
+        }
+    }
+
+    @Test
+    public void testSyncAndAsync() throws Exception {
+        EventEmitter e = new EventEmitter();
+        Recorder sync = new Recorder(), async = new Recorder();
+        e.on(A.class, sync);
+        e.on(A.class, async, true);
+        assertTrue(e.isActive(A.class));
+        assertFalse(e.isActive(B.class));
+
+        //more events than fit in the ring buffer
+        final int n = EventEmitter.ASYNC_CAPACITY * 3;
+        for (int i = 0; i < n; i++) {
+            e.emit(A.class, i);
+        }
+        assertEquals(n, sync.got.size());
+        assertEquals(Thread.currentThread(), sync.thread);
+        e.flush();
+        assertEquals(0, e.getPending());
+        assertEquals(sync.got, async.got);
+        assertNotSame(Thread.currentThread(), async.thread);
+
+        e.off(A.class, async);
+        e.emit(A.class, n);
+        e.flush();
+        assertEquals(n + 1, sync.got.size());
+        assertEquals(n, async.got.size());
+    }
+
+    @Test
+    public void testSlowObserverDoesNotHoldEmitter() throws Exception {
+        EventEmitter e = new EventEmitter();
+        final CountDownLatch release = new CountDownLatch(1);
+        final Recorder r = new Recorder();
+        e.on(A.class, new EventObserver() {
+            @Override
+            public void event(Class event, Object[] args) {
+                try {
+                    release.await();
+                } catch (InterruptedException ex) {
+                }
+                r.event(event, args);
+            }
+        }, true);
+        //the observer blocks until all are emitted
+        for (int i = 0; i < 100; i++) {
+            e.emit(A.class, i);
+        }
+        assertTrue(e.getPending() > 0);
+        release.countDown();
+        e.flush();
+        assertEquals(100, r.got.size());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(i, r.got.get(i));
+        }
+    }
+
+    @Test
+    public void testChangesWhileEmitting() throws Exception {
+        final EventEmitter e = new EventEmitter();
+        final Recorder r = new Recorder();
+        //an observer which removes itself and adds another one
+        e.on(A.class, new EventObserver() {
+            @Override
+            public void event(Class event, Object[] args) {
+                e.off(A.class, this);
+                e.on(A.class, r);
+                throw new RuntimeException("thrown by an observer");
+            }
+        });
+        e.emit(A.class, 1);
+        e.emit(A.class, 2);
+        assertEquals(1, r.got.size());
+        assertEquals(2, r.got.get(0));
+        assertEquals(1, e.getErrors());
+    }
+
+    @Test
+    public void testEmittersOnThreads() throws Exception {
+        final EventEmitter e = new EventEmitter();
+        final Recorder r = new Recorder();
+        e.on(B.class, r, true);
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 5000; i++) {
+                        e.emit(B.class, i);
+                    }
+                }
+            };
+            threads[t].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        e.flush();
+        assertEquals(threads.length * 5000, r.got.size());
+    }
+
+    @Test
+    public void testAsyncHandlerOfNAR() throws Exception {
+        NAR n = new NAR();
+        final List<Object> derived = Collections.synchronizedList(new ArrayList<>());
+        EventHandler h = new EventHandler(n, true, true, Events.TaskDerive.class) {
+            @Override
+            public void event(Class event, Object[] args) {
+                derived.add(args[0]);
+            }
+        };
+        final List<Object> expected = new ArrayList<>();
+        new EventHandler(n, true, Events.TaskDerive.class) {
+            @Override
+            public void event(Class event, Object[] args) {
+                expected.add(args[0]);
+            }
+        };
+        n.addInput("<a --> b>.");
+        n.addInput("<b --> c>.");
+        n.cycles(100);
+        n.memory.event.flush();
+        assertTrue(expected.size() > 0);
+        assertEquals(expected, derived);
+        h.setActive(false);
+        assertTrue(n.memory.event.isActive(Events.TaskDerive.class));
+    }
+
+    @Test
+    public void testAsyncObserverOfConceptFire() throws Exception {
+        NAR n = new NAR();
+        final List<Object> fired = Collections.synchronizedList(new ArrayList<>());
+        new EventHandler(n, true, true, Events.ConceptFire.class) {
+            @Override
+            public void event(Class event, Object[] args) {
+                fired.add(Arrays.asList(args));
+            }
+        };
+        final List<Object> expected = new ArrayList<>();
+        new EventHandler(n, true, Events.ConceptFire.class) {
+            @Override
+            public void event(Class event, Object[] args) {
+                assertTrue(args[0] instanceof Concept);
+                assertTrue(args[1] instanceof TaskLink);
+                expected.add(Arrays.asList(args[0], args[1]));
+            }
+        };
+        n.addInput("<a --> b>.");
+        n.addInput("<b --> c>.");
+        n.cycles(100);
+        n.memory.event.flush();
+        assertTrue(expected.size() > 0);
+        //the concept and task link, not a context reused after the firing
+        assertEquals(expected, fired);
+    }
+
+    /** bytes allocated by the calling thread */
+    static long allocated() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean()).getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    static void emitAll(Memory m, Object a, int n) {
+        for (int i = 0; i < n; i++) {
+            m.emit(m.conceptFire, a, a);
+            m.emit(m.termLinkSelect, a, a, a);
+            m.emit(m.beliefReason, a, a, a, Boolean.FALSE);
+            m.emit(m.taskDerive, a, Boolean.FALSE, Boolean.TRUE);
+            m.emit(Events.TaskAdd.class, a, "reason");
+            m.event.emit(Events.CycleStart.class);
+        }
+    }
+
+    @Test
+    public void testDisabledEventsAllocateNothing() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        Memory m = new NAR().memory;
+        assertFalse(m.taskDerive.active);
+        Object a = new Object();
+        emitAll(m, a, 10000);
+        long before = allocated();
+        emitAll(m, a, 100000);
+        long bytes = allocated() - before;
+        assertTrue(bytes + " bytes", bytes < 1000);
+
+        //once observed they are emitted
+        Recorder r = new Recorder();
+        m.event.on(Events.TaskDerive.class, r);
+        assertTrue(m.taskDerive.active);
+        emitAll(m, a, 3);
+        assertEquals(3, r.got.size());
+        m.event.off(Events.TaskDerive.class, r);
+        assertFalse(m.taskDerive.active);
+    }
+
+    @Test
+    public void testIdleCycleAllocatesNothing() {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        NAR n = new NAR();
+        Memory m = n.memory;
+        for (int i = 0; i < 10000; i++) {
+            m.cycle(n);
+        }
+        final int cycles = 100000;
+        long before = allocated();
+        for (int i = 0; i < cycles; i++) {
+            m.cycle(n);
+        }
+        long bytes = allocated() - before;
+        //less than a byte per cycle: nothing but what is left of the warm up
+        assertTrue(bytes + " bytes", bytes < cycles);
+    }
+}
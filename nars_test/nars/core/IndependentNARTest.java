@@ -0,0 +1,89 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import nars.io.events.EventHandler;
+import nars.io.events.Events;
+import nars.main.NAR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Reasoners running on different threads of one JVM do not share random
+ * numbers, so each derives the same as it does when it runs alone
+ */
+public class IndependentNARTest {
+
+    static String run(long seed) {
+        NAR n = new NAR();
+        n.memory.seed(seed);
+        final StringBuilder derived = new StringBuilder();
+        new EventHandler(n, true, Events.TaskDerive.class) {
+            @Override
+            public void event(Class event, Object[] args) {
+                derived.append(Arrays.toString(args)).append('\n');
+            }
+        };
+        //unifying conjunctions draws random numbers
+        n.addInput("<(&&,<$1 --> a>,<$2 --> b>,<$1 --> c>) ==> <$1 --> d>>.");
+        n.addInput("(&&,<x --> a>,<y --> b>,<x --> c>).");
+        n.cycles(300);
+        return derived.toString();
+    }
+
+    @Test
+    public void testConcurrentSameAsAlone() throws Exception {
+        final long[] seeds = { 1, 2, 1, 3, 2, 1 };
+        final String[] alone = new String[seeds.length];
+        for (int i = 0; i < seeds.length; i++) {
+            alone[i] = run(seeds[i]);
+        }
+        assertTrue(alone[0].length() > 0);
+        assertEquals(alone[0], alone[2]);
+        assertNotEquals(alone[0], alone[1]);
+
+        ExecutorService exe = Executors.newFixedThreadPool(seeds.length);
+        try {
+            List<Future<String>> concurrent = new ArrayList<>();
+            for (final long seed : seeds) {
+                concurrent.add(exe.submit(new Callable<String>() {
+                    @Override
+                    public String call() {
+                        return run(seed);
+                    }
+                }));
+            }
+            for (int i = 0; i < seeds.length; i++) {
+                assertEquals("seed " + seeds[i], alone[i], concurrent.get(i).get());
+            }
+        } finally {
+            exe.shutdown();
+        }
+    }
+
+    @Test
+    public void testSeedPerNAR() {
+        NAR a = new NAR();
+        NAR b = new NAR();
+        a.memory.seed(7);
+        b.memory.seed(8);
+        assertNotEquals(a.memory.randomNumber.nextLong(), b.memory.randomNumber.nextLong());
+        //reset starts the sequence of the seed again
+        final long first = new NAR().memory.randomNumber.nextLong();
+        a.memory.randomNumber.nextLong();
+        a.memory.seed(1);
+        a.reset();
+        assertEquals(first, a.memory.randomNumber.nextLong());
+    }
+}
@@ -3,7 +3,6 @@ package nars.core;
 import nars.main.NAR;
 import nars.main.Parameters;
 import nars.lab.ioutils.ExampleFileInput;
-import nars.storage.Memory;
 import nars.lab.testutils.OutputCondition;
 import java.io.IOException;
 import java.util.ArrayList;
@@ -28,7 +27,6 @@ public class NALTest  {
         
 
     static {
-        Memory.randomNumber.setSeed(1);
         Parameters.DEBUG = true;
     }
 
@@ -161,8 +159,6 @@ public class NALTest  {
     }
     
     protected double testNAL(final String path) {               
-        Memory.resetStatic();
-        
         final List<OutputCondition> expects = new ArrayList();
         
         NAR n = null;
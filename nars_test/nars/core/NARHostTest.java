@@ -0,0 +1,187 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import nars.io.events.EventHandler;
+import nars.io.events.Events;
+import nars.main.NAR;
+import nars.main.NARHost;
+import nars.main.NARHost.Tenant;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class NARHostTest {
+
+    static StringBuilder derivations(NAR n) {
+        final StringBuilder derived = new StringBuilder();
+        new EventHandler(n, true, Events.TaskDerive.class) {
+            @Override
+            public void event(Class event, Object[] args) {
+                derived.append(Arrays.toString(args)).append('\n');
+            }
+        };
+        return derived;
+    }
+
+    @Test
+    public void testSameAsAlone() throws Exception {
+        NAR alone = new NAR();
+        StringBuilder expected = derivations(alone);
+        alone.addInput("<a --> b>.");
+        alone.addInput("<b --> c>.");
+        alone.cycles(200);
+
+        NARHost host = new NARHost(2, 7, 200);
+        try {
+            NAR n = new NAR();
+            StringBuilder actual = derivations(n);
+            Tenant t = host.add(n, 1, Long.MAX_VALUE);
+            assertTrue(t.isParked());
+            t.input("<a --> b>.", "<b --> c>.");
+            assertTrue(host.awaitParked(60000));
+            assertEquals(200, t.getCycles());
+            assertEquals(expected.toString(), actual.toString());
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testBudget() throws Exception {
+        NARHost host = new NARHost(1, 10, Long.MAX_VALUE);
+        try {
+            Tenant t = host.add(new NAR(), 1, 55);
+            t.input("<a --> b>.");
+            assertTrue(host.awaitParked(60000));
+            assertEquals(55, t.getCycles());
+            assertEquals(0, t.getBudget());
+            assertTrue(t.isParked());
+
+            //parked tenants take no cycles
+            Thread.sleep(50);
+            assertEquals(55, t.getCycles());
+
+            t.grant(30);
+            assertTrue(host.awaitParked(60000));
+            assertEquals(85, t.getCycles());
+            assertEquals(85, t.nar.time());
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testWeightedShares() throws Exception {
+        NARHost host = new NARHost(1, 5, Long.MAX_VALUE);
+        try {
+            Tenant light = host.add(new NAR(), 1, Long.MAX_VALUE);
+            Tenant heavy = host.add(new NAR(), 3, Long.MAX_VALUE);
+            light.input("<a --> b>.");
+            heavy.input("<a --> b>.");
+            while (light.getCycles() + heavy.getCycles() < 2000) {
+                Thread.sleep(10);
+            }
+            host.remove(light);
+            host.remove(heavy);
+            assertTrue(host.awaitParked(60000));
+            double ratio = heavy.getCycles() / (double) light.getCycles();
+            assertTrue("ratio " + ratio, ratio > 2.5 && ratio < 3.5);
+            assertTrue(light.getCyclesPerSecond() > 0);
+            assertEquals(0, host.getTenants().size());
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testCyclesOfInputWithinBudget() throws Exception {
+        NARHost host = new NARHost(1, 10, 0);
+        try {
+            Tenant t = host.add(new NAR(), 1, 60);
+            t.input("<a --> b>.", "100");
+            assertTrue(host.awaitParked(60000));
+            assertEquals(60, t.getCycles());
+            assertEquals(60, t.nar.time());
+            assertEquals(0, t.getQueueDepth());
+
+            //the rest of the cycles asked for once there is budget again
+            t.grant(1000);
+            assertTrue(host.awaitParked(60000));
+            assertEquals(100, t.getCycles());
+            assertEquals(960, t.getBudget());
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testFailingTenantParked() throws Exception {
+        NARHost host = new NARHost(1, 10, 100);
+        try {
+            Tenant faulty = host.add(new NAR() {
+                @Override
+                public void cycles(int cycles) {
+                    throw new IllegalStateException("faulty");
+                }
+            }, 1, Long.MAX_VALUE);
+            Tenant healthy = host.add(new NAR(), 1, Long.MAX_VALUE);
+            faulty.input("<a --> b>.");
+            healthy.input("<a --> b>.");
+            assertTrue(host.awaitParked(60000));
+            assertTrue(faulty.isParked());
+            assertTrue(faulty.getFailure() instanceof IllegalStateException);
+            assertEquals(0, faulty.getCycles());
+            assertNull(healthy.getFailure());
+            assertEquals(100, healthy.getCycles());
+
+            //not run again, while the worker still runs the others
+            faulty.input("<b --> c>.");
+            healthy.input("<b --> c>.");
+            assertTrue(host.awaitParked(60000));
+            assertEquals(200, healthy.getCycles());
+            assertTrue(faulty.isParked());
+            assertEquals(0, host.getRunQueueDepth());
+        } finally {
+            host.shutdown();
+        }
+    }
+
+    @Test
+    public void testManyTenantsPark() throws Exception {
+        NARHost host = new NARHost(2, 10, 30);
+        try {
+            List<Tenant> tenants = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                Tenant t = host.add(new NAR(), 1 + i % 4, Long.MAX_VALUE);
+                tenants.add(t);
+            }
+            assertEquals(200, host.getParked());
+            for (Tenant t : tenants) {
+                t.input("<a --> b>.", "<b --> c>.");
+            }
+            assertTrue(host.awaitParked(120000));
+            assertEquals(200, host.getParked());
+            assertEquals(0, host.getRunQueueDepth());
+            for (Tenant t : tenants) {
+                assertEquals(30, t.getCycles());
+                assertEquals(0, t.getQueueDepth());
+            }
+
+            //input wakes a tenant, which thinks again
+            Tenant t = tenants.get(7);
+            t.input("<c --> d>.");
+            assertTrue(host.awaitParked(60000));
+            assertEquals(60, t.getCycles());
+            assertEquals(30, tenants.get(8).getCycles());
+        } finally {
+            host.shutdown();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package nars.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import nars.entity.Task;
+import nars.io.Narsese;
+import nars.main.NAR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * The cursor based Narsese parser gives the results of the substring based
+ * one it replaced, recorded for lines of the files in nal/ covering each kind
+ * of term, punctuation, budget, truth and tense
+ */
+public class NarseseTest {
+
+    /** input lines and what the substring based parser made of them */
+    static final String[][] expected = {
+        { "<<{cheese} --> [here]> =|> (^pick,cheese)>!", "Implication <<{cheese} --> [here]> =|> (^pick,cheese)>! %1.00;0.90% -2147483648 $0.9000;0.9000;0.9500$" },
+        { "<{light} --> [on]>. :|:", "Inheritance <{light} --> [on]>. %1.00;0.90% [-1] -1 $0.8000;0.5000;0.9500$" },
+        { "(^go-to,a). :|:", "Operation (^go-to,a). %1.00;0.90% [-1] -1 $0.8000;0.5000;0.9500$" },
+        { "<goal --> reached>!", "Inheritance <goal --> reached>! %1.00;0.90% -2147483648 $0.9000;0.9000;0.9500$" },
+        { "<?how =/> <goal --> reached>>?", "Implication <?1 =/> <goal --> reached>>?  -2147483648 $0.9000;0.9000;1.0000$" },
+        { "(^go-to,{switch0}). :|: %1.00;0.90%", "Operation (^go-to,{switch0}). %1.00;0.90% [-1] -1 $0.8000;0.5000;0.9500$" },
+        { "<{switch0} --> [at]>. :|: %1.00;0.90%", "Inheritance <{switch0} --> [at]>. %1.00;0.90% [-1] -1 $0.8000;0.5000;0.9500$" },
+        { "(--,<{door5} --> [opened]>). :|: %1.00;0.90%", "Negation (--,<{door5} --> [opened]>). %1.00;0.90% [-1] -1 $0.8000;0.5000;0.9500$" },
+        { "<(&/,(^pick,beer),<beer --> drink>) =/> <goal --> reached>>.", "Implication <(&/,(^pick,beer),<beer --> drink>) =/> <goal --> reached>>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<{key0} --> key>.", "Inheritance <{key0} --> key>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "(&&,<$1 --> key>,<(^go-to,$1) =/> <goal --> reached>>).", "Conjunction (&&,<$1 --> key>,<(^go-to,$1) =/> <goal --> reached>>). %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<pronouns <-> nouns>. %0.8;0.9%", "Similarity <nouns <-> pronouns>. %0.80;0.90%  -2147483648 $0.8000;0.5000;0.7700$" },
+        { "<\"he\" <-> ?who>?", "Similarity <?1 <-> \"he\">?  -2147483648 $0.9000;0.9000;1.0000$" },
+        { "OUT: <(*,\"John\",\"meat\") <-> (*,\"he\",\"meat\")>. %0.8;0.45%", "invalid" },
+        { "<<$x --> [thirsty]> ==> <(*,$x,\"water\") -->  drink>>.", "Implication <<$1 --> [thirsty]> ==> <(*,$1,\"water\") --> drink>>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "(--,<(*,\"eat\",\"eated\") --> passive>).", "Negation (--,<(*,\"eat\",\"eated\") --> passive>). %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<(&/,<$num --> (/,card,[vocalic],_)>) ==> <$num --> [even]>>?", "Implication <<$1 --> (/,card,[vocalic],_)> ==> <$1 --> [even]>>?  -2147483648 $0.9000;0.9000;1.0000$" },
+        { "<<$sth --> card> =/> js(\"this.lookCard(arg[0])\",$sth)>!", "invalid" },
+        { "<(^go-to,{switch0}) =/> <{switch0} --> [at]>>. %1.00;0.90%", "Implication <(^go-to,{switch0}) =/> <{switch0} --> [at]>>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<<{switch1} --> [on]> =/> <{light2} --> [on]>>. %1.00;0.90%", "Implication <<{switch1} --> [on]> =/> <{light2} --> [on]>>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<{door5} --> [opened]>! %1.00;0.90%", "Inheritance <{door5} --> [opened]>! %1.00;0.90% -2147483648 $0.9000;0.9000;0.9500$" },
+        { "<{tim} --> (/,livingIn,_,{graz})>. %0%", "Inheritance <{tim} --> (/,livingIn,_,{graz})>. %0.00;0.90%  -2147483648 $0.8000;0.5000;0.7125$" },
+        { "<<$1 --> (/,livingIn,_,{graz})> ==> <$1 --> murder>>.", "Implication <<$1 --> (/,livingIn,_,{graz})> ==> <$1 --> murder>>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<{?who} --> murder>?", "Inheritance <{?1} --> murder>?  -2147483648 $0.9000;0.9000;1.0000$" },
+        { "<{tim} --> (/,livingIn,_,{graz})>.", "Inheritance <{tim} --> (/,livingIn,_,{graz})>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "p_1_1. :|: %0.5%", "Term p_1_1. %0.50;0.90% [-1] -1 $0.8000;0.5000;0.5000$" },
+        { "(&|,p_2_3,p_3_2,p_3_3,p_3_4,p_4_3)?", "Conjunction (&|,p_2_3,p_3_2,p_3_3,p_3_4,p_4_3)?  -2147483648 $0.9000;0.9000;1.0000$" },
+        { "<(&/,<(*,$1,plastic) --> made_of>,(^lighter,{SELF},$1)) =/> <$1 --> [heated]>>.", "Implication <(&/,<(*,$1,plastic) --> made_of>,(^lighter,{SELF},$1)) =/> <$1 --> [heated]>>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<<$1 --> [melted]> <|> <$1 --> [pliable]>>.", "Equivalence <<$1 --> [melted]> <|> <$1 --> [pliable]>>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "(&&,<#1 --> object>,<#1 --> [unscrewing]>)!", "Conjunction (&&,<#1 --> [unscrewing]>,<#1 --> object>)! %1.00;0.90% -2147483648 $0.9000;0.9000;0.9500$" },
+        { "<0 --> num>. %1.00;0.90%", "Inheritance <0 --> num>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<(&/,<a --> b>,+3) =/> <b --> c>>.", "Implication <(&/,<a --> b>,+3) =/> <b --> c>>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<robin <-> swan>.", "Similarity <robin <-> swan>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<Tweety {-] yellow>.", "Inheritance <{Tweety} --> [yellow]>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<(\\,neutralization,acid,_) --> ?x>?", "Inheritance <(\\,neutralization,acid,_) --> ?1>?  -2147483648 $0.9000;0.9000;1.0000$" },
+        { "<<robin --> bird> <=> <robin --> [flying]>>. %0.80%", "Equivalence <<robin --> [flying]> <=> <robin --> bird>>. %0.80;0.90%  -2147483648 $0.8000;0.5000;0.7700$" },
+        { "(&&,<robin --> [flying]>,<robin --> swimmer>). %0%", "Conjunction (&&,<robin --> [flying]>,<robin --> swimmer>). %0.00;0.90%  -2147483648 $0.8000;0.5000;0.7125$" },
+        { "(||,<robin --> [flying]>,<robin --> swimmer>).", "Disjunction (||,<robin --> [flying]>,<robin --> swimmer>). %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "(||,<robin --> [flying]>,<robin --> swimmer>)?", "Disjunction (||,<robin --> [flying]>,<robin --> swimmer>)?  -2147483648 $0.9000;0.9000;1.0000$" },
+        { "$0.90;0.90$ (&&,<robin --> swimmer>,<robin --> [flying]>). %0.9%", "Conjunction (&&,<robin --> [flying]>,<robin --> swimmer>). %0.90;0.90%  -2147483648 $0.9000;0.9000;0.8600$" },
+        { "(--,<robin --> [flying]>). %0.1%", "Negation (--,<robin --> [flying]>). %0.10;0.90%  -2147483648 $0.8000;0.5000;0.6450$" },
+        { "(--,<robin --> [flying]>)?", "Negation (--,<robin --> [flying]>)?  -2147483648 $0.9000;0.9000;1.0000$" },
+        { "(&&,<#x --> bird>,<#x --> swimmer>).", "Conjunction (&&,<#1 --> bird>,<#1 --> swimmer>). %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "(&&,<#x --> lock>,<<$y --> key> ==> <#x --> (/,open,$y,_)>>).", "Conjunction (&&,<#1 --> lock>,<<$2 --> key> ==> <#1 --> (/,open,$2,_)>>). %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "(&&,<#1 --> lock>,<<$2 --> key> ==> <#1 --> (/,open,$2,_)>>). %1.00;0.90%", "Conjunction (&&,<#1 --> lock>,<<$2 --> key> ==> <#1 --> (/,open,$2,_)>>). %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<<$1 --> lock> ==> (&&,<#2 --> key>,<$1 --> (/,open,#2,_)>)>. %1.00;0.90%", "Implication <<$1 --> lock> ==> (&&,<#2 --> key>,<$1 --> (/,open,#2,_)>)>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<(*,John,room_101) --> enter>. :\\: %1.00;0.90%", "Inheritance <(*,John,room_101) --> enter>. %1.00;0.90% [-6] -6 $0.8000;0.5000;0.9500$" },
+        { "<(*,John,door_101) --> open>. :|:", "Inheritance <(*,John,door_101) --> open>. %1.00;0.90% [-1] -1 $0.8000;0.5000;0.9500$" },
+        { "<(*,John,room_101) --> enter>. :|: %0%", "Inheritance <(*,John,room_101) --> enter>. %0.00;0.90% [-1] -1 $0.8000;0.5000;0.7125$" },
+        { "<<(*,John,door_101) --> open> =/> <(*,John,room_101) --> enter>>. :|:  %1.0000;0.9000%", "Implication <<(*,John,door_101) --> open> =/> <(*,John,room_101) --> enter>>. %1.00;0.90% [-1] -1 $0.8000;0.5000;0.9500$" },
+        { "<(*,John,key_101) --> hold>? :|:", "Inheritance <(*,John,key_101) --> hold>?  -2147483648 $0.9000;0.9000;1.0000$" },
+        { "<{t003} --> (/,at,SELF,_)>. :\\:", "Inheritance <{t003} --> (/,at,SELF,_)>. %1.00;0.90% [-6] -6 $0.8000;0.5000;0.9500$" },
+        { "<(*,{t003}) --> ^go-to>. :|:", "Operation (^go-to,{t003}). %1.00;0.90% [-1] -1 $0.8000;0.5000;0.9500$" },
+        { "(--,<{David} --> (/,taller_than,{Tom},_)>).", "Negation (--,<{David} --> (/,taller_than,{Tom},_)>). %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "(&/,<a --> b>,<goal --> c>,<x --> y>). :|:", "Conjunction (&/,<a --> b>,<goal --> c>,<x --> y>). %1.00;0.90% [-1] -1 $0.8000;0.5000;0.9500$" },
+        { "(^wonder,?1)?", "Operation (^wonder,?1)?  -2147483648 $0.9000;0.9000;1.0000$" },
+        { "<<(|,are,you) --> [insentence]> =/> (^say,good,thank,you)>! %1.00;0.90%", "Implication <<(|,are,you) --> [insentence]> =/> (^say,good,thank,you)>! %1.00;0.90% -2147483648 $0.9000;0.9000;0.9500$" },
+        { "$0.99;0.99$ <?who --> [Cancer]>?", "Inheritance <?1 --> [Cancer]>?  -2147483648 $0.9900;0.9900;1.0000$" },
+        { "$0.5$ <a --> b>.", "Inheritance <a --> b>. %1.00;0.90%  -2147483648 $0.5000;0.5000;0.9500$" },
+        { "$0.5;0.4$ <a --> b>.", "Inheritance <a --> b>. %1.00;0.90%  -2147483648 $0.5000;0.4000;0.9500$" },
+        { "<a --> b>. :/:", "Inheritance <a --> b>. %1.00;0.90% [4] 4 $0.8000;0.5000;0.9500$" },
+        { "<a --> b>@", "Inheritance <a --> b>@ -2147483648 $0.9000;0.9000;1.0000$" },
+        { "<a --> b>. %0.5;0.3%", "Inheritance <a --> b>. %0.50;0.30%  -2147483648 $0.8000;0.5000;0.5000$" },
+        { "<a --] b>.", "Inheritance <a --> [b]>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<a {-- b>.", "Inheritance <{a} --> b>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<(~,a,b) --> c>.", "Inheritance <(~,a,b) --> c>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<(-,a,b) --> c>.", "Inheritance <(-,a,b) --> c>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<(&,a,b) --> c>.", "Inheritance <(&,a,b) --> c>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<(|,a,b) --> c>.", "Inheritance <(|,a,b) --> c>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<a </> b>.", "Equivalence <a </> b>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<a =\\> b>.", "Implication <a =\\> b>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "<a ==> b>. :|:", "Implication <a ==> b>. %1.00;0.90% [-1] -1 $0.8000;0.5000;0.9500$" },
+        { "(&/,a,+10,b).", "Conjunction (&/,a,+10,b). %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "({a,b} --> [c,d]).", "invalid" },
+        { "<{a,b} --> [c,d]>.", "Inheritance <{a,b} --> [c,d]>. %1.00;0.90%  -2147483648 $0.8000;0.5000;0.9500$" },
+        { "(^op,a,b)! :|:", "invalid" },
+        { "<(*,a,b) --> c>. :|: %0.3%", "Inheritance <(*,a,b) --> c>. %0.30;0.90% [-1] -1 $0.8000;0.5000;0.5100$" }
+    };
+
+    static void nalFiles(File dir, List<File> files) {
+        File[] l = dir.listFiles();
+        if (l == null) {
+            return;
+        }
+        for (File f : l) {
+            if (f.isDirectory()) {
+                nalFiles(f, files);
+            } else if (f.getName().endsWith(".nal")) {
+                files.add(f);
+            }
+        }
+    }
+
+    /** what is compared, or the exception for invalid input */
+    static String parse(Narsese p, String line) {
+        try {
+            return describe(p.parseTask(line));
+        } catch (Exception e) {
+            return "invalid";
+        }
+    }
+
+    static String describe(Task t) {
+        return t.sentence.term.getClass().getSimpleName() + " " + t.sentence.toString() + " " +
+                t.sentence.stamp.getOccurrenceTime() + " " + t.budget.toString();
+    }
+
+    @Test
+    public void testSameResultsAsSubstringParser() {
+        Narsese p = new Narsese(new NAR());
+        for (String[] e : expected) {
+            assertEquals(e[0], e[1], parse(p, e[0]));
+        }
+    }
+
+    @Test
+    public void testAllNAL() throws IOException {
+        List<File> files = new ArrayList<>();
+        nalFiles(new File("nal"), files);
+        assertTrue(files.size() > 0);
+
+        Narsese p = new Narsese(new NAR());
+        int valid = 0;
+        for (File f : files) {
+            for (String line : Files.readAllLines(f.toPath(), StandardCharsets.UTF_8)) {
+                line = line.trim();
+                if (line.isEmpty()) {
+                    continue;
+                }
+                if (!parse(p, line).equals("invalid")) {
+                    valid++;
+                }
+            }
+        }
+        assertTrue("valid lines: " + valid, valid > 500);
+    }
+
+    @Test
+    public void testInvalidInput() {
+        Narsese p = new Narsese(new NAR());
+        for (String line : new String[] { "<a --> b.", "(&&,a,b.", "<a b>.", "(*,a,,b).", "<a --> b>", 
+                "$0.5 <a --> b>.", "<a --> b>. %1;0.9", "a b.", "<a --> (/,b,_)> c." }) {
+            assertEquals(line, "invalid", parse(p, line));
+        }
+    }
+
+    @Test
+    public void testParseFloat() throws Narsese.InvalidInputException {
+        Narsese p = new Narsese(new NAR());
+        for (String v : new String[] { "0.9", "0.90", "1", "1.", ".5", "0.123456", "0.1234567", "0.12345678", "1e-1", " 0.3 " }) {
+            Task t = p.parseTask("<a --> b>. %" + v + ";" + v + "%");
+            assertEquals(v, Float.parseFloat(v), t.sentence.truth.getFrequency(), 0);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import nars.io.events.EventHandler;
+import nars.io.events.Events;
+import nars.main.NAR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+/**
+ * Firing several concepts per cycle has to give the same derivations
+ * regardless of the number of threads used
+ */
+public class ParallelInferenceTest {
+
+    static NAR nar(int threads, final StringBuilder derived) {
+        NAR n = new NAR();
+        n.param.conceptsFiredPerCycle.set(8);
+        n.param.threads.set(threads);
+        new EventHandler(n, true, Events.TaskDerive.class) {
+            @Override
+            public void event(Class event, Object[] args) {
+                derived.append(Arrays.toString(args)).append('\n');
+            }
+        };
+        for (int i = 0; i < 16; i++) {
+            n.addInput("<x" + i + " --> x" + (i+1) + ">.");
+        }
+        n.addInput("<x0 --> x16>?");
+        return n;
+    }
+
+    static String run(int threads) {
+        final StringBuilder derived = new StringBuilder();
+        NAR n = nar(threads, derived);
+        n.cycles(300);
+        n.stop();
+        return derived.toString();
+    }
+
+    @Test public void testDeterministic() {
+        String sequential = run(1);
+        assertTrue(sequential.length() > 0);
+        assertEquals(sequential, run(4));
+        assertEquals(sequential, run(4));
+    }
+
+    /** the thread count of one reasoner changes while others fire concepts with their own threads */
+    @Test public void testThreadsPerNAR() throws Exception {
+        final String sequential = run(1);
+        final List<Throwable> failures = Collections.synchronizedList(new ArrayList<Throwable>());
+        final List<String> results = Collections.synchronizedList(new ArrayList<String>());
+        Thread[] threads = new Thread[4];
+        for (int i = 0; i < threads.length; i++) {
+            final int t = i + 2;
+            threads[i] = new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        StringBuilder derived = new StringBuilder();
+                        NAR n = nar(t, derived);
+                        for (int c = 0; c < 300; c++) {
+                            if (t == 2 && c % 10 == 0) {
+                                n.param.threads.set(2 + c % 3);
+                            }
+                            n.cycles(1);
+                        }
+                        n.stop();
+                        results.add(derived.toString());
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread t : threads) {
+            t.join();
+        }
+        assertEquals(Collections.emptyList(), failures);
+        assertEquals(threads.length, results.size());
+        for (String r : results) {
+            assertEquals(sequential, r);
+        }
+    }
+}
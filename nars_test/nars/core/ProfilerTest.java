@@ -0,0 +1,120 @@
+/*
+ * Here comes the text of your license
+ * Each line should be prefixed with  *
+ */
+package nars.core;
+
+import nars.control.Profiler;
+import nars.control.Profiler.Stats;
+import nars.main.NAR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ProfilerTest {
+
+    @Test
+    public void testCyclesAndRules() {
+        NAR n = new NAR();
+        Profiler p = n.startProfiling();
+        n.addInput("<a --> b>.");
+        n.addInput("<b --> c>.");
+        n.cycles(100);
+
+        assertEquals(100, p.get("cycle").count);
+        assertEquals(2, p.get("parse").count);
+        assertEquals(100, p.get("Memory.processNewTasks").count);
+        Stats reason = p.get("RuleTables.reason");
+        assertNotNull(reason);
+        assertNotNull(p.get("SyllogisticRules.dedExe"));
+
+        long sum = 0;
+        for (long h : reason.getHistogram()) {
+            sum += h;
+        }
+        assertEquals(reason.count, sum);
+        assertTrue(reason.getPercentileNanos(0.5) <= reason.getPercentileNanos(0.99));
+        assertTrue(reason.getPercentileNanos(0.99) <= reason.max);
+        assertTrue(p.get("cycle").nanos >= p.get("fireConcept").nanos);
+        assertTrue(p.toString().contains("RuleTables.reason"));
+
+        assertEquals(p, n.stopProfiling());
+        n.cycles(10);
+        assertEquals(100, p.get("cycle").count);
+
+        p.reset();
+        assertNull(p.get("cycle"));
+        assertTrue(p.getStats().isEmpty());
+    }
+
+    /** concepts fired in parallel record on their threads while another thread reads */
+    @Test
+    public void testReadWhileRecording() throws Exception {
+        final NAR n = new NAR();
+        n.param.conceptsFiredPerCycle.set(8);
+        n.param.threads.set(4);
+        final Profiler p = n.startProfiling();
+        for (int i = 0; i < 16; i++) {
+            n.addInput("<x" + i + " --> x" + (i+1) + ">.");
+        }
+        Thread cycling = new Thread() {
+            @Override
+            public void run() {
+                n.cycles(200);
+            }
+        };
+        cycling.start();
+        while (cycling.isAlive()) {
+            for (Stats s : p.getStats()) {
+                assertTrue(s.count > 0);
+            }
+        }
+        cycling.join();
+        n.stop();
+
+        assertEquals(200, p.get("cycle").count);
+        for (Stats s : p.getStats()) {
+            long sum = 0;
+            for (long h : s.getHistogram()) {
+                sum += h;
+            }
+            assertEquals(s.name, s.count, sum);
+        }
+
+        //forgotten by the threads which record next
+        p.reset();
+        assertNull(p.get("cycle"));
+        n.cycles(5);
+        assertEquals(5, p.get("cycle").count);
+    }
+
+    @Test
+    public void testSectionLeftByException() {
+        NAR n = new NAR();
+        Profiler p = n.startProfiling();
+        Profiler.enter(n.memory, Profiler.REASON);
+        Profiler.enter(n.memory, Profiler.DED_EXE); //not exited
+        Profiler.exit(n.memory, Profiler.REASON);
+        Profiler.exit(n.memory, Profiler.DED_EXE); //nothing to exit
+        assertEquals(1, p.get("RuleTables.reason").count);
+        assertNull(p.get("SyllogisticRules.dedExe"));
+    }
+
+    @Test
+    public void testInvalidInput() {
+        NAR n = new NAR();
+        Profiler p = n.startProfiling();
+        n.addInput("<a --> b>.");
+        n.addInput("<a --> ");
+        assertEquals(2, p.get("parse").count);
+        //no section is left open under the ones entered next
+        Profiler.enter(n.memory, Profiler.REASON);
+        Profiler.exit(n.memory, Profiler.DED_EXE); //not entered
+        Profiler.exit(n.memory, Profiler.REASON);
+        assertEquals(1, p.get("RuleTables.reason").count);
+        n.cycles(10);
+        assertEquals(10, p.get("cycle").count);
+    }
+}
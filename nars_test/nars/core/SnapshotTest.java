@@ -0,0 +1,94 @@
+package nars.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import nars.entity.Concept;
+import nars.entity.Task;
+import nars.entity.TaskLink;
+import nars.entity.TermLink;
+import nars.main.NAR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+import org.junit.Test;
+
+public class SnapshotTest {
+
+    static NAR reasoned() throws IOException {
+        NAR n = new NAR();
+        for (String f : new String[] { "nal/test/nal2.2.nal", "nal/test/nal4.0.nal", "nal/test/nal6.8.nal", "nal/test/nal7.1.nal" }) {
+            n.addInput(Files.newBufferedReader(new File(f).toPath()));
+        }
+        n.cycles(300);
+        return n;
+    }
+
+    static List<String> describe(NAR n) {
+        List<String> d = new ArrayList<>();
+        d.add("time " + n.time());
+        for (Concept c : n.memory) {
+            d.add(c.toString());
+            for (Task t : c.beliefs) d.add(" belief " + t.toStringLong() + " " + t.sentence.stamp);
+            for (Task t : c.desires) d.add(" desire " + t.toStringLong());
+            for (Task t : c.questions) d.add(" question " + t.toStringLong());
+            for (TermLink l : c.termLinks) d.add(" termlink " + l + " " + l.type);
+            for (TaskLink l : c.taskLinks) d.add(" tasklink " + l + " " + l.records.size());
+        }
+        for (Task t : n.memory.novelTasks) d.add("novel " + t.toStringLong());
+        for (Task t : n.memory.newTasks) d.add("new " + t.toStringLong());
+        return d;
+    }
+
+    @Test
+    public void testRestoresMemory() throws IOException {
+        NAR a = reasoned();
+        File f = File.createTempFile("memory", ".snapshot");
+        f.deleteOnExit();
+        long size = a.saveSnapshot(f.getPath());
+        assertEquals(f.length(), size);
+
+        NAR b = new NAR();
+        b.loadSnapshot(f.getPath());
+        assertTrue(a.memory.concepts.size() > 50);
+        assertEquals(describe(a), describe(b));
+
+        //a snapshot of the restored memory restores the same
+        File g = File.createTempFile("memory", ".snapshot");
+        g.deleteOnExit();
+        b.saveSnapshot(g.getPath());
+        NAR c = new NAR();
+        c.loadSnapshot(g.getPath());
+        assertEquals(describe(a), describe(c));
+
+        //and it keeps reasoning
+        b.addInput("<bird --> animal>?");
+        b.cycles(100);
+        assertEquals(a.time() + 100, b.time());
+    }
+
+    @Test
+    public void testInvalidSnapshot() throws IOException {
+        File f = File.createTempFile("memory", ".snapshot");
+        f.deleteOnExit();
+        Files.write(f.toPath(), new byte[] { 'N', 'A', 'R', 'S', 0, 0, 0, 9 });
+        try {
+            new NAR().loadSnapshot(f.getPath());
+            fail();
+        } catch (IOException e) {
+        }
+
+        reasoned().saveSnapshot(f.getPath());
+        byte[] b = Files.readAllBytes(f.toPath());
+        byte[] truncated = new byte[b.length / 2];
+        System.arraycopy(b, 0, truncated, 0, truncated.length);
+        Files.write(f.toPath(), truncated);
+        try {
+            new NAR().loadSnapshot(f.getPath());
+            fail();
+        } catch (IOException e) {
+        }
+    }
+}
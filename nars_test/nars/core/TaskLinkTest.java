@@ -0,0 +1,96 @@
+package nars.core;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Random;
+import nars.entity.BudgetValue;
+import nars.entity.Sentence;
+import nars.entity.Stamp;
+import nars.entity.Task;
+import nars.entity.TaskLink;
+import nars.entity.TermLink;
+import nars.entity.TruthValue;
+import nars.io.Symbols;
+import nars.language.Term;
+import nars.main.NAR;
+import nars.main.Parameters;
+import nars.storage.Memory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class TaskLinkTest {
+
+    final Memory m = new NAR().memory;
+
+    TaskLink taskLink(int recordLength) {
+        Sentence s = new Sentence(new Term("task"), Symbols.JUDGMENT_MARK, new TruthValue(1.0f, 0.9f), new Stamp(m));
+        return new TaskLink(new Task(s, new BudgetValue(0.5f, 0.5f, 0.5f), true), null, new BudgetValue(0.5f, 0.5f, 0.5f), recordLength);
+    }
+
+    static TermLink termLink(String target) {
+        return new TermLink(new Term(target), TermLink.COMPONENT, new short[] { 0 }, null);
+    }
+
+    /** the records as a queue from the oldest to the newest, moving a link renewed to the end */
+    static boolean novel(ArrayDeque<Object[]> records, int recordLength, TermLink link, long time) {
+        Iterator<Object[]> ir = records.iterator();
+        while (ir.hasNext()) {
+            Object[] r = ir.next();
+            if (link.equals(r[0])) {
+                if (time < (Long) r[1] + Parameters.NOVELTY_HORIZON) {
+                    return false;
+                }
+                r[1] = time;
+                ir.remove();
+                records.addLast(r);
+                return true;
+            }
+        }
+        while (records.size() + 1 >= recordLength) records.removeFirst();
+        records.addLast(new Object[] { link, time });
+        return true;
+    }
+
+    static void compare(TaskLink l, int recordLength, int links, int checks, long seed) {
+        ArrayDeque<Object[]> expected = new ArrayDeque<>();
+        Random r = new Random(seed);
+        long time = 0;
+        for (int i = 0; i < checks; i++) {
+            time += r.nextInt(10) == 0 ? Parameters.NOVELTY_HORIZON / 2 : r.nextInt(3);
+            TermLink t = termLink("t" + r.nextInt(links));
+            assertEquals(novel(expected, recordLength, t, time), l.novel(t, time));
+            assertEquals(expected.size(), l.records.size());
+        }
+        int s = l.records.oldest();
+        for (Object[] e : expected) {
+            assertEquals(e[0], l.records.getLink(s));
+            assertEquals(e[1], l.records.getTime(s));
+            s = l.records.newer(s);
+        }
+        assertEquals(-1, s);
+    }
+
+    @Test
+    public void testNovelLikeQueue() {
+        compare(taskLink(10), 10, 20, 20000, 1);
+        compare(taskLink(10), 10, 8, 20000, 2);
+        compare(taskLink(2), 2, 5, 5000, 3);
+        compare(taskLink(1000), 1000, 3000, 50000, 4);
+    }
+
+    @Test
+    public void testNotNovel() {
+        TaskLink l = taskLink(Parameters.TERM_LINK_RECORD_LENGTH);
+        assertEquals(0, l.records.size());
+        //not novel to its own task
+        assertFalse(l.novel(new TermLink(new Term("task"), TermLink.COMPONENT, new short[] { 0 }, null), 0));
+        assertTrue(l.novel(termLink("a"), 0));
+        assertFalse(l.novel(termLink("a"), 1));
+        assertTrue(l.novel(termLink("a"), Parameters.NOVELTY_HORIZON));
+        l.end();
+        assertEquals(0, l.records.size());
+        assertTrue(l.novel(termLink("a"), Parameters.NOVELTY_HORIZON));
+    }
+}
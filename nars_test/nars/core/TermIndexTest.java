@@ -0,0 +1,190 @@
+package nars.core;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import nars.entity.Concept;
+import nars.entity.Sentence;
+import nars.entity.Task;
+import nars.io.Narsese;
+import nars.io.Symbols;
+import nars.io.events.EventEmitter.EventObserver;
+import nars.io.events.Events;
+import nars.language.CompoundTerm;
+import nars.language.Term;
+import nars.language.Variable;
+import nars.language.Variables;
+import nars.main.NAR;
+import nars.storage.Checkpoint;
+import nars.storage.TermIndex;
+import static nars.core.SnapshotTest.reasoned;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class TermIndexTest {
+
+    static final char[] types = { Symbols.VAR_INDEPENDENT, Symbols.VAR_DEPENDENT, Symbols.VAR_QUERY };
+
+    /** the terms of the sentences of the NAL-6 examples and their components */
+    static List<Term> terms() throws IOException {
+        NAR n = new NAR();
+        Narsese narsese = new Narsese(n);
+        Set<Term> terms = new LinkedHashSet<>();
+        for (File f : new File("nal/test").listFiles()) {
+            if (!f.getName().startsWith("nal6")) {
+                continue;
+            }
+            for (String line : Files.readAllLines(f.toPath())) {
+                try {
+                    Task t = narsese.parseTask(line.trim());
+                    terms.add(t.getTerm());
+                    if (t.getTerm() instanceof CompoundTerm) {
+                        Collections.addAll(terms, ((CompoundTerm) t.getTerm()).term);
+                    }
+                } catch (Exception e) {
+                    //comments, expected outputs and cycle counts
+                }
+            }
+        }
+        for (String t : new String[] {
+            "(&/,<$1 --> a>,<$1 --> b>)", "(&/,<x --> c>,<x --> a>,<x --> b>,<y --> d>)",
+            "(&/,<#1 --> a>,<y --> b>)", "(&/,<x --> a>,<x --> b>,<x --> c>)" }) {
+            try {
+                terms.add(narsese.parseTerm(t));
+            } catch (Narsese.InvalidInputException e) {
+                throw new RuntimeException(e);
+            }
+        }
+        return new ArrayList<>(terms);
+    }
+
+    /** the beliefs of the concepts in memory */
+    static Map<Task, Task> beliefs(NAR n) {
+        Map<Task, Task> beliefs = new IdentityHashMap<>();
+        for (Concept c : n.memory) {
+            for (Task t : c.beliefs) {
+                beliefs.put(t, t);
+            }
+        }
+        return beliefs;
+    }
+
+    /** the beliefs in the index of memory, as candidates of a variable */
+    static Map<Task, Task> indexed(NAR n) {
+        Map<Task, Task> indexed = new IdentityHashMap<>();
+        for (Task t : n.memory.beliefIndex.candidates(new Variable("?1"), new ArrayList<Task>())) {
+            assertTrue(indexed.put(t, t) == null);
+        }
+        assertEquals(n.memory.beliefIndex.size(), indexed.size());
+        return indexed;
+    }
+
+    @Test
+    public void testCandidatesContainUnifiable() throws IOException {
+        List<Term> terms = terms();
+        TermIndex<Term> index = new TermIndex<>();
+        for (Term t : terms) {
+            index.add(t, t);
+        }
+        assertEquals(terms.size(), index.size());
+        int candidates = 0, unifiable = 0;
+        for (Term a : terms) {
+            List<Term> c = index.candidates(a, new ArrayList<Term>());
+            candidates += c.size();
+            assertTrue(c.contains(a));
+            for (Term b : terms) {
+                for (char type : types) {
+                    if (Variables.hasSubstitute(type, a, b) || Variables.hasSubstitute(type, b, a)) {
+                        assertTrue(a + " " + b, c.contains(b));
+                        unifiable++;
+                        break;
+                    }
+                }
+            }
+        }
+        assertTrue(unifiable <= candidates);
+        //most pairs are not visited
+        assertTrue(candidates * 10 < terms.size() * terms.size());
+    }
+
+    @Test
+    public void testRemove() throws Exception {
+        Narsese narsese = new Narsese(new NAR());
+        TermIndex<String> index = new TermIndex<>();
+        Term a = narsese.parseTerm("<(*,a,b) --> c>");
+        Term b = narsese.parseTerm("<(*,a,#1) --> c>");
+        index.add(a, "a");
+        index.add(b, "b");
+        index.add(b, "b2");
+        assertEquals(Arrays.asList("b", "b2"), index.candidates(narsese.parseTerm("<(*,a,d) --> c>"), new ArrayList<String>()));
+        assertEquals(3, index.candidates(narsese.parseTerm("<(*,?1,?2) --> c>"), new ArrayList<String>()).size());
+        assertEquals(3, index.candidates(narsese.parseTerm("<(*,a,b) --> ?1>"), new ArrayList<String>()).size());
+        assertEquals(0, index.candidates(narsese.parseTerm("<(*,d,?1) --> c>"), new ArrayList<String>()).size());
+        assertFalse(index.remove(a, "b"));
+        assertTrue(index.remove(b, "b"));
+        assertTrue(index.remove(a, "a"));
+        assertEquals(Collections.singletonList("b2"), index.candidates(narsese.parseTerm("?1"), new ArrayList<String>()));
+        assertTrue(index.remove(b, "b2"));
+        assertEquals(0, index.size());
+        assertTrue(index.candidates(narsese.parseTerm("?1"), new ArrayList<String>()).isEmpty());
+    }
+
+    @Test
+    public void testFollowsBeliefs() throws IOException {
+        NAR a = reasoned();
+        assertTrue(a.memory.beliefIndex.size() > 20);
+        assertEquals(beliefs(a), indexed(a));
+
+        File f = File.createTempFile("memory", ".snapshot");
+        f.deleteOnExit();
+        a.saveSnapshot(f.getPath());
+        NAR b = new NAR();
+        b.loadSnapshot(f.getPath());
+        assertEquals(beliefs(b), indexed(b));
+
+        Path dir = Files.createTempDirectory("checkpoint");
+        dir.toFile().deleteOnExit();
+        try (Checkpoint c = new Checkpoint(a.memory, dir, 0, 3)) {
+            for (int i = 0; i < 3; i++) {
+                a.addInput("<{Tweety} --> [yellow]>.");
+                a.cycles(50);
+                c.checkpoint();
+            }
+        }
+        Checkpoint.restore(dir, b.memory);
+        assertEquals(beliefs(b), indexed(b));
+        for (File g : dir.toFile().listFiles()) {
+            g.delete();
+        }
+
+        a.reset();
+        assertEquals(0, a.memory.beliefIndex.size());
+    }
+
+    @Test
+    public void testAnswersWithBestBelief() {
+        NAR n = new NAR();
+        List<Sentence> answers = new ArrayList<>();
+        EventObserver o = (event, args) -> answers.add((Sentence) args[1]);
+        n.memory.event.set(o, true, Events.Answer.class);
+        n.addInput("<sparrow --> bird>. %0.6;0.5%");
+        n.addInput("<robin --> bird>. %1.0;0.9%");
+        n.addInput("<robin --> animal>. %1.0;0.9%");
+        n.cycles(1);
+        n.addInput("<?1 --> bird>?");
+        n.cycles(1);
+        assertFalse(answers.isEmpty());
+        assertEquals("<robin --> bird>", answers.get(0).term.toString());
+    }
+}
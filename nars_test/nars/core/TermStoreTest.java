@@ -0,0 +1,61 @@
+package nars.core;
+
+import nars.entity.Concept;
+import nars.io.Narsese;
+import nars.language.Product;
+import nars.language.Term;
+import nars.language.TermStore;
+import nars.main.NAR;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class TermStoreTest {
+
+    NAR n = new NAR();
+    Narsese np = new Narsese(n);
+
+    @Test
+    public void testEqualCompoundsShareOneInstance() throws Narsese.InvalidInputException {
+        Term a = np.parseTerm("<(*,cat,{tom}) --> (/,likes,_,fish)>");
+        Term b = np.parseTerm("<(*,cat,{tom}) --> (/,likes,_,fish)>");
+        assertNotSame(a, b);
+        assertEquals(a, b);
+
+        Term x = TermStore.intern(a);
+        assertSame(a, x);
+        assertSame(x, TermStore.intern(b));
+        assertEquals(a, b);
+        assertTrue(!x.equals(TermStore.intern(np.parseTerm("<(*,cat,{tom}) --> (/,likes,_,milk)>"))));
+    }
+
+    @Test
+    public void testEqualTermOfAnotherClass() {
+        Term a = TermStore.intern(new Product(Term.get("storeA"), Term.get("storeB")));
+        Term b = new Product(Term.get("storeA"), Term.get("storeB")) {};
+        assertEquals(a, b);
+        //not interned besides the first one, which it still equals
+        assertSame(b, TermStore.intern(b));
+        assertEquals(a, b);
+        assertEquals(b, a);
+        assertSame(a, TermStore.intern(new Product(Term.get("storeA"), Term.get("storeB"))));
+    }
+
+    @Test
+    public void testTermsWithVariablesAreNotShared() throws Narsese.InvalidInputException {
+        Term a = np.parseTerm("<$1 --> (/,likes,_,fish)>");
+        Term b = np.parseTerm("<$1 --> (/,likes,_,fish)>");
+        TermStore.intern(a);
+        assertSame(b, TermStore.intern(b));
+    }
+
+    @Test
+    public void testConceptAndSentenceShareTerm() throws Narsese.InvalidInputException {
+        n.addInput("<{tom} --> (/,likes,_,fish)>.");
+        n.cycles(1);
+        Concept c = n.memory.concept(np.parseTerm("<{tom} --> (/,likes,_,fish)>"));
+        assertSame(c.getTerm(), c.beliefs.get(0).sentence.term);
+    }
+}
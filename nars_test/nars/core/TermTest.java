@@ -294,4 +294,34 @@ public class TermTest {
         
         
     }
+
+    @Test public void testStructuralEqualityAgreesWithNames() throws Narsese.InvalidInputException {
+        String[] t = {
+            "<(*,cat,{tom}) --> (/,likes,_,fish)>",
+            "<(*,cat,{tom}) --> (/,likes,fish,_)>",
+            "<(*,{tom},cat) --> (/,likes,_,fish)>",
+            "<(*,cat,[tom]) --> (/,likes,_,fish)>",
+            "(&&,<a --> b>,<c --> d>)",
+            "(&&,<c --> d>,<a --> b>)",
+            "(&/,<a --> b>,<c --> d>)",
+            "(&|,<a --> b>,<c --> d>)",
+            "<<$1 --> b> ==> <$1 --> c>>",
+            "<<$2 --> b> ==> <$2 --> c>>",
+            "<<#1 --> b> ==> <#1 --> c>>",
+            "<<$1 --> b> =/> <$1 --> c>>",
+            "(--,<a --> b>)"
+        };
+        for (String x : t) {
+            for (String y : t) {
+                CompoundTerm a = (CompoundTerm) np.parseTerm(x);
+                CompoundTerm b = (CompoundTerm) np.parseTerm(y);
+                boolean sameName = a.name().equals(b.name());
+                assertEquals(x + " " + y, sameName, a.equalsByTerm(b));
+                assertEquals(x + " " + y, sameName, a.compareTo(b) == 0);
+                if (sameName) {
+                    assertEquals(x + " " + y, a.structuralHash(), b.structuralHash());
+                }
+            }
+        }
+    }
 }
@@ -1,8 +1,12 @@
 package nars.core;
 
 import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Random;
 import static junit.framework.TestCase.assertTrue;
 import static nars.entity.Stamp.toSetArray;
+import nars.entity.Stamp;
+import static org.junit.Assert.assertEquals;
 import org.junit.Test;
 
 /**
@@ -30,4 +34,52 @@ public class TestStamp {
                 Arrays.hashCode(toSetArray(new long[] { 1,1,3 }))
         );    
     }
+
+    static Stamp stamp(final long[] base) {
+        final Stamp s = new Stamp(0, null, base[0], 1);
+        s.setEvidentialBase(base);
+        return s;
+    }
+    
+    static boolean overlap(final long[] a, final long[] b) {
+        HashSet<Long> seen = new HashSet<>();
+        for (long x : a) if (!seen.add(x)) return true;
+        for (long x : b) if (!seen.add(x)) return true;
+        return false;
+    }
+    
+    static long[] randomBase(Random r, int maxSerial) {
+        long[] b = new long[1 + r.nextInt(40)];
+        for (int i = 0; i < b.length; i++) {
+            b[i] = r.nextInt(maxSerial);
+        }
+        return b;
+    }
+
+    @Test
+    public void testBaseOverlap() {
+        Random r = new Random(1);
+        for (int i = 0; i < 20000; i++) {
+            long[] a = randomBase(r, 100 + r.nextInt(5000));
+            long[] b = randomBase(r, 100 + r.nextInt(5000));
+            Stamp sa = stamp(a), sb = stamp(b);
+            boolean expected = overlap(a, b);
+            assertEquals(expected, Stamp.baseOverlap(a, b));
+            assertEquals(expected, Stamp.baseOverlap(sa, sb));
+            assertEquals(overlap(a, new long[0]), sa.evidenceIsCyclic());
+            
+            //derived stamps share or combine the signatures of their parents
+            Stamp merged = new Stamp(sa, sb, 0);
+            assertEquals(overlap(merged.evidentialBase, new long[0]), merged.evidenceIsCyclic());
+            assertEquals(Stamp.baseOverlap(merged.evidentialBase, b), Stamp.baseOverlap(merged, sb));
+            assertEquals(expected, Stamp.baseOverlap(new Stamp(sa, 0), sb));
+        }
+    }
+    
+    @Test
+    public void testEvidenceIsSubset() {
+        assertTrue(stamp(new long[] { 3, 1 }).evidenceIsSubsetOf(stamp(new long[] { 1, 2, 3 })));
+        assertTrue(!stamp(new long[] { 3, 4 }).evidenceIsSubsetOf(stamp(new long[] { 1, 2, 3 })));
+        assertTrue(stamp(new long[] { 2, 2 }).evidenceIsSubsetOf(stamp(new long[] { 2 })));
+    }
 }
@@ -0,0 +1,133 @@
+package nars.core;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import nars.io.Narsese;
+import nars.io.Symbols;
+import nars.language.Term;
+import nars.language.Variables;
+import nars.main.NAR;
+import nars.storage.Memory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class UnifierTest {
+
+    /**
+     * variable type, the two terms, whether partial matches are allowed, and
+     * what the unifier it replaced found for them: the result, both
+     * substitutions, and the next random number after unifying, which shows
+     * that it drew the same ones
+     */
+    static final String[][] expected = {
+        { "$", "(&/,<$1 --> a>,<$1 --> b>)", "(&/,<x --> c>,<x --> a>,<x --> b>,<y --> d>)", "true", "true {$1=x} {} -1155869325" },
+        { "$", "(&/,<$1 --> a>,<$1 --> b>)", "(&/,<x --> a>,<x --> b>,<x --> c>)", "true", "true {$1=x} {} -1155869325" },
+        { "$", "<$1 --> bird>", "<#1 --> bird>", "false", "true {$1=#1$1$} {#1=#1$1$} -1155869325" },
+        { "$", "<$1 --> bird>", "<swimmer --> $1>", "true", "true {$1=swimmer} {$1=bird} -1155869325" },
+        { "$", "<$1 --> [with-wings]>", "<bird --> $1>", "false", "true {$1=bird} {$1=[with-wings]} -1155869325" },
+        { "$", "<$1 --> animal>", "<robin --> $1>", "true", "true {$1=robin} {$1=animal} -1155869325" },
+        { "$", "<$1 --> swan>", "<bird --> $1>", "false", "true {$1=bird} {$1=swan} -1155869325" },
+        { "$", "<$1 --> swimmer>", "<#1 --> swimmer>", "true", "true {$1=#1$1$} {#1=#1$1$} -1155869325" },
+        { "#", "<gull --> swimmer>", "<#1 --> swimmer>", "false", "true {} {#1=gull} -1155869325" },
+        { "$", "<#1 --> lock>", "<lock1 --> lock>", "true", "true {#1=lock1} {} -1155869325" },
+        { "$", "<#1 --> lock>", "<swimmer --> $1>", "false", "true {#1=swimmer} {$1=lock} -1155869325" },
+        { "#", "<{key1} --> key>", "<#1 --> key>", "true", "true {} {#1={key1}} -1155869325" },
+        { "$", "<$1 --> lock>", "<robin --> $1>", "false", "true {$1=robin} {$1=lock} -1155869325" },
+        { "$", "<lock1 --> (/,open,$1,_)>", "<$2 --> (/,open,$1,_)>", "true", "true {} {$2=lock1} -1155869325" },
+        { "#", "<$1 --> key>", "<#2 --> key>", "false", "true {} {#2=$1} -1155869325" },
+        { "$", "<lock1 --> lock>", "<$1 --> lock>", "true", "true {} {$1=lock1} -1155869325" },
+        { "$", "<#1 --> bird>", "<robin --> $1>", "false", "true {#1=robin} {$1=bird} -1155869325" },
+        { "#", "<#1 --> swimmer>", "<$1 --> swimmer>", "true", "true {#1=$1} {} -1155869325" },
+        { "$", "<#1 --> swimmer>", "<robin --> $1>", "false", "true {#1=robin} {$1=swimmer} -1155869325" },
+        { "$", "<{lock1} --> lock>", "<$1 --> lock>", "true", "true {} {$1={lock1}} -1155869325" },
+        { "$", "<$1 --> num>", "<bird --> $1>", "false", "true {$1=bird} {$1=num} -1155869325" },
+        { "$", "<(*,(*,(*,0))) --> num>", "<$1 --> num>", "true", "true {} {$1=(*,(*,(*,0)))} -1155869325" },
+        { "$", "<bird --> $1>", "<$1 --> robin>", "false", "true {$1=robin} {$1=bird} -1155869325" },
+        { "$", "<bird --> $1>", "<$1 --> key>", "true", "true {$1=key} {$1=bird} -1155869325" },
+        { "$", "<bird --> $1>", "<$2 --> key>", "false", "true {$1=key} {$2=bird} -1155869325" },
+        { "$", "<robin --> $1>", "<$1 --> [with-wings]>", "true", "true {$1=[with-wings]} {$1=robin} -1155869325" },
+        { "$", "<robin --> $1>", "<$1 --> lock>", "false", "true {$1=lock} {$1=robin} -1155869325" },
+        { "$", "<robin --> $1>", "<#1 --> (/,open,#2,_)>", "true", "true {$1=(/,open,#2,_)} {#1=robin} -1155869325" },
+        { "$", "<swimmer --> $1>", "<$1 --> bird>", "false", "true {$1=bird} {$1=swimmer} -1155869325" },
+        { "$", "<swimmer --> $1>", "<$1 --> swan>", "true", "true {$1=swan} {$1=swimmer} -1155869325" },
+        { "$", "<swimmer --> $1>", "<#1 --> swimmer>", "false", "true {$1=swimmer} {#1=swimmer} -1155869325" },
+        { "$", "<swimmer --> $1>", "<$2 --> (/,open,$1,_)>", "true", "true {$1=(/,open,$1,_)} {$2=swimmer} -1155869325" },
+        { "$", "<#1 --> (/,open,#2,_)>", "<swimmer --> $1>", "false", "true {#1=swimmer} {$1=(/,open,#2,_)} -1155869325" },
+        { "$", "<#1 --> (/,open,#2,_)>", "<{lock1} --> (/,open,$1,_)>", "true", "true {#1={lock1}, #2=$1#2$} {$1=$1#2$} -1155869325" },
+        { "$", "<#2 --> key>", "<bird --> $1>", "false", "true {#2=bird} {$1=key} -1155869325" },
+        { "$", "<#2 --> key>", "<#1 --> key>", "true", "true {#2=#1#2$} {#1=#1#2$} -1155869325" },
+        { "$", "<$2 --> key>", "<$1 --> key>", "false", "true {$2=$1$2$} {$1=$1$2$} -1155869325" },
+        { "#", "<$2 --> key>", "<#2 --> key>", "true", "true {} {#2=$2} -1155869325" },
+        { "$", "<$2 --> (/,open,$1,_)>", "<robin --> $1>", "false", "true {$2=robin} {$1=(/,open,$1,_)} -1155869325" },
+        { "$", "<$2 --> (/,open,$1,_)>", "<{lock1} --> (/,open,$1,_)>", "true", "true {$2={lock1}} {} -1155869325" },
+        { "#", "<#1 --> key>", "<$1 --> key>", "false", "true {#1=$1} {} -1155869325" },
+        { "#", "<#1 --> key>", "<#2 --> key>", "true", "true {#1=#2#1$} {#2=#2#1$} -1155869325" },
+        { "$", "<{lock1} --> (/,open,#1,_)>", "<{lock1} --> (/,open,$1,_)>", "false", "true {#1=$1#1$} {$1=$1#1$} -1155869325" },
+        { "$", "<{lock1} --> (/,open,$1,_)>", "<$2 --> (/,open,$1,_)>", "true", "true {} {$2={lock1}} -1155869325" },
+        { "$", "<(&&,<$1 --> flyer>,<(*,$1,worms) --> food>) ==> <$1 --> bird>>", "<<$1 --> flyer> ==> <$1 --> [with-wings]>>", "false", "false {} {} -1155869325" },
+        { "#", "<$1 --> flyer>", "<$1 --> lock>", "false", "false {} {} -1155869325" },
+        { "$", "<$1 --> animal>", "<$1 --> key>", "false", "false {$1=$1$1$} {$1=$1$1$} -1155869325" },
+        { "#", "<<$1 --> swan> ==> <$1 --> bird>>", "<(&&,<$1 --> [chirping]>,<$1 --> [with-wings]>) ==> <$1 --> bird>>", "false", "false {} {} -1155869325" },
+        { "?", "<$1 --> swimmer>", "<tim --> (/,uncle,tom,_)>", "false", "false {} {} -1155869325" },
+        { "$", "(&&,<#1 --> lock>,<<$2 --> key> ==> <#1 --> (/,open,$2,_)>>)", "(&&,<#1 --> key>,<{lock1} --> (/,open,#1,_)>)", "false", "false {} {} 431529176" },
+        { "?", "<b --> c>", "<#1 --> (/,open,#2,_)>", "false", "false {} {} -1155869325" },
+        { "#", "<lock1 --> (/,open,$1,_)>", "<cat --> (/,(/,REPRESENT,_,<(*,CAT,FISH) --> FOOD>),_,eat,fish)>", "false", "false {} {} -1155869325" },
+        { "$", "(&&,<#1 --> bird>,<#1 --> swimmer>)", "(&&,<#1 --> (/,open,$2,_)>,<#1 --> lock>)", "false", "false {} {} 431529176" },
+        { "?", "<swan --> bird>", "<bird --> $1>", "false", "false {} {} -1155869325" },
+        { "$", "<0 --> num>", "<swimmer --> $1>", "false", "false {} {} -1155869325" },
+        { "?", "<(*,$1) --> num>", "<{key1} --> (/,open,_,{lock1})>", "false", "false {} {} -1155869325" },
+        { "#", "<robin --> $1>", "<0 --> num>", "false", "false {} {} -1155869325" },
+        { "#", "<#1 --> (/,open,#2,_)>", "<lock1 --> lock>", "false", "false {#1=lock1} {} -1155869325" },
+        { "$", "<(&&,<#1 --> (/,open,$2,_)>,<#1 --> lock>) ==> <$2 --> key>>", "<<$1 --> bird> ==> <$1 --> flyer>>", "false", "false {} {} -1155869325" },
+        { "#", "(&&,<$1 --> key>,<$2 --> lock>)", "(&&,<$1 --> [chirping]>,<$1 --> flyer>)", "false", "false {} {} -1155869325" },
+        { "$", "<<$1 --> [with-wings]> ==> <$1 --> flyer>>", "<<$1 --> flyer> ==> <$1 --> [with-wings]>>", "false", "false {$1=$1$1$} {$1=$1$1$} -1155869325" },
+        { "#", "<{Tweety} --> [with-wings]>", "<bird --> $1>", "false", "false {} {} -1155869325" },
+        { "#", "<{lock1} --> (/,open,#1,_)>", "<swan --> swimmer>", "false", "false {} {} -1155869325" },
+        { "$", "<tim --> (/,uncle,_,tom)>", "<$1 --> num>", "false", "false {} {$1=tim} -1155869325" },
+        { "$", "(&/,<x --> a>,<x --> b>,<x --> c>)", "(&/,<#1 --> a>,<y --> b>)", "false", "false {} {} -1155869325" }
+    };
+
+    static String describe(Map<Term, Term> m) {
+        Map<String, String> s = new TreeMap<>();
+        if (m != null) {
+            for (Map.Entry<Term, Term> e : m.entrySet()) {
+                s.put(e.getKey().toString(), e.getValue().toString());
+            }
+        }
+        return s.toString();
+    }
+
+    @Test
+    public void testSameSubstitutionsAsBefore() throws Narsese.InvalidInputException {
+        Narsese narsese = new Narsese(new NAR());
+        int unified = 0;
+        for (String[] e : expected) {
+            Term a = narsese.parseTerm(e[1]), b = narsese.parseTerm(e[2]);
+            Memory.random().setSeed(1);
+            Map<Term, Term>[] m = new Map[2];
+            boolean r = Variables.findSubstitute(e[0].charAt(0), a, b, m, Boolean.parseBoolean(e[3]));
+            String pair = e[0] + " " + e[1] + " " + e[2] + " " + e[3];
+            assertEquals(pair, e[4], r + " " + describe(m[0]) + " " + describe(m[1]) + " " + Memory.random().nextInt());
+            if (r) {
+                unified++;
+            }
+        }
+        assertTrue(unified > 40);
+    }
+
+    @Test
+    public void testUnifyKeepsGivenSubstitutions() throws Narsese.InvalidInputException {
+        Narsese narsese = new Narsese(new NAR());
+        Term a = narsese.parseTerm("<$1 --> $2>");
+        Term b = narsese.parseTerm("<cat --> animal>");
+        Term c = narsese.parseTerm("<dog --> animal>");
+        Map<Term, Term> m1 = new HashMap<>(), m2 = new HashMap<>();
+        assertTrue(Variables.findSubstitute(Symbols.VAR_INDEPENDENT, a, b, m1, m2));
+        assertEquals(2, m1.size());
+        //$1 is bound to cat already
+        assertTrue(!Variables.findSubstitute(Symbols.VAR_INDEPENDENT, a, c, m1, m2));
+        assertTrue(Variables.hasSubstitute(Symbols.VAR_INDEPENDENT, a, c));
+    }
+}
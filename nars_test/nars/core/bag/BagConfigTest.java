@@ -0,0 +1,142 @@
+package nars.core.bag;
+
+import java.util.ArrayList;
+import java.util.List;
+import nars.entity.BudgetValue;
+import nars.entity.Concept;
+import nars.entity.Task;
+import nars.io.Narsese;
+import nars.io.events.EventEmitter.EventObserver;
+import nars.io.events.Events;
+import nars.language.Term;
+import nars.main.NAR;
+import nars.storage.Bag;
+import nars.storage.BagConfig;
+import nars.storage.BagType;
+import nars.storage.CompactBag;
+import nars.storage.ConcurrentLevelBag;
+import nars.storage.LevelBag;
+import nars.storage.Memory;
+import static nars.core.bag.BagOperationsTest.makeConcept;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class BagConfigTest {
+
+    @Test
+    public void testSetCapacity() {
+        testSetCapacity(new LevelBag(10, 8));
+        testSetCapacity(new ConcurrentLevelBag(10, 8));
+        testSetCapacity(new CompactBag(10, 8));
+    }
+
+    public static void testSetCapacity(Bag b) {
+        for (int i = 0; i < 8; i++) {
+            b.putIn(makeConcept("c" + i, (i + 0.5f) / 8));
+        }
+        assertEquals(8, b.size());
+
+        //the lowest priorities go first
+        List<Concept> removed = b.setCapacity(5);
+        assertEquals(5, b.getCapacity());
+        assertEquals(5, b.size());
+        assertEquals(3, removed.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals("c" + i, removed.get(i).name().toString());
+            assertNull(b.get(removed.get(i).name()));
+        }
+        assertTrue(b.getMinPriority() > removed.get(2).getPriority());
+
+        //a higher capacity takes more items
+        assertTrue(b.setCapacity(7).isEmpty());
+        b.putIn(makeConcept("x", 0.01f));
+        b.putIn(makeConcept("y", 0.02f));
+        assertEquals(7, b.size());
+        assertEquals("x", ((Concept) b.setCapacity(6).get(0)).name().toString());
+    }
+
+    @Test
+    public void testBagsPerNAR() throws Exception {
+        NAR small = new NAR(new BagConfig().capacities(10, 4, 5));
+        NAR large = new NAR(new BagConfig(BagType.ConcurrentLevel).capacities(500, 40, 50));
+        assertEquals(10, small.memory.concepts.getCapacity());
+        assertEquals(500, large.memory.concepts.getCapacity());
+        assertTrue(large.memory.concepts instanceof ConcurrentLevelBag);
+
+        for (NAR n : new NAR[] { small, large }) {
+            n.addInput("<(*,a,b,c,d) --> e>.");
+            n.cycles(20);
+        }
+        assertTrue(small.memory.concepts.size() <= 10);
+        for (Concept c : small.memory) {
+            assertEquals(4, c.taskLinks.getCapacity());
+            assertEquals(5, c.termLinks.getCapacity());
+        }
+        for (Concept c : large.memory) {
+            assertEquals(40, c.taskLinks.getCapacity());
+            assertEquals(50, c.termLinks.getCapacity());
+        }
+    }
+
+    @Test
+    public void testResizeConcepts() throws Exception {
+        NAR n = new NAR(new BagConfig().capacities(100, 10, 10));
+        n.addInput("<a --> b>.");
+        n.addInput("<(*,c,d) --> e>.");
+        n.cycles(10);
+        final int before = n.memory.concepts.size();
+        assertTrue(before > 4);
+
+        final List<Concept> forgotten = new ArrayList<>();
+        n.memory.event.on(Events.ConceptForget.class, new EventObserver() {
+            @Override
+            public void event(Class event, Object[] args) {
+                forgotten.add((Concept) args[0]);
+            }
+        });
+        float highest = 0;
+        for (Concept c : n.memory) {
+            highest = Math.max(highest, c.getPriority());
+        }
+
+        assertEquals(before - 4, n.memory.resizeConcepts(4));
+        assertEquals(4, n.memory.concepts.size());
+        assertEquals(4, n.memory.concepts.getCapacity());
+        assertEquals(4, n.memory.bags.conceptBagSize);
+        assertEquals(before - 4, forgotten.size());
+        for (Concept c : forgotten) {
+            assertNull(n.memory.concepts.get(c.name()));
+            assertTrue(c.getPriority() <= n.memory.concepts.getMaxPriority());
+            //the beliefs of forgotten concepts do not answer questions anymore
+            List<Task> candidates = n.memory.beliefIndex.candidates(c.term, new ArrayList<Task>());
+            for (Task t : c.beliefs) {
+                assertFalse(candidates.contains(t));
+            }
+        }
+        assertEquals(highest, n.memory.concepts.getMaxPriority(), 0.001f);
+
+        //the reasoner goes on with the smaller bag
+        n.addInput("<f --> g>.");
+        n.cycles(10);
+        assertTrue(n.memory.concepts.size() <= 4);
+        assertNotNull(n.memory.concept(new Narsese(n).parseTerm("<f --> g>")));
+    }
+
+    @Test
+    public void testLinkBagsOfMemory() {
+        NAR n = new NAR();
+        Memory compact = new Memory(n.new RuntimeParameters(), new LevelBag<>(10, 100), new LevelBag<>(10, 100),
+                new LevelBag<>(10, 100), new LevelBag<>(10, 100));
+        Memory level = new Memory(n.new RuntimeParameters(), new LevelBag<>(10, 100), new LevelBag<>(10, 100),
+                new LevelBag<>(10, 100), new LevelBag<>(10, 100), BagType.Level);
+        BudgetValue b = new BudgetValue(0.5f, 0.5f, 0.5f);
+        assertTrue(compact.conceptualize(b, new Term("a")).taskLinks instanceof CompactBag);
+        Concept c = level.conceptualize(b, new Term("a"));
+        assertTrue(c.taskLinks instanceof LevelBag);
+        assertTrue(c.termLinks instanceof LevelBag);
+    }
+}
@@ -3,6 +3,8 @@ package nars.core.bag;
 import java.util.Iterator;
 import nars.perf.BagPerf.NullItem;
 import nars.storage.Bag;
+import nars.storage.CompactBag;
+import nars.storage.ConcurrentLevelBag;
 import nars.storage.LevelBag;
 import static org.junit.Assert.assertTrue;
 import org.junit.Test;
@@ -64,6 +66,8 @@ public class BagIteratorTest {
     @Test
     public void testBags() {
         testBagIterator(new LevelBag(L, L*2));
+        testBagIterator(new ConcurrentLevelBag(L, L*2));
+        testBagIterator(new CompactBag(L, L*2));
         
     }
     
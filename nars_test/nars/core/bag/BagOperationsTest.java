@@ -4,14 +4,18 @@
  */
 package nars.core.bag;
 
+import java.util.Iterator;
 import nars.main.NAR;
 import nars.entity.BudgetValue;
 import nars.entity.Concept;
 import nars.entity.Item;
 import nars.language.Term;
 import nars.storage.Bag;
+import nars.storage.CompactBag;
+import nars.storage.ConcurrentLevelBag;
 import nars.storage.LevelBag;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import org.junit.Test;
 
@@ -31,6 +35,8 @@ public class BagOperationsTest {
     @Test
     public void testConcept() {
         testBagSequence(new LevelBag(2, 2));    
+        testBagSequence(new ConcurrentLevelBag(2, 2));
+        testBagSequence(new CompactBag(2, 2));
     }
     
     public static void testBagSequence(Bag b) {
@@ -76,9 +82,49 @@ public class BagOperationsTest {
         assertEquals(null, b.putIn(makeConcept("a", 0.2f)));
         assertEquals(null, b.putIn(makeConcept("b", 0.3f)));
         
-        if (b instanceof LevelBag) {
+        if (b instanceof LevelBag || b instanceof ConcurrentLevelBag || b instanceof CompactBag) {
             assertEquals("a", b.putIn(makeConcept("c", 0.1f)).name().toString()); //replaces item on level
         }
         
     }
+
+    @Test
+    public void testChangedInPlace() {
+        testChangedInPlace(new LevelBag(100, 10));
+        testChangedInPlace(new ConcurrentLevelBag(100, 10));
+        testChangedInPlace(new CompactBag(100, 10));
+    }
+
+    public static void testChangedInPlace(Bag b) {
+        Concept a = makeConcept("a", 0.1f), c = makeConcept("c", 0.5f);
+        b.putIn(a);
+        b.putIn(makeConcept("b", 0.3f));
+        b.putIn(c);
+        assertEquals(0.9f, b.getMass(), 0.001f);
+
+        //taken from the level it was put in
+        a.setPriority(0.8f);
+        assertEquals(a, b.take(new Term("a")));
+        assertEquals(0.8f, b.getMass(), 0.001f);
+        assertEquals(2, b.size());
+
+        //moved to the level of its priority
+        c.setPriority(0.05f);
+        assertTrue(b.reprioritize(c));
+        assertEquals(0.35f, b.getMass(), 0.001f);
+        assertEquals(2, b.size());
+        assertEquals(0.05f, b.getMinPriority(), 0.001f);
+        Iterator i = b.iterator();
+        assertTrue(i.hasNext());
+        assertEquals("b", ((Concept) i.next()).name().toString());
+        assertEquals(c, b.take(new Term("c")));
+        assertEquals(0.3f, b.getMass(), 0.001f);
+        assertFalse(b.reprioritize(c));
+
+        //merged in place
+        assertEquals(null, b.putIn(makeConcept("b", 0.7f)));
+        assertEquals(1, b.size());
+        assertEquals(0.7f, b.getMaxPriority(), 0.001f);
+        assertEquals(0.7f, b.getMass(), 0.001f);
+    }
 }
@@ -0,0 +1,108 @@
+package nars.core.bag;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import nars.perf.BagPerf.NullItem;
+import nars.storage.Bag;
+import nars.storage.BagConfig;
+import nars.storage.BagType;
+import nars.storage.CompactBag;
+import nars.storage.LevelBag;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class CompactBagTest {
+
+    static NullItem item(String key, float priority) {
+        NullItem x = new NullItem(priority);
+        x.key = key;
+        return x;
+    }
+
+    static String name(NullItem x) {
+        return x == null ? null : x.key;
+    }
+
+    static List<String> names(Bag<NullItem,CharSequence> b) {
+        List<String> l = new ArrayList<>();
+        for (NullItem x : b) {
+            l.add(x.key);
+        }
+        return l;
+    }
+
+    /** the same operations on both bags, which must select the same items */
+    static void compare(Bag<NullItem,CharSequence> expected, Bag<NullItem,CharSequence> actual, int keys, int operations, long seed) {
+        Random r = new Random(seed);
+        for (int i = 0; i < operations; i++) {
+            float op = r.nextFloat();
+            if (op < 0.5f) {
+                String k = "k" + r.nextInt(keys);
+                float p = r.nextFloat();
+                assertEquals(name(expected.putIn(item(k, p))), name(actual.putIn(item(k, p))));
+            } else if (op < 0.8f) {
+                assertEquals(name(expected.takeNext()), name(actual.takeNext()));
+            } else if (op < 0.95f) {
+                String k = "k" + r.nextInt(keys);
+                assertEquals(name(expected.take(k)), name(actual.take(k)));
+            } else {
+                assertEquals(name(expected.peekNext()), name(actual.peekNext()));
+            }
+            assertEquals(expected.size(), actual.size());
+            assertEquals(expected.getMass(), actual.getMass(), 0.001f);
+            assertEquals(expected.getAveragePriority(), actual.getAveragePriority(), 0.0001f);
+        }
+        assertEquals(names(expected), names(actual));
+        assertEquals(expected.keySet(), actual.keySet());
+    }
+
+    @Test
+    public void testSelectsLikeLevelBag() {
+        compare(new LevelBag<NullItem,CharSequence>(10, 100), new CompactBag<NullItem,CharSequence>(10, 100), 300, 20000, 1);
+        compare(new LevelBag<NullItem,CharSequence>(10, 100), new CompactBag<NullItem,CharSequence>(10, 100), 60, 20000, 2);
+        compare(new LevelBag<NullItem,CharSequence>(100, 256), new CompactBag<NullItem,CharSequence>(100, 256), 1000, 20000, 3);
+        compare(new LevelBag<NullItem,CharSequence>(3, 7), new CompactBag<NullItem,CharSequence>(3, 7), 20, 5000, 4);
+    }
+
+    @Test
+    public void testGrowsAndShrinks() {
+        CompactBag<NullItem,CharSequence> b = new CompactBag<>(10, 200);
+        for (int i = 0; i < 200; i++) {
+            assertNull(b.putIn(item("k" + i, (i % 10) / 10f + 0.05f)));
+        }
+        assertEquals(200, b.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals("k" + i, b.get("k" + i).key);
+        }
+        for (int i = 0; i < 200; i += 2) {
+            assertEquals("k" + i, b.take("k" + i).key);
+        }
+        assertEquals(100, b.size());
+        for (int i = 0; i < 200; i++) {
+            assertEquals(i % 2 == 0, b.get("k" + i) == null);
+        }
+        assertEquals(60, b.setCapacity(40).size());
+        assertEquals(40, b.size());
+        while (b.takeNext() != null) {
+        }
+        assertEquals(0, b.size());
+        assertEquals(0, b.getMass(), 0.0001f);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testCapacityLimited() {
+        new CompactBag<NullItem,CharSequence>(10, 100).setCapacity(CompactBag.MAX_CAPACITY + 1);
+    }
+
+    @Test
+    public void testLinkBagsOfConcepts() {
+        assertTrue(new BagConfig().newTaskLinkBag() instanceof CompactBag);
+        assertTrue(new BagConfig().newConceptBag() instanceof LevelBag);
+        assertTrue(new BagConfig(BagType.Level, BagType.Level).newTermLinkBag() instanceof LevelBag);
+        //too large to be compact
+        assertTrue(BagType.Compact.newBag(10, CompactBag.MAX_CAPACITY + 1) instanceof LevelBag);
+    }
+}
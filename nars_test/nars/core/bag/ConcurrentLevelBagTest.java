@@ -0,0 +1,41 @@
+package nars.core.bag;
+
+import nars.perf.BagPerf.NullItem;
+import nars.perf.ConcurrentBagFairness;
+import nars.storage.ConcurrentLevelBag;
+import nars.storage.LevelBag;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class ConcurrentLevelBagTest {
+
+    final int levels = 10, capacity = 100, bins = 10;
+
+    @Test
+    public void testNoItemLostUnderContention() {
+        ConcurrentLevelBag<NullItem,CharSequence> b = ConcurrentBagFairness.fill(new ConcurrentLevelBag<>(levels, capacity));
+        assertEquals(capacity, b.size());
+
+        new ConcurrentBagFairness(b, 4, 20000, bins);
+
+        assertEquals(capacity, b.size());
+        assertEquals(capacity, b.keySet().size());
+        int count = 0;
+        for (NullItem x : b) {
+            count++;
+        }
+        assertEquals(capacity, count);
+        assertEquals(capacity * 0.5f, b.getMass(), 0.01f);
+    }
+
+    @Test
+    public void testFairnessUnderContention() {
+        ConcurrentBagFairness reference = new ConcurrentBagFairness(ConcurrentBagFairness.fill(new LevelBag<>(levels, capacity)), 1, 40000, bins);
+        ConcurrentBagFairness concurrent = new ConcurrentBagFairness(ConcurrentBagFairness.fill(new ConcurrentLevelBag<>(levels, capacity)), 4, 10000, bins);
+
+        //higher priority items are selected more often
+        assertTrue(concurrent.selected[bins-1] > concurrent.selected[0]);
+        assertTrue(ConcurrentBagFairness.distance(reference.selected, concurrent.selected) < 0.1);
+    }
+}
@@ -0,0 +1,108 @@
+package nars.core.bag;
+
+import nars.entity.BudgetValue;
+import nars.entity.Concept;
+import nars.inference.BudgetFunctions;
+import nars.io.Narsese;
+import nars.language.Term;
+import nars.main.NAR;
+import nars.main.Parameters;
+import nars.storage.Bag;
+import nars.storage.BagConfig;
+import nars.storage.BagType;
+import nars.storage.CompactBag;
+import nars.storage.Forgetting;
+import nars.storage.LevelBag;
+import nars.storage.Memory;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+public class LazyForgettingTest {
+
+    @Test
+    public void testDecayWithTime() {
+        Memory m = new NAR(new BagConfig().forgetLazily()).memory;
+        Forgetting f = m.conceptForgetting;
+        assertNotNull(f);
+        BudgetValue b = new BudgetValue(0.9f, 0.5f, 0.5f);
+        b.setForgetting(f);
+        assertEquals(0.9f, b.getPriority(), 0.0001f);
+
+        //once per forget cycles the priority above the quality decays by the durability
+        final float q = 0.5f * Parameters.FORGET_QUALITY_RELATIVE;
+        m.skip((long) f.cycles());
+        assertEquals(q + (0.9f - q) * 0.5f, b.getPriority(), 0.0001f);
+        //read twice, decayed once
+        assertEquals(q + (0.9f - q) * 0.5f, b.getPriority(), 0.0001f);
+        m.skip(3 * (long) f.cycles());
+        assertEquals(q + (0.9f - q) * 0.0625f, b.getPriority(), 0.0001f);
+        assertEquals(b.getPriority(), BudgetFunctions.decay(0.9f, 0.5f, 0.5f, 4 * (long) f.cycles(), f.cycles(), Parameters.FORGET_QUALITY_RELATIVE), 0.0001f);
+
+        //a priority set is the one of the current time
+        b.setPriority(0.8f);
+        assertEquals(0.8f, b.getPriority(), 0.0001f);
+        b.setForgetting(null);
+        m.skip(100);
+        assertEquals(0.8f, b.getPriority(), 0.0001f);
+    }
+
+    @Test
+    public void testRebalance() {
+        testRebalance(new LevelBag(10, 20));
+        testRebalance(new CompactBag(10, 20));
+    }
+
+    public static void testRebalance(Bag b) {
+        Memory m = new NAR(new BagConfig().forgetLazily()).memory;
+        b.setForgetting(m.conceptForgetting);
+        for (int i = 0; i < 20; i++) {
+            b.putIn(new Concept(new BudgetValue(0.95f, 0.5f, 0), new Term("c" + i), m));
+        }
+        assertEquals(19, b.getMass(), 0.001f);
+        //not forgotten when put back
+        Concept c = (Concept) b.takeNext();
+        b.putBack(c, 1, m);
+        assertEquals(0.95f, c.getPriority(), 0.0001f);
+
+        m.skip(10 * (long) m.conceptForgetting.cycles());
+        assertTrue(b.getMaxPriority() < 0.01f);
+        //all moved in batches, each looking at no more items than its size
+        for (int i = 0; i < 4; i++) {
+            assertEquals(5, b.rebalance(5));
+        }
+        assertEquals(0, b.rebalance(20));
+        assertEquals(20, b.size());
+        assertEquals(b.getTotalPriority(), b.getMass(), 0.001f);
+        assertSame(m.conceptForgetting, b.getForgetting());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotForConcurrentBags() {
+        new NAR(new BagConfig(BagType.ConcurrentLevel).forgetLazily());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testNotForParallelFiring() {
+        NAR.RuntimeParameters p = new NAR().new RuntimeParameters();
+        p.conceptsFiredPerCycle.set(4);
+        new Memory(p, new BagConfig().forgetLazily());
+    }
+
+    @Test
+    public void testReasonerForgetsLazily() throws Exception {
+        NAR n = new NAR(new BagConfig().forgetLazily());
+        n.addInput("<a --> b>.");
+        n.addInput("<b --> c>.");
+        n.cycles(100);
+        Concept c = n.memory.concept(new Narsese(n).parseTerm("<a --> c>"));
+        assertNotNull(c);
+        float p = c.getPriority();
+        //an idle reasoner decays without cycles
+        n.memory.skip(1000);
+        assertTrue(c.getPriority() < p);
+        assertTrue(c.taskLinks.getForgetting() == n.memory.taskLinkForgetting);
+    }
+}
@@ -14,7 +14,7 @@ import nars.storage.Bag;
 import automenta.vivisect.timeline.Chart;
 import automenta.vivisect.timeline.MultiTimeline;
 import automenta.vivisect.timeline.StackedPercentageChart;
-import nars.control.DerivationContext;
+import nars.entity.Concept;
 
 /**
  **
@@ -55,7 +55,7 @@ public class BagFairness {
                 if (nextConceptPriority!=-1)
                     throw new RuntimeException("Only supports 1 concept per cycle");
                 
-                nextConceptPriority = ((DerivationContext)arguments[0]).getCurrentConcept().getPriority();
+                nextConceptPriority = ((Concept)arguments[0]).getPriority();
             }
             
         });
@@ -31,6 +31,7 @@ import nars.entity.BudgetValue;
 import nars.entity.Item;
 import nars.language.Interval.PortableDouble;
 import nars.storage.Bag;
+import nars.storage.ConcurrentLevelBag;
 import nars.storage.LevelBag;
 
 /**
@@ -102,7 +103,7 @@ public class BagPerf {
         public String key;
     
         public NullItem() {
-            this(Memory.randomNumber.nextFloat() * (1.0f - Parameters.TRUTH_EPSILON));
+            this(Memory.random().nextFloat() * (1.0f - Parameters.TRUTH_EPSILON));
         }
 
         public NullItem(float priority) {
@@ -119,7 +120,7 @@ public class BagPerf {
     
     public static void randomBagIO(Bag<NullItem,CharSequence> b, int accesses, double insertProportion) {
         for (int i = 0; i < accesses; i++) {
-            if (Memory.randomNumber.nextFloat() > insertProportion) {
+            if (Memory.random().nextFloat() > insertProportion) {
                 //remove
                 b.takeNext();
             }
@@ -148,7 +149,7 @@ public class BagPerf {
     //final boolean first, final int levels, final int levelCapacity, 
     public static double getTime(String label, BagBuilder b, final int iterations, final int randomAccesses, final float insertRatio, int repeats, int warmups) {
         
-        Memory.resetStatic();
+        Memory.random().setSeed(1);
         
         Performance p = new Performance(label, repeats, warmups) {
 
@@ -233,7 +234,8 @@ public class BagPerf {
                 int randomAccesses = accessesPerItem * items;
                         
                 Bag[] bags = new Bag[] { 
-                    new LevelBag(levels, items)                        
+                    new LevelBag(levels, items),
+                    new ConcurrentLevelBag(levels, items)
                 };
                 
                 Map<Bag, Double> t = BagPerf.compare(                    
@@ -0,0 +1,68 @@
+package nars.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import nars.io.Narsese;
+import nars.io.Symbols;
+import nars.language.Term;
+import nars.language.Variables;
+import nars.main.NAR;
+import nars.storage.TermIndex;
+
+/**
+ * Time of finding the terms of the generated knowledge base of InputPerf which
+ * unify with questions, by the candidates of a TermIndex compared to unifying
+ * with every term, for growing knowledge bases
+ */
+public class BeliefIndexPerf {
+
+    static final String[] questions = {
+        "<(*,a123,?1) --> ?2>",
+        "<(*,?1,{b7}) --> (/,r7,_,c7)>",
+        "<?1 --> (/,r3,_,?2)>"
+    };
+
+    public static void main(String[] args) throws Exception {
+        final Narsese narsese = new Narsese(new NAR());
+        final Term[] queries = new Term[questions.length];
+        for (int i = 0; i < questions.length; i++) {
+            queries[i] = narsese.parseTerm(questions[i]);
+        }
+        for (int sentences = 1000; sentences <= 100000; sentences *= 10) {
+            final List<Term> terms = new ArrayList<>(sentences);
+            final TermIndex<Term> index = new TermIndex<>();
+            for (String line : InputPerf.knowledgeBase(sentences).split("\n")) {
+                final Term t = narsese.parseTask(line).getTerm();
+                terms.add(t);
+                index.add(t, t);
+            }
+            for (int r = 0; r < 5; r++) {
+                final StringBuilder sb = new StringBuilder(sentences + " terms:");
+                for (final Term q : queries) {
+                    int answers = 0, candidates = 0;
+                    long t0 = System.nanoTime();
+                    for (final Term t : index.candidates(q, new ArrayList<Term>())) {
+                        candidates++;
+                        if (Variables.hasSubstitute(Symbols.VAR_QUERY, q, t)) {
+                            answers++;
+                        }
+                    }
+                    long t1 = System.nanoTime();
+                    int scanned = 0;
+                    for (final Term t : terms) {
+                        if (Variables.hasSubstitute(Symbols.VAR_QUERY, q, t)) {
+                            scanned++;
+                        }
+                    }
+                    long t2 = System.nanoTime();
+                    if (scanned != answers) {
+                        throw new IllegalStateException(q + ": " + answers + " answers, scan " + scanned);
+                    }
+                    sb.append(" | ").append(answers).append(" of ").append(candidates).append(" candidates ")
+                      .append((t1 - t0) / 1000).append(" us, scan ").append((t2 - t1) / 1000).append(" us");
+                }
+                System.out.println(sb);
+            }
+        }
+    }
+}
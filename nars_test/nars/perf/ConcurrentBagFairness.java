@@ -0,0 +1,130 @@
+package nars.perf;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import nars.io.Texts;
+import nars.perf.BagPerf.NullItem;
+import nars.storage.Bag;
+import nars.storage.ConcurrentLevelBag;
+import nars.storage.LevelBag;
+
+/**
+ * Measures how often items of each priority bin are selected by takeNext
+ * when a bag is cycled (takeNext + putIn) by several threads at once,
+ * compared to a LevelBag cycled by one thread.
+ *
+ * Prints CSV: one line per priority bin with the fraction of selections,
+ * then the total variation distance to the LevelBag distribution
+ * and the throughput of each run.
+ */
+public class ConcurrentBagFairness {
+
+    public final double[] selected;
+    public final double opsPerMS;
+
+    /**
+     * @param b a full bag of NullItems
+     * @param threads number of threads cycling the bag
+     * @param takes number of takeNext per thread
+     */
+    public ConcurrentBagFairness(final Bag<NullItem,CharSequence> b, final int threads, final int takes, final int bins) {
+        final AtomicLongArray count = new AtomicLongArray(bins);
+
+        final List<Thread> workers = new ArrayList<>(threads);
+        for (int t = 0; t < threads; t++) {
+            workers.add(new Thread() {
+                @Override public void run() {
+                    for (int i = 0; i < takes; i++) {
+                        NullItem x = b.takeNext();
+                        if (x == null) {
+                            continue;
+                        }
+                        count.incrementAndGet(Bag.bin(x.getPriority(), bins-1));
+                        b.putIn(x);
+                    }
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        for (Thread t : workers) {
+            t.start();
+        }
+        for (Thread t : workers) {
+            try {
+                t.join();
+            } catch (InterruptedException ex) {
+                throw new RuntimeException(ex);
+            }
+        }
+        long end = System.nanoTime();
+
+        long total = 0;
+        for (int i = 0; i < bins; i++) {
+            total += count.get(i);
+        }
+        selected = new double[bins];
+        for (int i = 0; i < bins; i++) {
+            selected[i] = total > 0 ? ((double)count.get(i)) / total : 0;
+        }
+        opsPerMS = ((double)threads) * takes / ((end - start) / 1.0e6);
+    }
+
+    /** fills a bag with items of evenly spread priority */
+    public static <B extends Bag<NullItem,CharSequence>> B fill(final B b) {
+        final int n = b.getCapacity();
+        for (int i = 0; i < n; i++) {
+            b.putIn(new NullItem((i + 0.5f) / n));
+        }
+        return b;
+    }
+
+    public static double distance(final double[] x, final double[] y) {
+        double d = 0;
+        for (int i = 0; i < x.length; i++) {
+            d += Math.abs(x[i] - y[i]);
+        }
+        return d / 2.0;
+    }
+
+    public static void main(String[] args) {
+        final int levels = 100, capacity = 1000, takes = 200000, bins = 10;
+        final int maxThreads = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+        ConcurrentBagFairness reference = new ConcurrentBagFairness(fill(new LevelBag<>(levels, capacity)), 1, takes, bins);
+
+        List<String> header = new ArrayList<>();
+        header.add("bin");
+        header.add("LevelBag x1");
+        List<ConcurrentBagFairness> runs = new ArrayList<>();
+        for (int threads = 1; threads <= maxThreads; threads *= 2) {
+            header.add("ConcurrentLevelBag x" + threads);
+            runs.add(new ConcurrentBagFairness(fill(new ConcurrentLevelBag<>(levels, capacity)), threads, takes / threads, bins));
+        }
+        BagPerf.printCSVLine(System.out, header);
+
+        for (int b = 0; b < bins; b++) {
+            List<String> line = new ArrayList<>();
+            line.add(Texts.n2Slow(((float)b) / bins));
+            line.add(Texts.n4((float)reference.selected[b]));
+            for (ConcurrentBagFairness r : runs) {
+                line.add(Texts.n4((float)r.selected[b]));
+            }
+            BagPerf.printCSVLine(System.out, line);
+        }
+
+        List<String> distance = new ArrayList<>();
+        distance.add("distance");
+        distance.add("0");
+        List<String> throughput = new ArrayList<>();
+        throughput.add("ops/ms");
+        throughput.add(Texts.n2Slow((float)reference.opsPerMS));
+        for (ConcurrentBagFairness r : runs) {
+            distance.add(Texts.n4((float)distance(reference.selected, r.selected)));
+            throughput.add(Texts.n2Slow((float)r.opsPerMS));
+        }
+        BagPerf.printCSVLine(System.out, distance);
+        BagPerf.printCSVLine(System.out, throughput);
+    }
+}
@@ -0,0 +1,46 @@
+package nars.perf;
+
+import java.io.IOException;
+import java.io.StringReader;
+import nars.main.BatchInput;
+import nars.main.NAR;
+
+/**
+ * Throughput of loading a knowledge base of generated sentences, in sentences
+ * per second, by NAR.addInput(String) per line and by the batched
+ * NAR.addInput(Reader)
+ */
+public class InputPerf {
+
+    static String knowledgeBase(final int sentences) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < sentences; i++) {
+            sb.append("<(*,a").append(i).append(",{b").append(i % 100).append("}) --> (/,r").append(i % 10)
+              .append(",_,c").append(i % 1000).append(")>. %1.00;0.90%\n");
+        }
+        return sb.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        final int sentences = (args.length > 0) ? Integer.parseInt(args[0]) : 100000;
+        final String kb = knowledgeBase(sentences);
+        final String[] lines = kb.split("\n");
+
+        for (int r = 0; r < 3; r++) {
+            NAR n = new NAR();
+            long start = System.nanoTime();
+            final int single = Math.min(sentences, 2000); //one cycle per line, too slow for all
+            for (int i = 0; i < single; i++) {
+                n.addInput(lines[i]);
+                n.cycle();
+            }
+            double perLine = single / ((System.nanoTime() - start) / 1.0e9);
+
+            n = new NAR();
+            BatchInput b = n.addInput(new StringReader(kb));
+
+            System.out.println("addInput(String)+cycle: " + Math.round(perLine) + " sentences/s, " +
+                    "addInput(Reader): " + b);
+        }
+    }
+}
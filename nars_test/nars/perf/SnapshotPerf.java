@@ -0,0 +1,69 @@
+package nars.perf;
+
+import java.io.File;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import nars.main.NAR;
+import nars.storage.Checkpoint;
+
+/**
+ * Time and size of binary memory snapshots compared to the Java
+ * serialization of NAR.SaveToFile, for a memory after reasoning about the
+ * generated knowledge base of InputPerf, followed by the pauses and sizes of
+ * incremental checkpoints while it keeps reasoning
+ */
+public class SnapshotPerf {
+
+    public static void main(String[] args) throws Exception {
+        final int sentences = (args.length > 0) ? Integer.parseInt(args[0]) : 20000;
+        final int cycles = (args.length > 1) ? Integer.parseInt(args[1]) : 1000;
+        NAR n = new NAR();
+        n.addInput(new StringReader(InputPerf.knowledgeBase(sentences)));
+        n.cycles(cycles);
+        System.out.println(n.memory.concepts.size() + " concepts after " + n.time() + " cycles");
+
+        File snapshot = File.createTempFile("memory", ".snapshot");
+        File serialized = File.createTempFile("memory", ".ser");
+        snapshot.deleteOnExit();
+        serialized.deleteOnExit();
+
+        for (int r = 0; r < 5; r++) {
+            long t0 = System.nanoTime();
+            n.saveSnapshot(snapshot.getPath());
+            long t1 = System.nanoTime();
+            new NAR().loadSnapshot(snapshot.getPath());
+            long t2 = System.nanoTime();
+            n.SaveToFile(serialized.getPath());
+            long t3 = System.nanoTime();
+            NAR.LoadFromFile(serialized.getPath());
+            long t4 = System.nanoTime();
+
+            System.out.println("snapshot: " + snapshot.length() / 1024 + " KiB, save " + ms(t1 - t0) + " ms, load " + ms(t2 - t1) + " ms" +
+                    " | serialization: " + serialized.length() / 1024 + " KiB, save " + ms(t3 - t2) + " ms, load " + ms(t4 - t3) + " ms");
+        }
+
+        //incremental checkpoints every 100 cycles while reasoning goes on
+        Path dir = Files.createTempDirectory("checkpoint");
+        try (Checkpoint c = new Checkpoint(n.memory, dir, 0, 20)) {
+            for (int r = 0; r < 25; r++) {
+                n.cycles(100);
+                c.checkpoint();
+                System.out.println("checkpoint " + (r + 1) + ": " + c.lastConcepts + " of " + n.memory.concepts.size() + " concepts, " +
+                        c.lastSize / 1024 + " KiB, pause " + c.lastPause / 1000 + " us");
+            }
+        }
+        long t0 = System.nanoTime();
+        Checkpoint.restore(dir, new NAR().memory);
+        System.out.println("restore: " + ms(System.nanoTime() - t0) + " ms");
+        for (File f : dir.toFile().listFiles()) {
+            f.delete();
+        }
+        dir.toFile().delete();
+    }
+
+    static long ms(final long nanos) {
+        return nanos / 1000000;
+    }
+
+}